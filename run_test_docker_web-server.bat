@@ -25,7 +25,7 @@ call :CheckIfContainerExist %TOMCAT_WEB_APP_CONTAINER_NAME%
 if "%CONTAINER_EXIST%"=="false" (
     :: создание контейнера tomcat
     set DOCKER_DATABASE_URL="jdbc:postgresql://%POSTGRES_CONTAINER_NAME%:5432/postgres"
-    docker run --name %TOMCAT_WEB_APP_CONTAINER_NAME% -d -p 8081:8080 -e JWT_SECURITY_KEY=%JWT_SECURITY_KEY% -e JWT_SECURITY_KEY_LIFETIME=%JWT_SECURITY_KEY_LIFETIME% -e DATABASE_PASSWORD=%DATABASE_PASSWORD% -e DATABASE_USERNAME=%DATABASE_USERNAME% -e DATABASE_URL=!DOCKER_DATABASE_URL! %TOMCAT_WEB_APP_IMAGE_NAME% 1>nul
+    docker run --name %TOMCAT_WEB_APP_CONTAINER_NAME% -d -p 8081:8080 -e JWT_SECURITY_KEY=%JWT_SECURITY_KEY% -e JWT_SECURITY_KEY_LIFETIME=%JWT_SECURITY_KEY_LIFETIME% -e DATABASE_PASSWORD=%DATABASE_PASSWORD% -e DATABASE_USERNAME=%DATABASE_USERNAME% -e DATABASE_URL=!DOCKER_DATABASE_URL! -e LIQUIBASE_MODE=migrate %TOMCAT_WEB_APP_IMAGE_NAME% 1>nul
 )
 
 :: подключение контейнеров к одной сети
@@ -5,9 +5,11 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @Configuration
 @EnableAspectJAutoProxy(proxyTargetClass = true)
+@EnableScheduling
 @ComponentScan("org.senla_project.application")
 public class ApplicationConfig {
 
@@ -1,17 +1,36 @@
 package org.senla_project.application.config;
 
-import org.postgresql.ds.PGSimpleDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.senla_project.application.util.datasource.PoolMetricsTrackerFactory;
+import org.senla_project.application.util.datasource.ReadYourWritesTracker;
+import org.senla_project.application.util.datasource.ReplicaRoutingDataSource;
+import org.senla_project.application.util.datasource.ShardTransactionLog;
+import org.senla_project.application.util.datasource.ShardedDataSources;
+import org.senla_project.application.util.datasource.SlowQueryLog;
+import org.senla_project.application.util.datasource.SlowQueryLoggingDataSource;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.PropertySource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 
 import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 @Configuration
 @PropertySource("classpath:application.properties")
 public class DataSourceConfig {
 
+    @Autowired
+    private PoolMetricsTrackerFactory poolMetricsTrackerFactory;
+    @Autowired
+    private SlowQueryLog slowQueryLog;
+
     @Value("${DATABASE_URL}")
     private String url;
     @Value("${DATABASE_USERNAME}")
@@ -19,13 +38,120 @@ public class DataSourceConfig {
     @Value("${DATABASE_PASSWORD}")
     private String password;
 
+    @Value("${datasource.driver}")
+    private String driverClassName;
+    @Value("${datasource.pool.name}")
+    private String poolName;
+    @Value("${datasource.pool.min_size}")
+    private int minPoolSize;
+    @Value("${datasource.pool.max_size}")
+    private int maxPoolSize;
+    @Value("${datasource.pool.acquisition_timeout_ms}")
+    private long acquisitionTimeout;
+    @Value("${datasource.pool.idle_timeout_ms}")
+    private long idleTimeout;
+    @Value("${datasource.pool.max_lifetime_ms}")
+    private long maxLifetime;
+    @Value("${datasource.pool.leak_detection_threshold_ms}")
+    private long leakDetectionThreshold;
+    @Value("${datasource.statement_cache.prepare_threshold}")
+    private String prepareThreshold;
+    @Value("${datasource.statement_cache.queries}")
+    private String statementCacheQueries;
+    @Value("${datasource.statement_cache.size_mib}")
+    private String statementCacheSizeMiB;
+    @Value("${datasource.rewrite_batched_inserts}")
+    private String rewriteBatchedInserts;
+
+    @Value("${DATABASE_REPLICA_URLS:}")
+    private String replicaUrls;
+    @Value("${datasource.replica.health_check_interval_ms}")
+    private long replicaHealthCheckInterval;
+    @Value("${datasource.replica.health_check_timeout_s}")
+    private int replicaHealthCheckTimeout;
+    @Value("${datasource.replica.read_your_writes_window_ms}")
+    private long readYourWritesWindow;
+
+    @Value("${DATABASE_SHARD_URLS:}")
+    private String shardUrls;
+    @Value("${datasource.shard.virtual_nodes}")
+    private int shardVirtualNodes;
+    @Value("${datasource.shard.scatter_threads}")
+    private int shardScatterThreads;
+
     @Bean
+    @Primary
     public DataSource dataSource() {
-        PGSimpleDataSource dataSource = new PGSimpleDataSource();
-        dataSource.setURL(url);
-        dataSource.setUser(username);
-        dataSource.setPassword(password);
-        return dataSource;
+        // Defers the physical connection until the first statement, when the transaction's read-only flag is known
+        return new LazyConnectionDataSourceProxy(new SlowQueryLoggingDataSource(routingDataSource(), slowQueryLog));
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource routingDataSource() {
+        List<DataSource> replicas = new ArrayList<>();
+        List<String> urls = splitUrls(replicaUrls);
+        for (int i = 0; i < urls.size(); i++) {
+            replicas.add(makeHikariDataSource(poolName + "-replica-" + (i + 1), urls.get(i), true));
+        }
+
+        return new ReplicaRoutingDataSource(
+                makeHikariDataSource(poolName, url, false),
+                replicas,
+                new ReadYourWritesTracker(readYourWritesWindow),
+                replicaHealthCheckInterval,
+                replicaHealthCheckTimeout
+        );
+    }
+
+    // The shards of the collaborations; the list order names them, so new shards must be appended to DATABASE_SHARD_URLS
+    @Bean(destroyMethod = "close")
+    public ShardedDataSources shardedDataSources() {
+        List<DataSource> shards = new ArrayList<>();
+        List<String> urls = splitUrls(shardUrls);
+        for (int i = 0; i < urls.size(); i++) {
+            shards.add(makeHikariDataSource(poolName + "-" + ShardedDataSources.SHARD_KEY_PREFIX + (i + 1), urls.get(i), false));
+        }
+
+        return new ShardedDataSources(shards, new ShardTransactionLog(dataSource()), shardVirtualNodes, shardScatterThreads);
+    }
+
+    private static List<String> splitUrls(String urls) {
+        return Arrays.stream(urls.split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .toList();
+    }
+
+    private HikariDataSource makeHikariDataSource(String poolName, String jdbcUrl, boolean replica) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(poolName);
+        config.setDriverClassName(driverClassName);
+        config.setJdbcUrl(jdbcUrl);
+        config.setUsername(username);
+        config.setPassword(password);
+
+        config.setMinimumIdle(minPoolSize);
+        config.setMaximumPoolSize(maxPoolSize);
+        config.setConnectionTimeout(acquisitionTimeout);
+        config.setIdleTimeout(idleTimeout);
+        config.setMaxLifetime(maxLifetime);
+        config.setLeakDetectionThreshold(leakDetectionThreshold);
+
+        // Server-side prepared statements are cached per physical connection by the pgjdbc driver
+        config.addDataSourceProperty("prepareThreshold", prepareThreshold);
+        config.addDataSourceProperty("preparedStatementCacheQueries", statementCacheQueries);
+        config.addDataSourceProperty("preparedStatementCacheSizeMiB", statementCacheSizeMiB);
+        // Lets the driver turn Hibernate's JDBC batches into multi-row INSERT statements
+        config.addDataSourceProperty("reWriteBatchedInserts", rewriteBatchedInserts);
+
+        if (replica) {
+            config.setReadOnly(true);
+            // An unreachable replica must not stop the application; the health check keeps it out of rotation
+            config.setInitializationFailTimeout(-1);
+        }
+
+        config.setMetricsTrackerFactory(poolMetricsTrackerFactory);
+        return new HikariDataSource(config);
     }
 
 }
@@ -1,7 +1,9 @@
 package org.senla_project.application.config;
 
-import liquibase.integration.spring.SpringLiquibase;
-import lombok.RequiredArgsConstructor;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import org.senla_project.application.util.datasource.ShardedDataSources;
+import org.senla_project.application.util.migration.SchemaVersionCheck;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -9,25 +11,49 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.PropertySource;
 
 import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
 
 @Configuration
 @PropertySource("classpath:application.properties")
 public class LiquibaseConfig {
 
+    public static final String MIGRATE_MODE = "migrate";
+
     @Autowired
     private DataSource dataSource;
 
-    @Value("${liquibase.driver}")
-    String liquibaseDriver;
     @Value("${liquibase.changeLogFile}")
     String changeLogFile;
+    @Value("${liquibase.shardChangeLogFile}")
+    String shardChangeLogFile;
+    // Changelogs are applied by MigrationRunner; a single node may still apply them itself with LIQUIBASE_MODE=migrate
+    @Value("${LIQUIBASE_MODE:validate}")
+    String mode;
 
+    // Refuses to start against a schema that is behind the changelogs or was migrated from edited ones.
+    // The shards hold only the collaboration tables and have a changelog of their own
     @Bean
-    public SpringLiquibase liquibase() {
-        SpringLiquibase liquibase = new SpringLiquibase();
-        liquibase.setChangeLog(changeLogFile);
-        liquibase.setDataSource(dataSource);
-        return liquibase;
+    public InitializingBean schemaVersionCheck(ShardedDataSources shardedDataSources) {
+        return () -> {
+            ClassLoaderResourceAccessor resourceAccessor = new ClassLoaderResourceAccessor(getClass().getClassLoader());
+            SchemaVersionCheck check = new SchemaVersionCheck(changeLogFile, resourceAccessor);
+            SchemaVersionCheck shardCheck = new SchemaVersionCheck(shardChangeLogFile, resourceAccessor);
+
+            List<String> mismatches = new ArrayList<>();
+            if (MIGRATE_MODE.equals(mode)) check.migrate(dataSource);
+            check.findMismatches(dataSource).forEach(mismatch -> mismatches.add("main database: " + mismatch));
+            for (String shardKey : shardedDataSources.getShardKeys()) {
+                DataSource shard = shardedDataSources.getDataSource(shardKey);
+                if (MIGRATE_MODE.equals(mode)) shardCheck.migrate(shard);
+                shardCheck.findMismatches(shard).forEach(mismatch -> mismatches.add(shardKey + ": " + mismatch));
+            }
+
+            if (!mismatches.isEmpty()) {
+                throw new IllegalStateException("The schema does not match the changelogs, run MigrationRunner first:\n"
+                        + String.join("\n", mismatches));
+            }
+        };
     }
 
 }
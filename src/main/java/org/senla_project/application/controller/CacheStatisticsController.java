@@ -0,0 +1,24 @@
+package org.senla_project.application.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.senla_project.application.dto.CacheRegionStatisticsDto;
+import org.senla_project.application.service.CacheStatisticsService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/cache")
+@RequiredArgsConstructor
+public class CacheStatisticsController {
+
+    final private CacheStatisticsService service;
+
+    @GetMapping("/regions")
+    @ResponseStatus(HttpStatus.OK)
+    public List<CacheRegionStatisticsDto> getCacheRegionStatistics() {
+        return service.findCacheRegionStatistics();
+    }
+
+}
@@ -2,13 +2,23 @@ package org.senla_project.application.controller;
 
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import org.senla_project.application.dto.BatchLookupDto;
 import org.senla_project.application.dto.CollaborationCreateDto;
 import org.senla_project.application.dto.CollaborationResponseDto;
+import org.senla_project.application.dto.CollaborationsJoiningCreateDto;
+import org.senla_project.application.dto.CollaborationsJoiningResponseDto;
 import org.senla_project.application.service.CollaborationService;
+import org.senla_project.application.service.CollaborationsJoiningService;
+import org.senla_project.application.util.http.MergePatch;
+import org.senla_project.application.util.http.VersionTag;
+import org.senla_project.application.util.pagination.KeysetPage;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -17,14 +27,23 @@ import java.util.UUID;
 public class CollaborationController implements DefaultControllerInterface<UUID, CollaborationCreateDto, CollaborationResponseDto> {
 
     final private CollaborationService service;
+    final private CollaborationsJoiningService collaborationsJoiningService;
 
     @Override
-    @GetMapping("/all")
+    @GetMapping(value = "/all", params = "page")
     @ResponseStatus(HttpStatus.OK)
     public List<CollaborationResponseDto> getAllElements(@RequestParam(name="page") int pageNumber) {
         return service.findAllElements(pageNumber);
     }
 
+    @Override
+    @GetMapping(value = "/all", params = "!page")
+    @ResponseStatus(HttpStatus.OK)
+    public KeysetPage<CollaborationResponseDto> getAllElements(@RequestParam(name = "cursor", required = false) String cursor,
+                                                                @RequestParam(name = "size", defaultValue = "15") int pageSize) {
+        return service.findAllElements(cursor, pageSize);
+    }
+
     @Override
     @GetMapping("/{id}")
     @ResponseStatus(HttpStatus.OK)
@@ -32,6 +51,13 @@ public class CollaborationController implements DefaultControllerInterface<UUID,
         return service.findElementById(id);
     }
 
+    @Override
+    @GetMapping(params = "ids")
+    @ResponseStatus(HttpStatus.OK)
+    public BatchLookupDto<CollaborationResponseDto> getElementsByIds(@RequestParam(name = "ids") List<UUID> ids) {
+        return service.findElementsByIds(ids);
+    }
+
     @Override
     @PostMapping("/create")
     @ResponseStatus(HttpStatus.CREATED)
@@ -39,11 +65,31 @@ public class CollaborationController implements DefaultControllerInterface<UUID,
         return service.addElement(element);
     }
 
+    @PostMapping("/join/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public List<CollaborationsJoiningResponseDto> addCollabJoins(@NonNull @RequestBody List<CollaborationsJoiningCreateDto> elements) {
+        return collaborationsJoiningService.addElements(elements);
+    }
+
     @Override
+    public CollaborationResponseDto updateElement(@NonNull UUID id, @NonNull CollaborationCreateDto updatedElement) {
+        return service.updateElement(id, updatedElement);
+    }
+
     @PutMapping("/update/{id}")
     @ResponseStatus(HttpStatus.OK)
-    public CollaborationResponseDto updateElement(@NonNull @PathVariable(name = "id") UUID id, @NonNull @RequestBody CollaborationCreateDto updatedElement) {
-        return service.updateElement(id, updatedElement);
+    public CollaborationResponseDto updateElement(@NonNull @PathVariable(name = "id") UUID id,
+                            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                            @NonNull @RequestBody CollaborationCreateDto updatedElement) {
+        return service.updateElement(id, VersionTag.parseIfMatch(ifMatch), updatedElement);
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {MergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    @ResponseStatus(HttpStatus.OK)
+    public CollaborationResponseDto patchElement(@NonNull @PathVariable(name = "id") UUID id,
+                            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                            @NonNull @RequestBody Map<String, Object> patch) {
+        return service.patchElement(id, VersionTag.parseIfMatch(ifMatch), new MergePatch(patch));
     }
 
     @Override
@@ -0,0 +1,24 @@
+package org.senla_project.application.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.senla_project.application.dto.ConnectionPoolMetricsDto;
+import org.senla_project.application.service.ConnectionPoolService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/datasource")
+@RequiredArgsConstructor
+public class ConnectionPoolController {
+
+    final private ConnectionPoolService service;
+
+    @GetMapping("/pools")
+    @ResponseStatus(HttpStatus.OK)
+    public List<ConnectionPoolMetricsDto> getPoolMetrics() {
+        return service.findPoolMetrics();
+    }
+
+}
@@ -1,14 +1,20 @@
 package org.senla_project.application.controller;
 
 import lombok.NonNull;
+import org.senla_project.application.dto.BatchLookupDto;
+import org.senla_project.application.util.pagination.KeysetPage;
 
 import java.util.List;
 
 public interface DefaultControllerInterface<K, T, R> {
     List<R> getAllElements(int pageNumber);
 
+    KeysetPage<R> getAllElements(String cursor, int pageSize);
+
     R getElementById(K id);
 
+    BatchLookupDto<R> getElementsByIds(List<K> ids);
+
     R addElement(@NonNull T element);
 
     R updateElement(@NonNull K id, @NonNull T updatedElement);
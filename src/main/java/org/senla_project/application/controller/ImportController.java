@@ -0,0 +1,29 @@
+package org.senla_project.application.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.senla_project.application.dto.ImportReportDto;
+import org.senla_project.application.dto.ImportRequestDto;
+import org.senla_project.application.service.StackExchangeImportService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/import")
+@RequiredArgsConstructor
+public class ImportController {
+
+    final private StackExchangeImportService service;
+
+    @PostMapping("/stackexchange")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public void importStackExchangeDump(@RequestBody ImportRequestDto request) {
+        service.startImport(request.getImportName(), request.getDumpName());
+    }
+
+    @GetMapping("/stackexchange/{importName}")
+    @ResponseStatus(HttpStatus.OK)
+    public ImportReportDto getImportReport(@PathVariable(name = "importName") String importName) {
+        return service.findReport(importName);
+    }
+
+}
@@ -0,0 +1,51 @@
+package org.senla_project.application.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.senla_project.application.dto.EntityStatisticsDto;
+import org.senla_project.application.dto.PersistenceStatisticsDto;
+import org.senla_project.application.dto.QueryStatisticsDto;
+import org.senla_project.application.dto.SlowQueryDto;
+import org.senla_project.application.service.PersistenceStatisticsService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/persistence")
+@RequiredArgsConstructor
+public class PersistenceStatisticsController {
+
+    final private PersistenceStatisticsService service;
+
+    @GetMapping("/statistics")
+    @ResponseStatus(HttpStatus.OK)
+    public PersistenceStatisticsDto getPersistenceStatistics() {
+        return service.findPersistenceStatistics();
+    }
+
+    @GetMapping("/entities")
+    @ResponseStatus(HttpStatus.OK)
+    public List<EntityStatisticsDto> getEntityStatistics() {
+        return service.findEntityStatistics();
+    }
+
+    @GetMapping("/queries")
+    @ResponseStatus(HttpStatus.OK)
+    public List<QueryStatisticsDto> getQueryStatistics() {
+        return service.findQueryStatistics();
+    }
+
+    @GetMapping("/slow-queries")
+    @ResponseStatus(HttpStatus.OK)
+    public List<SlowQueryDto> getSlowQueries() {
+        return service.findSlowQueries();
+    }
+
+    @DeleteMapping("/statistics")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void clearStatistics() {
+        service.clearStatistics();
+    }
+
+}
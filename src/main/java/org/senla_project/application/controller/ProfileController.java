@@ -2,13 +2,20 @@ package org.senla_project.application.controller;
 
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import org.senla_project.application.dto.BatchLookupDto;
 import org.senla_project.application.dto.ProfileCreateDto;
 import org.senla_project.application.dto.ProfileResponseDto;
 import org.senla_project.application.service.ProfileService;
+import org.senla_project.application.util.http.MergePatch;
+import org.senla_project.application.util.http.VersionTag;
+import org.senla_project.application.util.pagination.KeysetPage;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -19,12 +26,20 @@ public class ProfileController implements DefaultControllerInterface<UUID, Profi
     final private ProfileService service;
 
     @Override
-    @GetMapping("/all")
+    @GetMapping(value = "/all", params = "page")
     @ResponseStatus(HttpStatus.OK)
     public List<ProfileResponseDto> getAllElements(@RequestParam(name="page") int pageNumber) {
         return service.findAllElements(pageNumber);
     }
 
+    @Override
+    @GetMapping(value = "/all", params = "!page")
+    @ResponseStatus(HttpStatus.OK)
+    public KeysetPage<ProfileResponseDto> getAllElements(@RequestParam(name = "cursor", required = false) String cursor,
+                                                          @RequestParam(name = "size", defaultValue = "15") int pageSize) {
+        return service.findAllElements(cursor, pageSize);
+    }
+
     @Override
     @GetMapping("/{id}")
     @ResponseStatus(HttpStatus.OK)
@@ -32,6 +47,13 @@ public class ProfileController implements DefaultControllerInterface<UUID, Profi
         return service.findElementById(id);
     }
 
+    @Override
+    @GetMapping(params = "ids")
+    @ResponseStatus(HttpStatus.OK)
+    public BatchLookupDto<ProfileResponseDto> getElementsByIds(@RequestParam(name = "ids") List<UUID> ids) {
+        return service.findElementsByIds(ids);
+    }
+
     @Override
     @PostMapping("/create")
     @ResponseStatus(HttpStatus.CREATED)
@@ -40,10 +62,24 @@ public class ProfileController implements DefaultControllerInterface<UUID, Profi
     }
 
     @Override
+    public ProfileResponseDto updateElement(@NonNull UUID id, @NonNull ProfileCreateDto updatedElement) {
+        return service.updateElement(id, updatedElement);
+    }
+
     @PutMapping("/update/{id}")
     @ResponseStatus(HttpStatus.OK)
-    public ProfileResponseDto updateElement(@NonNull @PathVariable(name = "id") UUID id, @NonNull @RequestBody ProfileCreateDto updatedElement) {
-        return service.updateElement(id, updatedElement);
+    public ProfileResponseDto updateElement(@NonNull @PathVariable(name = "id") UUID id,
+                            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                            @NonNull @RequestBody ProfileCreateDto updatedElement) {
+        return service.updateElement(id, VersionTag.parseIfMatch(ifMatch), updatedElement);
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {MergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    @ResponseStatus(HttpStatus.OK)
+    public ProfileResponseDto patchElement(@NonNull @PathVariable(name = "id") UUID id,
+                            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                            @NonNull @RequestBody Map<String, Object> patch) {
+        return service.patchElement(id, VersionTag.parseIfMatch(ifMatch), new MergePatch(patch));
     }
 
     @Override
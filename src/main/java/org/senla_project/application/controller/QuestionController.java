@@ -1,14 +1,25 @@
 package org.senla_project.application.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import org.senla_project.application.dto.BatchLookupDto;
 import org.senla_project.application.dto.QuestionCreateDto;
 import org.senla_project.application.dto.QuestionResponseDto;
+import org.senla_project.application.dto.SearchHitDto;
 import org.senla_project.application.service.QuestionService;
+import org.senla_project.application.service.VoteService;
+import org.senla_project.application.util.http.MergePatch;
+import org.senla_project.application.util.http.VersionTag;
+import org.senla_project.application.util.pagination.KeysetPage;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -17,14 +28,23 @@ import java.util.UUID;
 public class QuestionController implements DefaultControllerInterface<UUID, QuestionCreateDto, QuestionResponseDto> {
 
     final private QuestionService service;
+    final private VoteService voteService;
 
     @Override
-    @GetMapping("/all")
+    @GetMapping(value = "/all", params = "page")
     @ResponseStatus(HttpStatus.OK)
     public List<QuestionResponseDto> getAllElements(@RequestParam(name="page") int pageNumber) {
         return service.findAllElements(pageNumber);
     }
 
+    @Override
+    @GetMapping(value = "/all", params = "!page")
+    @ResponseStatus(HttpStatus.OK)
+    public KeysetPage<QuestionResponseDto> getAllElements(@RequestParam(name = "cursor", required = false) String cursor,
+                                                           @RequestParam(name = "size", defaultValue = "15") int pageSize) {
+        return service.findAllElements(cursor, pageSize);
+    }
+
     @Override
     @GetMapping("/{id}")
     @ResponseStatus(HttpStatus.OK)
@@ -32,6 +52,13 @@ public class QuestionController implements DefaultControllerInterface<UUID, Ques
         return service.findElementById(id);
     }
 
+    @Override
+    @GetMapping(params = "ids")
+    @ResponseStatus(HttpStatus.OK)
+    public BatchLookupDto<QuestionResponseDto> getElementsByIds(@RequestParam(name = "ids") List<UUID> ids) {
+        return service.findElementsByIds(ids);
+    }
+
     @Override
     @PostMapping("/create")
     @ResponseStatus(HttpStatus.CREATED)
@@ -39,11 +66,31 @@ public class QuestionController implements DefaultControllerInterface<UUID, Ques
         return service.addElement(element);
     }
 
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public List<QuestionResponseDto> addElements(@NonNull @RequestBody List<QuestionCreateDto> elements) {
+        return service.addElements(elements);
+    }
+
     @Override
+    public QuestionResponseDto updateElement(@NonNull UUID id, @NonNull QuestionCreateDto updatedElement) {
+        return service.updateElement(id, updatedElement);
+    }
+
     @PutMapping("/update/{id}")
     @ResponseStatus(HttpStatus.OK)
-    public QuestionResponseDto updateElement(@NonNull @PathVariable(name = "id") UUID id, @NonNull @RequestBody QuestionCreateDto updatedElement) {
-        return service.updateElement(id, updatedElement);
+    public QuestionResponseDto updateElement(@NonNull @PathVariable(name = "id") UUID id,
+                            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                            @NonNull @RequestBody QuestionCreateDto updatedElement) {
+        return service.updateElement(id, VersionTag.parseIfMatch(ifMatch), updatedElement);
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {MergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
+    @ResponseStatus(HttpStatus.OK)
+    public QuestionResponseDto patchElement(@NonNull @PathVariable(name = "id") UUID id,
+                            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                            @NonNull @RequestBody Map<String, Object> patch) {
+        return service.patchElement(id, VersionTag.parseIfMatch(ifMatch), new MergePatch(patch));
     }
 
     @Override
@@ -53,6 +100,19 @@ public class QuestionController implements DefaultControllerInterface<UUID, Ques
         service.deleteElement(id);
     }
 
+    // Counted in memory and written behind by VoteService, so the change shows up after the next flush
+    @PostMapping("/{id}/upvote")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public void upvote(@NonNull @PathVariable(name = "id") UUID id) {
+        voteService.voteForQuestion(id, true);
+    }
+
+    @PostMapping("/{id}/downvote")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public void downvote(@NonNull @PathVariable(name = "id") UUID id) {
+        voteService.voteForQuestion(id, false);
+    }
+
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
     public QuestionResponseDto findQuestionByParams(@RequestParam(name = "header", required = false) String header,
@@ -60,4 +120,18 @@ public class QuestionController implements DefaultControllerInterface<UUID, Ques
                                                     @RequestParam(name = "author", required = false) String authorName) {
         return service.findQuestionByParams(header, body, authorName);
     }
+
+    @GetMapping("/search")
+    @ResponseStatus(HttpStatus.OK)
+    public KeysetPage<SearchHitDto> searchElements(@RequestParam(name = "q") String query,
+                                                   @RequestParam(name = "cursor", required = false) String cursor,
+                                                   @RequestParam(name = "size", defaultValue = "15") int pageSize) {
+        return service.searchElements(query, cursor, pageSize);
+    }
+
+    @GetMapping("/export")
+    public void exportElements(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        service.exportElements(response.getOutputStream());
+    }
 }
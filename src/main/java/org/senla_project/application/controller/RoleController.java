@@ -2,9 +2,11 @@ package org.senla_project.application.controller;
 
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import org.senla_project.application.dto.BatchLookupDto;
 import org.senla_project.application.dto.RoleCreateDto;
 import org.senla_project.application.dto.RoleResponseDto;
 import org.senla_project.application.service.RoleService;
+import org.senla_project.application.util.pagination.KeysetPage;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
@@ -19,12 +21,20 @@ public class RoleController implements DefaultControllerInterface<UUID, RoleCrea
     final private RoleService service;
 
     @Override
-    @GetMapping("/all")
+    @GetMapping(value = "/all", params = "page")
     @ResponseStatus(HttpStatus.OK)
     public List<RoleResponseDto> getAllElements(@RequestParam(name="page") int pageNumber) {
         return service.findAllElements(pageNumber);
     }
 
+    @Override
+    @GetMapping(value = "/all", params = "!page")
+    @ResponseStatus(HttpStatus.OK)
+    public KeysetPage<RoleResponseDto> getAllElements(@RequestParam(name = "cursor", required = false) String cursor,
+                                                       @RequestParam(name = "size", defaultValue = "15") int pageSize) {
+        return service.findAllElements(cursor, pageSize);
+    }
+
     @Override
     @GetMapping("/{id}")
     @ResponseStatus(HttpStatus.OK)
@@ -32,6 +42,13 @@ public class RoleController implements DefaultControllerInterface<UUID, RoleCrea
         return service.findElementById(id);
     }
 
+    @Override
+    @GetMapping(params = "ids")
+    @ResponseStatus(HttpStatus.OK)
+    public BatchLookupDto<RoleResponseDto> getElementsByIds(@RequestParam(name = "ids") List<UUID> ids) {
+        return service.findElementsByIds(ids);
+    }
+
     @Override
     @PostMapping("/create")
     @ResponseStatus(HttpStatus.CREATED)
@@ -1,13 +1,18 @@
 package org.senla_project.application.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import org.senla_project.application.dto.BatchLookupDto;
 import org.senla_project.application.dto.UserCreateDto;
 import org.senla_project.application.dto.UserResponseDto;
 import org.senla_project.application.service.UserService;
+import org.senla_project.application.util.pagination.KeysetPage;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.UUID;
 
@@ -18,18 +23,31 @@ public class UserController {
 
     final private UserService service;
 
-    @GetMapping("/all")
+    @GetMapping(value = "/all", params = "page")
     @ResponseStatus(HttpStatus.OK)
     public List<UserResponseDto> getAllElements(@RequestParam(name="page") int pageNumber) {
         return service.findAllElements(pageNumber);
     }
 
+    @GetMapping(value = "/all", params = "!page")
+    @ResponseStatus(HttpStatus.OK)
+    public KeysetPage<UserResponseDto> getAllElements(@RequestParam(name = "cursor", required = false) String cursor,
+                                                       @RequestParam(name = "size", defaultValue = "15") int pageSize) {
+        return service.findAllElements(cursor, pageSize);
+    }
+
     @GetMapping("/{id}")
     @ResponseStatus(HttpStatus.OK)
     public UserResponseDto getElementById(@NonNull @PathVariable(name = "id") UUID id) {
         return service.findElementById(id);
     }
 
+    @GetMapping(params = "ids")
+    @ResponseStatus(HttpStatus.OK)
+    public BatchLookupDto<UserResponseDto> getElementsByIds(@RequestParam(name = "ids") List<UUID> ids) {
+        return service.findElementsByIds(ids);
+    }
+
     @PutMapping("/update/{id}")
     @ResponseStatus(HttpStatus.OK)
     public UserResponseDto updateElement(@NonNull @PathVariable(name = "id") UUID id, @NonNull @RequestBody UserCreateDto updatedElement) {
@@ -47,4 +65,10 @@ public class UserController {
     public UserResponseDto findUserByName(@NonNull @RequestParam(name = "username") String username) {
         return service.findUserByUsername(username);
     }
+
+    @GetMapping("/export")
+    public void exportElements(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        service.exportElements(response.getOutputStream());
+    }
 }
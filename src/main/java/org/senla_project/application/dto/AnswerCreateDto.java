@@ -15,6 +15,7 @@ public class AnswerCreateDto {
     private int usefulness;
     private UUID questionId;
     private String authorName;
+    @Builder.Default
     private String createTime = LocalDate.now().toString();
 
 }
@@ -5,7 +5,7 @@ import lombok.*;
 import java.util.UUID;
 
 @NoArgsConstructor @AllArgsConstructor @Data @Builder
-public class AnswerResponseDto {
+public class AnswerResponseDto implements VersionedDto {
 
     private String answerId;
     private String body;
@@ -13,6 +13,7 @@ public class AnswerResponseDto {
     private UUID questionId;
     private String authorName;
     private String createTime;
+    private Long version;
 
 }
 
@@ -0,0 +1,38 @@
+package org.senla_project.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@NoArgsConstructor @AllArgsConstructor @Data @Builder
+public class BatchLookupDto<T> {
+
+    @Builder.Default
+    private List<T> content = new ArrayList<>();
+    @Builder.Default
+    private List<UUID> missingIds = new ArrayList<>();
+
+    // Elements in the order of the requested ids; repeated ids are answered once
+    public static <T> BatchLookupDto<T> of(Collection<UUID> ids, List<T> elements, Function<T, String> idGetter) {
+        Map<String, T> elementsById = elements.stream()
+                .collect(Collectors.toMap(idGetter, Function.identity()));
+        BatchLookupDto<T> lookup = new BatchLookupDto<>();
+        for (UUID id : new LinkedHashSet<>(ids)) {
+            T element = elementsById.get(id.toString());
+            if (element == null) lookup.missingIds.add(id);
+            else lookup.content.add(element);
+        }
+        return lookup;
+    }
+
+}
@@ -0,0 +1,14 @@
+package org.senla_project.application.dto;
+
+import lombok.*;
+
+@NoArgsConstructor @AllArgsConstructor @Data @Builder
+public class CacheRegionStatisticsDto {
+
+    private String regionName;
+    private long hitCount;
+    private long missCount;
+    private long putCount;
+    private long elementCountInMemory;
+
+}
@@ -11,6 +11,7 @@ import java.time.LocalDate;
 public class CollaborationCreateDto {
 
     private String collabName;
+    @Builder.Default
     private String createTime = LocalDate.now().toString();
 
 }
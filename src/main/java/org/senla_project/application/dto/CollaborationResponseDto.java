@@ -3,10 +3,12 @@ package org.senla_project.application.dto;
 import lombok.*;
 
 @NoArgsConstructor @AllArgsConstructor @Data @Builder
-public class CollaborationResponseDto {
+public class CollaborationResponseDto implements VersionedDto {
 
     private String collabId;
     private String collabName;
     private String createTime;
+    private int memberCount;
+    private Long version;
 
 }
@@ -12,6 +12,7 @@ public class CollaborationsJoiningCreateDto {
 
     private String collabName;
     private String userName;
+    @Builder.Default
     private String joinDate = LocalDate.now().toString();
 
 }
@@ -0,0 +1,23 @@
+package org.senla_project.application.dto;
+
+import lombok.*;
+
+import java.util.Map;
+
+@NoArgsConstructor @AllArgsConstructor @Data @Builder
+public class ConnectionPoolMetricsDto {
+
+    private String poolName;
+    private int activeConnections;
+    private int idleConnections;
+    private int totalConnections;
+    private int pendingThreads;
+    private int minConnections;
+    private int maxConnections;
+    private long timeouts;
+    private long acquireCount;
+    private long acquireAverageMicros;
+    private long acquireMaxMicros;
+    private Map<String, Long> acquireTimeHistogram;
+
+}
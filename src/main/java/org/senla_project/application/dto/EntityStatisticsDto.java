@@ -0,0 +1,18 @@
+package org.senla_project.application.dto;
+
+import lombok.*;
+
+@NoArgsConstructor @AllArgsConstructor @Data @Builder
+public class EntityStatisticsDto {
+
+    private String entityName;
+    private long loadCount;
+    private long fetchCount;
+    private long insertCount;
+    private long updateCount;
+    private long deleteCount;
+    private long optimisticFailureCount;
+    private long cacheHitCount;
+    private long cacheMissCount;
+
+}
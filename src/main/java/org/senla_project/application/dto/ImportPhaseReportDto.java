@@ -0,0 +1,17 @@
+package org.senla_project.application.dto;
+
+import lombok.*;
+
+@NoArgsConstructor @AllArgsConstructor @Data @Builder
+public class ImportPhaseReportDto {
+
+    private String phase;
+    private long parsedRows;
+    private long loadedRows;
+    private long skippedRows;
+    private int loadedChunks;
+    private int resumedChunks;
+    private long elapsedMs;
+    private long rowsPerMinute;
+
+}
@@ -0,0 +1,20 @@
+package org.senla_project.application.dto;
+
+import lombok.*;
+import org.senla_project.application.util.enums.ImportStatusEnum;
+
+import java.util.List;
+
+@NoArgsConstructor @AllArgsConstructor @Data @Builder
+public class ImportReportDto {
+
+    private String importName;
+    private ImportStatusEnum status;
+    // Set once the import has failed
+    private String error;
+    private List<ImportPhaseReportDto> phases;
+    private long loadedRows;
+    private long elapsedMs;
+    private long rowsPerMinute;
+
+}
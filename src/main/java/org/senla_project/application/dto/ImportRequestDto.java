@@ -0,0 +1,11 @@
+package org.senla_project.application.dto;
+
+import lombok.*;
+
+@NoArgsConstructor @AllArgsConstructor @Data @Builder
+public class ImportRequestDto {
+
+    private String importName;
+    private String dumpName;
+
+}
@@ -0,0 +1,21 @@
+package org.senla_project.application.dto;
+
+import lombok.*;
+
+@NoArgsConstructor @AllArgsConstructor @Data @Builder
+public class PersistenceStatisticsDto {
+
+    private String collectingSince;
+    private long sessionOpenCount;
+    private long transactionCount;
+    private long flushCount;
+    private long prepareStatementCount;
+    private long entityLoadCount;
+    private long entityFetchCount;
+    private long queryExecutionCount;
+    private long queryExecutionMaxTime;
+    private String queryExecutionMaxTimeQuery;
+    private long secondLevelCacheHitCount;
+    private long secondLevelCacheMissCount;
+
+}
@@ -3,7 +3,7 @@ package org.senla_project.application.dto;
 import lombok.*;
 
 @NoArgsConstructor @AllArgsConstructor @Data @Builder
-public class ProfileResponseDto {
+public class ProfileResponseDto implements VersionedDto {
 
     private String profileId;
     private String username;
@@ -13,5 +13,6 @@ public class ProfileResponseDto {
     private String birthday;
     private String avatarUrl;
     private int rating;
+    private Long version;
 
 }
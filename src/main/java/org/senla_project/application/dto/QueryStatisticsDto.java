@@ -0,0 +1,16 @@
+package org.senla_project.application.dto;
+
+import lombok.*;
+
+@NoArgsConstructor @AllArgsConstructor @Data @Builder
+public class QueryStatisticsDto {
+
+    private String query;
+    private long executionCount;
+    private long executionRowCount;
+    private long executionAvgTime;
+    private long executionMaxTime;
+    private long cacheHitCount;
+    private long cacheMissCount;
+
+}
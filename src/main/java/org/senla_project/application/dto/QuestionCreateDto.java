@@ -14,6 +14,7 @@ public class QuestionCreateDto {
     private String header;
     private String body;
     private int interesting;
+    @Builder.Default
     private String createTime = LocalDate.now().toString();
 
 }
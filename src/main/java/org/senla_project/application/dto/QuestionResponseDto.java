@@ -3,13 +3,15 @@ package org.senla_project.application.dto;
 import lombok.*;
 
 @NoArgsConstructor @AllArgsConstructor @Data @Builder
-public class QuestionResponseDto {
+public class QuestionResponseDto implements VersionedDto {
 
     private String questionId;
     private String authorName;
     private String header;
     private String body;
     private int interesting;
+    private int answerCount;
+    private Long version;
     private String createTime;
 
 }
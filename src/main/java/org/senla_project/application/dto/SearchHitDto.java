@@ -0,0 +1,16 @@
+package org.senla_project.application.dto;
+
+import lombok.*;
+
+@NoArgsConstructor @AllArgsConstructor @Data @Builder
+public class SearchHitDto {
+
+    private String id;
+    private String questionId;
+    private String header;
+    private String authorName;
+    private String headline;
+    private float rank;
+    private String createTime;
+
+}
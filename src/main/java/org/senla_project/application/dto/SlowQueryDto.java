@@ -0,0 +1,15 @@
+package org.senla_project.application.dto;
+
+import lombok.*;
+
+@NoArgsConstructor @AllArgsConstructor @Data @Builder
+public class SlowQueryDto {
+
+    private String executedAt;
+    private String sql;
+    private int bindCount;
+    private long rowCount;
+    private long elapsedMs;
+    private String serviceMethod;
+
+}
@@ -13,5 +13,7 @@ public class UserResponseDto {
     private String userId;
     private String username;
     private List<String> roles;
+    private int questionCount;
+    private int answerCount;
 
 }
\ No newline at end of file
@@ -0,0 +1,8 @@
+package org.senla_project.application.dto;
+
+// Response of a versioned entity; the version is sent as the ETag and expected back in If-Match
+public interface VersionedDto {
+
+    Long getVersion();
+
+}
@@ -2,21 +2,38 @@ package org.senla_project.application.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.UuidGenerator;
+import org.senla_project.application.util.id.UuidV7Generator;
 
 import java.time.LocalDate;
 import java.util.UUID;
 
 @Entity
-@Table(name = "answers")
+@Table(
+        name = "answers",
+        indexes = {
+                @Index(name = "idx_answers_question_id_author", columnList = "question_id, author"),
+                @Index(name = "idx_answers_author", columnList = "author")
+        }
+)
+@NamedEntityGraph(
+        name = Answer.ENTITY_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode("author"),
+                @NamedAttributeNode("question")
+        }
+)
 @NoArgsConstructor
 @AllArgsConstructor
 @Data
 @Builder
 public class Answer {
 
+    public static final String ENTITY_GRAPH = "answer-entity-graph";
+
     @Column(name = "answer_id")
     @Id
-    @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     private UUID answerId;
 
     private String body;
@@ -38,6 +55,11 @@ public class Answer {
     @Column(name = "create_time")
     private LocalDate createTime;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    @EqualsAndHashCode.Exclude
+    private long version;
+
 }
 
 
@@ -0,0 +1,47 @@
+package org.senla_project.application.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+// Cold copy of an Answer, archived together with its question
+@Entity
+@Table(
+        name = "answers_archive",
+        indexes = {
+                @Index(name = "idx_answers_archive_question_id", columnList = "question_id"),
+                @Index(name = "idx_answers_archive_author", columnList = "author")
+        }
+)
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class ArchivedAnswer {
+
+    @Column(name = "answer_id")
+    @Id
+    private UUID answerId;
+
+    private String body;
+
+    @Column(name = "author")
+    private UUID authorId;
+
+    @Column(name = "question_id", nullable = false)
+    private UUID questionId;
+
+    private int usefulness;
+
+    @Column(name = "create_time")
+    private LocalDate createTime;
+
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    @Column(name = "archive_time", nullable = false)
+    private LocalDate archiveTime;
+
+}
@@ -0,0 +1,47 @@
+package org.senla_project.application.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+// Cold copy of a Question written by QuestionRepository.archiveByIds. Only user deletes touch it afterwards,
+// and the author is kept as a plain id, so archived rows never hold back a user delete
+@Entity
+@Table(
+        name = "questions_archive",
+        indexes = @Index(name = "idx_questions_archive_author", columnList = "author")
+)
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class ArchivedQuestion {
+
+    @Column(name = "question_id")
+    @Id
+    private UUID questionId;
+
+    private String header;
+
+    private String body;
+
+    @Column(name = "author")
+    private UUID authorId;
+
+    private int interesting;
+
+    @Column(name = "create_time")
+    private LocalDate createTime;
+
+    @Column(name = "answer_count", nullable = false)
+    private int answerCount;
+
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    @Column(name = "archive_time", nullable = false)
+    private LocalDate archiveTime;
+
+}
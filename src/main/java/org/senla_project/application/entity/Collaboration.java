@@ -2,6 +2,13 @@ package org.senla_project.application.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.hibernate.annotations.UuidGenerator;
+import org.senla_project.application.util.id.UuidV7Generator;
 
 import java.time.LocalDate;
 import java.util.Set;
@@ -9,6 +16,8 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "collaborations")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "collaboration")
+@NaturalIdCache(region = "collaboration-natural-id")
 @NoArgsConstructor
 @AllArgsConstructor
 @Data
@@ -17,15 +26,27 @@ public class Collaboration {
 
     @Column(name = "collab_id")
     @Id
-    @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     private UUID collabId;
 
+    @NaturalId(mutable = true)
     @Column(name = "collab_name")
     private String collabName;
 
     @Column(name = "create_time")
     private LocalDate createTime;
 
+    // Maintained by set-based increments in the writing transaction, never written from the entity state
+    @Column(name = "member_count", nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    @EqualsAndHashCode.Exclude
+    private int memberCount;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    @EqualsAndHashCode.Exclude
+    private long version;
+
     @OneToMany(fetch = FetchType.LAZY, mappedBy = "collab", cascade = CascadeType.REMOVE)
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
@@ -0,0 +1,28 @@
+package org.senla_project.application.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.NaturalId;
+
+import java.util.UUID;
+
+// Global name index of the sharded collaborations, kept in the main database. The shard of a collaboration
+// follows from its id, so a name lookup reads this table and then exactly one shard.
+// The unique name keeps collaboration names unique across all shards
+@Entity
+@Table(name = "collaboration_directory")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class CollaborationDirectoryEntry {
+
+    @Column(name = "collab_id")
+    @Id
+    private UUID collabId;
+
+    @NaturalId(mutable = true)
+    @Column(name = "collab_name", nullable = false)
+    private String collabName;
+
+}
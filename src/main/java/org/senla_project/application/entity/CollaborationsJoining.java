@@ -2,21 +2,36 @@ package org.senla_project.application.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.UuidGenerator;
+import org.senla_project.application.util.id.UuidV7Generator;
 
 import java.time.LocalDate;
 import java.util.UUID;
 
 @Entity
-@Table(name = "collaborations_users")
+@Table(
+        name = "collaborations_users",
+        uniqueConstraints = @UniqueConstraint(name = "uk_collaborations_users_user_id_collab_id", columnNames = {"user_id", "collab_id"}),
+        indexes = @Index(name = "idx_collaborations_users_collab_id", columnList = "collab_id")
+)
+@NamedEntityGraph(
+        name = CollaborationsJoining.ENTITY_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode("user"),
+                @NamedAttributeNode("collab")
+        }
+)
 @NoArgsConstructor
 @AllArgsConstructor
 @Data
 @Builder
 public class CollaborationsJoining {
 
+    public static final String ENTITY_GRAPH = "collab-join-entity-graph";
+
     @Column(name = "join_id")
     @Id
-    @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     private UUID joinId;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,50 @@
+package org.senla_project.application.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UuidGenerator;
+import org.senla_project.application.util.id.UuidV7Generator;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+// A chunk of a dump import that has been committed; written over JDBC by BulkLoader together with the chunk
+@Entity
+@Table(
+        name = "import_checkpoints",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_import_checkpoints_import_name_phase_chunk_number",
+                columnNames = {"import_name", "phase", "chunk_number"}
+        )
+)
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class ImportCheckpoint {
+
+    @Column(name = "checkpoint_id")
+    @Id
+    @UuidGenerator(algorithm = UuidV7Generator.class)
+    private UUID checkpointId;
+
+    @Column(name = "import_name", nullable = false)
+    private String importName;
+
+    @Column(name = "phase", nullable = false, length = 32)
+    private String phase;
+
+    @Column(name = "chunk_number", nullable = false)
+    private int chunkNumber;
+
+    // Rows per chunk the import was started with; chunk numbers only match on resume under the same size
+    @Column(name = "chunk_size")
+    private Integer chunkSize;
+
+    @Column(name = "row_count", nullable = false)
+    private int rowCount;
+
+    @Column(name = "complete_time")
+    private LocalDate completeTime;
+
+}
@@ -2,6 +2,8 @@ package org.senla_project.application.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.UuidGenerator;
+import org.senla_project.application.util.id.UuidV7Generator;
 
 import java.time.LocalDate;
 import java.util.UUID;
@@ -9,7 +11,7 @@ import java.util.UUID;
 @Entity
 @Table(name = "profiles")
 @NamedEntityGraph(
-        name = "profile-entity-graph",
+        name = Profile.ENTITY_GRAPH,
         attributeNodes = {
                 @NamedAttributeNode("user")
         }
@@ -20,9 +22,11 @@ import java.util.UUID;
 @Builder
 public class Profile {
 
+    public static final String ENTITY_GRAPH = "profile-entity-graph";
+
     @Column(name = "profile_id")
     @Id
-    @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     private UUID profileId;
 
     @JoinColumn(name = "user_id")
@@ -44,4 +48,9 @@ public class Profile {
 
     private int rating;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    @EqualsAndHashCode.Exclude
+    private long version;
+
 }
@@ -2,22 +2,36 @@ package org.senla_project.application.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UuidGenerator;
+import org.senla_project.application.util.id.UuidV7Generator;
 
 import java.time.LocalDate;
 import java.util.Set;
 import java.util.UUID;
 
 @Entity
-@Table(name = "questions")
+@Table(
+        name = "questions",
+        indexes = @Index(name = "idx_questions_author_header", columnList = "author, header")
+)
+@NamedEntityGraph(
+        name = Question.ENTITY_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode("author")
+        }
+)
 @NoArgsConstructor
 @AllArgsConstructor
 @Data
 @Builder
 public class Question {
 
+    public static final String ENTITY_GRAPH = "question-entity-graph";
+
     @Column(name = "question_id")
     @Id
-    @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     private UUID questionId;
 
     private String header;
@@ -35,6 +49,17 @@ public class Question {
     @Column(name = "create_time")
     private LocalDate createTime;
 
+    // Maintained by set-based increments in the writing transaction, never written from the entity state
+    @Column(name = "answer_count", nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    @EqualsAndHashCode.Exclude
+    private int answerCount;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    @EqualsAndHashCode.Exclude
+    private long version;
+
     @OneToMany(fetch = FetchType.LAZY, mappedBy = "question", cascade = CascadeType.ALL)
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
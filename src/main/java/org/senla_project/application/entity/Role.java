@@ -2,6 +2,10 @@ package org.senla_project.application.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UuidGenerator;
+import org.senla_project.application.util.id.UuidV7Generator;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -9,6 +13,7 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "roles")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "role")
 @NoArgsConstructor
 @AllArgsConstructor
 @Data
@@ -17,10 +22,10 @@ public class Role {
 
     @Column(name = "role_id")
     @Id
-    @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     private UUID roleId;
 
-    @Column(name = "role_name")
+    @Column(name = "role_name", unique = true)
     private String roleName;
 
     @ManyToMany(mappedBy = "roles", fetch = FetchType.LAZY)
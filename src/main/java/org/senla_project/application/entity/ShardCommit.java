@@ -0,0 +1,24 @@
+package org.senla_project.application.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Commit decision of a two-phase shard transaction; written over JDBC by ShardTransactionLog in the main transaction
+@Entity
+@Table(name = "shard_commits")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class ShardCommit {
+
+    @Column(name = "transaction_id", length = 64)
+    @Id
+    private String transactionId;
+
+    @Column(name = "commit_time", nullable = false)
+    private LocalDateTime commitTime;
+
+}
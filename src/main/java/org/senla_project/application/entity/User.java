@@ -2,12 +2,21 @@ package org.senla_project.application.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.hibernate.annotations.UuidGenerator;
+import org.senla_project.application.util.id.UuidV7Generator;
 
 import java.util.Set;
 import java.util.UUID;
 
 @Entity
 @Table(name = "users")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")
+@NaturalIdCache(region = "user-natural-id")
 @NoArgsConstructor
 @AllArgsConstructor
 @Data
@@ -16,15 +25,27 @@ public class User {
 
     @Column(name = "user_id")
     @Id
-    @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     private UUID userId;
 
+    @NaturalId(mutable = true)
     @Column(name = "username")
     private String username;
 
     @Column(name = "hashed_password")
     private String password;
 
+    // Maintained by set-based increments in the writing transaction, never written from the entity state
+    @Column(name = "question_count", nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    @EqualsAndHashCode.Exclude
+    private int questionCount;
+
+    @Column(name = "answer_count", nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    @EqualsAndHashCode.Exclude
+    private int answerCount;
+
     @OneToOne(fetch = FetchType.LAZY, mappedBy = "user", cascade = CascadeType.REMOVE)
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
@@ -46,6 +67,7 @@ public class User {
     private Set<CollaborationsJoining> collaborationsJoining;
 
     @ManyToMany(fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-roles")
     @JoinTable(
             name = "users_roles",
             joinColumns = @JoinColumn(name = "user_id"),
@@ -18,7 +18,9 @@ public abstract class AnswerMapper {
             @Mapping(source = "dto.createTime", target = "createTime", dateFormat = "yyyy-MM-dd"),
             @Mapping(source = "dto.authorName", target = "author", qualifiedByName = {"UserMapper", "toUserFromName"}),
             @Mapping(source = "dto.questionId", target = "question", qualifiedByName = {"QuestionMapper", "toQuestionFromId"}),
-            @Mapping(source = "id", target = "answerId")
+            @Mapping(source = "id", target = "answerId"),
+            @Mapping(target = "usefulness", ignore = true),
+            @Mapping(target = "version", ignore = true)
     })
     public abstract Answer toAnswer(UUID id, AnswerCreateDto dto);
 
@@ -26,20 +28,22 @@ public abstract class AnswerMapper {
             @Mapping(source = "dto.createTime", target = "createTime", dateFormat = "yyyy-MM-dd"),
             @Mapping(source = "dto.authorName", target = "author", qualifiedByName = {"UserMapper", "toUserFromName"}),
             @Mapping(source = "dto.questionId", target = "question", qualifiedByName = {"QuestionMapper", "toQuestionFromId"}),
-            @Mapping(target = "answerId", ignore = true)
+            @Mapping(target = "answerId", ignore = true),
+            @Mapping(target = "usefulness", ignore = true),
+            @Mapping(target = "version", ignore = true)
     })
     public abstract Answer toAnswer(AnswerCreateDto dto);
 
     @Mappings({
             @Mapping(source = "createTime", target = "createTime", dateFormat = "yyyy-MM-dd"),
-            @Mapping(target = "authorName", expression = "java(entity.getAuthor().getUsername())"),
+            @Mapping(target = "authorName", expression = "java(entity.getAuthor() == null ? null : entity.getAuthor().getUsername())"),
             @Mapping(target = "questionId", expression = "java(entity.getQuestion().getQuestionId())")
     })
     public abstract AnswerCreateDto toAnswerCreateDto(Answer entity);
 
     @Mappings({
             @Mapping(source = "createTime", target = "createTime", dateFormat = "yyyy-MM-dd"),
-            @Mapping(target = "authorName", expression = "java(entity.getAuthor().getUsername())"),
+            @Mapping(target = "authorName", expression = "java(entity.getAuthor() == null ? null : entity.getAuthor().getUsername())"),
             @Mapping(target = "questionId", expression = "java(entity.getQuestion().getQuestionId())")
     })
     public abstract AnswerResponseDto toAnswerResponseDto(Answer entity);
@@ -24,13 +24,17 @@ public abstract class CollaborationMapper {
 
     @Mappings({
             @Mapping(source = "dto.createTime", target = "createTime", dateFormat = "yyyy-MM-dd"),
-            @Mapping(source = "id", target = "collabId")
+            @Mapping(source = "id", target = "collabId"),
+            @Mapping(target = "version", ignore = true),
+            @Mapping(target = "memberCount", ignore = true)
     })
     public abstract Collaboration toCollab(UUID id, CollaborationCreateDto dto);
 
     @Mappings({
             @Mapping(source = "dto.createTime", target = "createTime", dateFormat = "yyyy-MM-dd"),
-            @Mapping(target = "collabId", ignore = true)
+            @Mapping(target = "collabId", ignore = true),
+            @Mapping(target = "version", ignore = true),
+            @Mapping(target = "memberCount", ignore = true)
     })
     public abstract Collaboration toCollab(CollaborationCreateDto dto);
 
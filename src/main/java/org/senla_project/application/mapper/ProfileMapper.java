@@ -16,14 +16,16 @@ public abstract class ProfileMapper {
     @Mappings({
             @Mapping(source = "dto.birthday", target = "birthday", dateFormat = "yyyy-MM-dd"),
             @Mapping(source = "dto.username", target = "user", qualifiedByName = {"UserMapper", "toUserFromName"}),
-            @Mapping(source = "id", target = "profileId")
+            @Mapping(source = "id", target = "profileId"),
+            @Mapping(target = "version", ignore = true)
     })
     public abstract Profile toProfile(UUID id, ProfileCreateDto dto);
 
     @Mappings({
             @Mapping(source = "dto.birthday", target = "birthday", dateFormat = "yyyy-MM-dd"),
             @Mapping(source = "dto.username", target = "user", qualifiedByName = {"UserMapper", "toUserFromName"}),
-            @Mapping(target = "profileId", ignore = true)
+            @Mapping(target = "profileId", ignore = true),
+            @Mapping(target = "version", ignore = true)
     })
     public abstract Profile toProfile(ProfileCreateDto dto);
 
@@ -22,14 +22,20 @@ public abstract class QuestionMapper {
     @Mappings({
             @Mapping(source = "dto.createTime", target = "createTime", dateFormat = "yyyy-MM-dd"),
             @Mapping(source = "dto.authorName", target = "author", qualifiedByName = {"UserMapper", "toUserFromName"}),
-            @Mapping(source = "id", target = "questionId")
+            @Mapping(source = "id", target = "questionId"),
+            @Mapping(target = "interesting", ignore = true),
+            @Mapping(target = "version", ignore = true),
+            @Mapping(target = "answerCount", ignore = true)
     })
     public abstract Question toQuestion(UUID id, QuestionCreateDto dto);
 
     @Mappings({
             @Mapping(source = "dto.createTime", target = "createTime", dateFormat = "yyyy-MM-dd"),
             @Mapping(source = "dto.authorName", target = "author", qualifiedByName = {"UserMapper", "toUserFromName"}),
-            @Mapping(target = "questionId", ignore = true)
+            @Mapping(target = "questionId", ignore = true),
+            @Mapping(target = "interesting", ignore = true),
+            @Mapping(target = "version", ignore = true),
+            @Mapping(target = "answerCount", ignore = true)
     })
     public abstract Question toQuestion(QuestionCreateDto dto);
 
@@ -41,13 +47,13 @@ public abstract class QuestionMapper {
 
     @Mappings({
             @Mapping(source = "createTime", target = "createTime", dateFormat = "yyyy-MM-dd"),
-            @Mapping(target = "authorName", expression = "java(entity.getAuthor().getUsername())")
+            @Mapping(target = "authorName", expression = "java(entity.getAuthor() == null ? null : entity.getAuthor().getUsername())")
     })
     public abstract QuestionCreateDto toQuestionCreateDto(Question entity);
 
     @Mappings({
             @Mapping(source = "createTime", target = "createTime", dateFormat = "yyyy-MM-dd"),
-            @Mapping(target = "authorName", expression = "java(entity.getAuthor().getUsername())")
+            @Mapping(target = "authorName", expression = "java(entity.getAuthor() == null ? null : entity.getAuthor().getUsername())")
     })
     public abstract QuestionResponseDto toQuestionResponseDto(Question entity);
 
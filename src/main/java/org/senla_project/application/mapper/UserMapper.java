@@ -26,10 +26,14 @@ public abstract class UserMapper {
 
     @Mapping(source = "id", target = "userId")
     @Mapping(source = "dto.roles", target = "roles", qualifiedByName = {"RoleMapper", "toRoleSetFromStringList"})
+    @Mapping(target = "questionCount", ignore = true)
+    @Mapping(target = "answerCount", ignore = true)
     public abstract User toUser(UUID id, UserCreateDto dto);
 
     @Mapping(target = "userId", ignore = true)
     @Mapping(source = "dto.roles", target = "roles", qualifiedByName = {"RoleMapper", "toRoleSetFromStringList"})
+    @Mapping(target = "questionCount", ignore = true)
+    @Mapping(target = "answerCount", ignore = true)
     public abstract User toUser(UserCreateDto dto);
 
     @Mapping(source = "roles", target = "roles", qualifiedByName = {"RoleMapper", "toRoleSetFromStringList"})
@@ -2,20 +2,92 @@ package org.senla_project.application.repository;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
 import jakarta.persistence.TypedQuery;
-import jakarta.persistence.criteria.CriteriaQuery;
-import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.*;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.hibernate.MultiIdentifierLoadAccess;
+import org.hibernate.Session;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.graph.GraphSemantic;
+import org.hibernate.graph.RootGraph;
+import org.hibernate.jpa.AvailableHints;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.senla_project.application.util.exception.InvalidRequestParametersException;
+import org.senla_project.application.util.pagination.KeysetCursor;
+import org.senla_project.application.util.pagination.KeysetPage;
+import org.senla_project.application.util.partition.MonthlyPartition;
+import org.springframework.beans.factory.annotation.Value;
 
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public abstract class AbstractDao<K, T> implements DefaultDao<K, T> {
 
+    public static final int DEFAULT_PAGE_SIZE = 15;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    protected static final String ID_ALIAS = "id";
+    protected static final String TIME_ALIAS = "time";
+    private static final String ENTITY_ALIAS = "entity";
+
     @PersistenceContext
     protected EntityManager entityManager;
 
+    @Value("${hibernate.jdbc.batch_size}")
+    protected int batchSize;
+
+    @Value("${hibernate.jdbc.fetch_size}")
+    protected int fetchSize;
+
     protected abstract Class<T> getEntityClass();
 
+    protected abstract SingularAttribute<? super T, UUID> getIdAttribute();
+
+    // Leading column of the keyset (time, id) ordering; entities without a time column are paged by id only
+    protected SingularAttribute<? super T, LocalDate> getKeysetTimeAttribute() {
+        return null;
+    }
+
+    // Fetch plan used by finders called without an explicit entity graph; null keeps the mapped lazy associations
+    protected String getDefaultEntityGraphName() {
+        return null;
+    }
+
+    // @Version attribute of the entity, null for unversioned entities
+    protected SingularAttribute<? super T, Long> getVersionAttribute() {
+        return null;
+    }
+
+    // Table range-partitioned by month in Postgres, null for plain tables
+    protected String getPartitionedTableName() {
+        return null;
+    }
+
+    // Attributes written by updateIfVersion; ids, versions and database-maintained counters are left out
+    protected List<SingularAttribute<? super T, ?>> getUpdatableAttributes() {
+        return List.of();
+    }
+
     public T create(T entity) {
         entityManager.persist(entity);
         entityManager.flush();
@@ -23,35 +95,401 @@ public abstract class AbstractDao<K, T> implements DefaultDao<K, T> {
         return entity;
     }
 
+    // Flushes and clears every batchSize entities, so the returned entities are detached
+    public List<T> createAll(Collection<T> entities) {
+        List<T> createdEntities = new ArrayList<>(entities.size());
+        for (T entity : entities) {
+            entityManager.persist(entity);
+            createdEntities.add(entity);
+            if (createdEntities.size() % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        return createdEntities;
+    }
+
     public Optional<T> findById(K id) {
-        return Optional.ofNullable(entityManager.find(getEntityClass(), id));
+        return findById(id, getDefaultEntityGraphName());
+    }
+
+    public Optional<T> findById(K id, String entityGraphName) {
+        return Optional.ofNullable(entityManager.find(getEntityClass(), id, makeFetchGraphHints(entityGraphName)));
+    }
+
+    public List<T> findAllByIds(Collection<K> ids) {
+        return findAllByIds(ids, getDefaultEntityGraphName());
+    }
+
+    // Instances already in the persistence context or the second-level cache are taken from there,
+    // the rest is loaded with IN lists of at most batchSize ids. Results follow the ids, missing ones are left out
+    public List<T> findAllByIds(Collection<K> ids, String entityGraphName) {
+        if (ids.isEmpty() || ids.size() > MAX_PAGE_SIZE)
+            throw new InvalidRequestParametersException("Between 1 and " + MAX_PAGE_SIZE + " ids can be requested at once");
+
+        MultiIdentifierLoadAccess<T> loadAccess = entityManager.unwrap(Session.class)
+                .byMultipleIds(getEntityClass())
+                .enableSessionCheck(true)
+                .enableOrderedReturn(true)
+                .withBatchSize(batchSize);
+        if (entityGraphName != null) loadAccess.with(getEntityGraph(entityGraphName), GraphSemantic.FETCH);
+
+        return loadAccess.multiLoad(List.copyOf(new LinkedHashSet<>(ids))).stream()
+                .filter(Objects::nonNull)
+                .toList();
     }
 
     public List<T> findAll(int pageNumber) {
-        int pageSize = 15;
-        CriteriaQuery<Long> countQuery = entityManager.getCriteriaBuilder()
-                .createQuery(Long.class);
-        countQuery.select(entityManager.getCriteriaBuilder()
-                .count(countQuery.from(getEntityClass())));
-        Long count = entityManager.createQuery(countQuery)
-                .getSingleResult();
+        return findAll(pageNumber, getDefaultEntityGraphName());
+    }
 
+    public List<T> findAll(int pageNumber, String entityGraphName) {
         CriteriaQuery<T> query = entityManager.getCriteriaBuilder().createQuery(getEntityClass());
         Root<T> from = query.from(getEntityClass());
         CriteriaQuery<T> select = query.select(from);
 
-        TypedQuery<T> typedQuery = entityManager.createQuery(select);
-        typedQuery.setFirstResult((pageNumber - 1) * pageSize);
-        typedQuery.setMaxResults(pageSize);
+        TypedQuery<T> typedQuery = withFetchGraph(entityManager.createQuery(select), entityGraphName);
+        typedQuery.setFirstResult((pageNumber - 1) * DEFAULT_PAGE_SIZE);
+        typedQuery.setMaxResults(DEFAULT_PAGE_SIZE);
 
         return typedQuery.getResultList();
     }
 
+    public KeysetPage<T> findAll(String cursor, int pageSize) {
+        return findAll(cursor, pageSize, getDefaultEntityGraphName());
+    }
+
+    public KeysetPage<T> findAll(String cursor, int pageSize, String entityGraphName) {
+        return findPage(cursor, pageSize, new TupleProjection<T, T>() {
+            @Override
+            public List<Selection<?>> select(Root<T> root) {
+                return List.of(root.alias(ENTITY_ALIAS));
+            }
+
+            @Override
+            public T toDto(Tuple row) {
+                return row.get(ENTITY_ALIAS, getEntityClass());
+            }
+        }, entityGraphName);
+    }
+
+    // Forward-only cursor over the whole table. The persistence context is cleared every fetchSize rows,
+    // so the caller must finish with each entity inside the mapper and memory stays flat regardless of table size
+    public <R> Stream<R> streamAll(String entityGraphName, Function<T, R> mapper) {
+        CriteriaQuery<T> query = entityManager.getCriteriaBuilder().createQuery(getEntityClass());
+        query.select(query.from(getEntityClass()));
+
+        AtomicLong streamedRows = new AtomicLong();
+        return withFetchGraph(entityManager.createQuery(query), entityGraphName)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(AvailableHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .map(entity -> {
+                    R element = mapper.apply(entity);
+                    if (streamedRows.incrementAndGet() % fetchSize == 0) entityManager.clear();
+                    return element;
+                });
+    }
+
+    protected <R> Optional<R> findProjectedById(K id, TupleProjection<T, R> projection) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<T> root = query.from(getEntityClass());
+
+        query.multiselect(makeSelections(root, projection))
+                .where(builder.equal(root.get(getIdAttribute()), id));
+
+        return entityManager.createQuery(query)
+                .getResultStream()
+                .findFirst()
+                .map(projection::toDto);
+    }
+
+    protected <R> List<R> findAllProjected(int pageNumber, TupleProjection<T, R> projection) {
+        CriteriaQuery<Tuple> query = entityManager.getCriteriaBuilder().createTupleQuery();
+        Root<T> root = query.from(getEntityClass());
+        query.multiselect(makeSelections(root, projection));
+
+        return entityManager.createQuery(query)
+                .setFirstResult((pageNumber - 1) * DEFAULT_PAGE_SIZE)
+                .setMaxResults(DEFAULT_PAGE_SIZE)
+                .getResultList()
+                .stream()
+                .map(projection::toDto)
+                .toList();
+    }
+
+    protected <R> KeysetPage<R> findAllProjected(String cursor, int pageSize, TupleProjection<T, R> projection) {
+        return findPage(cursor, pageSize, projection, null);
+    }
+
+    private <R> KeysetPage<R> findPage(String cursor, int pageSize, TupleProjection<T, R> projection, String entityGraphName) {
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE)
+            throw new InvalidRequestParametersException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<T> root = query.from(getEntityClass());
+
+        Path<UUID> id = root.get(getIdAttribute());
+        Path<LocalDate> time = getKeysetTimeAttribute() == null ? null : root.get(getKeysetTimeAttribute());
+
+        if (cursor != null && !cursor.isBlank()) {
+            query.where(makeKeysetPredicate(builder, time, id, KeysetCursor.decode(cursor)));
+        }
+        query.multiselect(makeSelections(root, projection));
+        if (time == null) {
+            query.orderBy(builder.asc(id));
+        } else {
+            query.orderBy(builder.asc(time), builder.asc(id));
+        }
+
+        List<Tuple> rows = withFetchGraph(entityManager.createQuery(query), entityGraphName)
+                .setMaxResults(pageSize + 1)
+                .getResultList();
+
+        boolean hasNextPage = rows.size() > pageSize;
+        List<Tuple> pageRows = hasNextPage ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasNextPage) {
+            Tuple lastRow = pageRows.getLast();
+            nextCursor = new KeysetCursor(
+                    time == null ? null : lastRow.get(TIME_ALIAS, LocalDate.class),
+                    lastRow.get(ID_ALIAS, UUID.class)
+            ).encode();
+        }
+
+        return new KeysetPage<>(
+                pageRows.stream().map(projection::toDto).toList(),
+                nextCursor
+        );
+    }
+
+    protected <R> TypedQuery<R> withFetchGraph(TypedQuery<R> query, String entityGraphName) {
+        makeFetchGraphHints(entityGraphName).forEach(query::setHint);
+        return query;
+    }
+
+    private Map<String, Object> makeFetchGraphHints(String entityGraphName) {
+        if (entityGraphName == null) return Map.of();
+        return Map.of(AvailableHints.HINT_SPEC_FETCH_GRAPH, entityManager.getEntityGraph(entityGraphName));
+    }
+
+    // Partitions are Postgres objects; other databases keep one plain table and report no changes
+    public int createPartitions(LocalDate fromMonth, int months) {
+        if (getPartitionedTableName() == null || !isPostgreSQL()) return 0;
+        int created = 0;
+        for (MonthlyPartition partition : MonthlyPartition.range(getPartitionedTableName(), fromMonth, months)) {
+            if (partitionExists(partition.getName())) continue;
+            entityManager.createNativeQuery(partition.makeCreateStatement()).executeUpdate();
+            created++;
+        }
+        return created;
+    }
+
+    // Detaches and drops the empty partitions of months before the given one. Partitions that still hold rows are
+    // kept: their rows leave through the archive, which keeps the counters of the other tables right
+    public int dropPartitionsBefore(LocalDate month) {
+        if (getPartitionedTableName() == null || !isPostgreSQL()) return 0;
+        int dropped = 0;
+        for (MonthlyPartition partition : findPartitions()) {
+            if (!partition.isBefore(month) || !isPartitionEmpty(partition.getName())) continue;
+            entityManager.createNativeQuery(partition.makeDetachStatement()).executeUpdate();
+            entityManager.createNativeQuery("DROP TABLE " + partition.getName()).executeUpdate();
+            dropped++;
+        }
+        return dropped;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<MonthlyPartition> findPartitions() {
+        List<String> childTables = entityManager.createNativeQuery("""
+                        SELECT child.relname FROM pg_inherits
+                        JOIN pg_class child ON child.oid = pg_inherits.inhrelid
+                        JOIN pg_class parent ON parent.oid = pg_inherits.inhparent
+                        WHERE parent.relname = :table
+                        """, String.class)
+                .setParameter("table", getPartitionedTableName())
+                .getResultList();
+        return childTables.stream()
+                .flatMap(childTable -> MonthlyPartition.parse(getPartitionedTableName(), childTable).stream())
+                .toList();
+    }
+
+    private boolean partitionExists(String partitionName) {
+        return entityManager.createNativeQuery("SELECT to_regclass(:name) IS NOT NULL", Boolean.class)
+                .setParameter("name", partitionName)
+                .getSingleResult() == Boolean.TRUE;
+    }
+
+    private boolean isPartitionEmpty(String partitionName) {
+        return entityManager.createNativeQuery("SELECT NOT EXISTS (SELECT 1 FROM " + partitionName + ")", Boolean.class)
+                .getSingleResult() == Boolean.TRUE;
+    }
+
+    protected boolean isPostgreSQL() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+    }
+
+    @SuppressWarnings("unchecked")
+    private RootGraph<T> getEntityGraph(String entityGraphName) {
+        return (RootGraph<T>) entityManager.getEntityGraph(entityGraphName);
+    }
+
+    private List<Selection<?>> makeSelections(Root<T> root, TupleProjection<T, ?> projection) {
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(root.get(getIdAttribute()).alias(ID_ALIAS));
+        if (getKeysetTimeAttribute() != null) {
+            selections.add(root.get(getKeysetTimeAttribute()).alias(TIME_ALIAS));
+        }
+        selections.addAll(projection.select(root));
+        return selections;
+    }
+
+    private Predicate makeKeysetPredicate(CriteriaBuilder builder, Path<LocalDate> time, Path<UUID> id, KeysetCursor after) {
+        if (time == null) return builder.greaterThan(id, after.getId());
+        if (after.getTime() == null) throw new InvalidRequestParametersException("Invalid page cursor");
+
+        // Redundant lower bound lets the (time, id) index start the range scan right at the cursor,
+        // and lets Postgres skip the partitions of earlier months on partitioned tables
+        return builder.and(
+                builder.greaterThanOrEqualTo(time, after.getTime()),
+                builder.or(
+                        builder.greaterThan(time, after.getTime()),
+                        builder.greaterThan(id, after.getId())
+                )
+        );
+    }
+
     public T update(T updatedEntity) {
         return entityManager.merge(updatedEntity);
     }
 
+    // Writes the updatable attributes of the entity with a single
+    // "UPDATE ... SET ..., version = version + 1 WHERE id = ? AND version = ?", without reading the row first.
+    // A null expectedVersion skips the version check. Returns false if no row matched
+    public boolean updateIfVersion(K id, Long expectedVersion, T updatedEntity) {
+        return patchIfVersion(id, expectedVersion, updatedEntity, getUpdatableAttributes().stream()
+                .map(SingularAttribute::getName)
+                .collect(Collectors.toSet()));
+    }
+
+    // Like updateIfVersion, but the UPDATE only sets the named attributes; the others keep their stored values
+    public boolean patchIfVersion(K id, Long expectedVersion, T patchedEntity, Set<String> attributeNames) {
+        if (getVersionAttribute() == null || getUpdatableAttributes().isEmpty())
+            throw new IllegalStateException(getEntityClass().getSimpleName() + " is not versioned");
+        List<SingularAttribute<? super T, ?>> patchedAttributes = getUpdatableAttributes().stream()
+                .filter(attribute -> attributeNames.contains(attribute.getName()))
+                .toList();
+        if (patchedAttributes.size() != attributeNames.size())
+            throw new IllegalArgumentException("Not every attribute of " + attributeNames + " is updatable");
+
+        EntityPersister persister = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel().getEntityDescriptor(getEntityClass());
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<T> update = builder.createCriteriaUpdate(getEntityClass());
+        Root<T> root = update.from(getEntityClass());
+
+        patchedAttributes.forEach(attribute ->
+                setAttribute(update, attribute, persister.getPropertyValue(patchedEntity, attribute.getName())));
+        Path<Long> version = root.get(getVersionAttribute());
+        update.set(version, builder.sum(version, 1L));
+
+        Predicate matchesId = builder.equal(root.get(getIdAttribute()), id);
+        update.where(expectedVersion == null ? matchesId : builder.and(matchesId, builder.equal(version, expectedVersion)));
+
+        boolean updated = entityManager.createQuery(update).executeUpdate() > 0;
+
+        // The statement bypassed the persistence context; a managed copy of the row would now be stale
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        Object staleEntity = session.getPersistenceContextInternal().getEntity(session.generateEntityKey(id, persister));
+        if (staleEntity != null) entityManager.detach(staleEntity);
+
+        return updated;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <Y> void setAttribute(CriteriaUpdate<T> update, SingularAttribute<? super T, Y> attribute, Object value) {
+        update.set(attribute, (Y) value);
+    }
+
     public void deleteById(K id) {
-        findById(id).ifPresent(el -> entityManager.remove(el));
+        findById(id, null).ifPresent(el -> entityManager.remove(el));
+    }
+
+    // Applies "counter = counter + delta" in the database, one statement per row, so concurrent writers
+    // never lose an increment. Managed instances keep their loaded value until they are refreshed
+    protected void addToCounter(SingularAttribute<? super T, Integer> counter, Map<K, Integer> deltasById) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        deltasById.forEach((id, delta) -> {
+            if (delta == 0) return;
+
+            CriteriaUpdate<T> update = builder.createCriteriaUpdate(getEntityClass());
+            Root<T> root = update.from(getEntityClass());
+            Path<Integer> value = root.get(counter);
+            update.set(value, builder.sum(value, delta))
+                    .where(builder.equal(root.get(getIdAttribute()), id));
+            entityManager.createQuery(update).executeUpdate();
+        });
+    }
+
+    // Adds every delta to its row's counter through one JDBC batch of a single UPDATE ... SET c = c + ? statement,
+    // without reading the rows or bumping their version. Rows are updated in id order, so concurrent batches
+    // take the row locks in the same order and cannot deadlock each other
+    protected void addToCounterInBatch(SingularAttribute<? super T, Integer> counter, Map<K, Long> deltasById) {
+        if (deltasById.isEmpty()) return;
+
+        AbstractEntityPersister persister = (AbstractEntityPersister) entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class).getMappingMetamodel().getEntityDescriptor(getEntityClass());
+        String counterColumn = persister.getPropertyColumnNames(counter.getName())[0];
+        String sql = "UPDATE " + persister.getTableName() + " SET " + counterColumn + " = " + counterColumn + " + ? " +
+                "WHERE " + persister.getIdentifierColumnNames()[0] + " = ?";
+
+        entityManager.flush();
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (var delta : new TreeMap<>(deltasById).entrySet()) {
+                    statement.setLong(1, delta.getValue());
+                    statement.setObject(2, delta.getKey());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+
+    // Moves one count from the current owner of a row to newOwnerId in a single statement, without reading the row.
+    // currentOwnerQuery selects the owner id of the row bound to :rowId; nothing changes while the owner stays the same
+    protected void moveCounter(SingularAttribute<? super T, Integer> counter, String currentOwnerQuery, UUID rowId, K newOwnerId) {
+        String counterPath = "e." + counter.getName();
+        String idPath = "e." + getIdAttribute().getName();
+        entityManager.createQuery("UPDATE " + getEntityClass().getSimpleName() + " AS e " +
+                        "SET " + counterPath + " = " + counterPath + " + CASE WHEN " + idPath + " = :newOwnerId THEN 1 ELSE -1 END " +
+                        "WHERE (" + idPath + " = :newOwnerId OR " + idPath + " = (" + currentOwnerQuery + ")) " +
+                        "AND (" + currentOwnerQuery + ") <> :newOwnerId")
+                .setParameter("rowId", rowId)
+                .setParameter("newOwnerId", newOwnerId)
+                .executeUpdate();
+    }
+
+    protected Map<String, Integer> executeBulkDeletes(Map<String, Query> deletesByTable) {
+        return executeBulkDeletes(List.of(), deletesByTable);
+    }
+
+    // Runs set-based DELETE statements in the given order and returns the affected rows per table.
+    // The counter updates run first, while the rows they count are still there.
+    // They bypass the persistence context, so pending changes are flushed first and stale instances cleared after
+    protected Map<String, Integer> executeBulkDeletes(List<Query> counterUpdates, Map<String, Query> deletesByTable) {
+        entityManager.flush();
+        counterUpdates.forEach(Query::executeUpdate);
+        Map<String, Integer> deletedRows = new LinkedHashMap<>();
+        deletesByTable.forEach((table, delete) -> deletedRows.put(table, delete.executeUpdate()));
+        entityManager.clear();
+
+        return deletedRows;
     }
 }
@@ -0,0 +1,24 @@
+package org.senla_project.application.repository;
+
+import org.senla_project.application.util.pagination.KeysetPage;
+
+import java.util.List;
+import java.util.Optional;
+
+public abstract class AbstractProjectionDao<K, T, R> extends AbstractDao<K, T> implements ProjectionDao<K, R> {
+
+    protected abstract TupleProjection<T, R> getProjection();
+
+    public Optional<R> findDtoById(K id) {
+        return findProjectedById(id, getProjection());
+    }
+
+    public List<R> findAllDtos(int pageNumber) {
+        return findAllProjected(pageNumber, getProjection());
+    }
+
+    public KeysetPage<R> findAllDtos(String cursor, int pageSize) {
+        return findAllProjected(cursor, pageSize, getProjection());
+    }
+
+}
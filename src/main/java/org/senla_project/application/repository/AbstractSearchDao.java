@@ -0,0 +1,163 @@
+package org.senla_project.application.repository;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.hibernate.query.NativeQuery;
+import org.senla_project.application.dto.SearchHitDto;
+import org.senla_project.application.util.exception.InvalidRequestParametersException;
+import org.senla_project.application.util.pagination.KeysetPage;
+import org.senla_project.application.util.pagination.SearchCursor;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// Ranked full-text search. Postgres matches the generated search_vector column through its GIN index,
+// other databases (the H2 test profile) fall back to a case-insensitive LIKE over the searchable attributes.
+// Headlines are HTML: the stored text is escaped on both paths, so the <b></b> around matches is the only markup
+public abstract class AbstractSearchDao<K, T, R> extends AbstractProjectionDao<K, T, R> implements SearchDao {
+
+    protected static final String TEXT_SEARCH_CONFIG = "english";
+    protected static final String TS_QUERY = "websearch_to_tsquery('" + TEXT_SEARCH_CONFIG + "', :query)";
+    protected static final String HEADLINE_OPTIONS = "MaxFragments=2, MaxWords=30, MinWords=10";
+
+    private static final String HIGHLIGHT_START = "<b>";
+    private static final String HIGHLIGHT_END = "</b>";
+    private static final int FALLBACK_HEADLINE_CONTEXT = 80;
+    private static final float FALLBACK_RANK = 1.0f;
+
+    // ts_headline over the column escaped the way HtmlUtils.htmlEscape escapes the fallback headlines
+    protected static String makeHeadlineSql(String textColumn) {
+        String escapedText = "replace(replace(replace(replace(replace(" + textColumn +
+                ", '&', '&amp;'), '<', '&lt;'), '>', '&gt;'), '\"', '&quot;'), '''', '&#39;')";
+        return "ts_headline('" + TEXT_SEARCH_CONFIG + "', " + escapedText + ", " + TS_QUERY + ", '" + HEADLINE_OPTIONS + "')";
+    }
+
+    // Native query for one page of hits; must contain a :limit parameter and splice in makeKeysetClause
+    protected abstract NativeQuery<Object[]> createFullTextQuery(SearchCursor after);
+
+    protected abstract SearchHitDto toSearchHit(Object[] row);
+
+    protected abstract List<SingularAttribute<? super T, String>> getSearchableAttributes();
+
+    protected abstract String getHeadlineText(T entity);
+
+    protected abstract SearchHitDto toSearchHit(T entity, String headline);
+
+    public KeysetPage<SearchHitDto> search(String query, String cursor, int pageSize) {
+        if (query == null || query.isBlank())
+            throw new InvalidRequestParametersException("Search query must not be blank");
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE)
+            throw new InvalidRequestParametersException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+
+        SearchCursor after = cursor == null || cursor.isBlank() ? null : SearchCursor.decode(cursor);
+        List<SearchHitDto> hits = isPostgreSQL()
+                ? searchFullText(query, after, pageSize + 1)
+                : searchByPattern(query, after, pageSize + 1);
+
+        boolean hasNextPage = hits.size() > pageSize;
+        List<SearchHitDto> pageHits = hasNextPage ? hits.subList(0, pageSize) : hits;
+        String nextCursor = null;
+        if (hasNextPage) {
+            SearchHitDto lastHit = pageHits.getLast();
+            nextCursor = new SearchCursor(lastHit.getRank(), UUID.fromString(lastHit.getId())).encode();
+        }
+
+        return new KeysetPage<>(pageHits, nextCursor);
+    }
+
+    protected String makeKeysetClause(String rankExpression, String idColumn, SearchCursor after) {
+        if (after == null) return "";
+        return " AND (" + rankExpression + " < :afterRank OR (" + rankExpression + " = :afterRank AND " + idColumn + " > :afterId))";
+    }
+
+    private List<SearchHitDto> searchFullText(String query, SearchCursor after, int limit) {
+        NativeQuery<Object[]> fullTextQuery = createFullTextQuery(after)
+                .setParameter("query", query)
+                .setParameter("limit", limit);
+        if (after != null) {
+            fullTextQuery.setParameter("afterRank", after.getRank())
+                    .setParameter("afterId", after.getId());
+        }
+
+        return fullTextQuery.getResultList().stream()
+                .map(this::toSearchHit)
+                .toList();
+    }
+
+    // Every term has to appear in one of the searchable attributes; all hits share one rank, so pages follow the id
+    private List<SearchHitDto> searchByPattern(String query, SearchCursor after, int limit) {
+        List<String> terms = Arrays.stream(query.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> !term.isEmpty())
+                .toList();
+        if (terms.isEmpty()) return List.of();
+
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> criteriaQuery = builder.createQuery(getEntityClass());
+        Root<T> root = criteriaQuery.from(getEntityClass());
+        Path<UUID> id = root.get(getIdAttribute());
+
+        List<Predicate> predicates = new ArrayList<>();
+        for (String term : terms) {
+            predicates.add(builder.or(getSearchableAttributes().stream()
+                    .map(attribute -> builder.like(builder.lower(root.get(attribute)), "%" + term + "%"))
+                    .toArray(Predicate[]::new)));
+        }
+        if (after != null) predicates.add(builder.greaterThan(id, after.getId()));
+        criteriaQuery.select(root).where(predicates.toArray(Predicate[]::new)).orderBy(builder.asc(id));
+
+        return withFetchGraph(entityManager.createQuery(criteriaQuery), getDefaultEntityGraphName())
+                .setMaxResults(limit)
+                .getResultList()
+                .stream()
+                .map(entity -> {
+                    SearchHitDto hit = toSearchHit(entity, highlight(getHeadlineText(entity), terms));
+                    hit.setRank(FALLBACK_RANK);
+                    return hit;
+                })
+                .toList();
+    }
+
+    // Mirrors ts_headline: an escaped fragment around the first match with every term wrapped in <b></b>
+    private String highlight(String text, List<String> terms) {
+        if (text == null) return null;
+
+        String lowerText = text.toLowerCase(Locale.ROOT);
+        int firstMatch = terms.stream()
+                .mapToInt(lowerText::indexOf)
+                .filter(index -> index >= 0)
+                .min()
+                .orElse(0);
+        String fragment = text.substring(
+                Math.max(0, firstMatch - FALLBACK_HEADLINE_CONTEXT),
+                Math.min(text.length(), firstMatch + FALLBACK_HEADLINE_CONTEXT)
+        );
+
+        Pattern termPattern = Pattern.compile(
+                terms.stream().map(Pattern::quote).collect(Collectors.joining("|")),
+                Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE
+        );
+        StringBuilder headline = new StringBuilder();
+        Matcher matcher = termPattern.matcher(fragment);
+        int end = 0;
+        while (matcher.find()) {
+            headline.append(HtmlUtils.htmlEscape(fragment.substring(end, matcher.start())))
+                    .append(HIGHLIGHT_START)
+                    .append(HtmlUtils.htmlEscape(matcher.group()))
+                    .append(HIGHLIGHT_END);
+            end = matcher.end();
+        }
+        return headline.append(HtmlUtils.htmlEscape(fragment.substring(end))).toString();
+    }
+
+}
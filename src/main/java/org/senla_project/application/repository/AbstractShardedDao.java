@@ -0,0 +1,195 @@
+package org.senla_project.application.repository;
+
+import org.senla_project.application.util.datasource.ShardedDataSources;
+import org.senla_project.application.util.exception.InvalidRequestParametersException;
+import org.senla_project.application.util.pagination.KeysetCursor;
+import org.senla_project.application.util.pagination.KeysetPage;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.senla_project.application.repository.AbstractDao.DEFAULT_PAGE_SIZE;
+import static org.senla_project.application.repository.AbstractDao.MAX_PAGE_SIZE;
+
+// Base of the repositories whose rows are spread over ShardedDataSources. Rows are read and written over plain JDBC
+// as detached entities; lists are gathered from every shard and merged in the (time, id) order AbstractDao pages by
+public abstract class AbstractShardedDao<T> implements DefaultDao<UUID, T> {
+
+    // The order Postgres and H2 compare uuid values in, which differs from UUID.compareTo for the upper half
+    private static final Comparator<UUID> UUID_ORDER = Comparator
+            .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+    @Autowired
+    protected ShardedDataSources shards;
+
+    // "SELECT ... FROM ..." producing the rows mapRow reads; WHERE and ORDER BY clauses are appended to it
+    protected abstract String getSelectClause();
+
+    protected abstract String getIdColumn();
+
+    protected abstract String getTimeColumn();
+
+    protected abstract T mapRow(ResultSet resultSet) throws SQLException;
+
+    protected abstract UUID getId(T entity);
+
+    protected abstract LocalDate getTime(T entity);
+
+    // Loads the rows of the given ids from the shards they can be on, in any order
+    protected abstract List<T> findRowsByIds(Collection<UUID> ids);
+
+    // Fills in what the shard rows only reference, like entities of the main database; called on every result list
+    protected List<T> loadReferences(List<T> entities) {
+        return entities;
+    }
+
+    // Rows are copies of the shard rows, so there is no fetch plan to apply and the entity graph is ignored
+    public Optional<T> findById(UUID id, String entityGraphName) {
+        return findById(id);
+    }
+
+    public List<T> findAllByIds(Collection<UUID> ids, String entityGraphName) {
+        return findAllByIds(ids);
+    }
+
+    // Results follow the ids, missing ones are left out
+    public List<T> findAllByIds(Collection<UUID> ids) {
+        if (ids.isEmpty() || ids.size() > MAX_PAGE_SIZE)
+            throw new InvalidRequestParametersException("Between 1 and " + MAX_PAGE_SIZE + " ids can be requested at once");
+
+        Map<UUID, T> rowsById = findRowsByIds(new LinkedHashSet<>(ids)).stream()
+                .collect(Collectors.toMap(this::getId, Function.identity()));
+        return loadReferences(new LinkedHashSet<>(ids).stream()
+                .map(rowsById::get)
+                .filter(Objects::nonNull)
+                .toList());
+    }
+
+    public List<T> findAll(int pageNumber, String entityGraphName) {
+        return findAll(pageNumber);
+    }
+
+    // Page n of the merged order lies within the first n pages of every shard
+    public List<T> findAll(int pageNumber) {
+        int pageEnd = pageNumber * DEFAULT_PAGE_SIZE;
+        return loadReferences(queryAllShards(makeOrderClause(), pageEnd).stream()
+                .sorted(getKeysetOrder())
+                .skip((long) (pageNumber - 1) * DEFAULT_PAGE_SIZE)
+                .limit(DEFAULT_PAGE_SIZE)
+                .toList());
+    }
+
+    public KeysetPage<T> findAll(String cursor, int pageSize, String entityGraphName) {
+        return findAll(cursor, pageSize);
+    }
+
+    // Every shard returns its next pageSize + 1 rows after the cursor; the merged page takes the first of them
+    public KeysetPage<T> findAll(String cursor, int pageSize) {
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE)
+            throw new InvalidRequestParametersException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+
+        List<T> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = queryAllShards(makeOrderClause(), pageSize + 1);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            if (after.getTime() == null) throw new InvalidRequestParametersException("Invalid page cursor");
+            rows = queryAllShards(" WHERE " + getTimeColumn() + " >= ? AND (" + getTimeColumn() + " > ? OR " + getIdColumn() + " > ?)" +
+                    makeOrderClause(), after.getTime(), after.getTime(), after.getId(), pageSize + 1);
+        }
+        List<T> mergedRows = rows.stream()
+                .sorted(getKeysetOrder())
+                .limit(pageSize + 1)
+                .toList();
+
+        boolean hasNextPage = mergedRows.size() > pageSize;
+        List<T> pageRows = hasNextPage ? mergedRows.subList(0, pageSize) : mergedRows;
+        String nextCursor = null;
+        if (hasNextPage) {
+            T lastRow = pageRows.getLast();
+            nextCursor = new KeysetCursor(getTime(lastRow), getId(lastRow)).encode();
+        }
+
+        return new KeysetPage<>(loadReferences(pageRows), nextCursor);
+    }
+
+    // Walks the merged keyset pages, so memory stays at one page regardless of how many rows the shards hold
+    public <R> Stream<R> streamAll(String entityGraphName, Function<T, R> mapper) {
+        return Stream.iterate(findAll(null, MAX_PAGE_SIZE), Objects::nonNull,
+                        page -> page.getNextCursor() == null ? null : findAll(page.getNextCursor(), MAX_PAGE_SIZE))
+                .flatMap(page -> page.getContent().stream())
+                .map(mapper);
+    }
+
+    protected List<T> queryShard(String shardKey, String clauses, Object... parameters) {
+        return shards.execute(shardKey, connection -> query(connection, clauses, parameters));
+    }
+
+    protected List<T> queryAllShards(String clauses, Object... parameters) {
+        return shards.executeOnAll(connection -> query(connection, clauses, parameters)).values().stream()
+                .flatMap(List::stream)
+                .toList();
+    }
+
+    protected List<T> query(Connection connection, String clauses, Object... parameters) throws SQLException {
+        try (PreparedStatement statement = prepare(connection, getSelectClause() + clauses, parameters);
+             ResultSet resultSet = statement.executeQuery()) {
+            List<T> rows = new ArrayList<>();
+            while (resultSet.next()) rows.add(mapRow(resultSet));
+            return rows;
+        }
+    }
+
+    protected static int executeUpdate(Connection connection, String sql, Object... parameters) throws SQLException {
+        try (PreparedStatement statement = prepare(connection, sql, parameters)) {
+            return statement.executeUpdate();
+        }
+    }
+
+    protected static PreparedStatement prepare(Connection connection, String sql, Object... parameters) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql);
+        for (int i = 0; i < parameters.length; i++) statement.setObject(i + 1, parameters[i]);
+        return statement;
+    }
+
+    protected static String makePlaceholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    protected Map<String, List<UUID>> groupByShard(Collection<UUID> shardingKeys) {
+        Map<String, List<UUID>> keysByShard = new LinkedHashMap<>();
+        for (UUID shardingKey : shardingKeys) {
+            keysByShard.computeIfAbsent(shards.shardFor(shardingKey), shardKey -> new ArrayList<>()).add(shardingKey);
+        }
+        return keysByShard;
+    }
+
+    private String makeOrderClause() {
+        return " ORDER BY " + getTimeColumn() + " NULLS LAST, " + getIdColumn() + " LIMIT ?";
+    }
+
+    private Comparator<T> getKeysetOrder() {
+        return Comparator.comparing(this::getTime, Comparator.nullsLast(Comparator.<LocalDate>naturalOrder()))
+                .thenComparing(this::getId, UUID_ORDER);
+    }
+
+}
@@ -1,10 +1,14 @@
 package org.senla_project.application.repository;
 
+import org.senla_project.application.dto.AnswerResponseDto;
 import org.senla_project.application.entity.Answer;
 
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
-public interface AnswerRepository extends DefaultDao<UUID, Answer> {
+public interface AnswerRepository extends DefaultDao<UUID, Answer>, VersionedDao<UUID, Answer>, ProjectionDao<UUID, AnswerResponseDto>, SearchDao, PartitionedDao {
     Optional<Answer> findAnswer(String authorName, UUID questionId, String body);
+
+    void addToUsefulness(Map<UUID, Long> deltasByAnswerId);
 }
@@ -1,12 +1,18 @@
 package org.senla_project.application.repository;
 
+import org.senla_project.application.dto.CollaborationResponseDto;
 import org.senla_project.application.entity.Collaboration;
 import org.springframework.stereotype.Component;
 
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 @Component
-public interface CollaborationRepository extends DefaultDao<UUID, Collaboration> {
+public interface CollaborationRepository extends DefaultDao<UUID, Collaboration>, VersionedDao<UUID, Collaboration>, ProjectionDao<UUID, CollaborationResponseDto> {
     Optional<Collaboration> findCollabByName(String collabName);
+
+    Map<String, Integer> deleteWithDependentsById(UUID id);
+
+    void addToMemberCounts(Map<UUID, Integer> deltasByCollabId);
 }
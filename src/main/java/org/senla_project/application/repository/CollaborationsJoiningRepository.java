@@ -1,12 +1,19 @@
 package org.senla_project.application.repository;
 
+import org.senla_project.application.dto.CollaborationsJoiningResponseDto;
 import org.senla_project.application.entity.CollaborationsJoining;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Component
-public interface CollaborationsJoiningRepository extends DefaultDao<UUID, CollaborationsJoining> {
+public interface CollaborationsJoiningRepository extends DefaultDao<UUID, CollaborationsJoining>, ProjectionDao<UUID, CollaborationsJoiningResponseDto> {
     Optional<CollaborationsJoining> findCollabJoin(String username, String collaboration);
+
+    List<CollaborationsJoining> upsertAll(Collection<CollaborationsJoining> collabJoins);
+
+    int deleteAllByUserId(UUID userId);
 }
@@ -1,16 +1,37 @@
 package org.senla_project.application.repository;
 
+import org.senla_project.application.util.pagination.KeysetPage;
+
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 public interface DefaultDao<K, T> {
 
     T create(T entity);
 
+    List<T> createAll(Collection<T> entities);
+
     Optional<T> findById(K id);
 
+    Optional<T> findById(K id, String entityGraphName);
+
+    List<T> findAllByIds(Collection<K> ids);
+
+    List<T> findAllByIds(Collection<K> ids, String entityGraphName);
+
     List<T> findAll(int pageNumber);
 
+    List<T> findAll(int pageNumber, String entityGraphName);
+
+    KeysetPage<T> findAll(String cursor, int pageSize);
+
+    KeysetPage<T> findAll(String cursor, int pageSize, String entityGraphName);
+
+    <R> Stream<R> streamAll(String entityGraphName, Function<T, R> mapper);
+
     T update(T updatedEntity);
 
     void deleteById(K id);
@@ -0,0 +1,11 @@
+package org.senla_project.application.repository;
+
+import java.time.LocalDate;
+
+public interface PartitionedDao {
+
+    int createPartitions(LocalDate fromMonth, int months);
+
+    int dropPartitionsBefore(LocalDate month);
+
+}
@@ -1,5 +1,6 @@
 package org.senla_project.application.repository;
 
+import org.senla_project.application.dto.ProfileResponseDto;
 import org.senla_project.application.entity.Profile;
 import org.springframework.stereotype.Component;
 
@@ -7,6 +8,6 @@ import java.util.Optional;
 import java.util.UUID;
 
 @Component
-public interface ProfileRepository extends DefaultDao<UUID, Profile> {
+public interface ProfileRepository extends DefaultDao<UUID, Profile>, VersionedDao<UUID, Profile>, ProjectionDao<UUID, ProfileResponseDto> {
     Optional<Profile> findProfileByUsername(String username);
 }
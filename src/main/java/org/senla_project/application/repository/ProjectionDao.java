@@ -0,0 +1,16 @@
+package org.senla_project.application.repository;
+
+import org.senla_project.application.util.pagination.KeysetPage;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ProjectionDao<K, R> {
+
+    Optional<R> findDtoById(K id);
+
+    List<R> findAllDtos(int pageNumber);
+
+    KeysetPage<R> findAllDtos(String cursor, int pageSize);
+
+}
@@ -1,12 +1,35 @@
 package org.senla_project.application.repository;
 
+import org.senla_project.application.dto.QuestionResponseDto;
 import org.senla_project.application.entity.Question;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 @Component
-public interface QuestionRepository extends DefaultDao<UUID, Question> {
+public interface QuestionRepository extends DefaultDao<UUID, Question>, VersionedDao<UUID, Question>, ProjectionDao<UUID, QuestionResponseDto>, SearchDao {
     Optional<Question> findQuestion(String header, String body, String authorName);
+
+    Map<String, Integer> deleteWithDependentsById(UUID id);
+
+    void addToAnswerCounts(Map<UUID, Integer> deltasByQuestionId);
+
+    void moveAnswerCount(UUID answerId, UUID newQuestionId);
+
+    void addToInteresting(Map<UUID, Long> deltasByQuestionId);
+
+    List<UUID> lockIdsToArchive(LocalDate createdBefore, int limit);
+
+    Map<String, Integer> archiveByIds(Collection<UUID> ids);
+
+    Optional<QuestionResponseDto> findArchivedDtoById(UUID id);
+
+    List<QuestionResponseDto> findArchivedDtosByIds(Collection<UUID> ids);
+
+    int recountAnswerCounts(UUID fromId, UUID toId);
 }
@@ -0,0 +1,10 @@
+package org.senla_project.application.repository;
+
+import org.senla_project.application.dto.SearchHitDto;
+import org.senla_project.application.util.pagination.KeysetPage;
+
+public interface SearchDao {
+
+    KeysetPage<SearchHitDto> search(String query, String cursor, int pageSize);
+
+}
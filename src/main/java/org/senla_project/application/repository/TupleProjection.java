@@ -0,0 +1,25 @@
+package org.senla_project.application.repository;
+
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+// Selects DTO columns straight from the query instead of hydrating managed entities.
+// Id and keyset time are always selected by AbstractDao under ID_ALIAS and TIME_ALIAS
+public interface TupleProjection<T, R> {
+
+    DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    List<Selection<?>> select(Root<T> root);
+
+    R toDto(Tuple row);
+
+    static String formatDate(LocalDate date) {
+        return date == null ? null : DATE_FORMAT.format(date);
+    }
+
+}
@@ -3,10 +3,23 @@ package org.senla_project.application.repository;
 import org.senla_project.application.entity.User;
 import org.springframework.stereotype.Component;
 
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 @Component
 public interface UserRepository extends DefaultDao<UUID, User> {
     Optional<User> findUserByUsername(String nickname);
-}
\ No newline at end of file
+
+    Map<String, Integer> deleteWithDependentsById(UUID id);
+
+    void addToQuestionCounts(Map<UUID, Integer> deltasByUserId);
+
+    void addToAnswerCounts(Map<UUID, Integer> deltasByUserId);
+
+    void moveQuestionCount(UUID questionId, UUID newAuthorId);
+
+    void moveAnswerCount(UUID answerId, UUID newAuthorId);
+
+    int recountContentCounts(UUID fromId, UUID toId);
+}
@@ -0,0 +1,11 @@
+package org.senla_project.application.repository;
+
+import java.util.Set;
+
+public interface VersionedDao<K, T> {
+
+    boolean updateIfVersion(K id, Long expectedVersion, T updatedEntity);
+
+    boolean patchIfVersion(K id, Long expectedVersion, T patchedEntity, Set<String> attributeNames);
+
+}
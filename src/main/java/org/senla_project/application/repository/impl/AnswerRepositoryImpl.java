@@ -1,29 +1,154 @@
 package org.senla_project.application.repository.impl;
 
+import jakarta.persistence.Tuple;
 import jakarta.persistence.criteria.*;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.hibernate.query.NativeQuery;
+import org.senla_project.application.dto.AnswerResponseDto;
+import org.senla_project.application.dto.SearchHitDto;
 import org.senla_project.application.entity.*;
-import org.senla_project.application.repository.AbstractDao;
+import org.senla_project.application.repository.AbstractSearchDao;
 import org.senla_project.application.repository.AnswerRepository;
+import org.senla_project.application.repository.TupleProjection;
+import org.senla_project.application.util.pagination.SearchCursor;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public class AnswerRepositoryImpl extends AbstractDao<UUID, Answer> implements AnswerRepository {
+public class AnswerRepositoryImpl extends AbstractSearchDao<UUID, Answer, AnswerResponseDto> implements AnswerRepository {
     @Override
     protected Class<Answer> getEntityClass() {
         return Answer.class;
     }
 
+    @Override
+    protected SingularAttribute<Answer, UUID> getIdAttribute() {
+        return Answer_.answerId;
+    }
+
+    @Override
+    protected SingularAttribute<Answer, LocalDate> getKeysetTimeAttribute() {
+        return Answer_.createTime;
+    }
+
+    @Override
+    protected String getDefaultEntityGraphName() {
+        return Answer.ENTITY_GRAPH;
+    }
+
+    @Override
+    protected String getPartitionedTableName() {
+        return "answers";
+    }
+
+    @Override
+    protected SingularAttribute<Answer, Long> getVersionAttribute() {
+        return Answer_.version;
+    }
+
+    @Override
+    protected List<SingularAttribute<? super Answer, ?>> getUpdatableAttributes() {
+        return List.of(Answer_.body, Answer_.author, Answer_.question, Answer_.createTime);
+    }
+
+    @Override
+    protected TupleProjection<Answer, AnswerResponseDto> getProjection() {
+        return new TupleProjection<>() {
+            @Override
+            public List<Selection<?>> select(Root<Answer> root) {
+                return List.of(
+                        root.get(Answer_.body).alias("body"),
+                        root.get(Answer_.usefulness).alias("usefulness"),
+                        root.get(Answer_.question).get(Question_.questionId).alias("questionId"),
+                        root.join(Answer_.author, JoinType.LEFT).get(User_.username).alias("authorName"),
+                        root.get(Answer_.version).alias("version")
+                );
+            }
+
+            @Override
+            public AnswerResponseDto toDto(Tuple row) {
+                return AnswerResponseDto.builder()
+                        .answerId(row.get(ID_ALIAS, UUID.class).toString())
+                        .body(row.get("body", String.class))
+                        .usefulness(row.get("usefulness", Integer.class))
+                        .questionId(row.get("questionId", UUID.class))
+                        .authorName(row.get("authorName", String.class))
+                        .version(row.get("version", Long.class))
+                        .createTime(TupleProjection.formatDate(row.get(TIME_ALIAS, LocalDate.class)))
+                        .build();
+            }
+        };
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected NativeQuery<Object[]> createFullTextQuery(SearchCursor after) {
+        String rank = "ts_rank(a.search_vector, " + TS_QUERY + ")";
+        String sql = "SELECT page.answer_id AS id, page.question_id AS questionId, u.username AS authorName, " +
+                makeHeadlineSql("page.body") + " AS headline, " +
+                "page.rank AS rank, page.create_time AS createTime " +
+                "FROM (SELECT a.answer_id, a.question_id, a.body, a.author, a.create_time, " + rank + " AS rank " +
+                "FROM answers a WHERE a.search_vector @@ " + TS_QUERY + makeKeysetClause(rank, "a.answer_id", after) + " " +
+                "ORDER BY rank DESC, a.answer_id LIMIT :limit) AS page " +
+                // Imported posts whose owner is unknown have no author
+                "LEFT JOIN users u ON u.user_id = page.author " +
+                "ORDER BY page.rank DESC, page.answer_id";
+
+        return entityManager.createNativeQuery(sql).unwrap(NativeQuery.class)
+                .addScalar("id", UUID.class)
+                .addScalar("questionId", UUID.class)
+                .addScalar("authorName", String.class)
+                .addScalar("headline", String.class)
+                .addScalar("rank", Float.class)
+                .addScalar("createTime", LocalDate.class);
+    }
+
+    @Override
+    protected SearchHitDto toSearchHit(Object[] row) {
+        return SearchHitDto.builder()
+                .id(row[0].toString())
+                .questionId(row[1].toString())
+                .authorName((String) row[2])
+                .headline((String) row[3])
+                .rank((Float) row[4])
+                .createTime(TupleProjection.formatDate((LocalDate) row[5]))
+                .build();
+    }
+
+    @Override
+    protected List<SingularAttribute<? super Answer, String>> getSearchableAttributes() {
+        return List.of(Answer_.body);
+    }
+
+    @Override
+    protected String getHeadlineText(Answer answer) {
+        return answer.getBody();
+    }
+
+    @Override
+    protected SearchHitDto toSearchHit(Answer answer, String headline) {
+        return SearchHitDto.builder()
+                .id(answer.getAnswerId().toString())
+                .questionId(answer.getQuestion().getQuestionId().toString())
+                .authorName(answer.getAuthor() == null ? null : answer.getAuthor().getUsername())
+                .headline(headline)
+                .createTime(TupleProjection.formatDate(answer.getCreateTime()))
+                .build();
+    }
+
     @Override
     public Optional<Answer> findAnswer(String authorName, UUID questionId, String body) {
         CriteriaBuilder builder = entityManager.getCriteriaBuilder();
         CriteriaQuery<Answer> query = builder.createQuery(Answer.class);
 
         Root<Answer> root = query.from(Answer.class);
-        Join<Answer, User> userJoin = root.join(Answer_.author, JoinType.LEFT);
-        Join<Answer, Question> questionJoin = root.join(Answer_.question, JoinType.LEFT);
+        Join<Answer, User> userJoin = (Join<Answer, User>) root.fetch(Answer_.author, JoinType.INNER);
+        Join<Answer, Question> questionJoin = (Join<Answer, Question>) root.fetch(Answer_.question, JoinType.INNER);
 
         Predicate equalsAuthorName = builder.equal(userJoin.get(User_.username), authorName);
         Predicate equalsQuestionId = builder.equal(questionJoin.get(Question_.questionId), questionId);
@@ -35,4 +160,9 @@ public class AnswerRepositoryImpl extends AbstractDao<UUID, Answer> implements A
         if (results.isEmpty()) return Optional.empty();
         return Optional.of(results.getFirst());
     }
+
+    @Override
+    public void addToUsefulness(Map<UUID, Long> deltasByAnswerId) {
+        addToCounterInBatch(Answer_.usefulness, deltasByAnswerId);
+    }
 }
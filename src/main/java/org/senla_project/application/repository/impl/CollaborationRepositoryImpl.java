@@ -1,38 +1,106 @@
 package org.senla_project.application.repository.impl;
 
-import jakarta.persistence.criteria.CriteriaBuilder;
-import jakarta.persistence.criteria.CriteriaQuery;
-import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
 import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.hibernate.Session;
+import org.senla_project.application.dto.CollaborationResponseDto;
 import org.senla_project.application.entity.Collaboration;
 import org.senla_project.application.entity.Collaboration_;
-import org.senla_project.application.repository.AbstractDao;
+import org.senla_project.application.repository.AbstractProjectionDao;
 import org.senla_project.application.repository.CollaborationRepository;
+import org.senla_project.application.repository.TupleProjection;
+import org.senla_project.application.util.datasource.ShardingCondition;
+import org.springframework.context.annotation.Conditional;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public class CollaborationRepositoryImpl extends AbstractDao<UUID, Collaboration> implements CollaborationRepository {
+@Conditional(ShardingCondition.Disabled.class)
+public class CollaborationRepositoryImpl extends AbstractProjectionDao<UUID, Collaboration, CollaborationResponseDto> implements CollaborationRepository {
     @Override
     protected Class<Collaboration> getEntityClass() {
         return Collaboration.class;
     }
 
+    @Override
+    protected SingularAttribute<Collaboration, UUID> getIdAttribute() {
+        return Collaboration_.collabId;
+    }
+
+    @Override
+    protected SingularAttribute<Collaboration, LocalDate> getKeysetTimeAttribute() {
+        return Collaboration_.createTime;
+    }
+
+    @Override
+    protected SingularAttribute<Collaboration, Long> getVersionAttribute() {
+        return Collaboration_.version;
+    }
+
+    @Override
+    protected List<SingularAttribute<? super Collaboration, ?>> getUpdatableAttributes() {
+        return List.of(Collaboration_.collabName, Collaboration_.createTime);
+    }
+
+    @Override
+    protected TupleProjection<Collaboration, CollaborationResponseDto> getProjection() {
+        return new TupleProjection<>() {
+            @Override
+            public List<Selection<?>> select(Root<Collaboration> root) {
+                return List.of(
+                        root.get(Collaboration_.collabName).alias("collabName"),
+                        root.get(Collaboration_.memberCount).alias("memberCount"),
+                        root.get(Collaboration_.version).alias("version")
+                );
+            }
+
+            @Override
+            public CollaborationResponseDto toDto(Tuple row) {
+                return CollaborationResponseDto.builder()
+                        .collabId(row.get(ID_ALIAS, UUID.class).toString())
+                        .collabName(row.get("collabName", String.class))
+                        .createTime(TupleProjection.formatDate(row.get(TIME_ALIAS, LocalDate.class)))
+                        .memberCount(row.get("memberCount", Integer.class))
+                        .version(row.get("version", Long.class))
+                        .build();
+            }
+        };
+    }
+
     @Override
     public Optional<Collaboration> findCollabByName(String collabName) {
-        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
-        CriteriaQuery<Collaboration> query = builder.createQuery(Collaboration.class);
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Collaboration.class)
+                .loadOptional(collabName);
+    }
 
-        Root<Collaboration> root = query.from(Collaboration.class);
+    @Override
+    public void deleteById(UUID id) {
+        deleteWithDependentsById(id);
+    }
 
-        Predicate equalsCollabName = builder.equal(root.get(Collaboration_.collabName), collabName);
+    @Override
+    public Map<String, Integer> deleteWithDependentsById(UUID id) {
+        Map<String, Query> deletes = new LinkedHashMap<>();
+        deletes.put("collaborations_users", entityManager.createQuery("DELETE FROM CollaborationsJoining AS cj WHERE cj.collab.collabId = :id")
+                .setParameter("id", id));
+        deletes.put("collaborations", entityManager.createQuery("DELETE FROM Collaboration AS c WHERE c.collabId = :id")
+                .setParameter("id", id));
 
-        query.select(root).where(equalsCollabName);
+        return executeBulkDeletes(deletes);
+    }
 
-        var results = entityManager.createQuery(query).getResultList();
-        if (results.isEmpty()) return Optional.empty();
-        return Optional.of(results.getFirst());
+    @Override
+    public void addToMemberCounts(Map<UUID, Integer> deltasByCollabId) {
+        addToCounter(Collaboration_.memberCount, deltasByCollabId);
     }
 }
@@ -1,29 +1,82 @@
 package org.senla_project.application.repository.impl;
 
+import jakarta.persistence.Tuple;
 import jakarta.persistence.criteria.*;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.hibernate.query.NativeQuery;
+import org.senla_project.application.dto.CollaborationsJoiningResponseDto;
 import org.senla_project.application.entity.*;
-import org.senla_project.application.repository.AbstractDao;
+import org.senla_project.application.repository.AbstractProjectionDao;
 import org.senla_project.application.repository.CollaborationsJoiningRepository;
+import org.senla_project.application.repository.TupleProjection;
+import org.senla_project.application.util.datasource.ShardingCondition;
+import org.senla_project.application.util.id.UuidV7Generator;
+import org.springframework.context.annotation.Conditional;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
-public class CollaborationsJoiningRepositoryImpl extends AbstractDao<UUID, CollaborationsJoining> implements CollaborationsJoiningRepository {
+@Conditional(ShardingCondition.Disabled.class)
+public class CollaborationsJoiningRepositoryImpl extends AbstractProjectionDao<UUID, CollaborationsJoining, CollaborationsJoiningResponseDto> implements CollaborationsJoiningRepository {
     @Override
     protected Class<CollaborationsJoining> getEntityClass() {
         return CollaborationsJoining.class;
     }
 
+    @Override
+    protected SingularAttribute<CollaborationsJoining, UUID> getIdAttribute() {
+        return CollaborationsJoining_.joinId;
+    }
+
+    @Override
+    protected SingularAttribute<CollaborationsJoining, LocalDate> getKeysetTimeAttribute() {
+        return CollaborationsJoining_.joinDate;
+    }
+
+    @Override
+    protected String getDefaultEntityGraphName() {
+        return CollaborationsJoining.ENTITY_GRAPH;
+    }
+
+    @Override
+    protected TupleProjection<CollaborationsJoining, CollaborationsJoiningResponseDto> getProjection() {
+        return new TupleProjection<>() {
+            @Override
+            public List<Selection<?>> select(Root<CollaborationsJoining> root) {
+                return List.of(
+                        root.join(CollaborationsJoining_.collab, JoinType.LEFT).get(Collaboration_.collabName).alias("collabName"),
+                        root.join(CollaborationsJoining_.user, JoinType.LEFT).get(User_.username).alias("userName")
+                );
+            }
+
+            @Override
+            public CollaborationsJoiningResponseDto toDto(Tuple row) {
+                return CollaborationsJoiningResponseDto.builder()
+                        .joinId(row.get(ID_ALIAS, UUID.class).toString())
+                        .collabName(row.get("collabName", String.class))
+                        .userName(row.get("userName", String.class))
+                        .joinDate(TupleProjection.formatDate(row.get(TIME_ALIAS, LocalDate.class)))
+                        .build();
+            }
+        };
+    }
+
     @Override
     public Optional<CollaborationsJoining> findCollabJoin(String username, String collabName) {
         CriteriaBuilder builder = entityManager.getCriteriaBuilder();
         CriteriaQuery<CollaborationsJoining> query = builder.createQuery(CollaborationsJoining.class);
 
         Root<CollaborationsJoining> root = query.from(CollaborationsJoining.class);
-        Join<CollaborationsJoining, User> userJoin = root.join(CollaborationsJoining_.user, JoinType.LEFT);
-        Join<CollaborationsJoining, Collaboration> collabJoin = root.join(CollaborationsJoining_.collab, JoinType.LEFT);
+        Join<CollaborationsJoining, User> userJoin = (Join<CollaborationsJoining, User>) root.fetch(CollaborationsJoining_.user, JoinType.INNER);
+        Join<CollaborationsJoining, Collaboration> collabJoin = (Join<CollaborationsJoining, Collaboration>) root.fetch(CollaborationsJoining_.collab, JoinType.INNER);
 
         Predicate equalsUsername = builder.equal(userJoin.get(User_.username), username);
         Predicate equalsCollabName = builder.equal(collabJoin.get(Collaboration_.collabName), collabName);
@@ -34,4 +87,56 @@ public class CollaborationsJoiningRepositoryImpl extends AbstractDao<UUID, Colla
         if (results.isEmpty()) return Optional.empty();
         return Optional.of(results.getFirst());
     }
+
+    // Leaves every collaboration of the user, taking the user out of their member counts
+    @Override
+    public int deleteAllByUserId(UUID userId) {
+        entityManager.flush();
+        entityManager.createQuery("UPDATE Collaboration AS c SET c.memberCount = c.memberCount - 1 " +
+                        "WHERE c.collabId IN (SELECT cj.collab.collabId FROM CollaborationsJoining AS cj WHERE cj.user.userId = :id)")
+                .setParameter("id", userId)
+                .executeUpdate();
+        return entityManager.createQuery("DELETE FROM CollaborationsJoining AS cj WHERE cj.user.userId = :id")
+                .setParameter("id", userId)
+                .executeUpdate();
+    }
+
+    // One INSERT ... ON CONFLICT DO NOTHING per chunk of joins; the unique (user_id, collab_id) constraint decides
+    // which joins are new, so concurrent joins of the same user never race. Returns the joins that were inserted
+    @Override
+    public List<CollaborationsJoining> upsertAll(Collection<CollaborationsJoining> collabJoins) {
+        Map<List<UUID>, CollaborationsJoining> joinsByMember = new LinkedHashMap<>();
+        for (CollaborationsJoining collabJoin : collabJoins) {
+            if (collabJoin.getJoinId() == null) collabJoin.setJoinId(UuidV7Generator.generate());
+            joinsByMember.putIfAbsent(List.of(collabJoin.getCollab().getCollabId(), collabJoin.getUser().getUserId()), collabJoin);
+        }
+        List<CollaborationsJoining> pendingJoins = List.copyOf(joinsByMember.values());
+        if (pendingJoins.isEmpty()) return List.of();
+
+        entityManager.flush();
+        int insertedRows = 0;
+        for (int from = 0; from < pendingJoins.size(); from += MAX_PAGE_SIZE) {
+            insertedRows += executeUpsert(pendingJoins.subList(from, Math.min(from + MAX_PAGE_SIZE, pendingJoins.size())));
+        }
+        if (insertedRows == pendingJoins.size()) return pendingJoins;
+
+        Set<UUID> insertedIds = Set.copyOf(entityManager
+                .createQuery("SELECT j.joinId FROM CollaborationsJoining j WHERE j.joinId IN :joinIds", UUID.class)
+                .setParameter("joinIds", pendingJoins.stream().map(CollaborationsJoining::getJoinId).toList())
+                .getResultList());
+        return pendingJoins.stream()
+                .filter(collabJoin -> insertedIds.contains(collabJoin.getJoinId()))
+                .toList();
+    }
+
+    private int executeUpsert(List<CollaborationsJoining> collabJoins) {
+        NativeQuery<?> upsert = entityManager.createNativeQuery(CollaborationsJoiningUpsert.makeSql(collabJoins.size(), isPostgreSQL()))
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(CollaborationsJoining.class);
+        List<Object> parameters = CollaborationsJoiningUpsert.makeParameters(collabJoins);
+        for (int i = 0; i < parameters.size(); i++) {
+            upsert.setParameter(i + 1, parameters.get(i));
+        }
+        return upsert.executeUpdate();
+    }
 }
@@ -0,0 +1,44 @@
+package org.senla_project.application.repository.impl;
+
+import org.senla_project.application.entity.CollaborationsJoining;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+// Inserts joins that are new by (user_id, collab_id) and leaves the existing ones alone, for the JPA and the
+// sharded repository alike. Postgres resolves concurrent joins of the same pair through the unique constraint;
+// other databases (the H2 test profile) get the equivalent standard MERGE
+final class CollaborationsJoiningUpsert {
+
+    private CollaborationsJoiningUpsert() {
+    }
+
+    // Positional parameters, four per row in the order of makeParameters
+    static String makeSql(int rowCount, boolean postgreSQL) {
+        StringJoiner rows = new StringJoiner(", ");
+        for (int i = 0; i < rowCount; i++) {
+            rows.add("(CAST(? AS UUID), CAST(? AS UUID), CAST(? AS UUID), CAST(? AS DATE))");
+        }
+        return postgreSQL
+                ? "INSERT INTO collaborations_users (join_id, collab_id, user_id, join_date) VALUES " + rows +
+                        " ON CONFLICT (user_id, collab_id) DO NOTHING"
+                : "MERGE INTO collaborations_users AS target " +
+                        "USING (VALUES " + rows + ") AS source (join_id, collab_id, user_id, join_date) " +
+                        "ON target.user_id = source.user_id AND target.collab_id = source.collab_id " +
+                        "WHEN NOT MATCHED THEN INSERT (join_id, collab_id, user_id, join_date) " +
+                        "VALUES (source.join_id, source.collab_id, source.user_id, source.join_date)";
+    }
+
+    static List<Object> makeParameters(List<CollaborationsJoining> collabJoins) {
+        List<Object> parameters = new ArrayList<>(collabJoins.size() * 4);
+        for (CollaborationsJoining collabJoin : collabJoins) {
+            parameters.add(collabJoin.getJoinId());
+            parameters.add(collabJoin.getCollab().getCollabId());
+            parameters.add(collabJoin.getUser().getUserId());
+            parameters.add(collabJoin.getJoinDate());
+        }
+        return parameters;
+    }
+
+}
@@ -1,26 +1,90 @@
 package org.senla_project.application.repository.impl;
 
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.senla_project.application.dto.ProfileResponseDto;
 import org.senla_project.application.entity.Profile;
-import org.senla_project.application.repository.AbstractDao;
+import org.senla_project.application.entity.Profile_;
+import org.senla_project.application.entity.User_;
+import org.senla_project.application.repository.AbstractProjectionDao;
 import org.senla_project.application.repository.ProfileRepository;
+import org.senla_project.application.repository.TupleProjection;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public class ProfileRepositoryImpl extends AbstractDao<UUID, Profile> implements ProfileRepository {
+public class ProfileRepositoryImpl extends AbstractProjectionDao<UUID, Profile, ProfileResponseDto> implements ProfileRepository {
     @Override
     protected Class<Profile> getEntityClass() {
         return Profile.class;
     }
 
+    @Override
+    protected SingularAttribute<Profile, UUID> getIdAttribute() {
+        return Profile_.profileId;
+    }
+
+    @Override
+    protected String getDefaultEntityGraphName() {
+        return Profile.ENTITY_GRAPH;
+    }
+
+    @Override
+    protected SingularAttribute<Profile, Long> getVersionAttribute() {
+        return Profile_.version;
+    }
+
+    @Override
+    protected List<SingularAttribute<? super Profile, ?>> getUpdatableAttributes() {
+        return List.of(Profile_.user, Profile_.bio, Profile_.firstname, Profile_.surname, Profile_.birthday, Profile_.avatarUrl, Profile_.rating);
+    }
+
+    @Override
+    protected TupleProjection<Profile, ProfileResponseDto> getProjection() {
+        return new TupleProjection<>() {
+            @Override
+            public List<Selection<?>> select(Root<Profile> root) {
+                return List.of(
+                        root.join(Profile_.user, JoinType.LEFT).get(User_.username).alias("username"),
+                        root.get(Profile_.bio).alias("bio"),
+                        root.get(Profile_.firstname).alias("firstname"),
+                        root.get(Profile_.surname).alias("surname"),
+                        root.get(Profile_.birthday).alias("birthday"),
+                        root.get(Profile_.avatarUrl).alias("avatarUrl"),
+                        root.get(Profile_.rating).alias("rating"),
+                        root.get(Profile_.version).alias("version")
+                );
+            }
+
+            @Override
+            public ProfileResponseDto toDto(Tuple row) {
+                return ProfileResponseDto.builder()
+                        .profileId(row.get(ID_ALIAS, UUID.class).toString())
+                        .username(row.get("username", String.class))
+                        .bio(row.get("bio", String.class))
+                        .firstname(row.get("firstname", String.class))
+                        .surname(row.get("surname", String.class))
+                        .birthday(TupleProjection.formatDate(row.get("birthday", LocalDate.class)))
+                        .avatarUrl(row.get("avatarUrl", String.class))
+                        .rating(row.get("rating", Integer.class))
+                        .version(row.get("version", Long.class))
+                        .build();
+            }
+        };
+    }
+
     @Override
     public Optional<Profile> findProfileByUsername(String username) {
         return entityManager
-                .createQuery("SELECT p FROM Profile AS p JOIN p.user AS u WHERE u.username = :username", Profile.class)
+                .createQuery("SELECT p FROM Profile AS p JOIN FETCH p.user AS u WHERE u.username = :username", Profile.class)
                 .setParameter("username", username)
-                .setHint("javax.persistence.fetchgraph", entityManager.getEntityGraph("profile-entity-graph"))
                 .getResultList()
                 .stream()
                 .findFirst();
@@ -1,31 +1,159 @@
 package org.senla_project.application.repository.impl;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
 import jakarta.persistence.criteria.*;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.hibernate.query.NativeQuery;
+import org.senla_project.application.dto.QuestionResponseDto;
+import org.senla_project.application.dto.SearchHitDto;
 import org.senla_project.application.entity.Question;
 import org.senla_project.application.entity.Question_;
 import org.senla_project.application.entity.User;
 import org.senla_project.application.entity.User_;
-import org.senla_project.application.repository.AbstractDao;
+import org.senla_project.application.repository.AbstractSearchDao;
 import org.senla_project.application.repository.QuestionRepository;
+import org.senla_project.application.repository.TupleProjection;
+import org.senla_project.application.util.pagination.SearchCursor;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public class QuestionRepositoryImpl extends AbstractDao<UUID, Question> implements QuestionRepository {
+public class QuestionRepositoryImpl extends AbstractSearchDao<UUID, Question, QuestionResponseDto> implements QuestionRepository {
     @Override
     protected Class<Question> getEntityClass() {
         return Question.class;
     }
 
+    @Override
+    protected SingularAttribute<Question, UUID> getIdAttribute() {
+        return Question_.questionId;
+    }
+
+    @Override
+    protected SingularAttribute<Question, LocalDate> getKeysetTimeAttribute() {
+        return Question_.createTime;
+    }
+
+    @Override
+    protected String getDefaultEntityGraphName() {
+        return Question.ENTITY_GRAPH;
+    }
+
+    @Override
+    protected SingularAttribute<Question, Long> getVersionAttribute() {
+        return Question_.version;
+    }
+
+    @Override
+    protected List<SingularAttribute<? super Question, ?>> getUpdatableAttributes() {
+        return List.of(Question_.header, Question_.body, Question_.author, Question_.createTime);
+    }
+
+    @Override
+    protected TupleProjection<Question, QuestionResponseDto> getProjection() {
+        return new TupleProjection<>() {
+            @Override
+            public List<Selection<?>> select(Root<Question> root) {
+                return List.of(
+                        root.join(Question_.author, JoinType.LEFT).get(User_.username).alias("authorName"),
+                        root.get(Question_.header).alias("header"),
+                        root.get(Question_.body).alias("body"),
+                        root.get(Question_.interesting).alias("interesting"),
+                        root.get(Question_.answerCount).alias("answerCount"),
+                        root.get(Question_.version).alias("version")
+                );
+            }
+
+            @Override
+            public QuestionResponseDto toDto(Tuple row) {
+                return QuestionResponseDto.builder()
+                        .questionId(row.get(ID_ALIAS, UUID.class).toString())
+                        .authorName(row.get("authorName", String.class))
+                        .header(row.get("header", String.class))
+                        .body(row.get("body", String.class))
+                        .interesting(row.get("interesting", Integer.class))
+                        .answerCount(row.get("answerCount", Integer.class))
+                        .version(row.get("version", Long.class))
+                        .createTime(TupleProjection.formatDate(row.get(TIME_ALIAS, LocalDate.class)))
+                        .build();
+            }
+        };
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected NativeQuery<Object[]> createFullTextQuery(SearchCursor after) {
+        String rank = "ts_rank(q.search_vector, " + TS_QUERY + ")";
+        String sql = "SELECT page.question_id AS id, page.header AS header, u.username AS authorName, " +
+                makeHeadlineSql("page.body") + " AS headline, " +
+                "page.rank AS rank, page.create_time AS createTime " +
+                "FROM (SELECT q.question_id, q.header, q.body, q.author, q.create_time, " + rank + " AS rank " +
+                "FROM questions q WHERE q.search_vector @@ " + TS_QUERY + makeKeysetClause(rank, "q.question_id", after) + " " +
+                "ORDER BY rank DESC, q.question_id LIMIT :limit) AS page " +
+                // Imported posts whose owner is unknown have no author
+                "LEFT JOIN users u ON u.user_id = page.author " +
+                "ORDER BY page.rank DESC, page.question_id";
+
+        return entityManager.createNativeQuery(sql).unwrap(NativeQuery.class)
+                .addScalar("id", UUID.class)
+                .addScalar("header", String.class)
+                .addScalar("authorName", String.class)
+                .addScalar("headline", String.class)
+                .addScalar("rank", Float.class)
+                .addScalar("createTime", LocalDate.class);
+    }
+
+    @Override
+    protected SearchHitDto toSearchHit(Object[] row) {
+        return SearchHitDto.builder()
+                .id(row[0].toString())
+                .questionId(row[0].toString())
+                .header((String) row[1])
+                .authorName((String) row[2])
+                .headline((String) row[3])
+                .rank((Float) row[4])
+                .createTime(TupleProjection.formatDate((LocalDate) row[5]))
+                .build();
+    }
+
+    @Override
+    protected List<SingularAttribute<? super Question, String>> getSearchableAttributes() {
+        return List.of(Question_.header, Question_.body);
+    }
+
+    @Override
+    protected String getHeadlineText(Question question) {
+        return question.getBody();
+    }
+
+    @Override
+    protected SearchHitDto toSearchHit(Question question, String headline) {
+        return SearchHitDto.builder()
+                .id(question.getQuestionId().toString())
+                .questionId(question.getQuestionId().toString())
+                .header(question.getHeader())
+                .authorName(question.getAuthor() == null ? null : question.getAuthor().getUsername())
+                .headline(headline)
+                .createTime(TupleProjection.formatDate(question.getCreateTime()))
+                .build();
+    }
+
     @Override
     public Optional<Question> findQuestion(String header, String body, String authorName) {
         CriteriaBuilder builder = entityManager.getCriteriaBuilder();
         CriteriaQuery<Question> query = builder.createQuery(Question.class);
 
         Root<Question> root = query.from(Question.class);
-        Join<Question, User> userJoin = root.join(Question_.author, JoinType.LEFT);
+        Join<Question, User> userJoin = (Join<Question, User>) root.fetch(Question_.author, JoinType.INNER);
 
         Predicate equalsAuthorName = builder.equal(userJoin.get(User_.username), authorName);
         Predicate equalsHeader = builder.equal(root.get(Question_.header), header);
@@ -37,4 +165,133 @@ public class QuestionRepositoryImpl extends AbstractDao<UUID, Question> implemen
         if (results.isEmpty()) return Optional.empty();
         return Optional.of(results.getFirst());
     }
+
+    @Override
+    public void deleteById(UUID id) {
+        deleteWithDependentsById(id);
+    }
+
+    @Override
+    public Map<String, Integer> deleteWithDependentsById(UUID id) {
+        List<Query> counterUpdates = List.of(
+                entityManager.createQuery("UPDATE User AS u SET u.answerCount = u.answerCount - " +
+                                "(SELECT cast(count(a) AS Integer) FROM Answer AS a WHERE a.author = u AND a.question.questionId = :id) " +
+                                "WHERE u.userId IN (SELECT a.author.userId FROM Answer AS a WHERE a.question.questionId = :id)")
+                        .setParameter("id", id),
+                entityManager.createQuery("UPDATE User AS u SET u.questionCount = u.questionCount - 1 " +
+                                "WHERE u.userId IN (SELECT q.author.userId FROM Question AS q WHERE q.questionId = :id)")
+                        .setParameter("id", id),
+                // The question may already be archived; archived rows still count for their authors
+                entityManager.createQuery("UPDATE User AS u SET u.answerCount = u.answerCount - " +
+                                "(SELECT cast(count(a) AS Integer) FROM ArchivedAnswer AS a WHERE a.authorId = u.userId AND a.questionId = :id) " +
+                                "WHERE u.userId IN (SELECT a.authorId FROM ArchivedAnswer AS a WHERE a.questionId = :id)")
+                        .setParameter("id", id),
+                entityManager.createQuery("UPDATE User AS u SET u.questionCount = u.questionCount - 1 " +
+                                "WHERE u.userId IN (SELECT q.authorId FROM ArchivedQuestion AS q WHERE q.questionId = :id)")
+                        .setParameter("id", id)
+        );
+
+        Map<String, Query> deletes = new LinkedHashMap<>();
+        deletes.put("answers_archive", entityManager.createQuery("DELETE FROM ArchivedAnswer AS a WHERE a.questionId = :id")
+                .setParameter("id", id));
+        deletes.put("questions_archive", entityManager.createQuery("DELETE FROM ArchivedQuestion AS q WHERE q.questionId = :id")
+                .setParameter("id", id));
+        deletes.put("answers", entityManager.createQuery("DELETE FROM Answer AS a WHERE a.question.questionId = :id")
+                .setParameter("id", id));
+        deletes.put("questions", entityManager.createQuery("DELETE FROM Question AS q WHERE q.questionId = :id")
+                .setParameter("id", id));
+
+        return executeBulkDeletes(counterUpdates, deletes);
+    }
+
+    @Override
+    public void addToAnswerCounts(Map<UUID, Integer> deltasByQuestionId) {
+        addToCounter(Question_.answerCount, deltasByQuestionId);
+    }
+
+    @Override
+    public void addToInteresting(Map<UUID, Long> deltasByQuestionId) {
+        addToCounterInBatch(Question_.interesting, deltasByQuestionId);
+    }
+
+    @Override
+    public void moveAnswerCount(UUID answerId, UUID newQuestionId) {
+        moveCounter(Question_.answerCount, "SELECT a.question.questionId FROM Answer AS a WHERE a.answerId = :rowId",
+                answerId, newQuestionId);
+    }
+
+    // Questions created before the cutoff that got no answer since, oldest first. The rows stay locked
+    // until the archiving transaction ends, so no answer can be added to them while they are moved
+    @Override
+    public List<UUID> lockIdsToArchive(LocalDate createdBefore, int limit) {
+        return entityManager.createQuery("SELECT q.questionId FROM Question AS q WHERE q.createTime < :createdBefore " +
+                        "AND NOT EXISTS (SELECT a.answerId FROM Answer AS a WHERE a.question = q AND a.createTime >= :createdBefore) " +
+                        "ORDER BY q.createTime, q.questionId", UUID.class)
+                .setParameter("createdBefore", createdBefore)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // Copies the questions and their answers into the archive tables, then deletes them from the hot ones.
+    // User counters keep counting archived rows, so they are left as they are
+    @Override
+    public Map<String, Integer> archiveByIds(Collection<UUID> ids) {
+        Map<String, Integer> archivedRows = new LinkedHashMap<>();
+        if (ids.isEmpty()) return archivedRows;
+
+        entityManager.flush();
+        LocalDate archiveTime = LocalDate.now();
+        entityManager.createQuery("INSERT INTO ArchivedAnswer (answerId, body, authorId, questionId, usefulness, createTime, version, archiveTime) " +
+                        "SELECT a.answerId, a.body, a.author.userId, a.question.questionId, a.usefulness, a.createTime, a.version, :archiveTime " +
+                        "FROM Answer AS a WHERE a.question.questionId IN :ids")
+                .setParameter("archiveTime", archiveTime)
+                .setParameter("ids", ids)
+                .executeUpdate();
+        entityManager.createQuery("INSERT INTO ArchivedQuestion (questionId, header, body, authorId, interesting, createTime, answerCount, version, archiveTime) " +
+                        "SELECT q.questionId, q.header, q.body, q.author.userId, q.interesting, q.createTime, q.answerCount, q.version, :archiveTime " +
+                        "FROM Question AS q WHERE q.questionId IN :ids")
+                .setParameter("archiveTime", archiveTime)
+                .setParameter("ids", ids)
+                .executeUpdate();
+        archivedRows.put("answers", entityManager.createQuery("DELETE FROM Answer AS a WHERE a.question.questionId IN :ids")
+                .setParameter("ids", ids)
+                .executeUpdate());
+        archivedRows.put("questions", entityManager.createQuery("DELETE FROM Question AS q WHERE q.questionId IN :ids")
+                .setParameter("ids", ids)
+                .executeUpdate());
+        entityManager.clear();
+
+        return archivedRows;
+    }
+
+    @Override
+    public Optional<QuestionResponseDto> findArchivedDtoById(UUID id) {
+        return findArchivedDtosByIds(List.of(id)).stream().findFirst();
+    }
+
+    @Override
+    public List<QuestionResponseDto> findArchivedDtosByIds(Collection<UUID> ids) {
+        if (ids.isEmpty()) return List.of();
+        return entityManager.createQuery("SELECT q.questionId AS " + ID_ALIAS + ", q.createTime AS " + TIME_ALIAS + ", " +
+                        "u.username AS authorName, q.header AS header, q.body AS body, q.interesting AS interesting, " +
+                        "q.answerCount AS answerCount, q.version AS version " +
+                        "FROM ArchivedQuestion AS q LEFT JOIN User AS u ON u.userId = q.authorId WHERE q.questionId IN :ids", Tuple.class)
+                .setParameter("ids", ids)
+                .getResultStream()
+                .map(getProjection()::toDto)
+                .toList();
+    }
+
+    // Recomputes answer_count from the answers for the questions with ids in [fromId, toId]
+    @Override
+    public int recountAnswerCounts(UUID fromId, UUID toId) {
+        entityManager.flush();
+        return entityManager.createQuery("UPDATE Question AS q SET q.answerCount = " +
+                        "(SELECT cast(count(a) AS Integer) FROM Answer AS a WHERE a.question = q) " +
+                        "WHERE q.questionId BETWEEN :fromId AND :toId")
+                .setParameter("fromId", fromId)
+                .setParameter("toId", toId)
+                .executeUpdate();
+    }
 }
@@ -1,7 +1,10 @@
 package org.senla_project.application.repository.impl;
 
 import jakarta.persistence.TypedQuery;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.hibernate.jpa.AvailableHints;
 import org.senla_project.application.entity.Role;
+import org.senla_project.application.entity.Role_;
 import org.senla_project.application.repository.AbstractDao;
 import org.senla_project.application.repository.RoleRepository;
 import org.springframework.stereotype.Repository;
@@ -18,10 +21,17 @@ public class RoleRepositoryImpl extends AbstractDao<UUID, Role> implements RoleR
         return Role.class;
     }
 
+    @Override
+    protected SingularAttribute<Role, UUID> getIdAttribute() {
+        return Role_.roleId;
+    }
+
     @Override
     public Optional<Role> findRoleByName(String roleName) {
         TypedQuery<Role> query = entityManager.createQuery("SELECT r FROM Role AS r WHERE r.roleName = :roleName", Role.class);
         query.setParameter("roleName", roleName);
+        query.setHint(AvailableHints.HINT_CACHEABLE, true);
+        query.setHint(AvailableHints.HINT_CACHE_REGION, "role-by-name-query");
 
         List<Role> results = query.getResultList();
         if (results.isEmpty()) return Optional.empty();
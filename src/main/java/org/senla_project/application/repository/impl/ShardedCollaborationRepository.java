@@ -0,0 +1,239 @@
+package org.senla_project.application.repository.impl;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.senla_project.application.dto.CollaborationResponseDto;
+import org.senla_project.application.entity.Collaboration;
+import org.senla_project.application.entity.CollaborationDirectoryEntry;
+import org.senla_project.application.entity.Collaboration_;
+import org.senla_project.application.repository.AbstractShardedDao;
+import org.senla_project.application.repository.CollaborationRepository;
+import org.senla_project.application.repository.TupleProjection;
+import org.senla_project.application.util.datasource.ShardingCondition;
+import org.senla_project.application.util.id.UuidV7Generator;
+import org.senla_project.application.util.pagination.KeysetPage;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.UUID;
+
+// Collaborations on the shard their collab_id hashes to, with collaboration_directory in the main database
+// resolving names. Directory changes are flushed right away, so a duplicate name fails before any shard commits
+@Repository
+@Conditional(ShardingCondition.Enabled.class)
+public class ShardedCollaborationRepository extends AbstractShardedDao<Collaboration> implements CollaborationRepository {
+
+    private static final Set<String> UPDATABLE_ATTRIBUTES = Set.of(Collaboration_.COLLAB_NAME, Collaboration_.CREATE_TIME);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    protected String getSelectClause() {
+        return "SELECT c.collab_id, c.collab_name, c.create_time, c.member_count, c.version FROM collaborations AS c";
+    }
+
+    @Override
+    protected String getIdColumn() {
+        return "c.collab_id";
+    }
+
+    @Override
+    protected String getTimeColumn() {
+        return "c.create_time";
+    }
+
+    @Override
+    protected Collaboration mapRow(ResultSet resultSet) throws SQLException {
+        return Collaboration.builder()
+                .collabId(resultSet.getObject("collab_id", UUID.class))
+                .collabName(resultSet.getString("collab_name"))
+                .createTime(resultSet.getObject("create_time", LocalDate.class))
+                .memberCount(resultSet.getInt("member_count"))
+                .version(resultSet.getLong("version"))
+                .build();
+    }
+
+    @Override
+    protected UUID getId(Collaboration collaboration) {
+        return collaboration.getCollabId();
+    }
+
+    @Override
+    protected LocalDate getTime(Collaboration collaboration) {
+        return collaboration.getCreateTime();
+    }
+
+    @Override
+    protected List<Collaboration> findRowsByIds(Collection<UUID> ids) {
+        List<Collaboration> rows = new ArrayList<>();
+        groupByShard(ids).forEach((shardKey, shardIds) -> rows.addAll(queryShard(shardKey,
+                " WHERE c.collab_id IN (" + makePlaceholders(shardIds.size()) + ")", shardIds.toArray())));
+        return rows;
+    }
+
+    @Override
+    public Collaboration create(Collaboration collaboration) {
+        if (collaboration.getCollabId() == null) collaboration.setCollabId(UuidV7Generator.generate());
+        UUID id = collaboration.getCollabId();
+        entityManager.persist(new CollaborationDirectoryEntry(id, collaboration.getCollabName()));
+        entityManager.flush();
+
+        shards.execute(shards.shardFor(id), connection -> executeUpdate(connection,
+                "INSERT INTO collaborations (collab_id, collab_name, create_time, member_count, version) VALUES (?, ?, ?, 0, 0)",
+                id, collaboration.getCollabName(), collaboration.getCreateTime()));
+        collaboration.setMemberCount(0);
+        collaboration.setVersion(0);
+
+        return collaboration;
+    }
+
+    @Override
+    public List<Collaboration> createAll(Collection<Collaboration> collaborations) {
+        return collaborations.stream()
+                .map(this::create)
+                .toList();
+    }
+
+    @Override
+    public Optional<Collaboration> findById(UUID id) {
+        return queryShard(shards.shardFor(id), " WHERE c.collab_id = ?", id).stream().findFirst();
+    }
+
+    @Override
+    public Optional<Collaboration> findCollabByName(String collabName) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(CollaborationDirectoryEntry.class)
+                .loadOptional(collabName)
+                .flatMap(entry -> findById(entry.getCollabId()));
+    }
+
+    @Override
+    public Collaboration update(Collaboration updatedCollaboration) {
+        if (updatedCollaboration.getCollabId() == null
+                || !patchIfVersion(updatedCollaboration.getCollabId(), null, updatedCollaboration, UPDATABLE_ATTRIBUTES)) {
+            return create(updatedCollaboration);
+        }
+        return findById(updatedCollaboration.getCollabId()).orElseThrow();
+    }
+
+    @Override
+    public boolean updateIfVersion(UUID id, Long expectedVersion, Collaboration updatedCollaboration) {
+        return patchIfVersion(id, expectedVersion, updatedCollaboration, UPDATABLE_ATTRIBUTES);
+    }
+
+    @Override
+    public boolean patchIfVersion(UUID id, Long expectedVersion, Collaboration patchedCollaboration, Set<String> attributeNames) {
+        if (!UPDATABLE_ATTRIBUTES.containsAll(attributeNames))
+            throw new IllegalArgumentException("Not every attribute of " + attributeNames + " is updatable");
+
+        StringJoiner assignments = new StringJoiner(", ");
+        List<Object> parameters = new ArrayList<>();
+        if (attributeNames.contains(Collaboration_.COLLAB_NAME)) {
+            assignments.add("collab_name = ?");
+            parameters.add(patchedCollaboration.getCollabName());
+        }
+        if (attributeNames.contains(Collaboration_.CREATE_TIME)) {
+            assignments.add("create_time = ?");
+            parameters.add(patchedCollaboration.getCreateTime());
+        }
+        assignments.add("version = version + 1");
+        parameters.add(id);
+        if (expectedVersion != null) parameters.add(expectedVersion);
+
+        String sql = "UPDATE collaborations SET " + assignments + " WHERE collab_id = ?" + (expectedVersion == null ? "" : " AND version = ?");
+        boolean updated = shards.execute(shards.shardFor(id), connection -> executeUpdate(connection, sql, parameters.toArray())) > 0;
+
+        if (updated && attributeNames.contains(Collaboration_.COLLAB_NAME)) {
+            CollaborationDirectoryEntry entry = entityManager.find(CollaborationDirectoryEntry.class, id);
+            if (entry == null) entityManager.persist(new CollaborationDirectoryEntry(id, patchedCollaboration.getCollabName()));
+            else entry.setCollabName(patchedCollaboration.getCollabName());
+            entityManager.flush();
+        }
+        return updated;
+    }
+
+    @Override
+    public void deleteById(UUID id) {
+        deleteWithDependentsById(id);
+    }
+
+    @Override
+    public Map<String, Integer> deleteWithDependentsById(UUID id) {
+        Map<String, Integer> deletedRows = shards.execute(shards.shardFor(id), connection -> {
+            Map<String, Integer> shardRows = new LinkedHashMap<>();
+            shardRows.put("collaborations_users", executeUpdate(connection, "DELETE FROM collaborations_users WHERE collab_id = ?", id));
+            shardRows.put("collaborations", executeUpdate(connection, "DELETE FROM collaborations WHERE collab_id = ?", id));
+            return shardRows;
+        });
+        entityManager.createQuery("DELETE FROM CollaborationDirectoryEntry AS d WHERE d.collabId = :id")
+                .setParameter("id", id)
+                .executeUpdate();
+
+        return deletedRows;
+    }
+
+    // One JDBC batch per shard, rows in id order so concurrent batches lock them in the same order
+    @Override
+    public void addToMemberCounts(Map<UUID, Integer> deltasByCollabId) {
+        Map<String, TreeMap<UUID, Integer>> deltasByShard = new LinkedHashMap<>();
+        deltasByCollabId.forEach((id, delta) -> {
+            if (delta != 0) deltasByShard.computeIfAbsent(shards.shardFor(id), shardKey -> new TreeMap<>()).put(id, delta);
+        });
+
+        deltasByShard.forEach((shardKey, deltas) -> shards.execute(shardKey, connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "UPDATE collaborations SET member_count = member_count + ? WHERE collab_id = ?")) {
+                for (var delta : deltas.entrySet()) {
+                    statement.setInt(1, delta.getValue());
+                    statement.setObject(2, delta.getKey());
+                    statement.addBatch();
+                }
+                return statement.executeBatch();
+            }
+        }));
+    }
+
+    @Override
+    public Optional<CollaborationResponseDto> findDtoById(UUID id) {
+        return findById(id).map(this::toDto);
+    }
+
+    @Override
+    public List<CollaborationResponseDto> findAllDtos(int pageNumber) {
+        return findAll(pageNumber).stream()
+                .map(this::toDto)
+                .toList();
+    }
+
+    @Override
+    public KeysetPage<CollaborationResponseDto> findAllDtos(String cursor, int pageSize) {
+        return findAll(cursor, pageSize).map(collaborations -> collaborations.stream()
+                .map(this::toDto)
+                .toList());
+    }
+
+    private CollaborationResponseDto toDto(Collaboration collaboration) {
+        return CollaborationResponseDto.builder()
+                .collabId(collaboration.getCollabId().toString())
+                .collabName(collaboration.getCollabName())
+                .createTime(TupleProjection.formatDate(collaboration.getCreateTime()))
+                .memberCount(collaboration.getMemberCount())
+                .version(collaboration.getVersion())
+                .build();
+    }
+}
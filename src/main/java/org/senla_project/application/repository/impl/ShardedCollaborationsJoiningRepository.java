@@ -0,0 +1,253 @@
+package org.senla_project.application.repository.impl;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.senla_project.application.dto.CollaborationsJoiningResponseDto;
+import org.senla_project.application.entity.Collaboration;
+import org.senla_project.application.entity.CollaborationDirectoryEntry;
+import org.senla_project.application.entity.CollaborationsJoining;
+import org.senla_project.application.entity.User;
+import org.senla_project.application.repository.AbstractShardedDao;
+import org.senla_project.application.repository.CollaborationsJoiningRepository;
+import org.senla_project.application.repository.TupleProjection;
+import org.senla_project.application.util.datasource.ShardingCondition;
+import org.senla_project.application.util.id.UuidV7Generator;
+import org.senla_project.application.util.pagination.KeysetPage;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.senla_project.application.repository.AbstractDao.MAX_PAGE_SIZE;
+
+// Memberships live on the shard of their collaboration, so the collaboration is joined on the shard itself.
+// Users stay in the main database: user_id has no foreign key there, and the users are loaded through the
+// persistence context after the rows. Lookups by join id cannot tell the shard and ask all of them
+@Repository
+@Conditional(ShardingCondition.Enabled.class)
+public class ShardedCollaborationsJoiningRepository extends AbstractShardedDao<CollaborationsJoining> implements CollaborationsJoiningRepository {
+
+    private static final String POSTGRESQL = "PostgreSQL";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    protected String getSelectClause() {
+        return "SELECT j.join_id, j.user_id, j.join_date, c.collab_id, c.collab_name, c.create_time, c.member_count, c.version " +
+                "FROM collaborations_users AS j JOIN collaborations AS c ON c.collab_id = j.collab_id";
+    }
+
+    @Override
+    protected String getIdColumn() {
+        return "j.join_id";
+    }
+
+    @Override
+    protected String getTimeColumn() {
+        return "j.join_date";
+    }
+
+    @Override
+    protected CollaborationsJoining mapRow(ResultSet resultSet) throws SQLException {
+        return CollaborationsJoining.builder()
+                .joinId(resultSet.getObject("join_id", UUID.class))
+                .joinDate(resultSet.getObject("join_date", LocalDate.class))
+                .user(User.builder().userId(resultSet.getObject("user_id", UUID.class)).build())
+                .collab(Collaboration.builder()
+                        .collabId(resultSet.getObject("collab_id", UUID.class))
+                        .collabName(resultSet.getString("collab_name"))
+                        .createTime(resultSet.getObject("create_time", LocalDate.class))
+                        .memberCount(resultSet.getInt("member_count"))
+                        .version(resultSet.getLong("version"))
+                        .build())
+                .build();
+    }
+
+    @Override
+    protected UUID getId(CollaborationsJoining collabJoin) {
+        return collabJoin.getJoinId();
+    }
+
+    @Override
+    protected LocalDate getTime(CollaborationsJoining collabJoin) {
+        return collabJoin.getJoinDate();
+    }
+
+    @Override
+    protected List<CollaborationsJoining> findRowsByIds(Collection<UUID> ids) {
+        return queryAllShards(" WHERE j.join_id IN (" + makePlaceholders(ids.size()) + ")", ids.toArray());
+    }
+
+    // Swaps the id-only users of the rows for the managed users, loaded in one batch; deleted users become null
+    @Override
+    protected List<CollaborationsJoining> loadReferences(List<CollaborationsJoining> collabJoins) {
+        List<UUID> userIds = collabJoins.stream()
+                .map(collabJoin -> collabJoin.getUser().getUserId())
+                .distinct()
+                .toList();
+        if (userIds.isEmpty()) return collabJoins;
+
+        Map<UUID, User> usersById = entityManager.unwrap(Session.class)
+                .byMultipleIds(User.class)
+                .multiLoad(userIds)
+                .stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toMap(User::getUserId, Function.identity()));
+        collabJoins.forEach(collabJoin -> collabJoin.setUser(usersById.get(collabJoin.getUser().getUserId())));
+        return collabJoins;
+    }
+
+    @Override
+    public CollaborationsJoining create(CollaborationsJoining collabJoin) {
+        if (collabJoin.getJoinId() == null) collabJoin.setJoinId(UuidV7Generator.generate());
+        UUID collabId = collabJoin.getCollab().getCollabId();
+        shards.execute(shards.shardFor(collabId), connection -> executeUpdate(connection,
+                "INSERT INTO collaborations_users (join_id, collab_id, user_id, join_date) VALUES (?, ?, ?, ?)",
+                collabJoin.getJoinId(), collabId, collabJoin.getUser().getUserId(), collabJoin.getJoinDate()));
+
+        return collabJoin;
+    }
+
+    @Override
+    public List<CollaborationsJoining> createAll(Collection<CollaborationsJoining> collabJoins) {
+        return collabJoins.stream()
+                .map(this::create)
+                .toList();
+    }
+
+    @Override
+    public Optional<CollaborationsJoining> findById(UUID id) {
+        return loadReferences(queryAllShards(" WHERE j.join_id = ?", id)).stream().findFirst();
+    }
+
+    @Override
+    public Optional<CollaborationsJoining> findCollabJoin(String username, String collabName) {
+        Session session = entityManager.unwrap(Session.class);
+        Optional<User> user = session.bySimpleNaturalId(User.class).loadOptional(username);
+        Optional<CollaborationDirectoryEntry> entry = session.bySimpleNaturalId(CollaborationDirectoryEntry.class).loadOptional(collabName);
+        if (user.isEmpty() || entry.isEmpty()) return Optional.empty();
+
+        UUID collabId = entry.get().getCollabId();
+        return loadReferences(queryShard(shards.shardFor(collabId), " WHERE j.user_id = ? AND j.collab_id = ?",
+                user.get().getUserId(), collabId)).stream().findFirst();
+    }
+
+    // The collaboration of a join decides its shard, so a changed collaboration moves the join to another shard
+    @Override
+    public CollaborationsJoining update(CollaborationsJoining updatedCollabJoin) {
+        if (updatedCollabJoin.getJoinId() != null) deleteById(updatedCollabJoin.getJoinId());
+        return create(updatedCollabJoin);
+    }
+
+    @Override
+    public void deleteById(UUID id) {
+        shards.executeOnAll(connection -> executeUpdate(connection, "DELETE FROM collaborations_users WHERE join_id = ?", id));
+    }
+
+    @Override
+    public int deleteAllByUserId(UUID userId) {
+        return shards.executeOnAll(connection -> {
+            executeUpdate(connection, "UPDATE collaborations SET member_count = member_count - 1 " +
+                    "WHERE collab_id IN (SELECT collab_id FROM collaborations_users WHERE user_id = ?)", userId);
+            return executeUpdate(connection, "DELETE FROM collaborations_users WHERE user_id = ?", userId);
+        }).values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    // Every shard resolves its own joins through the unique (user_id, collab_id) constraint, like the single-database
+    // upsert. Returns the joins that were inserted
+    @Override
+    public List<CollaborationsJoining> upsertAll(Collection<CollaborationsJoining> collabJoins) {
+        Map<List<UUID>, CollaborationsJoining> joinsByMember = new LinkedHashMap<>();
+        for (CollaborationsJoining collabJoin : collabJoins) {
+            if (collabJoin.getJoinId() == null) collabJoin.setJoinId(UuidV7Generator.generate());
+            joinsByMember.putIfAbsent(List.of(collabJoin.getCollab().getCollabId(), collabJoin.getUser().getUserId()), collabJoin);
+        }
+        if (joinsByMember.isEmpty()) return List.of();
+
+        Map<String, List<CollaborationsJoining>> joinsByShard = new LinkedHashMap<>();
+        for (CollaborationsJoining collabJoin : joinsByMember.values()) {
+            joinsByShard.computeIfAbsent(shards.shardFor(collabJoin.getCollab().getCollabId()), shardKey -> new ArrayList<>())
+                    .add(collabJoin);
+        }
+
+        Set<UUID> insertedIds = new HashSet<>();
+        joinsByShard.forEach((shardKey, shardJoins) -> insertedIds.addAll(shards.execute(shardKey, connection -> {
+            int insertedRows = 0;
+            for (int from = 0; from < shardJoins.size(); from += MAX_PAGE_SIZE) {
+                insertedRows += executeUpsert(connection, shardJoins.subList(from, Math.min(from + MAX_PAGE_SIZE, shardJoins.size())));
+            }
+            List<UUID> joinIds = shardJoins.stream().map(CollaborationsJoining::getJoinId).toList();
+            if (insertedRows == shardJoins.size()) return joinIds;
+            return findExistingJoinIds(connection, joinIds);
+        })));
+
+        return joinsByMember.values().stream()
+                .filter(collabJoin -> insertedIds.contains(collabJoin.getJoinId()))
+                .toList();
+    }
+
+    @Override
+    public Optional<CollaborationsJoiningResponseDto> findDtoById(UUID id) {
+        return findById(id).map(this::toDto);
+    }
+
+    @Override
+    public List<CollaborationsJoiningResponseDto> findAllDtos(int pageNumber) {
+        return findAll(pageNumber).stream()
+                .map(this::toDto)
+                .toList();
+    }
+
+    @Override
+    public KeysetPage<CollaborationsJoiningResponseDto> findAllDtos(String cursor, int pageSize) {
+        return findAll(cursor, pageSize).map(collabJoins -> collabJoins.stream()
+                .map(this::toDto)
+                .toList());
+    }
+
+    private CollaborationsJoiningResponseDto toDto(CollaborationsJoining collabJoin) {
+        return CollaborationsJoiningResponseDto.builder()
+                .joinId(collabJoin.getJoinId().toString())
+                .collabName(collabJoin.getCollab().getCollabName())
+                .userName(collabJoin.getUser() == null ? null : collabJoin.getUser().getUsername())
+                .joinDate(TupleProjection.formatDate(collabJoin.getJoinDate()))
+                .build();
+    }
+
+    private int executeUpsert(Connection connection, List<CollaborationsJoining> collabJoins) throws SQLException {
+        String upsertSql = CollaborationsJoiningUpsert.makeSql(collabJoins.size(),
+                POSTGRESQL.equals(connection.getMetaData().getDatabaseProductName()));
+        return executeUpdate(connection, upsertSql, CollaborationsJoiningUpsert.makeParameters(collabJoins).toArray());
+    }
+
+    private List<UUID> findExistingJoinIds(Connection connection, List<UUID> joinIds) throws SQLException {
+        List<UUID> existingIds = new ArrayList<>();
+        for (int from = 0; from < joinIds.size(); from += MAX_PAGE_SIZE) {
+            List<UUID> chunk = joinIds.subList(from, Math.min(from + MAX_PAGE_SIZE, joinIds.size()));
+            try (PreparedStatement statement = prepare(connection,
+                    "SELECT join_id FROM collaborations_users WHERE join_id IN (" + makePlaceholders(chunk.size()) + ")", chunk.toArray());
+                 ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) existingIds.add(resultSet.getObject(1, UUID.class));
+            }
+        }
+        return existingIds;
+    }
+}
@@ -1,15 +1,18 @@
 package org.senla_project.application.repository.impl;
 
-import jakarta.persistence.criteria.CriteriaBuilder;
-import jakarta.persistence.criteria.CriteriaQuery;
-import jakarta.persistence.criteria.Predicate;
-import jakarta.persistence.criteria.Root;
+import jakarta.persistence.Query;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
 import org.senla_project.application.entity.User;
 import org.senla_project.application.entity.User_;
 import org.senla_project.application.repository.AbstractDao;
 import org.senla_project.application.repository.UserRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -20,18 +23,113 @@ public class UserRepositoryImpl extends AbstractDao<UUID, User> implements UserR
         return User.class;
     }
 
+    @Override
+    protected SingularAttribute<User, UUID> getIdAttribute() {
+        return User_.userId;
+    }
+
     @Override
     public Optional<User> findUserByUsername(String nickname) {
-        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
-        CriteriaQuery<User> query = builder.createQuery(User.class);
-        Root<User> root = query.from(User.class);
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(nickname);
+    }
+
+    @Override
+    public void deleteById(UUID id) {
+        deleteWithDependentsById(id);
+    }
+
+    @Override
+    public Map<String, Integer> deleteWithDependentsById(UUID id) {
+        // Counters of the rows that survive: other authors answering this user's questions,
+        // other questions answered by this user and the collaborations this user was a member of
+        List<Query> counterUpdates = List.of(
+                entityManager.createQuery("UPDATE User AS u SET u.answerCount = u.answerCount - " +
+                                "(SELECT cast(count(a) AS Integer) FROM Answer AS a WHERE a.author = u AND a.question.author.userId = :id) " +
+                                "WHERE u.userId <> :id AND u.userId IN (SELECT a.author.userId FROM Answer AS a WHERE a.question.author.userId = :id)")
+                        .setParameter("id", id),
+                entityManager.createQuery("UPDATE Question AS q SET q.answerCount = q.answerCount - " +
+                                "(SELECT cast(count(a) AS Integer) FROM Answer AS a WHERE a.question = q AND a.author.userId = :id) " +
+                                "WHERE q.author.userId <> :id AND q.questionId IN (SELECT a.question.questionId FROM Answer AS a WHERE a.author.userId = :id)")
+                        .setParameter("id", id),
+                entityManager.createQuery("UPDATE Collaboration AS c SET c.memberCount = c.memberCount - " +
+                                "(SELECT cast(count(cj) AS Integer) FROM CollaborationsJoining AS cj WHERE cj.collab = c AND cj.user.userId = :id) " +
+                                "WHERE c.collabId IN (SELECT cj.collab.collabId FROM CollaborationsJoining AS cj WHERE cj.user.userId = :id)")
+                        .setParameter("id", id),
+                // The same corrections for the archived questions and answers
+                entityManager.createQuery("UPDATE User AS u SET u.answerCount = u.answerCount - " +
+                                "(SELECT cast(count(a) AS Integer) FROM ArchivedAnswer AS a WHERE a.authorId = u.userId " +
+                                "AND a.questionId IN (SELECT q.questionId FROM ArchivedQuestion AS q WHERE q.authorId = :id)) " +
+                                "WHERE u.userId <> :id AND u.userId IN (SELECT a.authorId FROM ArchivedAnswer AS a " +
+                                "WHERE a.questionId IN (SELECT q.questionId FROM ArchivedQuestion AS q WHERE q.authorId = :id))")
+                        .setParameter("id", id),
+                entityManager.createQuery("UPDATE ArchivedQuestion AS q SET q.answerCount = q.answerCount - " +
+                                "(SELECT cast(count(a) AS Integer) FROM ArchivedAnswer AS a WHERE a.questionId = q.questionId AND a.authorId = :id) " +
+                                "WHERE q.authorId <> :id AND q.questionId IN (SELECT a.questionId FROM ArchivedAnswer AS a WHERE a.authorId = :id)")
+                        .setParameter("id", id)
+        );
 
-        Predicate equalsNickname = builder.equal(root.get(User_.username), nickname);
+        Map<String, Query> deletes = new LinkedHashMap<>();
+        deletes.put("answers_archive", entityManager.createQuery("DELETE FROM ArchivedAnswer AS a WHERE a.authorId = :id " +
+                        "OR a.questionId IN (SELECT q.questionId FROM ArchivedQuestion AS q WHERE q.authorId = :id)")
+                .setParameter("id", id));
+        deletes.put("questions_archive", entityManager.createQuery("DELETE FROM ArchivedQuestion AS q WHERE q.authorId = :id")
+                .setParameter("id", id));
+        deletes.put("answers", entityManager.createQuery("DELETE FROM Answer AS a WHERE a.author.userId = :id " +
+                        "OR a.question.questionId IN (SELECT q.questionId FROM Question AS q WHERE q.author.userId = :id)")
+                .setParameter("id", id));
+        deletes.put("questions", entityManager.createQuery("DELETE FROM Question AS q WHERE q.author.userId = :id")
+                .setParameter("id", id));
+        deletes.put("collaborations_users", entityManager.createQuery("DELETE FROM CollaborationsJoining AS cj WHERE cj.user.userId = :id")
+                .setParameter("id", id));
+        deletes.put("profiles", entityManager.createQuery("DELETE FROM Profile AS p WHERE p.user.userId = :id")
+                .setParameter("id", id));
+        // The join table has no entity; the query space limits cache eviction to the user-roles collection region
+        deletes.put("users_roles", entityManager.createNativeQuery("DELETE FROM users_roles WHERE user_id = :id")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace("users_roles")
+                .setParameter("id", id));
+        deletes.put("users", entityManager.createQuery("DELETE FROM User AS u WHERE u.userId = :id")
+                .setParameter("id", id));
 
-        query.select(root).where(equalsNickname);
+        return executeBulkDeletes(counterUpdates, deletes);
+    }
 
-        var results = entityManager.createQuery(query).getResultList();
-        if (results.isEmpty()) return Optional.empty();
-        return Optional.of(results.getFirst());
+    @Override
+    public void addToQuestionCounts(Map<UUID, Integer> deltasByUserId) {
+        addToCounter(User_.questionCount, deltasByUserId);
+    }
+
+    @Override
+    public void addToAnswerCounts(Map<UUID, Integer> deltasByUserId) {
+        addToCounter(User_.answerCount, deltasByUserId);
+    }
+
+    @Override
+    public void moveQuestionCount(UUID questionId, UUID newAuthorId) {
+        moveCounter(User_.questionCount, "SELECT q.author.userId FROM Question AS q WHERE q.questionId = :rowId",
+                questionId, newAuthorId);
+    }
+
+    @Override
+    public void moveAnswerCount(UUID answerId, UUID newAuthorId) {
+        moveCounter(User_.answerCount, "SELECT a.author.userId FROM Answer AS a WHERE a.answerId = :rowId",
+                answerId, newAuthorId);
+    }
+
+    // Recomputes question_count and answer_count, archived rows included, for the users with ids in [fromId, toId]
+    @Override
+    public int recountContentCounts(UUID fromId, UUID toId) {
+        entityManager.flush();
+        return entityManager.createQuery("UPDATE User AS u SET " +
+                        "u.questionCount = (SELECT cast(count(q) AS Integer) FROM Question AS q WHERE q.author = u) + " +
+                        "(SELECT cast(count(q) AS Integer) FROM ArchivedQuestion AS q WHERE q.authorId = u.userId), " +
+                        "u.answerCount = (SELECT cast(count(a) AS Integer) FROM Answer AS a WHERE a.author = u) + " +
+                        "(SELECT cast(count(a) AS Integer) FROM ArchivedAnswer AS a WHERE a.authorId = u.userId) " +
+                        "WHERE u.userId BETWEEN :fromId AND :toId")
+                .setParameter("fromId", fromId)
+                .setParameter("toId", toId)
+                .executeUpdate();
     }
 }
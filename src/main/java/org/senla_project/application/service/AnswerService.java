@@ -1,67 +1,180 @@
 package org.senla_project.application.service;
 
+import jakarta.persistence.OptimisticLockException;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import org.senla_project.application.dto.AnswerCreateDto;
 import org.senla_project.application.dto.AnswerResponseDto;
+import org.senla_project.application.dto.BatchLookupDto;
+import org.senla_project.application.dto.SearchHitDto;
 import org.senla_project.application.entity.Answer;
+import org.senla_project.application.entity.Answer_;
+import org.senla_project.application.entity.Question;
+import org.senla_project.application.entity.User;
 import org.senla_project.application.mapper.AnswerMapper;
-import org.senla_project.application.mapper.QuestionMapper;
-import org.senla_project.application.mapper.UserMapper;
 import org.senla_project.application.repository.AnswerRepository;
+import org.senla_project.application.util.JsonParser;
 import org.senla_project.application.util.exception.EntityNotFoundException;
+import org.senla_project.application.util.http.MergePatch;
+import org.senla_project.application.util.pagination.KeysetPage;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class AnswerService implements ServiceInterface<UUID, AnswerCreateDto, AnswerResponseDto> {
 
+    // Create DTO fields accepted by patchElement and the Answer attributes they write
+    private static final Map<String, String> PATCHABLE_FIELDS = Map.of(
+            "body", Answer_.BODY,
+            "questionId", Answer_.QUESTION,
+            "authorName", Answer_.AUTHOR,
+            "createTime", Answer_.CREATE_TIME
+    );
+
     final private AnswerRepository answerRepository;
     final private AnswerMapper answerMapper;
-    final private UserService userService;
-    final private UserMapper userMapper;
-    final private QuestionService questionService;
-    final private QuestionMapper questionMapper;
+    final private ReferenceService referenceService;
+    final private JsonParser jsonParser;
+    final private CounterService counterService;
 
     @Transactional
     @Override
     public AnswerResponseDto addElement(@NonNull AnswerCreateDto element) {
-        return answerMapper.toAnswerResponseDto(answerRepository.create(
-                addDependenciesToAnswer(answerMapper.toAnswer(element))
-        ));
+        Answer answer = addDependenciesToAnswer(answerMapper.toAnswer(element));
+        AnswerResponseDto createdAnswer = answerMapper.toAnswerResponseDto(answerRepository.create(answer));
+        counterService.countAnswers(List.of(), List.of(answer));
+        return createdAnswer;
+    }
+
+    @Transactional
+    public List<AnswerResponseDto> addElements(@NonNull List<AnswerCreateDto> elements) {
+        Map<String, User> authors = new HashMap<>();
+        Map<UUID, Question> questions = new HashMap<>();
+        List<Answer> answers = new ArrayList<>(elements.size());
+        for (var element : elements) {
+            Answer answer = answerMapper.toAnswer(element);
+            answer.setAuthor(authors.computeIfAbsent(answer.getAuthor().getUsername(),
+                    referenceService::findUserReference));
+            answer.setQuestion(questions.computeIfAbsent(answer.getQuestion().getQuestionId(),
+                    referenceService::findQuestionReference));
+            answers.add(answer);
+        }
+        List<AnswerResponseDto> createdAnswers = answerMapper.toAnswerDtoList(answerRepository.createAll(answers));
+        counterService.countAnswers(List.of(), answers);
+        return createdAnswers;
     }
 
     @Transactional
     @Override
     public AnswerResponseDto updateElement(@NonNull UUID id, @NonNull AnswerCreateDto updatedElement) {
-        return answerMapper.toAnswerResponseDto(answerRepository.update(
-                addDependenciesToAnswer(answerMapper.toAnswer(id, updatedElement))
-        ));
+        return updateElement(id, null, updatedElement);
+    }
+
+    @Transactional
+    public AnswerResponseDto updateElement(@NonNull UUID id, Long expectedVersion, @NonNull AnswerCreateDto updatedElement)
+            throws OptimisticLockException {
+        Answer answer = addDependenciesToAnswer(answerMapper.toAnswer(id, updatedElement));
+        counterService.moveAnswer(id, answer.getQuestion().getQuestionId(), answer.getAuthor().getUserId());
+        if (!answerRepository.updateIfVersion(id, expectedVersion, answer)) {
+            requireVersion(id, expectedVersion);
+            throw new OptimisticLockException("Answer " + id + " changed while it was being updated");
+        }
+        return findElementById(id);
+    }
+
+    // Writes only the columns named in the patch, without loading the answer first
+    @Transactional
+    public AnswerResponseDto patchElement(@NonNull UUID id, Long expectedVersion, @NonNull MergePatch patch)
+            throws OptimisticLockException {
+        Set<String> attributes = patch.getAttributes(PATCHABLE_FIELDS);
+        if (attributes.isEmpty()) {
+            // Nothing to write, but a stale If-Match fails the same way a write would
+            requireVersion(id, expectedVersion);
+            return findElementById(id);
+        }
+        patch.requireValues("questionId", "authorName", "createTime");
+
+        Answer answer = answerMapper.toAnswer(id, patch.toDto(jsonParser, AnswerCreateDto.class));
+        UUID newQuestionId = null;
+        UUID newAuthorId = null;
+        if (patch.contains("questionId")) {
+            answer.setQuestion(referenceService.findQuestionReference(answer.getQuestion().getQuestionId()));
+            newQuestionId = answer.getQuestion().getQuestionId();
+        }
+        if (patch.contains("authorName")) {
+            answer.setAuthor(referenceService.findUserReference(answer.getAuthor().getUsername()));
+            newAuthorId = answer.getAuthor().getUserId();
+        }
+        counterService.moveAnswer(id, newQuestionId, newAuthorId);
+        if (!answerRepository.patchIfVersion(id, expectedVersion, answer, attributes)) {
+            requireVersion(id, expectedVersion);
+            throw new OptimisticLockException("Answer " + id + " changed while it was being updated");
+        }
+        return findElementById(id);
     }
 
     @Transactional
     @Override
     public void deleteElement(@NonNull UUID id) {
+        List<Answer> deletedAnswers = answerRepository.findById(id, null).stream().toList();
         answerRepository.deleteById(id);
+        counterService.countAnswers(deletedAnswers, List.of());
     }
 
     @Transactional(readOnly = true)
     @Override
     public List<AnswerResponseDto> findAllElements(int pageNumber) throws EntityNotFoundException {
-        var elements = answerMapper.toAnswerDtoList(answerRepository.findAll(pageNumber));
+        var elements = answerRepository.findAllDtos(pageNumber);
         if (elements.isEmpty()) throw new EntityNotFoundException("Answers not found");
         return elements;
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public KeysetPage<AnswerResponseDto> findAllElements(String cursor, int pageSize) throws EntityNotFoundException {
+        var elements = answerRepository.findAllDtos(cursor, pageSize);
+        if (elements.getContent().isEmpty()) throw new EntityNotFoundException("Answers not found");
+        return elements;
+    }
+
     @Transactional(readOnly = true)
     @Override
     public AnswerResponseDto findElementById(@NonNull UUID id) throws EntityNotFoundException {
-        return answerRepository.findById(id)
-                .map(answerMapper::toAnswerResponseDto).orElseThrow(() -> new EntityNotFoundException("Answer not found"));
+        return answerRepository.findDtoById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Answer not found"));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public BatchLookupDto<AnswerResponseDto> findElementsByIds(@NonNull List<UUID> ids) {
+        var elements = answerRepository.findAllByIds(ids).stream()
+                .map(answerMapper::toAnswerResponseDto)
+                .toList();
+        return BatchLookupDto.of(ids, elements, AnswerResponseDto::getAnswerId);
+    }
+
+    @Transactional(readOnly = true)
+    public KeysetPage<SearchHitDto> searchElements(@NonNull String query, String cursor, int pageSize) throws EntityNotFoundException {
+        var hits = answerRepository.search(query, cursor, pageSize);
+        if (hits.getContent().isEmpty()) throw new EntityNotFoundException("Answers not found");
+        return hits;
+    }
+
+    @Transactional(readOnly = true)
+    public void exportElements(@NonNull OutputStream outputStream) {
+        try (Stream<AnswerResponseDto> elements = answerRepository.streamAll(Answer.ENTITY_GRAPH, answerMapper::toAnswerResponseDto)) {
+            jsonParser.writeJsonLines(elements, outputStream);
+        }
     }
 
     @Transactional(readOnly = true)
@@ -70,18 +183,20 @@ public class AnswerService implements ServiceInterface<UUID, AnswerCreateDto, An
                 .map(answerMapper::toAnswerResponseDto).orElseThrow(() -> new EntityNotFoundException("Answer not found"));
     }
 
-    @Transactional(readOnly = true)
     private Answer addDependenciesToAnswer(Answer answer) {
-        answer.setAuthor(userMapper.toUser(
-                userService.findUserByUsername(answer.getAuthor().getUsername())
-        ));
-        answer.setQuestion(questionMapper.toQuestion(
-                questionService.findElementById(
-                        answer.getQuestion().getQuestionId()
-                )
-        ));
+        answer.setAuthor(referenceService.findUserReference(answer.getAuthor().getUsername()));
+        answer.setQuestion(referenceService.findQuestionReference(answer.getQuestion().getQuestionId()));
 
         return answer;
     }
 
+    // The conditional UPDATE matched no row: a missing answer is 404, a stale expectedVersion 412
+    private void requireVersion(UUID id, Long expectedVersion) throws EntityNotFoundException, OptimisticLockException {
+        long version = answerRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Answer not found"))
+                .getVersion();
+        if (expectedVersion != null && version != expectedVersion)
+            throw new OptimisticLockException("Answer " + id + " is no longer at the expected version");
+    }
+
 }
@@ -0,0 +1,44 @@
+package org.senla_project.application.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.senla_project.application.dto.CacheRegionStatisticsDto;
+import org.senla_project.application.util.exception.EntityNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+@Service
+@RequiredArgsConstructor
+public class CacheStatisticsService {
+
+    final private EntityManagerFactory entityManagerFactory;
+
+    public List<CacheRegionStatisticsDto> findCacheRegionStatistics() throws EntityNotFoundException {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        var regions = Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(regionName -> toCacheRegionStatisticsDto(regionName, statistics.getCacheRegionStatistics(regionName)))
+                .filter(Objects::nonNull)
+                .toList();
+        if (regions.isEmpty()) throw new EntityNotFoundException("Cache regions not found");
+        return regions;
+    }
+
+    private CacheRegionStatisticsDto toCacheRegionStatisticsDto(String regionName, CacheRegionStatistics regionStatistics) {
+        if (regionStatistics == null) return null;
+        return CacheRegionStatisticsDto.builder()
+                .regionName(regionName)
+                .hitCount(regionStatistics.getHitCount())
+                .missCount(regionStatistics.getMissCount())
+                .putCount(regionStatistics.getPutCount())
+                .elementCountInMemory(regionStatistics.getElementCountInMemory())
+                .build();
+    }
+
+}
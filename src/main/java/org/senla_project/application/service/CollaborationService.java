@@ -1,24 +1,40 @@
 package org.senla_project.application.service;
 
+import jakarta.persistence.OptimisticLockException;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import org.senla_project.application.dto.BatchLookupDto;
 import org.senla_project.application.dto.CollaborationCreateDto;
 import org.senla_project.application.dto.CollaborationResponseDto;
+import org.senla_project.application.entity.Collaboration;
+import org.senla_project.application.entity.Collaboration_;
 import org.senla_project.application.mapper.CollaborationMapper;
 import org.senla_project.application.repository.CollaborationRepository;
+import org.senla_project.application.util.JsonParser;
 import org.senla_project.application.util.exception.EntityNotFoundException;
+import org.senla_project.application.util.http.MergePatch;
+import org.senla_project.application.util.pagination.KeysetPage;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 public class CollaborationService implements ServiceInterface<UUID, CollaborationCreateDto, CollaborationResponseDto> {
 
+    // Create DTO fields accepted by patchElement and the Collaboration attributes they write
+    private static final Map<String, String> PATCHABLE_FIELDS = Map.of(
+            "collabName", Collaboration_.COLLAB_NAME,
+            "createTime", Collaboration_.CREATE_TIME
+    );
+
     final private CollaborationRepository collaborationRepository;
     final private CollaborationMapper collaborationMapper;
+    final private JsonParser jsonParser;
 
     @Transactional
     @Override
@@ -29,7 +45,37 @@ public class CollaborationService implements ServiceInterface<UUID, Collaboratio
     @Transactional
     @Override
     public CollaborationResponseDto updateElement(@NonNull UUID id, @NonNull CollaborationCreateDto updatedElement) {
-        return collaborationMapper.toCollabResponseDto(collaborationRepository.update(collaborationMapper.toCollab(id, updatedElement)));
+        return updateElement(id, null, updatedElement);
+    }
+
+    @Transactional
+    public CollaborationResponseDto updateElement(@NonNull UUID id, Long expectedVersion, @NonNull CollaborationCreateDto updatedElement)
+            throws OptimisticLockException {
+        if (!collaborationRepository.updateIfVersion(id, expectedVersion, collaborationMapper.toCollab(id, updatedElement))) {
+            requireVersion(id, expectedVersion);
+            throw new OptimisticLockException("Collaboration " + id + " changed while it was being updated");
+        }
+        return findElementById(id);
+    }
+
+    // Writes only the columns named in the patch, without loading the collaboration first
+    @Transactional
+    public CollaborationResponseDto patchElement(@NonNull UUID id, Long expectedVersion, @NonNull MergePatch patch)
+            throws OptimisticLockException {
+        Set<String> attributes = patch.getAttributes(PATCHABLE_FIELDS);
+        if (attributes.isEmpty()) {
+            // Nothing to write, but a stale If-Match fails the same way a write would
+            requireVersion(id, expectedVersion);
+            return findElementById(id);
+        }
+        patch.requireValues("createTime");
+
+        Collaboration collaboration = collaborationMapper.toCollab(id, patch.toDto(jsonParser, CollaborationCreateDto.class));
+        if (!collaborationRepository.patchIfVersion(id, expectedVersion, collaboration, attributes)) {
+            requireVersion(id, expectedVersion);
+            throw new OptimisticLockException("Collaboration " + id + " changed while it was being updated");
+        }
+        return findElementById(id);
     }
 
     @Transactional
@@ -41,16 +87,33 @@ public class CollaborationService implements ServiceInterface<UUID, Collaboratio
     @Transactional(readOnly = true)
     @Override
     public List<CollaborationResponseDto> findAllElements(int pageNumber) throws EntityNotFoundException {
-        var elements = collaborationMapper.toCollabDtoList(collaborationRepository.findAll(pageNumber));
+        var elements = collaborationRepository.findAllDtos(pageNumber);
         if (elements.isEmpty()) throw new EntityNotFoundException("Collaborations not found");
         return elements;
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public KeysetPage<CollaborationResponseDto> findAllElements(String cursor, int pageSize) throws EntityNotFoundException {
+        var elements = collaborationRepository.findAllDtos(cursor, pageSize);
+        if (elements.getContent().isEmpty()) throw new EntityNotFoundException("Collaborations not found");
+        return elements;
+    }
+
     @Transactional(readOnly = true)
     @Override
     public CollaborationResponseDto findElementById(@NonNull UUID id) throws EntityNotFoundException {
-        return collaborationRepository.findById(id)
-                .map(collaborationMapper::toCollabResponseDto).orElseThrow(() -> new EntityNotFoundException("Collaboration not found"));
+        return collaborationRepository.findDtoById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Collaboration not found"));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public BatchLookupDto<CollaborationResponseDto> findElementsByIds(@NonNull List<UUID> ids) {
+        var elements = collaborationRepository.findAllByIds(ids).stream()
+                .map(collaborationMapper::toCollabResponseDto)
+                .toList();
+        return BatchLookupDto.of(ids, elements, CollaborationResponseDto::getCollabId);
     }
 
     @Transactional(readOnly = true)
@@ -59,4 +122,13 @@ public class CollaborationService implements ServiceInterface<UUID, Collaboratio
                 .map(collaborationMapper::toCollabResponseDto).orElseThrow(() -> new EntityNotFoundException("Collaboration not found"));
     }
 
+    // The conditional UPDATE matched no row: a missing collaboration is 404, a stale expectedVersion 412
+    private void requireVersion(UUID id, Long expectedVersion) throws EntityNotFoundException, OptimisticLockException {
+        long version = collaborationRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Collaboration not found"))
+                .getVersion();
+        if (expectedVersion != null && version != expectedVersion)
+            throw new OptimisticLockException("Collaboration " + id + " is no longer at the expected version");
+    }
+
 }
@@ -2,18 +2,23 @@ package org.senla_project.application.service;
 
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import org.senla_project.application.dto.BatchLookupDto;
 import org.senla_project.application.dto.CollaborationsJoiningCreateDto;
 import org.senla_project.application.dto.CollaborationsJoiningResponseDto;
+import org.senla_project.application.entity.Collaboration;
 import org.senla_project.application.entity.CollaborationsJoining;
-import org.senla_project.application.mapper.CollaborationMapper;
+import org.senla_project.application.entity.User;
 import org.senla_project.application.mapper.CollaborationsJoiningMapper;
-import org.senla_project.application.mapper.UserMapper;
 import org.senla_project.application.repository.CollaborationsJoiningRepository;
 import org.senla_project.application.util.exception.EntityNotFoundException;
+import org.senla_project.application.util.pagination.KeysetPage;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -22,48 +27,91 @@ public class CollaborationsJoiningService implements ServiceInterface<UUID, Coll
 
     final private CollaborationsJoiningRepository collaborationsJoiningRepository;
     final private CollaborationsJoiningMapper collaborationsJoiningMapper;
-    final private CollaborationService collaborationService;
-    final private CollaborationMapper collaborationMapper;
-    final private UserService userService;
-    final private UserMapper userMapper;
+    final private ReferenceService referenceService;
+    final private CounterService counterService;
 
     @Transactional
     @Override
     public CollaborationsJoiningResponseDto addElement(@NonNull CollaborationsJoiningCreateDto element) {
-        return collaborationsJoiningMapper
-                .toCollabJoinResponseDto(collaborationsJoiningRepository.create(
-                        addDependenciesCollabJoin(collaborationsJoiningMapper.toCollabJoin(element))
-                ));
+        CollaborationsJoining collabJoin = addDependenciesCollabJoin(collaborationsJoiningMapper.toCollabJoin(element));
+        List<CollaborationsJoining> insertedCollabJoins = collaborationsJoiningRepository.upsertAll(List.of(collabJoin));
+        counterService.countMembers(List.of(), insertedCollabJoins);
+        // Joining twice is a no-op that returns the existing membership
+        if (insertedCollabJoins.isEmpty()) return findCollabJoin(element.getUserName(), element.getCollabName());
+        return collaborationsJoiningMapper.toCollabJoinResponseDto(collabJoin);
+    }
+
+    @Transactional
+    public List<CollaborationsJoiningResponseDto> addElements(@NonNull List<CollaborationsJoiningCreateDto> elements) {
+        Map<String, Collaboration> collabs = new HashMap<>();
+        Map<String, User> users = new HashMap<>();
+        List<CollaborationsJoining> collabJoins = new ArrayList<>(elements.size());
+        for (var element : elements) {
+            CollaborationsJoining collabJoin = collaborationsJoiningMapper.toCollabJoin(element);
+            collabJoin.setCollab(collabs.computeIfAbsent(collabJoin.getCollab().getCollabName(),
+                    referenceService::findCollabReference));
+            collabJoin.setUser(users.computeIfAbsent(collabJoin.getUser().getUsername(),
+                    referenceService::findUserReference));
+            collabJoins.add(collabJoin);
+        }
+        // Memberships that already exist are skipped, so only the new joins are returned and counted
+        List<CollaborationsJoining> insertedCollabJoins = collaborationsJoiningRepository.upsertAll(collabJoins);
+        counterService.countMembers(List.of(), insertedCollabJoins);
+        return collaborationsJoiningMapper.toCollabJoinDtoList(insertedCollabJoins);
     }
 
     @Transactional
     @Override
     public CollaborationsJoiningResponseDto updateElement(@NonNull UUID id, @NonNull CollaborationsJoiningCreateDto updatedElement) {
-        return collaborationsJoiningMapper
-                .toCollabJoinResponseDto(collaborationsJoiningRepository.update(
-                        addDependenciesCollabJoin(collaborationsJoiningMapper.toCollabJoin(id, updatedElement))
-                ));
+        CollaborationsJoining collabJoin = addDependenciesCollabJoin(collaborationsJoiningMapper.toCollabJoin(id, updatedElement));
+        List<CollaborationsJoining> replacedCollabJoins = collaborationsJoiningRepository.findById(id, null)
+                .map(currentCollabJoin -> CollaborationsJoining.builder().collab(currentCollabJoin.getCollab()).build())
+                .stream()
+                .toList();
+        CollaborationsJoiningResponseDto updatedCollabJoin = collaborationsJoiningMapper
+                .toCollabJoinResponseDto(collaborationsJoiningRepository.update(collabJoin));
+        counterService.countMembers(replacedCollabJoins, List.of(collabJoin));
+        return updatedCollabJoin;
     }
 
     @Transactional
     @Override
     public void deleteElement(@NonNull UUID id) {
+        List<CollaborationsJoining> deletedCollabJoins = collaborationsJoiningRepository.findById(id, null).stream().toList();
         collaborationsJoiningRepository.deleteById(id);
+        counterService.countMembers(deletedCollabJoins, List.of());
     }
 
     @Transactional(readOnly = true)
     @Override
     public List<CollaborationsJoiningResponseDto> findAllElements(int pageNumber) throws EntityNotFoundException {
-        var elements = collaborationsJoiningMapper.toCollabJoinDtoList(collaborationsJoiningRepository.findAll(pageNumber));
+        var elements = collaborationsJoiningRepository.findAllDtos(pageNumber);
         if (elements.isEmpty()) throw new EntityNotFoundException("Collaborations joining not found");
         return elements;
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public KeysetPage<CollaborationsJoiningResponseDto> findAllElements(String cursor, int pageSize) throws EntityNotFoundException {
+        var elements = collaborationsJoiningRepository.findAllDtos(cursor, pageSize);
+        if (elements.getContent().isEmpty()) throw new EntityNotFoundException("Collaborations joining not found");
+        return elements;
+    }
+
     @Transactional(readOnly = true)
     @Override
     public CollaborationsJoiningResponseDto findElementById(@NonNull UUID id) throws EntityNotFoundException {
-        return collaborationsJoiningRepository.findById(id)
-                .map(collaborationsJoiningMapper::toCollabJoinResponseDto).orElseThrow(() -> new EntityNotFoundException("Collaboration joining not found"));
+        return collaborationsJoiningRepository.findDtoById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Collaboration joining not found"));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public BatchLookupDto<CollaborationsJoiningResponseDto> findElementsByIds(@NonNull List<UUID> ids) {
+        var elements = collaborationsJoiningRepository.findAllByIds(ids).stream()
+                .map(collaborationsJoiningMapper::toCollabJoinResponseDto)
+                .toList();
+        return BatchLookupDto.of(ids, elements, CollaborationsJoiningResponseDto::getJoinId);
     }
 
     @Transactional(readOnly = true)
@@ -72,14 +120,9 @@ public class CollaborationsJoiningService implements ServiceInterface<UUID, Coll
                 .map(collaborationsJoiningMapper::toCollabJoinResponseDto).orElseThrow(() -> new EntityNotFoundException("Collaboration joining not found"));
     }
 
-    @Transactional(readOnly = true)
     private CollaborationsJoining addDependenciesCollabJoin(CollaborationsJoining collaborationsJoining) {
-        collaborationsJoining.setCollab(collaborationMapper.toCollab(
-                collaborationService.findCollabByName(collaborationsJoining.getCollab().getCollabName())
-        ));
-        collaborationsJoining.setUser(userMapper.toUser(
-                userService.findUserByUsername(collaborationsJoining.getUser().getUsername())
-        ));
+        collaborationsJoining.setCollab(referenceService.findCollabReference(collaborationsJoining.getCollab().getCollabName()));
+        collaborationsJoining.setUser(referenceService.findUserReference(collaborationsJoining.getUser().getUsername()));
 
         return collaborationsJoining;
     }
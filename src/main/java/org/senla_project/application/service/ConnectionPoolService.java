@@ -0,0 +1,45 @@
+package org.senla_project.application.service;
+
+import lombok.RequiredArgsConstructor;
+import org.senla_project.application.dto.ConnectionPoolMetricsDto;
+import org.senla_project.application.util.datasource.PoolMetricsTracker;
+import org.senla_project.application.util.datasource.PoolMetricsTrackerFactory;
+import org.senla_project.application.util.exception.EntityNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class ConnectionPoolService {
+
+    final private PoolMetricsTrackerFactory poolMetricsTrackerFactory;
+
+    public List<ConnectionPoolMetricsDto> findPoolMetrics() throws EntityNotFoundException {
+        var metrics = poolMetricsTrackerFactory.getTrackers().stream()
+                .map(this::toPoolMetricsDto)
+                .toList();
+        if (metrics.isEmpty()) throw new EntityNotFoundException("Connection pools not found");
+        return metrics;
+    }
+
+    private ConnectionPoolMetricsDto toPoolMetricsDto(PoolMetricsTracker tracker) {
+        var poolStats = tracker.getPoolStats();
+        var acquireTime = tracker.getAcquireTime();
+        return ConnectionPoolMetricsDto.builder()
+                .poolName(tracker.getPoolName())
+                .activeConnections(poolStats.getActiveConnections())
+                .idleConnections(poolStats.getIdleConnections())
+                .totalConnections(poolStats.getTotalConnections())
+                .pendingThreads(poolStats.getPendingThreads())
+                .minConnections(poolStats.getMinConnections())
+                .maxConnections(poolStats.getMaxConnections())
+                .timeouts(tracker.getTimeouts().sum())
+                .acquireCount(acquireTime.getCount())
+                .acquireAverageMicros(acquireTime.getAverageMicros())
+                .acquireMaxMicros(acquireTime.getMaxMicros())
+                .acquireTimeHistogram(acquireTime.getBuckets())
+                .build();
+    }
+
+}
@@ -0,0 +1,88 @@
+package org.senla_project.application.service;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.senla_project.application.entity.Answer;
+import org.senla_project.application.entity.CollaborationsJoining;
+import org.senla_project.application.entity.Question;
+import org.senla_project.application.repository.AnswerRepository;
+import org.senla_project.application.repository.CollaborationRepository;
+import org.senla_project.application.repository.QuestionRepository;
+import org.senla_project.application.repository.UserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+// Keeps the denormalized answer, question and member counters in step with the rows written by the caller.
+// Joins the caller's transaction, so a counter never commits without the write it counts
+@Service
+@RequiredArgsConstructor
+public class CounterService {
+
+    final private AnswerRepository answerRepository;
+    final private QuestionRepository questionRepository;
+    final private UserRepository userRepository;
+    final private CollaborationRepository collaborationRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void countAnswers(@NonNull Collection<Answer> removed, @NonNull Collection<Answer> added) {
+        questionRepository.addToAnswerCounts(makeDeltas(removed, added, answer -> answer.getQuestion().getQuestionId()));
+        userRepository.addToAnswerCounts(makeDeltas(removed, added, answer -> answer.getAuthor() == null ? null : answer.getAuthor().getUserId()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void countQuestions(@NonNull Collection<Question> removed, @NonNull Collection<Question> added) {
+        userRepository.addToQuestionCounts(makeDeltas(removed, added, question -> question.getAuthor() == null ? null : question.getAuthor().getUserId()));
+    }
+
+    // Call before the row itself is rewritten, the current owner is read from it
+    // A null owner id leaves that owner unchanged
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void moveAnswer(@NonNull UUID answerId, UUID newQuestionId, UUID newAuthorId) {
+        if (newQuestionId != null) questionRepository.moveAnswerCount(answerId, newQuestionId);
+        if (newAuthorId != null) userRepository.moveAnswerCount(answerId, newAuthorId);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void moveQuestion(@NonNull UUID questionId, @NonNull UUID newAuthorId) {
+        userRepository.moveQuestionCount(questionId, newAuthorId);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void countMembers(@NonNull Collection<CollaborationsJoining> removed, @NonNull Collection<CollaborationsJoining> added) {
+        collaborationRepository.addToMemberCounts(makeDeltas(removed, added, collabJoin -> collabJoin.getCollab().getCollabId()));
+    }
+
+    // For rows written around the counters, like a bulk import: recomputes them from the rows in the id ranges
+    @Transactional
+    public void recount(@NonNull UUID firstUserId, @NonNull UUID lastUserId,
+                        @NonNull UUID firstQuestionId, @NonNull UUID lastQuestionId) {
+        questionRepository.recountAnswerCounts(firstQuestionId, lastQuestionId);
+        userRepository.recountContentCounts(firstUserId, lastUserId);
+    }
+
+    // Writes the votes buffered by VoteService; the flush has no caller transaction, so this one starts its own
+    @Transactional
+    public void addVotes(@NonNull Map<UUID, Long> usefulnessDeltas, @NonNull Map<UUID, Long> interestingDeltas) {
+        answerRepository.addToUsefulness(usefulnessDeltas);
+        questionRepository.addToInteresting(interestingDeltas);
+    }
+
+    // Net change per owner; an element moved between owners decrements one and increments the other.
+    // Elements without an owner, like imported posts of unknown users, are not counted
+    private <T> Map<UUID, Integer> makeDeltas(Collection<T> removed, Collection<T> added, Function<T, UUID> ownerId) {
+        Map<UUID, Integer> deltas = new HashMap<>();
+        removed.forEach(element -> deltas.merge(ownerId.apply(element), -1, Integer::sum));
+        added.forEach(element -> deltas.merge(ownerId.apply(element), 1, Integer::sum));
+        deltas.remove(null);
+        deltas.values().removeIf(delta -> delta == 0);
+        return deltas;
+    }
+
+}
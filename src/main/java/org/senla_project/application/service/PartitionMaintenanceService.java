@@ -0,0 +1,68 @@
+package org.senla_project.application.service;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.senla_project.application.repository.AnswerRepository;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+// Keeps monthsAhead monthly partitions ready ahead of the current month, so new rows never fall into the
+// default partition. Partitions older than retentionMonths are dropped once the archive has emptied them;
+// 0 keeps the whole history
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PartitionMaintenanceService implements InitializingBean {
+
+    final private AnswerRepository answerRepository;
+
+    @Value("${partitioning.months_ahead}")
+    private int monthsAhead;
+
+    @Value("${partitioning.retention_months}")
+    private int retentionMonths;
+
+    @Value("${archival.age_months}")
+    private int archivalAgeMonths;
+
+    // Old answers have to go through the archive first, or the answer counters and the hot questions lose them
+    @Override
+    public void afterPropertiesSet() {
+        if (retentionMonths > 0 && retentionMonths < archivalAgeMonths) {
+            throw new IllegalStateException("partitioning.retention_months (" + retentionMonths
+                    + ") must not be below archival.age_months (" + archivalAgeMonths + ")");
+        }
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${partitioning.maintenance_interval_ms}")
+    @Transactional
+    public void maintainPartitions() {
+        LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
+        int createdPartitions = answerRepository.createPartitions(currentMonth, monthsAhead + 1);
+        int droppedPartitions = retentionMonths > 0
+                ? answerRepository.dropPartitionsBefore(currentMonth.minusMonths(retentionMonths))
+                : 0;
+        if (createdPartitions > 0 || droppedPartitions > 0) {
+            log.info("Answer partitions: {} created, {} dropped", createdPartitions, droppedPartitions);
+        }
+    }
+
+    // Partitions for every month from the one of firstDate to the one of lastDate, for answers loaded with other
+    // dates than the current ones, like a bulk import
+    @Transactional
+    public int createPartitions(@NonNull LocalDate firstDate, @NonNull LocalDate lastDate) {
+        LocalDate firstMonth = firstDate.withDayOfMonth(1);
+        int months = (int) ChronoUnit.MONTHS.between(firstMonth, lastDate.withDayOfMonth(1)) + 1;
+        int createdPartitions = answerRepository.createPartitions(firstMonth, months);
+        log.info("Answer partitions: {} created for {} to {}", createdPartitions, firstMonth, lastDate.withDayOfMonth(1));
+        return createdPartitions;
+    }
+
+}
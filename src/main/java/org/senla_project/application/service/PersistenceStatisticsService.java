@@ -0,0 +1,115 @@
+package org.senla_project.application.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.senla_project.application.dto.EntityStatisticsDto;
+import org.senla_project.application.dto.PersistenceStatisticsDto;
+import org.senla_project.application.dto.QueryStatisticsDto;
+import org.senla_project.application.dto.SlowQueryDto;
+import org.senla_project.application.util.datasource.SlowQuery;
+import org.senla_project.application.util.datasource.SlowQueryLog;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class PersistenceStatisticsService {
+
+    final private EntityManagerFactory entityManagerFactory;
+    final private SlowQueryLog slowQueryLog;
+
+    public PersistenceStatisticsDto findPersistenceStatistics() {
+        Statistics statistics = getStatistics();
+        return PersistenceStatisticsDto.builder()
+                .collectingSince(statistics.getStart().toString())
+                .sessionOpenCount(statistics.getSessionOpenCount())
+                .transactionCount(statistics.getTransactionCount())
+                .flushCount(statistics.getFlushCount())
+                .prepareStatementCount(statistics.getPrepareStatementCount())
+                .entityLoadCount(statistics.getEntityLoadCount())
+                .entityFetchCount(statistics.getEntityFetchCount())
+                .queryExecutionCount(statistics.getQueryExecutionCount())
+                .queryExecutionMaxTime(statistics.getQueryExecutionMaxTime())
+                .queryExecutionMaxTimeQuery(statistics.getQueryExecutionMaxTimeQueryString())
+                .secondLevelCacheHitCount(statistics.getSecondLevelCacheHitCount())
+                .secondLevelCacheMissCount(statistics.getSecondLevelCacheMissCount())
+                .build();
+    }
+
+    public List<EntityStatisticsDto> findEntityStatistics() {
+        Statistics statistics = getStatistics();
+        return Arrays.stream(statistics.getEntityNames())
+                .sorted()
+                .map(entityName -> toEntityStatisticsDto(entityName, statistics.getEntityStatistics(entityName)))
+                .toList();
+    }
+
+    // Slowest first, so regressions show up at the top
+    public List<QueryStatisticsDto> findQueryStatistics() {
+        Statistics statistics = getStatistics();
+        return Arrays.stream(statistics.getQueries())
+                .map(query -> toQueryStatisticsDto(query, statistics.getQueryStatistics(query)))
+                .sorted(Comparator.comparingLong(QueryStatisticsDto::getExecutionMaxTime).reversed())
+                .toList();
+    }
+
+    public List<SlowQueryDto> findSlowQueries() {
+        return slowQueryLog.getEntries().stream()
+                .map(this::toSlowQueryDto)
+                .toList();
+    }
+
+    public void clearStatistics() {
+        getStatistics().clear();
+        slowQueryLog.clear();
+    }
+
+    private Statistics getStatistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private EntityStatisticsDto toEntityStatisticsDto(String entityName, EntityStatistics entityStatistics) {
+        return EntityStatisticsDto.builder()
+                .entityName(entityName)
+                .loadCount(entityStatistics.getLoadCount())
+                .fetchCount(entityStatistics.getFetchCount())
+                .insertCount(entityStatistics.getInsertCount())
+                .updateCount(entityStatistics.getUpdateCount())
+                .deleteCount(entityStatistics.getDeleteCount())
+                .optimisticFailureCount(entityStatistics.getOptimisticFailureCount())
+                .cacheHitCount(entityStatistics.getCacheHitCount())
+                .cacheMissCount(entityStatistics.getCacheMissCount())
+                .build();
+    }
+
+    private QueryStatisticsDto toQueryStatisticsDto(String query, QueryStatistics queryStatistics) {
+        return QueryStatisticsDto.builder()
+                .query(query)
+                .executionCount(queryStatistics.getExecutionCount())
+                .executionRowCount(queryStatistics.getExecutionRowCount())
+                .executionAvgTime(queryStatistics.getExecutionAvgTime())
+                .executionMaxTime(queryStatistics.getExecutionMaxTime())
+                .cacheHitCount(queryStatistics.getCacheHitCount())
+                .cacheMissCount(queryStatistics.getCacheMissCount())
+                .build();
+    }
+
+    private SlowQueryDto toSlowQueryDto(SlowQuery slowQuery) {
+        return SlowQueryDto.builder()
+                .executedAt(slowQuery.getExecutedAt().toString())
+                .sql(slowQuery.getSql())
+                .bindCount(slowQuery.getBindCount())
+                .rowCount(slowQuery.getRowCount())
+                .elapsedMs(slowQuery.getElapsedMs())
+                .serviceMethod(slowQuery.getServiceMethod())
+                .build();
+    }
+
+}
@@ -1,28 +1,46 @@
 package org.senla_project.application.service;
 
+import jakarta.persistence.OptimisticLockException;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import org.senla_project.application.dto.BatchLookupDto;
 import org.senla_project.application.dto.ProfileCreateDto;
 import org.senla_project.application.dto.ProfileResponseDto;
 import org.senla_project.application.entity.Profile;
+import org.senla_project.application.entity.Profile_;
 import org.senla_project.application.mapper.ProfileMapper;
-import org.senla_project.application.mapper.UserMapper;
 import org.senla_project.application.repository.ProfileRepository;
+import org.senla_project.application.util.JsonParser;
 import org.senla_project.application.util.exception.EntityNotFoundException;
+import org.senla_project.application.util.http.MergePatch;
+import org.senla_project.application.util.pagination.KeysetPage;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 public class ProfileService implements ServiceInterface<UUID, ProfileCreateDto, ProfileResponseDto> {
 
+    // Create DTO fields accepted by patchElement and the Profile attributes they write
+    private static final Map<String, String> PATCHABLE_FIELDS = Map.of(
+            "username", Profile_.USER,
+            "bio", Profile_.BIO,
+            "firstname", Profile_.FIRSTNAME,
+            "surname", Profile_.SURNAME,
+            "birthday", Profile_.BIRTHDAY,
+            "avatarUrl", Profile_.AVATAR_URL,
+            "rating", Profile_.RATING
+    );
+
     final private ProfileRepository profileRepository;
     final private ProfileMapper profileMapper;
-    final private UserService userService;
-    final private UserMapper userMapper;
+    final private ReferenceService referenceService;
+    final private JsonParser jsonParser;
 
     @Transactional
     @Override
@@ -35,9 +53,38 @@ public class ProfileService implements ServiceInterface<UUID, ProfileCreateDto,
     @Transactional
     @Override
     public ProfileResponseDto updateElement(@NonNull UUID id, @NonNull ProfileCreateDto updatedElement) {
-        return profileMapper.toProfileResponseDto(profileRepository.update(
-                addDependenciesProfile(profileMapper.toProfile(id, updatedElement))
-        ));
+        return updateElement(id, null, updatedElement);
+    }
+
+    @Transactional
+    public ProfileResponseDto updateElement(@NonNull UUID id, Long expectedVersion, @NonNull ProfileCreateDto updatedElement)
+            throws OptimisticLockException {
+        if (!profileRepository.updateIfVersion(id, expectedVersion, addDependenciesProfile(profileMapper.toProfile(id, updatedElement)))) {
+            requireVersion(id, expectedVersion);
+            throw new OptimisticLockException("Profile " + id + " changed while it was being updated");
+        }
+        return findElementById(id);
+    }
+
+    // Writes only the columns named in the patch, without loading the profile first
+    @Transactional
+    public ProfileResponseDto patchElement(@NonNull UUID id, Long expectedVersion, @NonNull MergePatch patch)
+            throws OptimisticLockException {
+        Set<String> attributes = patch.getAttributes(PATCHABLE_FIELDS);
+        if (attributes.isEmpty()) {
+            // Nothing to write, but a stale If-Match fails the same way a write would
+            requireVersion(id, expectedVersion);
+            return findElementById(id);
+        }
+        patch.requireValues("username", "rating");
+
+        Profile profile = profileMapper.toProfile(id, patch.toDto(jsonParser, ProfileCreateDto.class));
+        if (patch.contains("username")) addDependenciesProfile(profile);
+        if (!profileRepository.patchIfVersion(id, expectedVersion, profile, attributes)) {
+            requireVersion(id, expectedVersion);
+            throw new OptimisticLockException("Profile " + id + " changed while it was being updated");
+        }
+        return findElementById(id);
     }
 
     @Transactional
@@ -49,16 +96,33 @@ public class ProfileService implements ServiceInterface<UUID, ProfileCreateDto,
     @Transactional(readOnly = true)
     @Override
     public List<ProfileResponseDto> findAllElements(int pageNumber) throws EntityNotFoundException {
-        var elements = profileMapper.toProfileDtoList(profileRepository.findAll(pageNumber));
+        var elements = profileRepository.findAllDtos(pageNumber);
         if (elements.isEmpty()) throw new EntityNotFoundException("Profiles not found");
         return elements;
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public KeysetPage<ProfileResponseDto> findAllElements(String cursor, int pageSize) throws EntityNotFoundException {
+        var elements = profileRepository.findAllDtos(cursor, pageSize);
+        if (elements.getContent().isEmpty()) throw new EntityNotFoundException("Profiles not found");
+        return elements;
+    }
+
     @Transactional(readOnly = true)
     @Override
     public ProfileResponseDto findElementById(@NonNull UUID id) throws EntityNotFoundException {
-        return profileRepository.findById(id)
-                .map(profileMapper::toProfileResponseDto).orElseThrow(() -> new EntityNotFoundException("Profile not found"));
+        return profileRepository.findDtoById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Profile not found"));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public BatchLookupDto<ProfileResponseDto> findElementsByIds(@NonNull List<UUID> ids) {
+        var elements = profileRepository.findAllByIds(ids).stream()
+                .map(profileMapper::toProfileResponseDto)
+                .toList();
+        return BatchLookupDto.of(ids, elements, ProfileResponseDto::getProfileId);
     }
 
     @Transactional(readOnly = true)
@@ -67,12 +131,20 @@ public class ProfileService implements ServiceInterface<UUID, ProfileCreateDto,
                 .map(profileMapper::toProfileResponseDto).orElseThrow(() -> new EntityNotFoundException("Profile not found"));
     }
 
-    @Transactional(readOnly = true)
+    @Transactional
     public Profile addDependenciesProfile(Profile profile) {
-        profile.setUser(userMapper.toUser(
-                userService.findUserByUsername(profile.getUser().getUsername())
-        ));
+        profile.setUser(referenceService.findUserReference(profile.getUser().getUsername()));
 
         return profile;
     }
+
+    // The conditional UPDATE matched no row: a missing profile is 404, a stale expectedVersion 412
+    private void requireVersion(UUID id, Long expectedVersion) throws EntityNotFoundException, OptimisticLockException {
+        long version = profileRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Profile not found"))
+                .getVersion();
+        if (expectedVersion != null && version != expectedVersion)
+            throw new OptimisticLockException("Profile " + id + " is no longer at the expected version");
+    }
+
 }
@@ -0,0 +1,46 @@
+package org.senla_project.application.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+// Moves questions older than ageMonths without a recent answer into the archive tables. Every batch commits
+// on its own, so the row locks are short and an interrupted run picks up where it stopped; 0 disables it
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class QuestionArchivalService {
+
+    final private QuestionService questionService;
+
+    @Value("${archival.age_months}")
+    private int ageMonths;
+
+    @Value("${archival.batch_size}")
+    private int batchSize;
+
+    @Scheduled(initialDelayString = "${archival.interval_ms}", fixedDelayString = "${archival.interval_ms}")
+    public void archiveQuestions() {
+        if (ageMonths <= 0) return;
+
+        LocalDate createdBefore = LocalDate.now().minusMonths(ageMonths);
+        int archivedQuestions = 0;
+        int archivedAnswers = 0;
+        Map<String, Integer> archivedRows;
+        do {
+            archivedRows = questionService.archiveElements(createdBefore, batchSize);
+            archivedQuestions += archivedRows.getOrDefault("questions", 0);
+            archivedAnswers += archivedRows.getOrDefault("answers", 0);
+        } while (archivedRows.getOrDefault("questions", 0) >= batchSize);
+
+        if (archivedQuestions > 0) {
+            log.info("Archived {} questions and {} answers created before {}", archivedQuestions, archivedAnswers, createdBefore);
+        }
+    }
+
+}
@@ -1,43 +1,117 @@
 package org.senla_project.application.service;
 
+import jakarta.persistence.OptimisticLockException;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import org.senla_project.application.dto.BatchLookupDto;
 import org.senla_project.application.dto.QuestionCreateDto;
 import org.senla_project.application.dto.QuestionResponseDto;
+import org.senla_project.application.dto.SearchHitDto;
 import org.senla_project.application.entity.Question;
+import org.senla_project.application.entity.Question_;
+import org.senla_project.application.entity.User;
 import org.senla_project.application.mapper.QuestionMapper;
-import org.senla_project.application.mapper.UserMapper;
 import org.senla_project.application.repository.QuestionRepository;
+import org.senla_project.application.util.JsonParser;
 import org.senla_project.application.util.exception.EntityNotFoundException;
+import org.senla_project.application.util.http.MergePatch;
+import org.senla_project.application.util.pagination.KeysetPage;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class QuestionService implements ServiceInterface<UUID, QuestionCreateDto, QuestionResponseDto> {
 
+    // Create DTO fields accepted by patchElement and the Question attributes they write
+    private static final Map<String, String> PATCHABLE_FIELDS = Map.of(
+            "authorName", Question_.AUTHOR,
+            "header", Question_.HEADER,
+            "body", Question_.BODY,
+            "createTime", Question_.CREATE_TIME
+    );
+
     final private QuestionRepository questionRepository;
     final private QuestionMapper questionMapper;
-    final private UserService userService;
-    final private UserMapper userMapper;
+    final private ReferenceService referenceService;
+    final private JsonParser jsonParser;
+    final private CounterService counterService;
 
     @Transactional
     @Override
     public QuestionResponseDto addElement(@NonNull QuestionCreateDto element) {
-        return questionMapper.toQuestionResponseDto(questionRepository.create(
-                addDependenciesToQuestion(questionMapper.toQuestion(element))
-        ));
+        Question question = addDependenciesToQuestion(questionMapper.toQuestion(element));
+        QuestionResponseDto createdQuestion = questionMapper.toQuestionResponseDto(questionRepository.create(question));
+        counterService.countQuestions(List.of(), List.of(question));
+        return createdQuestion;
+    }
+
+    @Transactional
+    public List<QuestionResponseDto> addElements(@NonNull List<QuestionCreateDto> elements) {
+        Map<String, User> authors = new HashMap<>();
+        List<Question> questions = new ArrayList<>(elements.size());
+        for (var element : elements) {
+            Question question = questionMapper.toQuestion(element);
+            question.setAuthor(authors.computeIfAbsent(question.getAuthor().getUsername(),
+                    referenceService::findUserReference));
+            questions.add(question);
+        }
+        List<QuestionResponseDto> createdQuestions = questionMapper.toQuestionDtoList(questionRepository.createAll(questions));
+        counterService.countQuestions(List.of(), questions);
+        return createdQuestions;
     }
 
     @Transactional
     @Override
     public QuestionResponseDto updateElement(@NonNull UUID id, @NonNull QuestionCreateDto updatedElement) {
-        return questionMapper.toQuestionResponseDto(questionRepository.update(
-                addDependenciesToQuestion(questionMapper.toQuestion(id, updatedElement))
-        ));
+        return updateElement(id, null, updatedElement);
+    }
+
+    @Transactional
+    public QuestionResponseDto updateElement(@NonNull UUID id, Long expectedVersion, @NonNull QuestionCreateDto updatedElement)
+            throws OptimisticLockException {
+        Question question = addDependenciesToQuestion(questionMapper.toQuestion(id, updatedElement));
+        counterService.moveQuestion(id, question.getAuthor().getUserId());
+        if (!questionRepository.updateIfVersion(id, expectedVersion, question)) {
+            requireVersion(id, expectedVersion);
+            throw new OptimisticLockException("Question " + id + " changed while it was being updated");
+        }
+        return findElementById(id);
+    }
+
+    // Writes only the columns named in the patch, without loading the question first
+    @Transactional
+    public QuestionResponseDto patchElement(@NonNull UUID id, Long expectedVersion, @NonNull MergePatch patch)
+            throws OptimisticLockException {
+        Set<String> attributes = patch.getAttributes(PATCHABLE_FIELDS);
+        if (attributes.isEmpty()) {
+            // Nothing to write, but a stale If-Match fails the same way a write would
+            requireVersion(id, expectedVersion);
+            return findElementById(id);
+        }
+        patch.requireValues("authorName", "createTime");
+
+        Question question = questionMapper.toQuestion(id, patch.toDto(jsonParser, QuestionCreateDto.class));
+        if (patch.contains("authorName")) {
+            addDependenciesToQuestion(question);
+            counterService.moveQuestion(id, question.getAuthor().getUserId());
+        }
+        if (!questionRepository.patchIfVersion(id, expectedVersion, question, attributes)) {
+            requireVersion(id, expectedVersion);
+            throw new OptimisticLockException("Question " + id + " changed while it was being updated");
+        }
+        return findElementById(id);
     }
 
     @Transactional
@@ -49,16 +123,58 @@ public class QuestionService implements ServiceInterface<UUID, QuestionCreateDto
     @Transactional(readOnly = true)
     @Override
     public List<QuestionResponseDto> findAllElements(int pageNumber) throws EntityNotFoundException {
-        var elements = questionMapper.toQuestionDtoList(questionRepository.findAll(pageNumber));
+        var elements = questionRepository.findAllDtos(pageNumber);
         if (elements.isEmpty()) throw new EntityNotFoundException("Questions not found");
         return elements;
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public KeysetPage<QuestionResponseDto> findAllElements(String cursor, int pageSize) throws EntityNotFoundException {
+        var elements = questionRepository.findAllDtos(cursor, pageSize);
+        if (elements.getContent().isEmpty()) throw new EntityNotFoundException("Questions not found");
+        return elements;
+    }
+
     @Transactional(readOnly = true)
     @Override
     public QuestionResponseDto findElementById(@NonNull UUID id) throws EntityNotFoundException {
-        return questionRepository.findById(id)
-                .map(questionMapper::toQuestionResponseDto).orElseThrow(() -> new EntityNotFoundException("Question not found"));
+        return questionRepository.findDtoById(id)
+                .or(() -> questionRepository.findArchivedDtoById(id))
+                .orElseThrow(() -> new EntityNotFoundException("Question not found"));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public BatchLookupDto<QuestionResponseDto> findElementsByIds(@NonNull List<UUID> ids) {
+        List<QuestionResponseDto> elements = new ArrayList<>(questionRepository.findAllByIds(ids).stream()
+                .map(questionMapper::toQuestionResponseDto)
+                .toList());
+        // Like findElementById, the ids not found among the live questions are looked up in the archive
+        Set<String> foundIds = elements.stream().map(QuestionResponseDto::getQuestionId).collect(Collectors.toSet());
+        List<UUID> notFoundIds = ids.stream().filter(id -> !foundIds.contains(id.toString())).distinct().toList();
+        elements.addAll(questionRepository.findArchivedDtosByIds(notFoundIds));
+        return BatchLookupDto.of(ids, elements, QuestionResponseDto::getQuestionId);
+    }
+
+    @Transactional(readOnly = true)
+    public KeysetPage<SearchHitDto> searchElements(@NonNull String query, String cursor, int pageSize) throws EntityNotFoundException {
+        var hits = questionRepository.search(query, cursor, pageSize);
+        if (hits.getContent().isEmpty()) throw new EntityNotFoundException("Questions not found");
+        return hits;
+    }
+
+    @Transactional(readOnly = true)
+    public void exportElements(@NonNull OutputStream outputStream) {
+        try (Stream<QuestionResponseDto> elements = questionRepository.streamAll(Question.ENTITY_GRAPH, questionMapper::toQuestionResponseDto)) {
+            jsonParser.writeJsonLines(elements, outputStream);
+        }
+    }
+
+    // Moves one batch of questions created before the cutoff, with their answers, into the archive
+    @Transactional
+    public Map<String, Integer> archiveElements(@NonNull LocalDate createdBefore, int batchSize) {
+        return questionRepository.archiveByIds(questionRepository.lockIdsToArchive(createdBefore, batchSize));
     }
 
     @Transactional(readOnly = true)
@@ -67,13 +183,20 @@ public class QuestionService implements ServiceInterface<UUID, QuestionCreateDto
                 .map(questionMapper::toQuestionResponseDto).orElseThrow(() -> new EntityNotFoundException("Question not found"));
     }
 
-    @Transactional(readOnly = true)
+    @Transactional
     public Question addDependenciesToQuestion(Question question) {
-        question.setAuthor(userMapper.toUser(
-                userService.findUserByUsername(question.getAuthor().getUsername())
-        ));
+        question.setAuthor(referenceService.findUserReference(question.getAuthor().getUsername()));
 
         return question;
     }
 
+    // The conditional UPDATE matched no row: a missing question is 404, a stale expectedVersion 412
+    private void requireVersion(UUID id, Long expectedVersion) throws EntityNotFoundException, OptimisticLockException {
+        long version = questionRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Question not found"))
+                .getVersion();
+        if (expectedVersion != null && version != expectedVersion)
+            throw new OptimisticLockException("Question " + id + " is no longer at the expected version");
+    }
+
 }
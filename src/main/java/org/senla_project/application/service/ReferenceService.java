@@ -0,0 +1,54 @@
+package org.senla_project.application.service;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.senla_project.application.entity.Collaboration;
+import org.senla_project.application.entity.Question;
+import org.senla_project.application.entity.Role;
+import org.senla_project.application.entity.User;
+import org.senla_project.application.repository.CollaborationRepository;
+import org.senla_project.application.repository.QuestionRepository;
+import org.senla_project.application.repository.RoleRepository;
+import org.senla_project.application.repository.UserRepository;
+import org.senla_project.application.util.exception.EntityNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+// Resolves foreign keys of incoming DTOs into managed entities for the caller's persistence context,
+// going through the natural-id / query caches where the entity has one
+@Service
+@RequiredArgsConstructor
+public class ReferenceService {
+
+    final private UserRepository userRepository;
+    final private QuestionRepository questionRepository;
+    final private CollaborationRepository collaborationRepository;
+    final private RoleRepository roleRepository;
+
+    @Transactional
+    public User findUserReference(@NonNull String username) throws EntityNotFoundException {
+        return userRepository.findUserByUsername(username)
+                .orElseThrow(() -> new EntityNotFoundException("User not found"));
+    }
+
+    @Transactional
+    public Question findQuestionReference(@NonNull UUID questionId) throws EntityNotFoundException {
+        return questionRepository.findById(questionId, null)
+                .orElseThrow(() -> new EntityNotFoundException("Question not found"));
+    }
+
+    @Transactional
+    public Collaboration findCollabReference(@NonNull String collabName) throws EntityNotFoundException {
+        return collaborationRepository.findCollabByName(collabName)
+                .orElseThrow(() -> new EntityNotFoundException("Collaboration not found"));
+    }
+
+    @Transactional
+    public Role findRoleReference(@NonNull String roleName) throws EntityNotFoundException {
+        return roleRepository.findRoleByName(roleName)
+                .orElseThrow(() -> new EntityNotFoundException("Role not found"));
+    }
+
+}
@@ -2,11 +2,13 @@ package org.senla_project.application.service;
 
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import org.senla_project.application.dto.BatchLookupDto;
 import org.senla_project.application.dto.RoleCreateDto;
 import org.senla_project.application.dto.RoleResponseDto;
 import org.senla_project.application.mapper.RoleMapper;
 import org.senla_project.application.repository.RoleRepository;
 import org.senla_project.application.util.exception.EntityNotFoundException;
+import org.senla_project.application.util.pagination.KeysetPage;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -46,6 +48,14 @@ public class RoleService implements ServiceInterface<UUID, RoleCreateDto, RoleRe
         return elements;
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public KeysetPage<RoleResponseDto> findAllElements(String cursor, int pageSize) throws EntityNotFoundException {
+        var elements = roleRepository.findAll(cursor, pageSize).map(roleMapper::toRoleDtoList);
+        if (elements.getContent().isEmpty()) throw new EntityNotFoundException("Roles not found");
+        return elements;
+    }
+
     @Transactional(readOnly = true)
     @Override
     public RoleResponseDto findElementById(@NonNull UUID id) throws EntityNotFoundException {
@@ -53,6 +63,15 @@ public class RoleService implements ServiceInterface<UUID, RoleCreateDto, RoleRe
                 .map(roleMapper::toRoleResponseDto).orElseThrow(() -> new EntityNotFoundException("Role not found"));
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public BatchLookupDto<RoleResponseDto> findElementsByIds(@NonNull List<UUID> ids) {
+        var elements = roleRepository.findAllByIds(ids).stream()
+                .map(roleMapper::toRoleResponseDto)
+                .toList();
+        return BatchLookupDto.of(ids, elements, RoleResponseDto::getRoleId);
+    }
+
     @Transactional(readOnly = true)
     public RoleResponseDto findRoleByName(String roleName) throws EntityNotFoundException {
         return roleRepository
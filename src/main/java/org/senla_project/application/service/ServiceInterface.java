@@ -1,14 +1,20 @@
 package org.senla_project.application.service;
 
 import lombok.NonNull;
+import org.senla_project.application.dto.BatchLookupDto;
+import org.senla_project.application.util.pagination.KeysetPage;
 
 import java.util.List;
 
 public interface ServiceInterface<K, T, R> {
     List<R> findAllElements(int pageNumber);
 
+    KeysetPage<R> findAllElements(String cursor, int pageSize);
+
     R findElementById(@NonNull K id);
 
+    BatchLookupDto<R> findElementsByIds(@NonNull List<K> ids);
+
     R addElement(@NonNull T element);
 
     R updateElement(@NonNull K id, @NonNull T updatedElement);
@@ -0,0 +1,33 @@
+package org.senla_project.application.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.senla_project.application.util.datasource.ShardedDataSources;
+import org.senla_project.application.util.datasource.ShardingCondition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+// Resolves the shard transactions that a node stopped between their two phases, from the decisions recorded
+// in the main database. Transactions younger than minAgeMs may still be completing and are left alone
+@Slf4j
+@Service
+@Conditional(ShardingCondition.Enabled.class)
+@RequiredArgsConstructor
+public class ShardReconciliationService {
+
+    final private ShardedDataSources shardedDataSources;
+
+    @Value("${datasource.shard.reconcile_min_age_ms}")
+    private long minAgeMs;
+
+    @Scheduled(initialDelayString = "${datasource.shard.reconcile_interval_ms}", fixedDelayString = "${datasource.shard.reconcile_interval_ms}")
+    public void reconcile() {
+        int resolved = shardedDataSources.reconcile(Duration.ofMillis(minAgeMs));
+        if (resolved > 0) log.info("Shard transactions: {} left prepared were resolved", resolved);
+    }
+
+}
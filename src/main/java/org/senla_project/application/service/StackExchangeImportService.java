@@ -0,0 +1,440 @@
+package org.senla_project.application.service;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.senla_project.application.dto.ImportPhaseReportDto;
+import org.senla_project.application.dto.ImportReportDto;
+import org.senla_project.application.util.enums.ImportStatusEnum;
+import org.senla_project.application.util.exception.EntityNotFoundException;
+import org.senla_project.application.util.exception.ImportException;
+import org.senla_project.application.util.exception.InvalidRequestParametersException;
+import org.senla_project.application.util.importer.BulkLoader;
+import org.senla_project.application.util.importer.StackExchangeDumpReader;
+import org.senla_project.application.util.importer.StackExchangeIds;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Imports a StackExchange data dump (Users.xml and Posts.xml) in three phases: users with their profiles,
+// questions, then answers, so every foreign key points at a row committed in an earlier phase.
+// The parsing thread cuts a phase into chunks of chunkSize rows that a pool of threads loads in parallel.
+// Chunks recorded in import_checkpoints under the same import name are parsed but not loaded again,
+// so an interrupted import resumes by starting it again with the same chunk size. The counters are recomputed once at the end
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StackExchangeImportService {
+
+    private static final String USERS_FILE = "Users.xml";
+    private static final String POSTS_FILE = "Posts.xml";
+    private static final String QUESTION_POST_TYPE = "1";
+    private static final String ANSWER_POST_TYPE = "2";
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    private static final BulkLoader.Table USERS = new BulkLoader.Table("users",
+            List.of("user_id", "username", "question_count", "answer_count"));
+    private static final BulkLoader.Table PROFILES = new BulkLoader.Table("profiles",
+            List.of("profile_id", "user_id", "bio", "firstname", "avatar_url", "rating", "version"));
+    private static final BulkLoader.Table QUESTIONS = new BulkLoader.Table("questions",
+            List.of("question_id", "header", "body", "author", "interesting", "create_time", "answer_count", "version"));
+    private static final BulkLoader.Table ANSWERS = new BulkLoader.Table("answers",
+            List.of("answer_id", "body", "author", "question_id", "usefulness", "create_time", "version"));
+
+    final private BulkLoader bulkLoader;
+    final private CounterService counterService;
+    final private PartitionMaintenanceService partitionMaintenanceService;
+
+    @Value("${importer.dump_directory}")
+    private String dumpDirectory;
+
+    @Value("${importer.chunk_size}")
+    private int chunkSize;
+
+    @Value("${importer.threads}")
+    private int threads;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    // Reports of the imports started since startup, by import name; a running import has a RUNNING report
+    private final Map<String, ImportReportDto> reports = new ConcurrentHashMap<>();
+    // Imports take minutes to hours, so requests only start them; one runs at a time anyway
+    private final ExecutorService importRunner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "stackexchange-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Checks the request and runs the import in the background; its report is kept under the import name
+    public void startImport(@NonNull String importName, @NonNull String dumpName) {
+        Path dumpPath = prepareImport(importName, dumpName);
+        ImportReportDto previousReport = reports.put(importName, ImportReportDto.builder()
+                .importName(importName)
+                .status(ImportStatusEnum.RUNNING)
+                .build());
+        try {
+            importRunner.execute(() -> {
+                try {
+                    reports.put(importName, runImport(importName, dumpPath));
+                } catch (RuntimeException e) {
+                    log.error("Import {} failed", importName, e);
+                    reports.put(importName, ImportReportDto.builder()
+                            .importName(importName)
+                            .status(ImportStatusEnum.FAILED)
+                            .error(e.getMessage())
+                            .build());
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            if (previousReport == null) reports.remove(importName);
+            else reports.put(importName, previousReport);
+            running.set(false);
+            throw e;
+        }
+    }
+
+    public ImportReportDto findReport(@NonNull String importName) throws EntityNotFoundException {
+        ImportReportDto report = reports.get(importName);
+        if (report == null) throw new EntityNotFoundException("Import " + importName + " has not been started");
+        return report;
+    }
+
+    // Marks an import as running once the request is known to be valid
+    private Path prepareImport(String importName, String dumpName) {
+        if (importName.isBlank()) throw new InvalidRequestParametersException("Import name must not be blank");
+        Path dumpPath = resolveDump(dumpName);
+        requireSameChunkSize(importName);
+        if (!running.compareAndSet(false, true))
+            throw new InvalidRequestParametersException("Another import is already running");
+        return dumpPath;
+    }
+
+    // A resume under another chunk size would skip and reload different rows than the checkpoints cover
+    private void requireSameChunkSize(String importName) {
+        Set<Integer> chunkSizes;
+        try {
+            chunkSizes = bulkLoader.findChunkSizes(importName);
+        } catch (SQLException e) {
+            throw new ImportException("Import " + importName + " failed: " + e.getMessage(), e);
+        }
+        if (!chunkSizes.isEmpty() && !chunkSizes.equals(Set.of(chunkSize))) {
+            throw new InvalidRequestParametersException("Import " + importName + " was checkpointed with chunk size "
+                    + chunkSizes + ", not " + chunkSize + "; resume it with the same importer.chunk_size or use a new import name");
+        }
+    }
+
+    private ImportReportDto runImport(String importName, Path dumpPath) {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            long start = System.nanoTime();
+            // Source ids loaded so far; posts by unknown users keep no author, answers to unknown questions are skipped
+            BitSet userIds = new BitSet();
+            BitSet questionIds = new BitSet();
+            // Creation dates of the answers, gathered while the questions phase reads the same file
+            DateRange answerDates = new DateRange();
+
+            List<ImportPhaseReportDto> phases = new ArrayList<>();
+            phases.add(new PhaseLoader(importName, "users", executor, (row, chunk) -> addUser(row, chunk, userIds))
+                    .load(dumpPath.resolve(USERS_FILE)));
+            phases.add(new PhaseLoader(importName, "questions", executor, (row, chunk) -> addQuestion(row, chunk, userIds, questionIds, answerDates))
+                    .load(dumpPath.resolve(POSTS_FILE)));
+            // Without monthly partitions the answers would land in answers_default, which blocks creating those months later
+            if (answerDates.first != null) {
+                partitionMaintenanceService.createPartitions(answerDates.first, answerDates.last);
+            }
+            phases.add(new PhaseLoader(importName, "answers", executor, (row, chunk) -> addAnswer(row, chunk, userIds, questionIds))
+                    .load(dumpPath.resolve(POSTS_FILE)));
+            counterService.recount(
+                    StackExchangeIds.first(StackExchangeIds.Kind.USER), StackExchangeIds.last(StackExchangeIds.Kind.USER),
+                    StackExchangeIds.first(StackExchangeIds.Kind.QUESTION), StackExchangeIds.last(StackExchangeIds.Kind.QUESTION)
+            );
+
+            long elapsedMs = elapsedMs(start);
+            long loadedRows = phases.stream().mapToLong(ImportPhaseReportDto::getLoadedRows).sum();
+            ImportReportDto report = ImportReportDto.builder()
+                    .importName(importName)
+                    .status(ImportStatusEnum.FINISHED)
+                    .phases(phases)
+                    .loadedRows(loadedRows)
+                    .elapsedMs(elapsedMs)
+                    .rowsPerMinute(rowsPerMinute(loadedRows, elapsedMs))
+                    .build();
+            log.info("Import {} finished: {} rows in {} ms, {} rows/min", importName, loadedRows, elapsedMs, report.getRowsPerMinute());
+            return report;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Dumps are directories under dumpDirectory; names that resolve outside of it are rejected
+    private Path resolveDump(String dumpName) {
+        Path baseDirectory = Path.of(dumpDirectory).toAbsolutePath().normalize();
+        Path dumpPath = baseDirectory.resolve(dumpName).normalize();
+        if (!dumpPath.startsWith(baseDirectory) || dumpPath.equals(baseDirectory)
+                || !Files.isRegularFile(dumpPath.resolve(USERS_FILE)) || !Files.isRegularFile(dumpPath.resolve(POSTS_FILE))) {
+            throw new InvalidRequestParametersException("Dump " + dumpName + " not found");
+        }
+        return dumpPath;
+    }
+
+    private boolean addUser(Map<String, String> row, Chunk chunk, BitSet userIds) {
+        // Negative ids belong to system accounts such as Community
+        Integer id = parseId(row.get("Id"));
+        if (id == null) return false;
+        userIds.set(id);
+
+        UUID userId = StackExchangeIds.of(StackExchangeIds.Kind.USER, id);
+        String displayName = row.getOrDefault("DisplayName", "");
+        // Display names are not unique, so the source id keeps the username apart
+        String idSuffix = "_" + id;
+        chunk.add(USERS, new Object[]{userId, truncate(displayName, MAX_TEXT_LENGTH - idSuffix.length()) + idSuffix, 0, 0});
+        chunk.add(PROFILES, new Object[]{
+                StackExchangeIds.of(StackExchangeIds.Kind.PROFILE, id),
+                userId,
+                truncate(row.get("AboutMe")),
+                truncate(displayName),
+                row.get("ProfileImageUrl"),
+                parseInt(row.get("Reputation")),
+                0
+        });
+        return true;
+    }
+
+    private boolean addQuestion(Map<String, String> row, Chunk chunk, BitSet userIds, BitSet questionIds, DateRange answerDates) {
+        Integer id = parseId(row.get("Id"));
+        if (ANSWER_POST_TYPE.equals(row.get("PostTypeId"))) answerDates.include(parseDate(row.get("CreationDate")));
+        if (id == null || !QUESTION_POST_TYPE.equals(row.get("PostTypeId"))) return false;
+        questionIds.set(id);
+
+        chunk.add(QUESTIONS, new Object[]{
+                StackExchangeIds.of(StackExchangeIds.Kind.QUESTION, id),
+                truncate(row.get("Title")),
+                row.get("Body"),
+                findUserId(row.get("OwnerUserId"), userIds),
+                parseInt(row.get("Score")),
+                parseDate(row.get("CreationDate")),
+                0,
+                0
+        });
+        return true;
+    }
+
+    private boolean addAnswer(Map<String, String> row, Chunk chunk, BitSet userIds, BitSet questionIds) {
+        Integer id = parseId(row.get("Id"));
+        Integer questionId = parseId(row.get("ParentId"));
+        if (id == null || questionId == null || !ANSWER_POST_TYPE.equals(row.get("PostTypeId"))
+                || !questionIds.get(questionId)) return false;
+
+        chunk.add(ANSWERS, new Object[]{
+                StackExchangeIds.of(StackExchangeIds.Kind.ANSWER, id),
+                row.get("Body"),
+                findUserId(row.get("OwnerUserId"), userIds),
+                StackExchangeIds.of(StackExchangeIds.Kind.QUESTION, questionId),
+                parseInt(row.get("Score")),
+                parseDate(row.get("CreationDate")),
+                0
+        });
+        return true;
+    }
+
+    private UUID findUserId(String value, BitSet userIds) {
+        Integer id = parseId(value);
+        return id != null && userIds.get(id) ? StackExchangeIds.of(StackExchangeIds.Kind.USER, id) : null;
+    }
+
+    private Integer parseId(String value) {
+        if (value == null) return null;
+        try {
+            int id = Integer.parseInt(value);
+            return id >= 0 ? id : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private int parseInt(String value) {
+        try {
+            return value == null ? 0 : Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private LocalDate parseDate(String value) {
+        return value == null ? null : LocalDateTime.parse(value).toLocalDate();
+    }
+
+    private String truncate(String value) {
+        return truncate(value, MAX_TEXT_LENGTH);
+    }
+
+    private String truncate(String value, int maxLength) {
+        return value == null || value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+
+    private static long elapsedMs(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private static long rowsPerMinute(long rows, long elapsedMs) {
+        return rows * TimeUnit.MINUTES.toMillis(1) / Math.max(elapsedMs, 1);
+    }
+
+    @FunctionalInterface
+    private interface RowMapper {
+
+        // Adds the rows for one dump element to the chunk; false when the element is not imported in this phase
+        boolean addRows(Map<String, String> row, Chunk chunk);
+
+    }
+
+    private static class DateRange {
+
+        private LocalDate first;
+        private LocalDate last;
+
+        void include(LocalDate date) {
+            if (date == null) return;
+            if (first == null || date.isBefore(first)) first = date;
+            if (last == null || date.isAfter(last)) last = date;
+        }
+
+    }
+
+    private static class Chunk {
+
+        private final Map<BulkLoader.Table, List<Object[]>> rowsByTable = new LinkedHashMap<>();
+        private int size;
+
+        void add(BulkLoader.Table table, Object[] row) {
+            rowsByTable.computeIfAbsent(table, key -> new ArrayList<>()).add(row);
+        }
+
+    }
+
+    // Parses one dump file and hands full chunks to the executor. At most two chunks per thread are in flight,
+    // so the parser never runs far ahead of the database
+    private class PhaseLoader {
+
+        private final String importName;
+        private final String phase;
+        private final ExecutorService executor;
+        private final RowMapper rowMapper;
+        private final Semaphore inFlight = new Semaphore(threads * 2);
+        private final List<Future<?>> pendingChunks = new ArrayList<>();
+        private final AtomicReference<Exception> failure = new AtomicReference<>();
+        private final AtomicLong loadedRows = new AtomicLong();
+        private Set<Integer> loadedChunks;
+        private Chunk chunk = new Chunk();
+        private int chunkNumber;
+        private int resumedChunks;
+        private long skippedRows;
+
+        PhaseLoader(String importName, String phase, ExecutorService executor, RowMapper rowMapper) {
+            this.importName = importName;
+            this.phase = phase;
+            this.executor = executor;
+            this.rowMapper = rowMapper;
+        }
+
+        ImportPhaseReportDto load(Path file) {
+            long start = System.nanoTime();
+            long parsedRows;
+            try {
+                loadedChunks = bulkLoader.findLoadedChunks(importName, phase);
+                parsedRows = StackExchangeDumpReader.readRows(file, this::addRow);
+                if (chunk.size > 0) submit();
+                for (Future<?> pendingChunk : pendingChunks) pendingChunk.get();
+            } catch (SQLException | IOException | XMLStreamException e) {
+                throw new ImportException("Import " + importName + " failed in phase " + phase + ": " + e.getMessage(), e);
+            } catch (ExecutionException e) {
+                throw new ImportException("Import " + importName + " failed in phase " + phase + ": " + e.getCause().getMessage(), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ImportException("Import " + importName + " interrupted in phase " + phase, e);
+            }
+
+            long elapsedMs = elapsedMs(start);
+            ImportPhaseReportDto report = ImportPhaseReportDto.builder()
+                    .phase(phase)
+                    .parsedRows(parsedRows)
+                    .loadedRows(loadedRows.get())
+                    .skippedRows(skippedRows)
+                    .loadedChunks(pendingChunks.size())
+                    .resumedChunks(resumedChunks)
+                    .elapsedMs(elapsedMs)
+                    .rowsPerMinute(rowsPerMinute(loadedRows.get(), elapsedMs))
+                    .build();
+            log.info("Import {} phase {}: {} rows in {} chunks, {} chunks resumed, {} rows skipped, {} ms",
+                    importName, phase, report.getLoadedRows(), report.getLoadedChunks(), resumedChunks, skippedRows, elapsedMs);
+            return report;
+        }
+
+        private void addRow(Map<String, String> row) {
+            if (!rowMapper.addRows(row, chunk)) {
+                skippedRows++;
+                return;
+            }
+            if (++chunk.size >= chunkSize) submit();
+        }
+
+        private void submit() {
+            Chunk fullChunk = chunk;
+            int number = chunkNumber++;
+            chunk = new Chunk();
+            if (loadedChunks.contains(number)) {
+                resumedChunks++;
+                return;
+            }
+            if (failure.get() != null)
+                throw new ImportException("Import " + importName + " failed in phase " + phase + ": " + failure.get().getMessage(), failure.get());
+
+            try {
+                inFlight.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ImportException("Import " + importName + " interrupted in phase " + phase, e);
+            }
+            pendingChunks.add(executor.submit(() -> {
+                try {
+                    bulkLoader.loadChunk(importName, phase, number, chunkSize, fullChunk.rowsByTable);
+                    loadedRows.addAndGet(fullChunk.size);
+                    return null;
+                } catch (Exception e) {
+                    failure.compareAndSet(null, e);
+                    throw e;
+                } finally {
+                    inFlight.release();
+                }
+            }));
+        }
+
+    }
+
+}
@@ -2,15 +2,19 @@ package org.senla_project.application.service;
 
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import org.senla_project.application.dto.BatchLookupDto;
 import org.senla_project.application.dto.UserCreateDto;
 import org.senla_project.application.dto.UserResponseDto;
 import org.senla_project.application.entity.Role;
 import org.senla_project.application.entity.User;
 import org.senla_project.application.mapper.RoleMapper;
 import org.senla_project.application.mapper.UserMapper;
+import org.senla_project.application.repository.CollaborationsJoiningRepository;
 import org.senla_project.application.repository.UserRepository;
+import org.senla_project.application.util.JsonParser;
 import org.senla_project.application.util.enums.RolesEnum;
 import org.senla_project.application.util.exception.EntityNotFoundException;
+import org.senla_project.application.util.pagination.KeysetPage;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -19,21 +23,25 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.OutputStream;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class UserService implements ServiceInterface<UUID, UserCreateDto, UserResponseDto>, UserDetailsService {
 
     final private UserRepository userRepository;
-    final private RoleService roleService;
+    final private CollaborationsJoiningRepository collaborationsJoiningRepository;
     final private RoleMapper roleMapper;
     final private UserMapper userMapper;
     final private PasswordEncoder passwordEncoder;
+    final private ReferenceService referenceService;
+    final private JsonParser jsonParser;
 
     @Transactional(readOnly = true)
     private Set<Role> getDefaultRolesSet() {
@@ -54,14 +62,20 @@ public class UserService implements ServiceInterface<UUID, UserCreateDto, UserRe
     @Transactional
     @Override
     public UserResponseDto updateElement(@NonNull UUID id, @NonNull UserCreateDto updatedElement) {
-        return userMapper.toUserResponseDto(userRepository.update(
-                addDependenciesToUser(userMapper.toUser(id, updatedElement))
-        ));
+        User user = addDependenciesToUser(userMapper.toUser(id, updatedElement));
+        // The counters are not part of the DTO; keep the stored values in the merged and cached state
+        userRepository.findById(id, null).ifPresent(currentUser -> {
+            user.setQuestionCount(currentUser.getQuestionCount());
+            user.setAnswerCount(currentUser.getAnswerCount());
+        });
+        return userMapper.toUserResponseDto(userRepository.update(user));
     }
 
     @Transactional
     @Override
     public void deleteElement(@NonNull UUID id) {
+        // Memberships may live on the collaboration shards, out of reach of the user's own bulk delete
+        collaborationsJoiningRepository.deleteAllByUserId(id);
         userRepository.deleteById(id);
     }
 
@@ -73,6 +87,14 @@ public class UserService implements ServiceInterface<UUID, UserCreateDto, UserRe
         return elements;
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public KeysetPage<UserResponseDto> findAllElements(String cursor, int pageSize) throws EntityNotFoundException {
+        var elements = userRepository.findAll(cursor, pageSize).map(userMapper::toUserResponseDtoList);
+        if (elements.getContent().isEmpty()) throw new EntityNotFoundException("Users not found");
+        return elements;
+    }
+
     @Transactional(readOnly = true)
     @Override
     public UserResponseDto findElementById(@NonNull UUID id) throws EntityNotFoundException {
@@ -80,6 +102,22 @@ public class UserService implements ServiceInterface<UUID, UserCreateDto, UserRe
                 .map(userMapper::toUserResponseDto).orElseThrow(() -> new EntityNotFoundException("User not found"));
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public BatchLookupDto<UserResponseDto> findElementsByIds(@NonNull List<UUID> ids) {
+        var elements = userRepository.findAllByIds(ids).stream()
+                .map(userMapper::toUserResponseDto)
+                .toList();
+        return BatchLookupDto.of(ids, elements, UserResponseDto::getUserId);
+    }
+
+    @Transactional(readOnly = true)
+    public void exportElements(@NonNull OutputStream outputStream) {
+        try (Stream<UserResponseDto> elements = userRepository.streamAll(null, userMapper::toUserResponseDto)) {
+            jsonParser.writeJsonLines(elements, outputStream);
+        }
+    }
+
     @Transactional(readOnly = true)
     public UserResponseDto findUserByUsername(@NonNull String username) throws EntityNotFoundException {
         return userRepository.findUserByUsername(username)
@@ -104,15 +142,12 @@ public class UserService implements ServiceInterface<UUID, UserCreateDto, UserRe
         );
     }
 
-    @Transactional(readOnly = true)
     private User addDependenciesToUser(User user) {
         List<String> roleNameList = user.getRoles().stream()
                 .map(Role::getRoleName).toList();
         Set<Role> roleSet = new HashSet<>();
         for (var roleName : roleNameList) {
-            roleSet.add(roleMapper.toRole(
-                    roleService.findRoleByName(roleName)
-            ));
+            roleSet.add(referenceService.findRoleReference(roleName));
         }
         user.setRoles(roleSet);
         return user;
@@ -0,0 +1,83 @@
+package org.senla_project.application.service;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.senla_project.application.util.counter.StripedCounters;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+// Votes are counted in memory and written behind once per flush interval in one batch per table, so a vote
+// never takes the answer or question row lock inside the request. Unflushed votes live only in memory:
+// an unclean shutdown loses the votes of the last interval plus any a failing database kept in memory, a clean one
+// flushes on the way down. A failed flush keeps the votes for the next one, up to maxFailedFlushes failures in a row;
+// then they are dropped and counted in droppedVotes, so an outage cannot pile them up without bound.
+// Votes for ids that do not exist are dropped at the flush
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class VoteService implements DisposableBean {
+
+    final private CounterService counterService;
+
+    private final StripedCounters answerVotes = new StripedCounters();
+    private final StripedCounters questionVotes = new StripedCounters();
+    private final LongAdder droppedVotes = new LongAdder();
+    private int failedFlushes;
+
+    @Value("${votes.max_failed_flushes}")
+    private int maxFailedFlushes;
+
+    public void voteForAnswer(@NonNull UUID answerId, boolean useful) {
+        answerVotes.add(answerId, useful ? 1 : -1);
+    }
+
+    public void voteForQuestion(@NonNull UUID questionId, boolean interesting) {
+        questionVotes.add(questionId, interesting ? 1 : -1);
+    }
+
+    @Scheduled(fixedDelayString = "${votes.flush_interval_ms}")
+    public synchronized void flushVotes() {
+        Map<UUID, Long> usefulnessDeltas = answerVotes.drain();
+        Map<UUID, Long> interestingDeltas = questionVotes.drain();
+        if (usefulnessDeltas.isEmpty() && interestingDeltas.isEmpty()) return;
+
+        try {
+            counterService.addVotes(usefulnessDeltas, interestingDeltas);
+            failedFlushes = 0;
+        } catch (RuntimeException e) {
+            if (++failedFlushes < maxFailedFlushes) {
+                answerVotes.addAll(usefulnessDeltas);
+                questionVotes.addAll(interestingDeltas);
+                log.error("Vote flush {} of {} failed, {} answer and {} question counters kept for the next one",
+                        failedFlushes, maxFailedFlushes, usefulnessDeltas.size(), interestingDeltas.size(), e);
+                return;
+            }
+            failedFlushes = 0;
+            droppedVotes.add(countVotes(usefulnessDeltas) + countVotes(interestingDeltas));
+            log.error("Vote flush failed {} times in a row, {} answer and {} question counters dropped, {} votes dropped since startup",
+                    maxFailedFlushes, usefulnessDeltas.size(), interestingDeltas.size(), droppedVotes.sum(), e);
+        }
+    }
+
+    public long getDroppedVotes() {
+        return droppedVotes.sum();
+    }
+
+    @Override
+    public void destroy() {
+        flushVotes();
+    }
+
+    // Net deltas hide votes that cancelled out, so this is the least number of votes lost
+    private static long countVotes(Map<UUID, Long> deltas) {
+        return deltas.values().stream().mapToLong(Math::abs).sum();
+    }
+
+}
@@ -1,10 +1,19 @@
 package org.senla_project.application.util;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
 @Component
 @RequiredArgsConstructor
 public class JsonParser {
@@ -19,6 +28,10 @@ public class JsonParser {
         }
     }
 
+    public <T> T convertToObject(Object value, Class<T> objectClass) {
+        return objectMapper.convertValue(value, objectClass);
+    }
+
     public String parseObjectToJson(Object dto) {
         try {
             return objectMapper.writeValueAsString(dto);
@@ -27,4 +40,24 @@ public class JsonParser {
         }
     }
 
+    // Newline-delimited JSON; flushed after the first line so the client gets data before the whole stream is written
+    public void writeJsonLines(Stream<?> elements, OutputStream outputStream) {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.setRootValueSeparator(null);
+            Iterator<?> iterator = elements.iterator();
+            boolean firstLine = true;
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+                if (firstLine) {
+                    generator.flush();
+                    firstLine = false;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
 }
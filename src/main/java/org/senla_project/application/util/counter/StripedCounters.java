@@ -0,0 +1,52 @@
+package org.senla_project.application.util.counter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Per-id LongAdders that absorb increments without locks and are emptied by drain.
+// sumThenReset swaps every cell to zero atomically, so each increment lands in exactly one drain.
+// Counters found empty are retired and removed; a writer that finds its counter retired moves whatever
+// is left in it to a fresh one, so an increment racing the removal is neither lost nor counted twice
+public class StripedCounters {
+
+    private final ConcurrentHashMap<UUID, Counter> counters = new ConcurrentHashMap<>();
+
+    public void add(UUID id, long delta) {
+        Counter counter = counters.computeIfAbsent(id, key -> new Counter());
+        counter.add(delta);
+        while (counter.retired) {
+            long rest = counter.sumThenReset();
+            if (rest == 0) return;
+            counter = counters.computeIfAbsent(id, key -> new Counter());
+            counter.add(rest);
+        }
+    }
+
+    public void addAll(Map<UUID, Long> deltasById) {
+        deltasById.forEach(this::add);
+    }
+
+    public Map<UUID, Long> drain() {
+        Map<UUID, Long> deltas = new HashMap<>();
+        counters.forEach((id, counter) -> {
+            long delta = counter.sumThenReset();
+            if (delta == 0) {
+                counter.retired = true;
+                counters.remove(id, counter);
+                delta = counter.sumThenReset();
+            }
+            if (delta != 0) deltas.merge(id, delta, Long::sum);
+        });
+        return deltas;
+    }
+
+    private static class Counter extends LongAdder {
+
+        private volatile boolean retired;
+
+    }
+
+}
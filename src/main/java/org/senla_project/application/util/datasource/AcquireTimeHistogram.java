@@ -0,0 +1,61 @@
+package org.senla_project.application.util.datasource;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public class AcquireTimeHistogram {
+
+    private static final long[] BUCKET_BOUNDS_MICROS = {
+            100, 250, 500, 1_000, 2_500, 5_000, 10_000, 25_000, 50_000, 100_000, 250_000, 500_000, 1_000_000
+    };
+
+    private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS_MICROS.length + 1];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final LongAccumulator maxMicros = new LongAccumulator(Long::max, 0);
+
+    public AcquireTimeHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long micros) {
+        int bucket = 0;
+        while (bucket < BUCKET_BOUNDS_MICROS.length && micros > BUCKET_BOUNDS_MICROS[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        count.increment();
+        totalMicros.add(micros);
+        maxMicros.accumulate(micros);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getAverageMicros() {
+        long currentCount = count.sum();
+        return currentCount == 0 ? 0 : totalMicros.sum() / currentCount;
+    }
+
+    public long getMaxMicros() {
+        return maxMicros.get();
+    }
+
+    // Cumulative counts keyed by upper bound ("le" semantics), the last bucket is unbounded
+    public Map<String, Long> getBuckets() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        long cumulative = 0;
+        for (int i = 0; i < BUCKET_BOUNDS_MICROS.length; i++) {
+            cumulative += buckets[i].sum();
+            result.put("le_" + BUCKET_BOUNDS_MICROS[i] + "us", cumulative);
+        }
+        result.put("le_inf", cumulative + buckets[BUCKET_BOUNDS_MICROS.length].sum());
+        return result;
+    }
+
+}
@@ -0,0 +1,47 @@
+package org.senla_project.application.util.datasource;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+// Places ids on shards through a ring of virtual nodes. Adding a shard only takes over the ring segments
+// in front of its own nodes, so about 1/N of the ids move instead of nearly all of them with a plain modulo
+public class ConsistentHashRing {
+
+    private static final String NODE_SEPARATOR = "#";
+
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+
+    public ConsistentHashRing(Collection<String> shardKeys, int virtualNodes) {
+        if (shardKeys.isEmpty() || virtualNodes < 1)
+            throw new IllegalArgumentException("The ring needs at least one shard and one virtual node per shard");
+
+        for (String shardKey : shardKeys) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(shardKey + NODE_SEPARATOR + i), shardKey);
+            }
+        }
+    }
+
+    public String shardFor(UUID id) {
+        Map.Entry<Long, String> node = ring.ceilingEntry(hash(id.toString()));
+        return (node == null ? ring.firstEntry() : node).getValue();
+    }
+
+    // Leading bytes of MD5: the same on every node and JVM, and spread evenly even for time-ordered UUIDv7 ids
+    private static long hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,30 @@
+package org.senla_project.application.util.datasource;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+@Getter
+@RequiredArgsConstructor
+public class PoolMetricsTracker implements IMetricsTracker {
+
+    private final String poolName;
+    private final PoolStats poolStats;
+    private final AcquireTimeHistogram acquireTime = new AcquireTimeHistogram();
+    private final LongAdder timeouts = new LongAdder();
+
+    @Override
+    public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        acquireTime.record(TimeUnit.NANOSECONDS.toMicros(elapsedAcquiredNanos));
+    }
+
+    @Override
+    public void recordConnectionTimeout() {
+        timeouts.increment();
+    }
+
+}
@@ -0,0 +1,28 @@
+package org.senla_project.application.util.datasource;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class PoolMetricsTrackerFactory implements MetricsTrackerFactory {
+
+    private final Map<String, PoolMetricsTracker> trackers = new ConcurrentHashMap<>();
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        PoolMetricsTracker tracker = new PoolMetricsTracker(poolName, poolStats);
+        trackers.put(poolName, tracker);
+        return tracker;
+    }
+
+    public Collection<PoolMetricsTracker> getTrackers() {
+        return trackers.values();
+    }
+
+}
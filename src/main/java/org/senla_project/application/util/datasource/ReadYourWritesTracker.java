@@ -0,0 +1,48 @@
+package org.senla_project.application.util.datasource;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Remembers when each user last committed a write, so their reads can stay on the primary until replicas catch up
+@RequiredArgsConstructor
+public class ReadYourWritesTracker {
+
+    private final long windowMs;
+    private final Map<String, Long> lastWriteTimes = new ConcurrentHashMap<>();
+
+    public void registerWrite() {
+        String username = getCurrentUsername();
+        if (windowMs <= 0 || username == null || !TransactionSynchronizationManager.isSynchronizationActive()) return;
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lastWriteTimes.put(username, System.currentTimeMillis());
+            }
+        });
+    }
+
+    public boolean isWithinWindow() {
+        String username = getCurrentUsername();
+        if (windowMs <= 0 || username == null) return false;
+
+        Long lastWriteTime = lastWriteTimes.get(username);
+        if (lastWriteTime == null) return false;
+        if (System.currentTimeMillis() - lastWriteTime < windowMs) return true;
+
+        lastWriteTimes.remove(username, lastWriteTime);
+        return false;
+    }
+
+    private String getCurrentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? null : authentication.getName();
+    }
+
+}
@@ -0,0 +1,117 @@
+package org.senla_project.application.util.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Sends read-only transactions to healthy replicas (round robin) and everything else to the primary.
+// The lookup key is read when the connection is first used, so this must sit behind a LazyConnectionDataSourceProxy
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    public static final String PRIMARY_KEY = "primary";
+    public static final String REPLICA_KEY_PREFIX = "replica-";
+
+    private final DataSource primary;
+    private final Map<String, DataSource> replicas = new LinkedHashMap<>();
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final long healthCheckIntervalMs;
+    private final int healthCheckTimeoutSeconds;
+
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private volatile List<String> healthyReplicaKeys = List.of();
+    private ScheduledExecutorService healthChecker;
+
+    public ReplicaRoutingDataSource(DataSource primary,
+                                    List<DataSource> replicas,
+                                    ReadYourWritesTracker readYourWritesTracker,
+                                    long healthCheckIntervalMs,
+                                    int healthCheckTimeoutSeconds) {
+        this.primary = primary;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.healthCheckIntervalMs = healthCheckIntervalMs;
+        this.healthCheckTimeoutSeconds = healthCheckTimeoutSeconds;
+
+        Map<Object, Object> targetDataSources = new HashMap<>();
+        targetDataSources.put(PRIMARY_KEY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas.put(REPLICA_KEY_PREFIX + (i + 1), replicas.get(i));
+        }
+        targetDataSources.putAll(this.replicas);
+        setTargetDataSources(targetDataSources);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        if (replicas.isEmpty()) return;
+
+        healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        healthChecker.scheduleWithFixedDelay(this::checkReplicas, 0, healthCheckIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            readYourWritesTracker.registerWrite();
+            return PRIMARY_KEY;
+        }
+
+        List<String> replicaKeys = healthyReplicaKeys;
+        if (replicaKeys.isEmpty() || readYourWritesTracker.isWithinWindow()) return PRIMARY_KEY;
+        return replicaKeys.get(Math.floorMod(nextReplica.getAndIncrement(), replicaKeys.size()));
+    }
+
+    public void checkReplicas() {
+        List<String> replicaKeys = new ArrayList<>(replicas.size());
+        replicas.forEach((key, replica) -> {
+            if (isHealthy(replica)) {
+                replicaKeys.add(key);
+            } else {
+                log.warn("Replica {} failed the health check, routing its reads to the primary", key);
+            }
+        });
+        healthyReplicaKeys = List.copyOf(replicaKeys);
+    }
+
+    public List<String> getHealthyReplicaKeys() {
+        return healthyReplicaKeys;
+    }
+
+    private boolean isHealthy(DataSource replica) {
+        try (Connection connection = replica.getConnection()) {
+            return connection.isValid(healthCheckTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (healthChecker != null) healthChecker.shutdownNow();
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof AutoCloseable closeable) closeable.close();
+        }
+        if (primary instanceof AutoCloseable closeable) closeable.close();
+    }
+
+}
@@ -0,0 +1,71 @@
+package org.senla_project.application.util.datasource;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+// Commit decisions of the shard transactions, kept in shard_commits of the main database. A prepared shard
+// transaction is committed if its id was recorded by a main transaction that committed, and rolled back otherwise
+@RequiredArgsConstructor
+public class ShardTransactionLog {
+
+    final private DataSource dataSource;
+
+    // Runs on the connection of the current main transaction, so the decision commits or rolls back with it
+    public void record(String transactionId) throws SQLException {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO shard_commits (transaction_id, commit_time) VALUES (?, ?)")) {
+            statement.setString(1, transactionId);
+            statement.setTimestamp(2, Timestamp.from(Instant.now()));
+            statement.executeUpdate();
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    public boolean contains(String transactionId) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT count(*) FROM shard_commits WHERE transaction_id = ?")) {
+            statement.setString(1, transactionId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getInt(1) > 0;
+            }
+        }
+    }
+
+    public List<String> findRecordedBefore(Instant time) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT transaction_id FROM shard_commits WHERE commit_time < ?")) {
+            statement.setTimestamp(1, Timestamp.from(time));
+            List<String> transactionIds = new ArrayList<>();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) transactionIds.add(resultSet.getString(1));
+            }
+            return transactionIds;
+        }
+    }
+
+    // Once every shard has committed, the decision is no longer needed
+    public void forget(String transactionId) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "DELETE FROM shard_commits WHERE transaction_id = ?")) {
+            statement.setString(1, transactionId);
+            statement.executeUpdate();
+        }
+    }
+
+}
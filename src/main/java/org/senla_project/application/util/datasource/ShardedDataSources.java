@@ -0,0 +1,313 @@
+package org.senla_project.application.util.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.support.SQLExceptionSubclassTranslator;
+import org.springframework.jdbc.support.SQLExceptionTranslator;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// The databases that collaborations and their memberships are spread over, each row on the shard its collab_id
+// hashes to. Inside a Spring transaction every shard gets one connection bound to it, and the shards commit with the
+// main database in two phases: every shard prepares, the main transaction records the decision in ShardTransactionLog
+// and commits, then the shards commit their prepared transactions. A failure before the main commit rolls everything
+// back; shards left prepared after it are resolved by reconcile from the recorded decision.
+// Outside a transaction every call runs on its own autocommitted connection
+@Slf4j
+public class ShardedDataSources implements AutoCloseable {
+
+    public static final String SHARD_KEY_PREFIX = "shard-";
+    private static final String TRANSACTION_ID_PREFIX = "SHARD_TX_";
+
+    private final Map<String, DataSource> shards = new LinkedHashMap<>();
+    private final ConsistentHashRing ring;
+    private final ExecutorService scatterExecutor;
+    private final ShardTransactionLog transactionLog;
+    private final SQLExceptionTranslator exceptionTranslator = new SQLExceptionSubclassTranslator();
+
+    @FunctionalInterface
+    public interface ShardCallback<T> {
+
+        T doInConnection(Connection connection) throws SQLException;
+
+    }
+
+    public ShardedDataSources(List<DataSource> dataSources, ShardTransactionLog transactionLog, int virtualNodes, int scatterThreads) {
+        this.transactionLog = transactionLog;
+        for (int i = 0; i < dataSources.size(); i++) {
+            shards.put(SHARD_KEY_PREFIX + (i + 1), dataSources.get(i));
+        }
+        if (shards.isEmpty()) {
+            ring = null;
+            scatterExecutor = null;
+            return;
+        }
+
+        ring = new ConsistentHashRing(shards.keySet(), virtualNodes);
+        AtomicInteger threadNumber = new AtomicInteger();
+        scatterExecutor = Executors.newFixedThreadPool(scatterThreads, runnable -> {
+            Thread thread = new Thread(runnable, "shard-scatter-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public boolean isEmpty() {
+        return shards.isEmpty();
+    }
+
+    public Set<String> getShardKeys() {
+        return shards.keySet();
+    }
+
+    public String shardFor(UUID id) {
+        if (ring == null) throw new IllegalStateException("No shards are configured");
+        return ring.shardFor(id);
+    }
+
+    public DataSource getDataSource(String shardKey) {
+        DataSource dataSource = shards.get(shardKey);
+        if (dataSource == null) throw new IllegalArgumentException("Unknown shard " + shardKey);
+        return dataSource;
+    }
+
+    public <T> T execute(String shardKey, ShardCallback<T> callback) {
+        try {
+            ShardTransaction transaction = currentTransaction();
+            if (transaction != null) return callback.doInConnection(transaction.getConnection(shardKey));
+            try (Connection connection = getDataSource(shardKey).getConnection()) {
+                return callback.doInConnection(connection);
+            }
+        } catch (SQLException e) {
+            throw translate(shardKey, e);
+        }
+    }
+
+    // Scatter-gather: runs the callback on every shard in parallel and returns the results in shard order.
+    // All shards are waited for before the first failure is rethrown, so no connection is still in use
+    // when the transaction rolls back
+    public <T> Map<String, T> executeOnAll(ShardCallback<T> callback) {
+        if (shards.size() == 1) {
+            String shardKey = shards.keySet().iterator().next();
+            return Map.of(shardKey, execute(shardKey, callback));
+        }
+
+        Map<String, Future<T>> futures = new LinkedHashMap<>();
+        try {
+            // Bound connections are taken on the calling thread, which owns the transaction's resources
+            ShardTransaction transaction = currentTransaction();
+            for (String shardKey : shards.keySet()) {
+                Callable<T> task;
+                if (transaction == null) {
+                    task = () -> {
+                        try (Connection connection = getDataSource(shardKey).getConnection()) {
+                            return callback.doInConnection(connection);
+                        }
+                    };
+                } else {
+                    Connection connection = transaction.getConnection(shardKey);
+                    task = () -> callback.doInConnection(connection);
+                }
+                futures.put(shardKey, scatterExecutor.submit(task));
+            }
+        } catch (SQLException e) {
+            throw translate(futures.keySet().toString(), e);
+        }
+
+        Map<String, T> results = new LinkedHashMap<>();
+        RuntimeException failure = null;
+        for (var future : futures.entrySet()) {
+            try {
+                results.put(future.getKey(), future.getValue().get());
+            } catch (ExecutionException e) {
+                if (failure == null) failure = e.getCause() instanceof SQLException sqlException
+                        ? translate(future.getKey(), sqlException)
+                        : e.getCause() instanceof RuntimeException runtimeException ? runtimeException : new IllegalStateException(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (failure == null) failure = new IllegalStateException("Interrupted while waiting for " + future.getKey(), e);
+            }
+        }
+        if (failure != null) throw failure;
+
+        return results;
+    }
+
+    // Resolves the transactions a failed node left prepared on the shards: committed if the main database recorded the
+    // decision, rolled back otherwise. Younger transactions than minAge may still be between their phases and are left
+    public int reconcile(Duration minAge) {
+        Instant cutoff = Instant.now().minus(minAge);
+        Set<String> pendingTransactionIds = new HashSet<>();
+        Set<String> committedTransactionIds = new HashSet<>();
+        int resolved = 0;
+        for (String shardKey : shards.keySet()) {
+            try (Connection connection = getDataSource(shardKey).getConnection()) {
+                TwoPhaseCommit twoPhaseCommit = TwoPhaseCommit.of(connection);
+                for (String transactionId : twoPhaseCommit.findPrepared(connection, TRANSACTION_ID_PREFIX)) {
+                    if (!getPrepareTime(transactionId).isBefore(cutoff)) {
+                        pendingTransactionIds.add(transactionId);
+                    } else if (transactionLog.contains(transactionId)) {
+                        twoPhaseCommit.commitPrepared(connection, transactionId);
+                        committedTransactionIds.add(transactionId);
+                        log.warn("Committed transaction {} left prepared on {}", transactionId, shardKey);
+                        resolved++;
+                    } else {
+                        twoPhaseCommit.rollbackPrepared(connection, transactionId);
+                        log.warn("Rolled back transaction {} left prepared on {}", transactionId, shardKey);
+                        resolved++;
+                    }
+                }
+            } catch (SQLException e) {
+                throw translate(shardKey, e);
+            }
+        }
+
+        // Every shard has committed these decisions now
+        try {
+            committedTransactionIds.addAll(transactionLog.findRecordedBefore(cutoff));
+            for (String transactionId : committedTransactionIds) {
+                if (!pendingTransactionIds.contains(transactionId)) transactionLog.forget(transactionId);
+            }
+        } catch (SQLException e) {
+            throw exceptionTranslator.translate("Forgetting shard commit decisions", null, e);
+        }
+        return resolved;
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (scatterExecutor != null) scatterExecutor.shutdownNow();
+        for (DataSource dataSource : shards.values()) {
+            if (dataSource instanceof AutoCloseable closeable) closeable.close();
+        }
+    }
+
+    private DataAccessException translate(String shardKey, SQLException e) {
+        return exceptionTranslator.translate("Statement on " + shardKey, null, e);
+    }
+
+    // The prepare time leads the id, so that reconcile can tell how long a transaction has been prepared
+    private static String makeTransactionId() {
+        return TRANSACTION_ID_PREFIX + System.currentTimeMillis() + "_" + UUID.randomUUID().toString().replace("-", "").toUpperCase();
+    }
+
+    private static Instant getPrepareTime(String transactionId) {
+        String millis = transactionId.substring(TRANSACTION_ID_PREFIX.length(), transactionId.indexOf('_', TRANSACTION_ID_PREFIX.length()));
+        return Instant.ofEpochMilli(Long.parseLong(millis));
+    }
+
+    private ShardTransaction currentTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return null;
+
+        ShardTransaction transaction = (ShardTransaction) TransactionSynchronizationManager.getResource(this);
+        if (transaction == null) {
+            transaction = new ShardTransaction(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+            TransactionSynchronizationManager.bindResource(this, transaction);
+            TransactionSynchronizationManager.registerSynchronization(transaction);
+        }
+        return transaction;
+    }
+
+    // The shard connections of one Spring transaction, opened on first use and prepared in shard order
+    private class ShardTransaction implements TransactionSynchronization {
+
+        private final boolean readOnly;
+        private final Map<String, Connection> connections = new TreeMap<>();
+        private final Map<String, TwoPhaseCommit> preparedShards = new TreeMap<>();
+        private String transactionId;
+
+        ShardTransaction(boolean readOnly) {
+            this.readOnly = readOnly;
+        }
+
+        Connection getConnection(String shardKey) throws SQLException {
+            Connection connection = connections.get(shardKey);
+            if (connection == null) {
+                connection = getDataSource(shardKey).getConnection();
+                connection.setAutoCommit(false);
+                if (readOnly) connection.setReadOnly(true);
+                connections.put(shardKey, connection);
+            }
+            return connection;
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(ShardedDataSources.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(ShardedDataSources.this, this);
+        }
+
+        // Read-only transactions have nothing to commit; their connections are just rolled back and released
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (this.readOnly || connections.isEmpty()) return;
+
+            transactionId = makeTransactionId();
+            for (var connection : connections.entrySet()) {
+                try {
+                    TwoPhaseCommit twoPhaseCommit = TwoPhaseCommit.of(connection.getValue());
+                    twoPhaseCommit.prepare(connection.getValue(), transactionId);
+                    preparedShards.put(connection.getKey(), twoPhaseCommit);
+                } catch (SQLException e) {
+                    throw translate(connection.getKey(), e);
+                }
+            }
+            try {
+                transactionLog.record(transactionId);
+            } catch (SQLException e) {
+                throw exceptionTranslator.translate("Recording shard transaction " + transactionId, null, e);
+            }
+        }
+
+        // An unknown outcome of the main commit leaves the prepared transactions to reconcile
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ShardedDataSources.this);
+            boolean completed = true;
+            for (var connection : connections.entrySet()) {
+                TwoPhaseCommit twoPhaseCommit = preparedShards.get(connection.getKey());
+                try (Connection shardConnection = connection.getValue()) {
+                    if (twoPhaseCommit == null) shardConnection.rollback();
+                    else if (status == STATUS_COMMITTED) twoPhaseCommit.commitPrepared(shardConnection, transactionId);
+                    else if (status == STATUS_ROLLED_BACK) twoPhaseCommit.rollbackPrepared(shardConnection, transactionId);
+                    else completed = false;
+                } catch (SQLException e) {
+                    completed = false;
+                    log.warn("Could not complete transaction {} on {}, it is left to reconcile", transactionId, connection.getKey(), e);
+                }
+            }
+            if (status == STATUS_COMMITTED && completed && !preparedShards.isEmpty()) {
+                try {
+                    transactionLog.forget(transactionId);
+                } catch (SQLException e) {
+                    log.warn("Could not forget shard transaction {}, it is left to reconcile", transactionId, e);
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,38 @@
+package org.senla_project.application.util.datasource;
+
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+// Picks the collaboration repositories: the sharded ones once DATABASE_SHARD_URLS lists any shard,
+// the JPA ones on the main database otherwise
+public final class ShardingCondition {
+
+    public static final String SHARD_URLS_PROPERTY = "DATABASE_SHARD_URLS";
+
+    private ShardingCondition() {
+    }
+
+    public static class Enabled implements Condition {
+
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            return isSharded(context);
+        }
+
+    }
+
+    public static class Disabled implements Condition {
+
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            return !isSharded(context);
+        }
+
+    }
+
+    private static boolean isSharded(ConditionContext context) {
+        return !context.getEnvironment().getProperty(SHARD_URLS_PROPERTY, "").isBlank();
+    }
+
+}
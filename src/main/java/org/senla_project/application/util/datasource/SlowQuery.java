@@ -0,0 +1,19 @@
+package org.senla_project.application.util.datasource;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Instant;
+
+@Getter
+@RequiredArgsConstructor
+public class SlowQuery {
+
+    private final Instant executedAt;
+    private final String sql;
+    private final int bindCount;
+    private final long rowCount;
+    private final long elapsedMs;
+    private final String serviceMethod;
+
+}
@@ -0,0 +1,60 @@
+package org.senla_project.application.util.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Keeps the most recent statements that ran longer than the threshold, newest first
+@Slf4j
+@Component
+public class SlowQueryLog {
+
+    private static final String SERVICE_PACKAGE = "org.senla_project.application.service.";
+
+    private final long thresholdMs;
+    private final int capacity;
+    private final Deque<SlowQuery> entries = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    public SlowQueryLog(@Value("${datasource.slow_query.threshold_ms}") long thresholdMs,
+                        @Value("${datasource.slow_query.capacity}") int capacity) {
+        this.thresholdMs = thresholdMs;
+        this.capacity = capacity;
+    }
+
+    public void record(String sql, int bindCount, long rowCount, long elapsedMs) {
+        if (elapsedMs < thresholdMs) return;
+
+        SlowQuery slowQuery = new SlowQuery(Instant.now(), sql, bindCount, rowCount, elapsedMs, findCallingServiceMethod());
+        log.warn("Slow query ({} ms, {} binds, {} rows) from {}: {}",
+                elapsedMs, bindCount, rowCount, slowQuery.getServiceMethod(), sql);
+
+        entries.addFirst(slowQuery);
+        if (size.incrementAndGet() > capacity && entries.pollLast() != null) size.decrementAndGet();
+    }
+
+    public List<SlowQuery> getEntries() {
+        return List.copyOf(entries);
+    }
+
+    public void clear() {
+        entries.clear();
+        size.set(0);
+    }
+
+    // Only walked for slow statements; the innermost service frame is the target method behind the Spring proxy
+    private String findCallingServiceMethod() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(SERVICE_PACKAGE))
+                .findFirst()
+                .map(frame -> frame.getClassName().substring(SERVICE_PACKAGE.length()) + "." + frame.getMethodName()))
+                .orElse(null);
+    }
+
+}
@@ -0,0 +1,170 @@
+package org.senla_project.application.util.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Times every JDBC statement and reports it to the SlowQueryLog with its bind and row counts.
+// Queries are timed until their result set is closed, so the row count covers the whole fetch
+public class SlowQueryLoggingDataSource extends DelegatingDataSource {
+
+    private final SlowQueryLog slowQueryLog;
+
+    public SlowQueryLoggingDataSource(DataSource targetDataSource, SlowQueryLog slowQueryLog) {
+        super(targetDataSource);
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection connection = super.getConnection();
+        return wrap(Connection.class, new ConnectionHandler(connection));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Connection connection = super.getConnection(username, password);
+        return wrap(Connection.class, new ConnectionHandler(connection));
+    }
+
+    private static <T> T wrap(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private class ConnectionHandler implements InvocationHandler {
+
+        private final Connection connection;
+
+        ConnectionHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = SlowQueryLoggingDataSource.invoke(connection, method, args);
+            return switch (method.getName()) {
+                case "prepareStatement" -> wrap(PreparedStatement.class, new StatementHandler((Statement) result, (String) args[0]));
+                case "prepareCall" -> wrap(CallableStatement.class, new StatementHandler((Statement) result, (String) args[0]));
+                case "createStatement" -> wrap(Statement.class, new StatementHandler((Statement) result, null));
+                default -> result;
+            };
+        }
+
+    }
+
+    private class StatementHandler implements InvocationHandler {
+
+        private final Statement statement;
+        private final String preparedSql;
+        private final Set<Integer> boundParameters = new HashSet<>();
+        private String pendingSql;
+        private long pendingStart;
+
+        StatementHandler(Statement statement, String preparedSql) {
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                boundParameters.add(index);
+            } else if (name.equals("clearParameters")) {
+                boundParameters.clear();
+            } else if (name.startsWith("execute")) {
+                return execute(method, args);
+            } else if (name.equals("getResultSet") && pendingSql != null) {
+                ResultSet resultSet = (ResultSet) SlowQueryLoggingDataSource.invoke(statement, method, args);
+                String sql = pendingSql;
+                pendingSql = null;
+                return resultSet == null ? null : wrapResultSet(resultSet, sql, pendingStart);
+            }
+            return SlowQueryLoggingDataSource.invoke(statement, method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            String sql = args != null && args.length > 0 && args[0] instanceof String statementSql ? statementSql : preparedSql;
+            long start = System.nanoTime();
+            Object result = SlowQueryLoggingDataSource.invoke(statement, method, args);
+
+            switch (result) {
+                case ResultSet resultSet -> {
+                    return wrapResultSet(resultSet, sql, start);
+                }
+                case Boolean hasResultSet when hasResultSet -> {
+                    // execute(): the rows are read through getResultSet, so timing continues there
+                    pendingSql = sql;
+                    pendingStart = start;
+                }
+                case Integer updatedRows -> record(sql, updatedRows, start);
+                case Long updatedRows -> record(sql, updatedRows, start);
+                case int[] updatedRows -> record(sql, Arrays.stream(updatedRows).filter(rows -> rows > 0).asLongStream().sum(), start);
+                case long[] updatedRows -> record(sql, Arrays.stream(updatedRows).filter(rows -> rows > 0).sum(), start);
+                default -> record(sql, Math.max(statement.getUpdateCount(), 0), start);
+            }
+            return result;
+        }
+
+        private ResultSet wrapResultSet(ResultSet resultSet, String sql, long start) {
+            return wrap(ResultSet.class, new ResultSetHandler(resultSet, sql, boundParameters.size(), start));
+        }
+
+        private void record(String sql, long rowCount, long start) {
+            slowQueryLog.record(sql, boundParameters.size(), rowCount, elapsedMs(start));
+        }
+
+    }
+
+    private class ResultSetHandler implements InvocationHandler {
+
+        private final ResultSet resultSet;
+        private final String sql;
+        private final int bindCount;
+        private final long start;
+        private long rowCount;
+        private boolean recorded;
+
+        ResultSetHandler(ResultSet resultSet, String sql, int bindCount, long start) {
+            this.resultSet = resultSet;
+            this.sql = sql;
+            this.bindCount = bindCount;
+            this.start = start;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = SlowQueryLoggingDataSource.invoke(resultSet, method, args);
+            if (method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+                rowCount++;
+            } else if (method.getName().equals("close") && !recorded) {
+                recorded = true;
+                slowQueryLog.record(sql, bindCount, rowCount, elapsedMs(start));
+            }
+            return result;
+        }
+
+    }
+
+    private static long elapsedMs(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+}
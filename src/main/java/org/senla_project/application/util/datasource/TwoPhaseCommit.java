@@ -0,0 +1,100 @@
+package org.senla_project.application.util.datasource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+// PREPARE and COMMIT PREPARED in the syntax of the shard's database. Transaction ids are plain upper case
+// identifiers, which H2 takes unquoted and Postgres as a string literal
+enum TwoPhaseCommit {
+
+    POSTGRESQL {
+        @Override
+        void prepare(Connection connection, String transactionId) throws SQLException {
+            execute(connection, "PREPARE TRANSACTION '" + transactionId + "'");
+        }
+
+        // COMMIT PREPARED and ROLLBACK PREPARED cannot run inside a transaction block
+        @Override
+        void commitPrepared(Connection connection, String transactionId) throws SQLException {
+            connection.setAutoCommit(true);
+            execute(connection, "COMMIT PREPARED '" + transactionId + "'");
+        }
+
+        @Override
+        void rollbackPrepared(Connection connection, String transactionId) throws SQLException {
+            connection.setAutoCommit(true);
+            execute(connection, "ROLLBACK PREPARED '" + transactionId + "'");
+        }
+
+        @Override
+        List<String> findPrepared(Connection connection, String prefix) throws SQLException {
+            return query(connection, "SELECT gid FROM pg_prepared_xacts WHERE database = current_database() AND gid LIKE ?", prefix);
+        }
+    },
+
+    H2 {
+        @Override
+        void prepare(Connection connection, String transactionId) throws SQLException {
+            execute(connection, "PREPARE COMMIT " + transactionId);
+        }
+
+        @Override
+        void commitPrepared(Connection connection, String transactionId) throws SQLException {
+            execute(connection, "COMMIT TRANSACTION " + transactionId);
+        }
+
+        @Override
+        void rollbackPrepared(Connection connection, String transactionId) throws SQLException {
+            execute(connection, "ROLLBACK TRANSACTION " + transactionId);
+        }
+
+        @Override
+        List<String> findPrepared(Connection connection, String prefix) throws SQLException {
+            return query(connection, "SELECT transaction_name FROM information_schema.in_doubt WHERE transaction_name LIKE ?", prefix);
+        }
+    };
+
+    private static final String POSTGRESQL_PRODUCT_NAME = "PostgreSQL";
+    private static final String H2_PRODUCT_NAME = "H2";
+
+    static TwoPhaseCommit of(Connection connection) throws SQLException {
+        String productName = connection.getMetaData().getDatabaseProductName();
+        return switch (productName) {
+            case POSTGRESQL_PRODUCT_NAME -> POSTGRESQL;
+            case H2_PRODUCT_NAME -> H2;
+            default -> throw new IllegalStateException("Shards on " + productName + " cannot prepare transactions");
+        };
+    }
+
+    abstract void prepare(Connection connection, String transactionId) throws SQLException;
+
+    abstract void commitPrepared(Connection connection, String transactionId) throws SQLException;
+
+    abstract void rollbackPrepared(Connection connection, String transactionId) throws SQLException;
+
+    // Ids of the prepared transactions starting with the prefix, on the database of the connection
+    abstract List<String> findPrepared(Connection connection, String prefix) throws SQLException;
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static List<String> query(Connection connection, String sql, String prefix) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, prefix + "%");
+            List<String> transactionIds = new ArrayList<>();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) transactionIds.add(resultSet.getString(1));
+            }
+            return transactionIds;
+        }
+    }
+
+}
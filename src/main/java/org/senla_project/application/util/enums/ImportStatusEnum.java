@@ -0,0 +1,9 @@
+package org.senla_project.application.util.enums;
+
+public enum ImportStatusEnum {
+
+    RUNNING,
+    FINISHED,
+    FAILED
+
+}
@@ -0,0 +1,7 @@
+package org.senla_project.application.util.exception;
+
+public class ImportException extends RuntimeException {
+    public ImportException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -52,6 +52,14 @@ public class RestExceptionHandler {
                 .body(exception.getMessage());
     }
 
+    @ExceptionHandler({ImportException.class})
+    public ResponseEntity<?> onImportException(ImportException exception) {
+        log.error(exception.getMessage(), exception);
+        return ResponseEntity
+                .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(exception.getMessage());
+    }
+
     @ExceptionHandler({HttpClientErrorException.Forbidden.class})
     public ResponseEntity<?> onForbiddenException(HttpClientErrorException.Forbidden exception) {
         log.error(exception.getMessage(), exception);
@@ -0,0 +1,62 @@
+package org.senla_project.application.util.http;
+
+import org.senla_project.application.util.JsonParser;
+import org.senla_project.application.util.exception.InvalidRequestParametersException;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+// A JSON Merge Patch (RFC 7396) of a flat create DTO: present members are written, absent ones keep their stored
+// values and a null member clears the column
+public final class MergePatch {
+
+    public static final String MEDIA_TYPE = "application/merge-patch+json";
+
+    private final Map<String, Object> members;
+
+    public MergePatch(Map<String, Object> members) {
+        this.members = members;
+    }
+
+    public boolean contains(String field) {
+        return members.containsKey(field);
+    }
+
+    public boolean isEmpty() {
+        return members.isEmpty();
+    }
+
+    // Entity attributes written by the patch, looked up by DTO field; a field missing from the map cannot be patched
+    public Set<String> getAttributes(Map<String, String> attributesByField) {
+        Set<String> attributes = new LinkedHashSet<>();
+        members.forEach((field, value) -> {
+            String attribute = attributesByField.get(field);
+            if (attribute == null)
+                throw new InvalidRequestParametersException("Field " + field + " cannot be patched");
+            if (value instanceof Map<?, ?> || value instanceof Collection<?>)
+                throw new InvalidRequestParametersException("Field " + field + " must be a single value");
+            attributes.add(attribute);
+        });
+        return attributes;
+    }
+
+    // Fields backed by primitives or required references cannot be cleared
+    public void requireValues(String... fields) {
+        for (String field : fields) {
+            if (members.containsKey(field) && members.get(field) == null)
+                throw new InvalidRequestParametersException("Field " + field + " must not be null");
+        }
+    }
+
+    // Absent members are left at the DTO defaults, so only the fields returned by getAttributes are meaningful
+    public <D> D toDto(JsonParser jsonParser, Class<D> dtoClass) {
+        try {
+            return jsonParser.convertToObject(members, dtoClass);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestParametersException("Invalid merge patch for " + dtoClass.getSimpleName());
+        }
+    }
+
+}
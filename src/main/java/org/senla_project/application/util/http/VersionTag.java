@@ -0,0 +1,36 @@
+package org.senla_project.application.util.http;
+
+import jakarta.persistence.OptimisticLockException;
+import org.senla_project.application.util.exception.InvalidRequestParametersException;
+
+// Entity versions as strong ETags: version 3 is sent as "3" and expected back the same way in If-Match
+public final class VersionTag {
+
+    private static final String WILDCARD = "*";
+    private static final String WEAK_PREFIX = "W/";
+    private static final String QUOTE = "\"";
+
+    private VersionTag() {
+    }
+
+    public static String format(long version) {
+        return QUOTE + version + QUOTE;
+    }
+
+    // Null when the header is absent or "*", i.e. the update does not depend on the current version
+    public static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals(WILDCARD)) return null;
+        if (ifMatch.contains(",")) throw new InvalidRequestParametersException("If-Match must name a single version");
+
+        String tag = ifMatch.trim();
+        // If-Match compares strongly, and a weak tag never matches strongly
+        if (tag.startsWith(WEAK_PREFIX)) throw new OptimisticLockException("If-Match " + tag + " is a weak tag");
+        if (tag.length() >= 2 && tag.startsWith(QUOTE) && tag.endsWith(QUOTE)) tag = tag.substring(1, tag.length() - 1);
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestParametersException("Invalid If-Match header");
+        }
+    }
+
+}
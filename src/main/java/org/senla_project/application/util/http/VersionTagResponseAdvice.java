@@ -0,0 +1,31 @@
+package org.senla_project.application.util.http;
+
+import org.senla_project.application.dto.VersionedDto;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+// Sends the version of a single versioned entity as its ETag, so that clients can echo it in If-Match
+@RestControllerAdvice
+public class VersionTagResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return VersionedDto.class.isAssignableFrom(returnType.getParameterType());
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (body instanceof VersionedDto versionedDto && versionedDto.getVersion() != null) {
+            response.getHeaders().setETag(VersionTag.format(versionedDto.getVersion()));
+        }
+        return body;
+    }
+
+}
@@ -0,0 +1,45 @@
+package org.senla_project.application.util.id;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.uuid.UuidValueGenerator;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+
+// RFC 9562 version 7: 48-bit unix millis | version | 12-bit sequence | variant | 62 random bits.
+// The sequence keeps ids issued by this JVM strictly increasing, also within one millisecond
+public class UuidV7Generator implements UuidValueGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int MAX_SEQUENCE = 0xFFF;
+
+    private static long lastTimestamp = -1L;
+    private static int sequence;
+
+    @Override
+    public UUID generateUuid(SharedSessionContractImplementor session) {
+        return generate();
+    }
+
+    public static UUID generate() {
+        long timestamp;
+        int currentSequence;
+        synchronized (UuidV7Generator.class) {
+            long now = System.currentTimeMillis();
+            if (now > lastTimestamp) {
+                lastTimestamp = now;
+                sequence = 0;
+            } else if (++sequence > MAX_SEQUENCE) {
+                lastTimestamp++;
+                sequence = 0;
+            }
+            timestamp = lastTimestamp;
+            currentSequence = sequence;
+        }
+
+        long mostSigBits = (timestamp << 16) | 0x7000L | currentSequence;
+        long leastSigBits = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+}
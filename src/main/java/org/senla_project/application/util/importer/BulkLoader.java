@@ -0,0 +1,140 @@
+package org.senla_project.application.util.importer;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.senla_project.application.util.id.UuidV7Generator;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Loads chunks of rows over plain JDBC, bypassing the persistence context. Every chunk gets its own transaction,
+// which also records it in import_checkpoints, so a chunk is either loaded and checkpointed or not at all.
+// Postgres receives the rows through COPY FROM STDIN in CSV form, other databases through batched inserts
+@Component
+@RequiredArgsConstructor
+public class BulkLoader {
+
+    private static final String POSTGRESQL = "PostgreSQL";
+
+    final private DataSource dataSource;
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Table {
+
+        final private String name;
+        final private List<String> columns;
+
+    }
+
+    public Set<Integer> findLoadedChunks(String importName, String phase) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT chunk_number FROM import_checkpoints WHERE import_name = ? AND phase = ?")) {
+            statement.setString(1, importName);
+            statement.setString(2, phase);
+            Set<Integer> chunkNumbers = new HashSet<>();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) chunkNumbers.add(resultSet.getInt(1));
+            }
+            return chunkNumbers;
+        }
+    }
+
+    // Chunk sizes the import has been checkpointed with so far; null for checkpoints written before they were recorded
+    public Set<Integer> findChunkSizes(String importName) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT DISTINCT chunk_size FROM import_checkpoints WHERE import_name = ?")) {
+            statement.setString(1, importName);
+            Set<Integer> chunkSizes = new HashSet<>();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) chunkSizes.add((Integer) resultSet.getObject(1));
+            }
+            return chunkSizes;
+        }
+    }
+
+    // Tables are loaded in map order, so parents have to come before the rows referencing them
+    public void loadChunk(String importName, String phase, int chunkNumber, int chunkSize, Map<Table, List<Object[]>> rowsByTable) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                boolean postgreSQL = POSTGRESQL.equals(connection.getMetaData().getDatabaseProductName());
+                int rowCount = 0;
+                for (var tableRows : rowsByTable.entrySet()) {
+                    if (tableRows.getValue().isEmpty()) continue;
+                    if (postgreSQL) copyIn(connection, tableRows.getKey(), tableRows.getValue());
+                    else insertBatch(connection, tableRows.getKey(), tableRows.getValue());
+                    rowCount += tableRows.getValue().size();
+                }
+                insertCheckpoint(connection, importName, phase, chunkNumber, chunkSize, rowCount);
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private void copyIn(Connection connection, Table table, List<Object[]> rows) throws SQLException {
+        String sql = "COPY " + table.getName() + " (" + String.join(", ", table.getColumns()) + ") FROM STDIN WITH (FORMAT csv)";
+        StringBuilder csv = new StringBuilder();
+        for (Object[] row : rows) {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) csv.append(',');
+                // An unquoted empty field is NULL, a quoted one is an empty string
+                if (row[i] != null) csv.append('"').append(row[i].toString().replace("\"", "\"\"")).append('"');
+            }
+            csv.append('\n');
+        }
+
+        try {
+            connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql, new StringReader(csv.toString()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void insertBatch(Connection connection, Table table, List<Object[]> rows) throws SQLException {
+        String sql = "INSERT INTO " + table.getName() + " (" + String.join(", ", table.getColumns()) + ") VALUES (" +
+                table.getColumns().stream().map(column -> "?").collect(Collectors.joining(", ")) + ")";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (Object[] row : rows) {
+                for (int i = 0; i < row.length; i++) statement.setObject(i + 1, row[i]);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private void insertCheckpoint(Connection connection, String importName, String phase, int chunkNumber, int chunkSize,
+                                  int rowCount) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("INSERT INTO import_checkpoints " +
+                "(checkpoint_id, import_name, phase, chunk_number, chunk_size, row_count, complete_time) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            statement.setObject(1, UuidV7Generator.generate());
+            statement.setString(2, importName);
+            statement.setString(3, phase);
+            statement.setInt(4, chunkNumber);
+            statement.setInt(5, chunkSize);
+            statement.setInt(6, rowCount);
+            statement.setObject(7, LocalDate.now());
+            statement.executeUpdate();
+        }
+    }
+
+}
@@ -0,0 +1,49 @@
+package org.senla_project.application.util.importer;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// Streams the <row .../> elements of a StackExchange dump file (Users.xml, Posts.xml) as attribute maps.
+// StAX keeps memory flat whatever the file size; DTDs and external entities are refused
+public class StackExchangeDumpReader {
+
+    private static final String ROW_ELEMENT = "row";
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    public static long readRows(Path file, Consumer<Map<String, String>> rowConsumer) throws IOException, XMLStreamException {
+        XMLInputFactory inputFactory = XMLInputFactory.newFactory();
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+        long rows = 0;
+        try (InputStream input = new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE)) {
+            XMLStreamReader reader = inputFactory.createXMLStreamReader(input);
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() != XMLStreamConstants.START_ELEMENT || !ROW_ELEMENT.equals(reader.getLocalName())) continue;
+
+                    Map<String, String> attributes = new HashMap<>();
+                    for (int i = 0; i < reader.getAttributeCount(); i++) {
+                        attributes.put(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+                    }
+                    rowConsumer.accept(attributes);
+                    rows++;
+                }
+            } finally {
+                reader.close();
+            }
+        }
+        return rows;
+    }
+
+}
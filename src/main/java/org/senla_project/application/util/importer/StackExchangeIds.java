@@ -0,0 +1,33 @@
+package org.senla_project.application.util.importer;
+
+import java.util.UUID;
+
+// Deterministic ids for imported StackExchange rows, so a resumed or repeated import writes the same keys.
+// RFC 9562 version 8 (custom): a fixed prefix and the row kind in the high bits, the source id in the low bits.
+// They never collide with the version 7 ids issued by the application and sort by source id within a kind
+public class StackExchangeIds {
+
+    public enum Kind {
+        USER, PROFILE, QUESTION, ANSWER
+    }
+
+    private static final long PREFIX = 0x53450000L;
+    private static final long MAX_SOURCE_ID = 0x3FFFFFFFFFFFFFFFL;
+
+    public static UUID of(Kind kind, long sourceId) {
+        if (sourceId < 0 || sourceId > MAX_SOURCE_ID)
+            throw new IllegalArgumentException("Source id out of range: " + sourceId);
+        long mostSigBits = (PREFIX << 32) | ((long) kind.ordinal() << 16) | 0x8000L;
+        long leastSigBits = 0x8000000000000000L | sourceId;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    public static UUID first(Kind kind) {
+        return of(kind, 0);
+    }
+
+    public static UUID last(Kind kind) {
+        return of(kind, MAX_SOURCE_ID);
+    }
+
+}
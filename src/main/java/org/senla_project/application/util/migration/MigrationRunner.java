@@ -0,0 +1,52 @@
+package org.senla_project.application.util.migration;
+
+import liquibase.resource.ClassLoaderResourceAccessor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+// The migrate run mode: applies the changelogs once, before the web nodes are rolled, so that they only have to check
+// the schema at boot. Runs from the exploded war, with the same environment as the web app:
+// java -cp "WEB-INF/classes:WEB-INF/lib/*" org.senla_project.application.util.migration.MigrationRunner
+@Slf4j
+public class MigrationRunner {
+
+    public static void main(String[] args) throws Exception {
+        Properties properties = PropertiesLoaderUtils.loadAllProperties("application.properties");
+        ClassLoaderResourceAccessor resourceAccessor = new ClassLoaderResourceAccessor(MigrationRunner.class.getClassLoader());
+        String username = getSetting("DATABASE_USERNAME", "");
+        String password = getSetting("DATABASE_PASSWORD", "");
+
+        new SchemaVersionCheck(properties.getProperty("liquibase.changeLogFile"), resourceAccessor)
+                .migrate(makeDataSource(properties, getSetting("DATABASE_URL", null), username, password));
+        log.info("Migrated the main database");
+
+        SchemaVersionCheck shardCheck = new SchemaVersionCheck(properties.getProperty("liquibase.shardChangeLogFile"), resourceAccessor);
+        List<String> shardUrls = Arrays.stream(getSetting("DATABASE_SHARD_URLS", "").split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .toList();
+        for (String shardUrl : shardUrls) {
+            shardCheck.migrate(makeDataSource(properties, shardUrl, username, password));
+            log.info("Migrated shard {}", shardUrl);
+        }
+    }
+
+    private static DriverManagerDataSource makeDataSource(Properties properties, String url, String username, String password) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url, username, password);
+        dataSource.setDriverClassName(properties.getProperty("liquibase.driver"));
+        return dataSource;
+    }
+
+    private static String getSetting(String name, String defaultValue) {
+        String value = System.getProperty(name, System.getenv(name));
+        if (value == null) value = defaultValue;
+        if (value == null) throw new IllegalStateException(name + " is not set");
+        return value;
+    }
+
+}
@@ -0,0 +1,109 @@
+package org.senla_project.application.util.migration;
+
+import liquibase.ChecksumVersion;
+import liquibase.Liquibase;
+import liquibase.change.CheckSum;
+import liquibase.changelog.ChangeLogParameters;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.changelog.filter.DbmsChangeSetFilter;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.LiquibaseException;
+import liquibase.parser.ChangeLogParserFactory;
+import liquibase.resource.ResourceAccessor;
+import liquibase.structure.core.Table;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Compares a changelog with the DATABASECHANGELOG table of a database. Only the table is read, so unlike a Liquibase
+// update it neither takes DATABASECHANGELOGLOCK nor touches the schema, which keeps it cheap enough for every node start
+@Slf4j
+@RequiredArgsConstructor
+public class SchemaVersionCheck {
+
+    final private String changeLogFile;
+    final private ResourceAccessor resourceAccessor;
+
+    public void migrate(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            Database database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection));
+            new Liquibase(changeLogFile, resourceAccessor, database).update("");
+        } catch (SQLException | LiquibaseException e) {
+            throw new IllegalStateException("Could not apply " + changeLogFile, e);
+        }
+    }
+
+    // Describes every change set of the changelog that is not applied or was applied with another checksum;
+    // change sets applied by a newer changelog are expected while nodes roll and are only logged
+    public List<String> findMismatches(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            Database database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection));
+            DatabaseChangeLog changeLog = ChangeLogParserFactory.getInstance()
+                    .getParser(changeLogFile, resourceAccessor)
+                    .parse(changeLogFile, new ChangeLogParameters(database), resourceAccessor);
+            Map<String, String> storedCheckSums = readStoredCheckSums(connection, database);
+
+            List<String> mismatches = new ArrayList<>();
+            DbmsChangeSetFilter dbmsFilter = new DbmsChangeSetFilter(database);
+            for (ChangeSet changeSet : changeLog.getChangeSets()) {
+                if (!dbmsFilter.accepts(changeSet).isAccepted()) continue;
+
+                String key = makeKey(changeSet.getStoredFilePath(), changeSet.getId(), changeSet.getAuthor());
+                if (!storedCheckSums.containsKey(key)) {
+                    mismatches.add(key + " is not applied");
+                    continue;
+                }
+                String storedCheckSum = storedCheckSums.remove(key);
+                // Liquibase recomputes a cleared checksum on the next update
+                if (storedCheckSum == null) continue;
+
+                CheckSum checkSum = CheckSum.parse(storedCheckSum);
+                CheckSum expectedCheckSum = changeSet.generateCheckSum(ChecksumVersion.enumFromChecksumVersion(checkSum.getVersion()));
+                if (!checkSum.equals(expectedCheckSum) && !changeSet.isCheckSumValid(checkSum)) {
+                    mismatches.add(key + " was applied with checksum " + checkSum + " instead of " + expectedCheckSum);
+                }
+            }
+            if (!storedCheckSums.isEmpty()) {
+                log.info("The database has change sets unknown to {}: {}", changeLogFile, storedCheckSums.keySet());
+            }
+            return mismatches;
+        } catch (SQLException | LiquibaseException e) {
+            throw new IllegalStateException("Could not compare the database with " + changeLogFile, e);
+        }
+    }
+
+    private Map<String, String> readStoredCheckSums(Connection connection, Database database) throws SQLException {
+        Map<String, String> checkSums = new HashMap<>();
+        String tableName = database.correctObjectName(database.getDatabaseChangeLogTableName(), Table.class);
+        try (ResultSet tables = connection.getMetaData().getTables(null, database.getLiquibaseSchemaName(), tableName, null)) {
+            if (!tables.next()) return checkSums;
+        }
+
+        String table = database.escapeTableName(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(),
+                database.getDatabaseChangeLogTableName());
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT filename, id, author, md5sum FROM " + table)) {
+            while (resultSet.next()) {
+                checkSums.put(makeKey(resultSet.getString(1), resultSet.getString(2), resultSet.getString(3)), resultSet.getString(4));
+            }
+        }
+        return checkSums;
+    }
+
+    private static String makeKey(String filePath, String id, String author) {
+        return filePath + "::" + id + "::" + author;
+    }
+
+}
@@ -0,0 +1,42 @@
+package org.senla_project.application.util.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.senla_project.application.util.exception.InvalidRequestParametersException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+public class KeysetCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDate time;
+    private final UUID id;
+
+    public String encode() {
+        String rawCursor = (time == null ? "" : time.toString()) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(rawCursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String rawCursor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = rawCursor.indexOf(SEPARATOR);
+            String time = rawCursor.substring(0, separatorIndex);
+            return new KeysetCursor(
+                    time.isEmpty() ? null : LocalDate.parse(time),
+                    UUID.fromString(rawCursor.substring(separatorIndex + 1))
+            );
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new InvalidRequestParametersException("Invalid page cursor");
+        }
+    }
+
+}
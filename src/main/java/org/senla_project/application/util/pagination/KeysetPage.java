@@ -0,0 +1,23 @@
+package org.senla_project.application.util.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+@NoArgsConstructor @AllArgsConstructor @Data @Builder
+public class KeysetPage<T> {
+
+    @Builder.Default
+    private List<T> content = new ArrayList<>();
+    private String nextCursor;
+
+    public <R> KeysetPage<R> map(Function<List<T>, List<R>> contentMapper) {
+        return new KeysetPage<>(contentMapper.apply(content), nextCursor);
+    }
+
+}
@@ -0,0 +1,40 @@
+package org.senla_project.application.util.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.senla_project.application.util.exception.InvalidRequestParametersException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+// Keyset position in a (rank DESC, id ASC) ordered search result
+@Getter
+@AllArgsConstructor
+public class SearchCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final float rank;
+    private final UUID id;
+
+    public String encode() {
+        String rawCursor = Float.toString(rank) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(rawCursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SearchCursor decode(String cursor) {
+        try {
+            String rawCursor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = rawCursor.indexOf(SEPARATOR);
+            return new SearchCursor(
+                    Float.parseFloat(rawCursor.substring(0, separatorIndex)),
+                    UUID.fromString(rawCursor.substring(separatorIndex + 1))
+            );
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new InvalidRequestParametersException("Invalid page cursor");
+        }
+    }
+
+}
@@ -0,0 +1,78 @@
+package org.senla_project.application.util.partition;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Monthly range partition of a table, named <table>_pYYYY_MM and holding the rows of [month, next month)
+@Getter
+@EqualsAndHashCode
+@AllArgsConstructor
+public class MonthlyPartition {
+
+    private static final DateTimeFormatter NAME_SUFFIX_FORMAT = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final Pattern NAME_SUFFIX_PATTERN = Pattern.compile("_p(\\d{4}_\\d{2})");
+
+    private final String parentTable;
+    private final LocalDate month;
+
+    public static MonthlyPartition of(String parentTable, LocalDate date) {
+        return new MonthlyPartition(parentTable, date.withDayOfMonth(1));
+    }
+
+    public static List<MonthlyPartition> range(String parentTable, LocalDate fromMonth, int months) {
+        List<MonthlyPartition> partitions = new ArrayList<>();
+        for (int i = 0; i < months; i++) {
+            partitions.add(of(parentTable, fromMonth.plusMonths(i)));
+        }
+        return partitions;
+    }
+
+    // Empty for children that are not monthly partitions, like the default one
+    public static Optional<MonthlyPartition> parse(String parentTable, String childTable) {
+        if (!childTable.startsWith(parentTable)) return Optional.empty();
+        Matcher matcher = NAME_SUFFIX_PATTERN.matcher(childTable.substring(parentTable.length()));
+        if (!matcher.matches()) return Optional.empty();
+        try {
+            return Optional.of(of(parentTable, YearMonth.parse(matcher.group(1), NAME_SUFFIX_FORMAT).atDay(1)));
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+
+    public String getName() {
+        return parentTable + "_p" + month.format(NAME_SUFFIX_FORMAT);
+    }
+
+    public LocalDate getFrom() {
+        return month;
+    }
+
+    public LocalDate getTo() {
+        return month.plusMonths(1);
+    }
+
+    public boolean isBefore(LocalDate date) {
+        return month.isBefore(date.withDayOfMonth(1));
+    }
+
+    public String makeCreateStatement() {
+        return "CREATE TABLE IF NOT EXISTS " + getName() + " PARTITION OF " + parentTable
+                + " FOR VALUES FROM ('" + getFrom() + "') TO ('" + getTo() + "')";
+    }
+
+    public String makeDetachStatement() {
+        return "ALTER TABLE " + parentTable + " DETACH PARTITION " + getName();
+    }
+
+}
@@ -1,6 +1,7 @@
 package org.senla_project.application.config;
 
 import lombok.RequiredArgsConstructor;
+import org.senla_project.application.util.SqlCaptureInspector;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -33,6 +34,29 @@ public class HibernateConfigTest {
     private String formatSql;
     @Value("${hibernate.hbm2ddl.auto}")
     private String autoDdlCreation;
+    @Value("${hibernate.jdbc.batch_size}")
+    private String jdbcBatchSize;
+    @Value("${hibernate.jdbc.fetch_size}")
+    private String jdbcFetchSize;
+    @Value("${hibernate.order_inserts}")
+    private String orderInserts;
+    @Value("${hibernate.order_updates}")
+    private String orderUpdates;
+
+    @Value("${hibernate.default_batch_fetch_size}")
+    private String defaultBatchFetchSize;
+    @Value("${hibernate.cache.use_second_level_cache}")
+    private String useSecondLevelCache;
+    @Value("${hibernate.cache.use_query_cache}")
+    private String useQueryCache;
+    @Value("${hibernate.cache.region.factory_class}")
+    private String cacheRegionFactory;
+    @Value("${hibernate.javax.cache.provider}")
+    private String cacheProvider;
+    @Value("${hibernate.javax.cache.uri}")
+    private String cacheConfigUri;
+    @Value("${hibernate.generate_statistics}")
+    private String generateStatistics;
 
     @Bean
     public PlatformTransactionManager transactionManager() {
@@ -60,6 +84,18 @@ public class HibernateConfigTest {
         properties.setProperty("hibernate.show_sql", showSql);
         properties.setProperty("hibernate.format_sql", formatSql);
         properties.setProperty("hibernate.hbm2ddl.auto", autoDdlCreation);
+        properties.setProperty("hibernate.jdbc.batch_size", jdbcBatchSize);
+        properties.setProperty("hibernate.jdbc.fetch_size", jdbcFetchSize);
+        properties.setProperty("hibernate.order_inserts", orderInserts);
+        properties.setProperty("hibernate.order_updates", orderUpdates);
+        properties.setProperty("hibernate.default_batch_fetch_size", defaultBatchFetchSize);
+        properties.setProperty("hibernate.cache.use_second_level_cache", useSecondLevelCache);
+        properties.setProperty("hibernate.cache.use_query_cache", useQueryCache);
+        properties.setProperty("hibernate.cache.region.factory_class", cacheRegionFactory);
+        properties.setProperty("hibernate.javax.cache.provider", cacheProvider);
+        properties.setProperty("hibernate.javax.cache.uri", cacheConfigUri);
+        properties.setProperty("hibernate.generate_statistics", generateStatistics);
+        properties.setProperty("hibernate.session_factory.statement_inspector", SqlCaptureInspector.class.getName());
         return properties;
     }
 
@@ -0,0 +1,73 @@
+package org.senla_project.application.config;
+
+import liquibase.Liquibase;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.resource.DirectoryResourceAccessor;
+import org.h2.jdbcx.JdbcDataSource;
+import org.senla_project.application.util.datasource.ShardTransactionLog;
+import org.senla_project.application.util.datasource.ShardedDataSources;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Embedded H2 databases standing in for the collaboration shards; tests using it set DATABASE_SHARD_URLS to SHARD_URLS
+@Configuration
+@PropertySource("classpath:application-test.properties")
+public class ShardDataSourceConfigTest {
+
+    public static final String SHARD_URLS =
+            "jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1," +
+            "jdbc:h2:mem:shard2;DB_CLOSE_DELAY=-1," +
+            "jdbc:h2:mem:shard3;DB_CLOSE_DELAY=-1";
+
+    // The changelogs are packaged into the war only, so the shards are migrated from the source tree
+    private static final Path LIQUIBASE_DIRECTORY = Path.of("src/main/liquibase");
+    private static final String SHARD_CHANGELOG = "shard-changelog-master.xml";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${DATABASE_SHARD_URLS}")
+    private String shardUrls;
+    @Value("${test_database.username}")
+    private String username;
+    @Value("${test_database.password}")
+    private String password;
+    @Value("${datasource.shard.virtual_nodes}")
+    private int virtualNodes;
+    @Value("${datasource.shard.scatter_threads}")
+    private int scatterThreads;
+
+    @Bean(destroyMethod = "close")
+    public ShardedDataSources shardedDataSources() throws Exception {
+        List<DataSource> shards = new ArrayList<>();
+        for (String url : Arrays.stream(shardUrls.split(",")).map(String::trim).toList()) {
+            JdbcDataSource dataSource = new JdbcDataSource();
+            dataSource.setURL(url);
+            dataSource.setUser(username);
+            dataSource.setPassword(password);
+            migrate(dataSource);
+            shards.add(dataSource);
+        }
+        return new ShardedDataSources(shards, new ShardTransactionLog(dataSource), virtualNodes, scatterThreads);
+    }
+
+    private static void migrate(DataSource dataSource) throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            Database database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection));
+            new Liquibase(SHARD_CHANGELOG, new DirectoryResourceAccessor(LIQUIBASE_DIRECTORY), database).update("");
+        }
+    }
+
+}
@@ -12,10 +12,13 @@ import org.senla_project.application.config.HibernateConfigTest;
 import org.senla_project.application.config.WebSecurityConfig;
 import org.senla_project.application.dto.AnswerCreateDto;
 import org.senla_project.application.dto.AnswerResponseDto;
+import org.senla_project.application.service.VoteService;
 import org.senla_project.application.util.JsonParser;
 import org.senla_project.application.util.SpringParameterResolver;
 import org.senla_project.application.util.TestData;
 import org.senla_project.application.util.exception.EntityNotFoundException;
+import org.senla_project.application.util.http.MergePatch;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers;
@@ -25,6 +28,7 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.util.List;
 import java.util.UUID;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -43,6 +47,7 @@ class AnswerControllerTest {
     final QuestionController questionController;
     final RoleController roleController;
     final AuthController authController;
+    final VoteService voteService;
 
     MockMvc mockMvc;
 
@@ -98,6 +103,17 @@ class AnswerControllerTest {
         Assertions.assertEquals(answerController.getAllElements(1).size(), 1);
     }
 
+    @Test
+    @WithMockUser(username = TestData.AUTHORIZED_USER_NAME, authorities = {TestData.USER_ROLE})
+    void addAndDeleteElements_thenKeepQuestionAnswerCount() {
+        AnswerCreateDto answerCreateDto = setQuestionIdOfAnswerCreateDto(TestData.getAnswerCreateDto());
+        answerController.addElement(answerCreateDto);
+        var answers = answerController.addElements(List.of(answerCreateDto, answerCreateDto));
+        answerController.deleteElement(UUID.fromString(answers.getFirst().getAnswerId()));
+
+        Assertions.assertEquals(2, questionController.getElementById(answerCreateDto.getQuestionId()).getAnswerCount());
+    }
+
     @Test
     void findElementById_thenThrowUnauthorizedException() throws Exception {
         mockMvc.perform(get("/answers/{id}", UUID.randomUUID())
@@ -158,6 +174,32 @@ class AnswerControllerTest {
                 answerCreateDto.getBody());
     }
 
+    @Test
+    void addElements_thenThrowUnauthorizedException() throws Exception {
+        AnswerCreateDto answerCreateDto = setQuestionIdOfAnswerCreateDto(TestData.getAnswerCreateDto());
+        mockMvc.perform(post("/answers/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonParser.parseObjectToJson(List.of(answerCreateDto)))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @WithMockUser(username = TestData.AUTHORIZED_USER_NAME, authorities = {TestData.USER_ROLE})
+    void addElements_thenReturnCreatedElements() throws Exception {
+        AnswerCreateDto answerCreateDto = setQuestionIdOfAnswerCreateDto(TestData.getAnswerCreateDto());
+        AnswerCreateDto updatedAnswerCreateDto = setQuestionIdOfAnswerCreateDto(TestData.getUpdatedAnswerCreateDto());
+        mockMvc.perform(post("/answers/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonParser.parseObjectToJson(List.of(answerCreateDto, updatedAnswerCreateDto)))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isCreated());
+
+        Assertions.assertEquals(answerController.getAllElements(1).size(), 2);
+    }
+
     @Test
     void updateElement_thenThrowUnauthorizedException() throws Exception {
         AnswerCreateDto answerCreateDto = setQuestionIdOfAnswerCreateDto(TestData.getAnswerCreateDto());
@@ -170,13 +212,35 @@ class AnswerControllerTest {
 
     @Test
     @WithMockUser(username = TestData.AUTHORIZED_USER_NAME, authorities = {TestData.USER_ROLE})
-    void updateElement_thenThrowPreconditionFailedException() throws Exception {
+    void updateElement_whenIdIsUnknown_thenThrowNotFoundException() throws Exception {
         AnswerCreateDto answerCreateDto = setQuestionIdOfAnswerCreateDto(TestData.getAnswerCreateDto());
         mockMvc.perform(put("/answers/update/{id}", UUID.randomUUID())
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(jsonParser.parseObjectToJson(answerCreateDto)))
                 .andDo(print())
-                .andExpect(status().isPreconditionFailed());
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(username = TestData.AUTHORIZED_USER_NAME, authorities = {TestData.USER_ROLE})
+    void patchElement_whenIdIsUnknown_thenThrowNotFoundException() throws Exception {
+        mockMvc.perform(patch("/answers/{id}", UUID.randomUUID())
+                        .contentType(MergePatch.MEDIA_TYPE)
+                        .content("{\"body\": \"Patched\"}"))
+                .andDo(print())
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(username = TestData.AUTHORIZED_USER_NAME, authorities = {TestData.USER_ROLE})
+    void patchElement_whenCreateTimeIsNull_thenThrowBadRequestException() throws Exception {
+        AnswerResponseDto answer = answerController.addElement(setQuestionIdOfAnswerCreateDto(TestData.getAnswerCreateDto()));
+
+        mockMvc.perform(patch("/answers/{id}", answer.getAnswerId())
+                        .contentType(MergePatch.MEDIA_TYPE)
+                        .content("{\"createTime\": null}"))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -230,6 +294,58 @@ class AnswerControllerTest {
         Assertions.assertThrows(EntityNotFoundException.class, () -> answerController.getElementById(UUID.fromString(answerResponseDto.getAnswerId())));
     }
 
+    @Test
+    @WithMockUser(username = TestData.AUTHORIZED_USER_NAME, authorities = {TestData.USER_ROLE})
+    void upvote_thenAddUsefulnessAfterFlush() throws Exception {
+        AnswerCreateDto answerCreateDto = setQuestionIdOfAnswerCreateDto(TestData.getAnswerCreateDto());
+        AnswerResponseDto answerResponseDto = answerController.addElement(answerCreateDto);
+        UUID answerId = UUID.fromString(answerResponseDto.getAnswerId());
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/answers/{id}/upvote", answerId))
+                    .andDo(print())
+                    .andExpect(status().isAccepted());
+        }
+        mockMvc.perform(post("/answers/{id}/downvote", answerId))
+                .andDo(print())
+                .andExpect(status().isAccepted());
+        Assertions.assertEquals(answerResponseDto.getUsefulness(), answerController.getElementById(answerId).getUsefulness());
+
+        voteService.flushVotes();
+        Assertions.assertEquals(answerResponseDto.getUsefulness() + 2, answerController.getElementById(answerId).getUsefulness());
+    }
+
+    @Test
+    @WithMockUser(username = TestData.AUTHORIZED_USER_NAME, authorities = {TestData.USER_ROLE})
+    void updateElement_afterVotesFlushed_thenKeepVotes() throws Exception {
+        AnswerCreateDto answerCreateDto = setQuestionIdOfAnswerCreateDto(TestData.getAnswerCreateDto());
+        AnswerResponseDto answerResponseDto = answerController.addElement(answerCreateDto);
+        UUID answerId = UUID.fromString(answerResponseDto.getAnswerId());
+        String etag = mockMvc.perform(get("/answers/{id}", answerId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(post("/answers/{id}/upvote", answerId))
+                .andDo(print())
+                .andExpect(status().isAccepted());
+        voteService.flushVotes();
+
+        AnswerCreateDto updatedAnswerCreateDto = setQuestionIdOfAnswerCreateDto(TestData.getUpdatedAnswerCreateDto());
+        updatedAnswerCreateDto.setUsefulness(answerResponseDto.getUsefulness() - 100);
+        mockMvc.perform(put("/answers/update/{id}", answerId)
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonParser.parseObjectToJson(updatedAnswerCreateDto)))
+                .andDo(print())
+                .andExpect(status().isOk());
+
+        AnswerResponseDto updatedAnswer = answerController.getElementById(answerId);
+        Assertions.assertEquals(updatedAnswerCreateDto.getBody(), updatedAnswer.getBody());
+        Assertions.assertEquals(answerResponseDto.getUsefulness() + 1, updatedAnswer.getUsefulness());
+    }
+
     @Test
     void findAnswerByParams_thenThrowUnauthorizedException() throws Exception {
         mockMvc.perform(get("/answers?author={author}&question_id={question_id}&body={body}", "123", UUID.randomUUID(), "123")
@@ -16,6 +16,7 @@ import org.senla_project.application.util.JsonParser;
 import org.senla_project.application.util.SpringParameterResolver;
 import org.senla_project.application.util.TestData;
 import org.senla_project.application.util.exception.EntityNotFoundException;
+import org.senla_project.application.util.http.MergePatch;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -149,13 +150,35 @@ class CollaborationControllerTest {
 
     @Test
     @WithMockUser(username = TestData.AUTHORIZED_USER_NAME, authorities = {TestData.USER_ROLE})
-    void updateElement_thenThrowPreconditionFailedException() throws Exception {
+    void updateElement_whenIdIsUnknown_thenThrowNotFoundException() throws Exception {
         CollaborationCreateDto collabCreateDto = TestData.getCollaborationCreateDto();
         mockMvc.perform(put("/collabs/update/{id}", UUID.randomUUID())
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(jsonParser.parseObjectToJson(collabCreateDto)))
                 .andDo(print())
-                .andExpect(status().isPreconditionFailed());
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(username = TestData.AUTHORIZED_USER_NAME, authorities = {TestData.USER_ROLE})
+    void patchElement_whenIdIsUnknown_thenThrowNotFoundException() throws Exception {
+        mockMvc.perform(patch("/collabs/{id}", UUID.randomUUID())
+                        .contentType(MergePatch.MEDIA_TYPE)
+                        .content("{\"collabName\": \"Patched\"}"))
+                .andDo(print())
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(username = TestData.AUTHORIZED_USER_NAME, authorities = {TestData.USER_ROLE})
+    void patchElement_whenCreateTimeIsNull_thenThrowBadRequestException() throws Exception {
+        CollaborationResponseDto collab = collabController.addElement(TestData.getCollaborationCreateDto());
+
+        mockMvc.perform(patch("/collabs/{id}", collab.getCollabId())
+                        .contentType(MergePatch.MEDIA_TYPE)
+                        .content("{\"createTime\": null}"))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
     }
 
     @Test
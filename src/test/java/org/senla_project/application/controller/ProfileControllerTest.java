@@ -16,6 +16,7 @@ import org.senla_project.application.util.JsonParser;
 import org.senla_project.application.util.SpringParameterResolver;
 import org.senla_project.application.util.TestData;
 import org.senla_project.application.util.exception.EntityNotFoundException;
+import org.senla_project.application.util.http.MergePatch;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -160,13 +161,23 @@ class ProfileControllerTest {
 
     @Test
     @WithMockUser(username = TestData.AUTHORIZED_USER_NAME, authorities = {TestData.USER_ROLE})
-    void updateElement_thenThrowPreconditionFailedException() throws Exception {
+    void updateElement_whenIdIsUnknown_thenThrowNotFoundException() throws Exception {
         ProfileCreateDto profileCreateDto = TestData.getProfileCreateDto();
         mockMvc.perform(put("/profiles/update/{id}", UUID.randomUUID())
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(jsonParser.parseObjectToJson(profileCreateDto)))
                 .andDo(print())
-                .andExpect(status().isPreconditionFailed());
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(username = TestData.AUTHORIZED_USER_NAME, authorities = {TestData.USER_ROLE})
+    void patchElement_whenIdIsUnknown_thenThrowNotFoundException() throws Exception {
+        mockMvc.perform(patch("/profiles/{id}", UUID.randomUUID())
+                        .contentType(MergePatch.MEDIA_TYPE)
+                        .content("{\"bio\": \"Patched\"}"))
+                .andDo(print())
+                .andExpect(status().isNotFound());
     }
 
     @Test
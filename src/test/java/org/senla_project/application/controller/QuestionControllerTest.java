@@ -10,13 +10,18 @@ import org.senla_project.application.config.ApplicationConfigTest;
 import org.senla_project.application.config.DataSourceConfigTest;
 import org.senla_project.application.config.HibernateConfigTest;
 import org.senla_project.application.config.WebSecurityConfig;
+import org.senla_project.application.dto.BatchLookupDto;
 import org.senla_project.application.dto.QuestionCreateDto;
 import org.senla_project.application.dto.QuestionResponseDto;
+import org.senla_project.application.dto.SearchHitDto;
 import org.senla_project.application.util.JsonParser;
 import org.senla_project.application.util.SpringParameterResolver;
 import org.senla_project.application.util.TestData;
 import org.senla_project.application.util.exception.EntityNotFoundException;
+import org.senla_project.application.util.http.MergePatch;
+import org.senla_project.application.util.pagination.KeysetPage;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers;
@@ -26,10 +31,14 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @Slf4j
@@ -89,6 +98,94 @@ class QuestionControllerTest {
         Assertions.assertEquals(questionController.getAllElements(1).size(), 1);
     }
 
+    @Test
+    @WithMockUser(username = TestData.AUTHORIZED_USER_NAME, authorities = {TestData.USER_ROLE})
+    void getAllElementsByCursor_thenReturnPage() throws Exception {
+        questionController.addElement(TestData.getQuestionCreateDto());
+        questionController.addElement(TestData.getUpdatedQuestionCreateDto());
+        mockMvc.perform(get("/questions/all?size=1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk());
+
+        String nextCursor = questionController.getAllElements(null, 1).getNextCursor();
+        Assertions.assertNotNull(nextCursor);
+        Assertions.assertEquals(questionController.getAllElements(nextCursor, 1).getContent().size(), 1);
+    }
+
+    @Test
+    void exportElements_thenThrowUnauthorizedException() throws Exception {
+        mockMvc.perform(get("/questions/export"))
+                .andDo(print())
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @WithMockUser(username = TestData.AUTHORIZED_USER_NAME, authorities = {TestData.USER_ROLE})
+    void exportElements_thenStreamJsonLines() throws Exception {
+        questionController.addElement(TestData.getQuestionCreateDto());
+        questionController.addElement(TestData.getUpdatedQuestionCreateDto());
+        String content = mockMvc.perform(get("/questions/export"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        List<QuestionResponseDto> exported = content.lines()
+                .map(line -> jsonParser.parseJsonToObject(line, QuestionResponseDto.class))
+                .toList();
+        Assertions.assertEquals(2, exported.size());
+        Assertions.assertEquals(
+                Set.of(TestData.getQuestionCreateDto().getBody(), TestData.getUpdatedQuestionCreateDto().getBody()),
+                exported.stream().map(QuestionResponseDto::getBody).collect(Collectors.toSet())
+        );
+        Assertions.assertTrue(exported.stream().allMatch(question -> question.getAuthorName() != null));
+    }
+
+    @Test
+    void searchElements_thenThrowUnauthorizedException() throws Exception {
+        mockMvc.perform(get("/questions/search?q={q}", "what"))
+                .andDo(print())
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @WithMockUser(username = TestData.AUTHORIZED_USER_NAME, authorities = {TestData.USER_ROLE})
+    void searchElements_thenReturnHits() throws Exception {
+        QuestionResponseDto expected = questionController.addElement(TestData.getQuestionCreateDto());
+        questionController.addElement(TestData.getUpdatedQuestionCreateDto());
+        String content = mockMvc.perform(get("/questions/search?q={q}&size={size}", "is it", 1)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        KeysetPage<?> page = jsonParser.parseJsonToObject(content, KeysetPage.class);
+        Assertions.assertEquals(1, page.getContent().size());
+        Assertions.assertNull(page.getNextCursor());
+        SearchHitDto hit = jsonParser.parseJsonToObject(jsonParser.parseObjectToJson(page.getContent().getFirst()), SearchHitDto.class);
+        Assertions.assertEquals(expected.getQuestionId(), hit.getId());
+        Assertions.assertEquals("What <b>is</b> <b>it</b>?", hit.getHeadline());
+    }
+
+    @Test
+    @WithMockUser(username = TestData.AUTHORIZED_USER_NAME, authorities = {TestData.USER_ROLE})
+    void searchElements_thenThrowNotFoundException() throws Exception {
+        mockMvc.perform(get("/questions/search?q={q}", "nothing matches")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(username = TestData.AUTHORIZED_USER_NAME, authorities = {TestData.USER_ROLE})
+    void getAllElementsByCursor_thenThrowBadRequestException() throws Exception {
+        mockMvc.perform(get("/questions/all?cursor={cursor}", "not a cursor")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void findElementById_thenThrowUnauthorizedException() throws Exception {
         mockMvc.perform(get("/questions/{id}", UUID.randomUUID())
@@ -119,6 +216,42 @@ class QuestionControllerTest {
                 questionCreateDto.getBody());
     }
 
+    @Test
+    @WithMockUser(username = TestData.AUTHORIZED_USER_NAME, authorities = {TestData.USER_ROLE})
+    void findElementsByIds_thenReturnElementsInRequestOrder() throws Exception {
+        QuestionResponseDto question = questionController.addElement(TestData.getQuestionCreateDto());
+        QuestionResponseDto updatedQuestion = questionController.addElement(TestData.getUpdatedQuestionCreateDto());
+        UUID missingId = UUID.randomUUID();
+        String ids = String.join(",", updatedQuestion.getQuestionId(), missingId.toString(), question.getQuestionId());
+        mockMvc.perform(get("/questions")
+                        .param("ids", ids)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk());
+
+        BatchLookupDto<QuestionResponseDto> lookup = questionController.getElementsByIds(List.of(
+                UUID.fromString(updatedQuestion.getQuestionId()), missingId, UUID.fromString(question.getQuestionId())
+        ));
+        Assertions.assertEquals(List.of(updatedQuestion.getQuestionId(), question.getQuestionId()),
+                lookup.getContent().stream().map(QuestionResponseDto::getQuestionId).toList());
+        Assertions.assertEquals(List.of(missingId), lookup.getMissingIds());
+    }
+
+    @Test
+    @WithMockUser(username = TestData.AUTHORIZED_USER_NAME, authorities = {TestData.USER_ROLE})
+    void findElementsByIds_whenNoneFound_thenReturnAllIdsAsMissing() throws Exception {
+        UUID missingId = UUID.randomUUID();
+        mockMvc.perform(get("/questions")
+                        .param("ids", missingId.toString())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk());
+
+        BatchLookupDto<QuestionResponseDto> lookup = questionController.getElementsByIds(List.of(missingId));
+        Assertions.assertEquals(List.of(), lookup.getContent());
+        Assertions.assertEquals(List.of(missingId), lookup.getMissingIds());
+    }
+
     @Test
     void addElement_thenThrowUnauthorizedException() throws Exception {
         QuestionCreateDto questionCreateDto = TestData.getQuestionCreateDto();
@@ -159,12 +292,109 @@ class QuestionControllerTest {
 
     @Test
     @WithMockUser(username = TestData.AUTHORIZED_USER_NAME, authorities = {TestData.USER_ROLE})
-    void updateElement_thenThrowPreconditionFailedException() throws Exception {
+    void updateElement_whenIdIsUnknown_thenThrowNotFoundException() throws Exception {
         QuestionCreateDto questionCreateDto = TestData.getQuestionCreateDto();
         mockMvc.perform(put("/questions/update/{id}", UUID.randomUUID())
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(jsonParser.parseObjectToJson(questionCreateDto)))
                 .andDo(print())
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(username = TestData.AUTHORIZED_USER_NAME, authorities = {TestData.USER_ROLE})
+    void patchElement_whenIdIsUnknown_thenThrowNotFoundException() throws Exception {
+        mockMvc.perform(patch("/questions/{id}", UUID.randomUUID())
+                        .contentType(MergePatch.MEDIA_TYPE)
+                        .content("{\"body\": \"Patched\"}"))
+                .andDo(print())
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(username = TestData.AUTHORIZED_USER_NAME, authorities = {TestData.USER_ROLE})
+    void patchElement_whenCreateTimeIsNull_thenThrowBadRequestException() throws Exception {
+        QuestionResponseDto question = questionController.addElement(TestData.getQuestionCreateDto());
+
+        mockMvc.perform(patch("/questions/{id}", question.getQuestionId())
+                        .contentType(MergePatch.MEDIA_TYPE)
+                        .content("{\"createTime\": null}"))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = TestData.AUTHORIZED_USER_NAME, authorities = {TestData.USER_ROLE})
+    void updateElement_whenIfMatchIsStale_thenThrowPreconditionFailedException() throws Exception {
+        QuestionResponseDto question = questionController.addElement(TestData.getQuestionCreateDto());
+        String etag = mockMvc.perform(get("/questions/{id}", question.getQuestionId())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        Assertions.assertEquals("\"0\"", etag);
+
+        String updatedEtag = mockMvc.perform(put("/questions/update/{id}", question.getQuestionId())
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonParser.parseObjectToJson(TestData.getUpdatedQuestionCreateDto())))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        Assertions.assertEquals("\"1\"", updatedEtag);
+        mockMvc.perform(put("/questions/update/{id}", question.getQuestionId())
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonParser.parseObjectToJson(TestData.getQuestionCreateDto())))
+                .andDo(print())
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    @WithMockUser(username = TestData.AUTHORIZED_USER_NAME, authorities = {TestData.USER_ROLE})
+    void updateElement_whenIfMatchIsWeak_thenThrowPreconditionFailedException() throws Exception {
+        QuestionResponseDto question = questionController.addElement(TestData.getQuestionCreateDto());
+
+        mockMvc.perform(put("/questions/update/{id}", question.getQuestionId())
+                        .header(HttpHeaders.IF_MATCH, "W/\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonParser.parseObjectToJson(TestData.getUpdatedQuestionCreateDto())))
+                .andDo(print())
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    @WithMockUser(username = TestData.AUTHORIZED_USER_NAME, authorities = {TestData.USER_ROLE})
+    void patchElement_thenUpdateOnlySuppliedFields() throws Exception {
+        QuestionCreateDto questionCreateDto = TestData.getQuestionCreateDto();
+        QuestionResponseDto question = questionController.addElement(questionCreateDto);
+
+        String etag = mockMvc.perform(patch("/questions/{id}", question.getQuestionId())
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MergePatch.MEDIA_TYPE)
+                        .content("{\"body\": \"Patched body\"}"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        Assertions.assertEquals("\"1\"", etag);
+
+        QuestionResponseDto patchedQuestion = questionController.getElementById(UUID.fromString(question.getQuestionId()));
+        Assertions.assertEquals("Patched body", patchedQuestion.getBody());
+        Assertions.assertEquals(questionCreateDto.getHeader(), patchedQuestion.getHeader());
+        Assertions.assertEquals(questionCreateDto.getAuthorName(), patchedQuestion.getAuthorName());
+
+        mockMvc.perform(patch("/questions/{id}", question.getQuestionId())
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MergePatch.MEDIA_TYPE)
+                        .content("{\"header\": \"Stale header\"}"))
+                .andDo(print())
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(patch("/questions/{id}", question.getQuestionId())
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MergePatch.MEDIA_TYPE)
+                        .content("{}"))
+                .andDo(print())
                 .andExpect(status().isPreconditionFailed());
     }
 
@@ -1,13 +1,17 @@
 package org.senla_project.application.repository.impl;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.senla_project.application.config.DataSourceConfigTest;
 import org.senla_project.application.config.HibernateConfigTest;
+import org.senla_project.application.dto.AnswerResponseDto;
 import org.senla_project.application.entity.Answer;
 import org.senla_project.application.entity.Question;
 import org.senla_project.application.entity.User;
@@ -16,6 +20,7 @@ import org.senla_project.application.repository.QuestionRepository;
 import org.senla_project.application.repository.UserRepository;
 import org.senla_project.application.util.SpringParameterResolver;
 import org.senla_project.application.util.TestData;
+import org.senla_project.application.util.pagination.KeysetPage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
 import org.springframework.transaction.annotation.Transactional;
@@ -40,6 +45,8 @@ class AnswerRepositoryImplTest {
     final AnswerRepository answerRepository;
     final QuestionRepository questionRepository;
     final UserRepository userRepository;
+    @PersistenceContext
+    EntityManager entityManager;
 
     @BeforeEach
     void initDataBaseWithData() {
@@ -73,6 +80,31 @@ class AnswerRepositoryImplTest {
         Assertions.assertEquals(expectedAnswer, actual);
     }
 
+    @Test
+    void findById_thenFetchAssociationsByEntityGraph() {
+        Answer answer = addDependenciesToAnswer(TestData.getAnswer());
+        answerRepository.create(answer);
+        entityManager.clear();
+
+        Answer actual = answerRepository.findById(answer.getAnswerId()).get();
+        Assertions.assertTrue(Hibernate.isInitialized(actual.getAuthor()));
+        Assertions.assertTrue(Hibernate.isInitialized(actual.getQuestion()));
+        entityManager.clear();
+
+        Answer actualWithoutGraph = answerRepository.findById(answer.getAnswerId(), null).get();
+        Assertions.assertFalse(Hibernate.isInitialized(actualWithoutGraph.getQuestion()));
+    }
+
+    @Test
+    void findAllByCursor_thenFetchAssociationsByEntityGraph() {
+        answerRepository.create(addDependenciesToAnswer(TestData.getAnswer()));
+        entityManager.clear();
+
+        Answer actual = answerRepository.findAll(null, 15).getContent().getFirst();
+        Assertions.assertTrue(Hibernate.isInitialized(actual.getAuthor()));
+        Assertions.assertTrue(Hibernate.isInitialized(actual.getQuestion()));
+    }
+
     @Test
     void findAll() {
         Answer answer = addDependenciesToAnswer(TestData.getAnswer());
@@ -83,6 +115,53 @@ class AnswerRepositoryImplTest {
         Assertions.assertEquals(expectedAnswerList, actualAnswerList);
     }
 
+    @Test
+    void findAllByCursor() {
+        Answer firstAnswer = addDependenciesToAnswer(TestData.getAnswer());
+        answerRepository.create(firstAnswer);
+        Answer secondAnswer = addDependenciesToAnswer(TestData.getUpdatedAnswer());
+        secondAnswer.setCreateTime(firstAnswer.getCreateTime().plusDays(1));
+        answerRepository.create(secondAnswer);
+
+        KeysetPage<Answer> firstPage = answerRepository.findAll(null, 1);
+        Assertions.assertEquals(List.of(firstAnswer), firstPage.getContent());
+        Assertions.assertNotNull(firstPage.getNextCursor());
+
+        KeysetPage<Answer> secondPage = answerRepository.findAll(firstPage.getNextCursor(), 1);
+        Assertions.assertEquals(List.of(secondAnswer), secondPage.getContent());
+        Assertions.assertNull(secondPage.getNextCursor());
+    }
+
+    @Test
+    void findDtoById() {
+        Answer answer = addDependenciesToAnswer(TestData.getAnswer());
+        answerRepository.create(answer);
+        AnswerResponseDto actual = answerRepository.findDtoById(answer.getAnswerId()).get();
+        Assertions.assertEquals(answer.getAnswerId().toString(), actual.getAnswerId());
+        Assertions.assertEquals(answer.getBody(), actual.getBody());
+        Assertions.assertEquals(answer.getUsefulness(), actual.getUsefulness());
+        Assertions.assertEquals(answer.getQuestion().getQuestionId(), actual.getQuestionId());
+        Assertions.assertEquals(answer.getAuthor().getUsername(), actual.getAuthorName());
+        Assertions.assertEquals(answer.getCreateTime().toString(), actual.getCreateTime());
+    }
+
+    @Test
+    void findAllDtosByCursor() {
+        Answer firstAnswer = addDependenciesToAnswer(TestData.getAnswer());
+        answerRepository.create(firstAnswer);
+        Answer secondAnswer = addDependenciesToAnswer(TestData.getUpdatedAnswer());
+        secondAnswer.setCreateTime(firstAnswer.getCreateTime().plusDays(1));
+        answerRepository.create(secondAnswer);
+
+        KeysetPage<AnswerResponseDto> firstPage = answerRepository.findAllDtos(null, 1);
+        Assertions.assertEquals(firstAnswer.getAnswerId().toString(), firstPage.getContent().getFirst().getAnswerId());
+        Assertions.assertNotNull(firstPage.getNextCursor());
+
+        KeysetPage<AnswerResponseDto> secondPage = answerRepository.findAllDtos(firstPage.getNextCursor(), 1);
+        Assertions.assertEquals(secondAnswer.getAnswerId().toString(), secondPage.getContent().getFirst().getAnswerId());
+        Assertions.assertNull(secondPage.getNextCursor());
+    }
+
     @Test
     void update() {
         Answer answer = addDependenciesToAnswer(TestData.getAnswer());
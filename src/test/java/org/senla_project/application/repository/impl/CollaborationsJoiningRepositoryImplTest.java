@@ -59,6 +59,28 @@ class CollaborationsJoiningRepositoryImplTest {
         Assertions.assertEquals(expectedCollabJoining, actual);
     }
 
+    @Test
+    void upsertAll_whenJoinExists_thenSkipIt() {
+        CollaborationsJoining existingCollabJoin = collabJoiningRepository.create(addDependenciesToCollabJoin(TestData.getCollabJoining()));
+        List<CollaborationsJoining> insertedCollabJoins = collabJoiningRepository.upsertAll(List.of(
+                addDependenciesToCollabJoin(TestData.getCollabJoining()),
+                addDependenciesToCollabJoin(TestData.getUpdatedCollabJoining())
+        ));
+        Assertions.assertEquals(List.of(), insertedCollabJoins);
+        Assertions.assertEquals(List.of(existingCollabJoin), collabJoiningRepository.findAll(1));
+    }
+
+    @Test
+    void upsertAll_thenInsertEveryPairOnce() {
+        CollaborationsJoining collabJoin = addDependenciesToCollabJoin(TestData.getCollabJoining());
+        List<CollaborationsJoining> insertedCollabJoins = collabJoiningRepository.upsertAll(List.of(
+                collabJoin,
+                addDependenciesToCollabJoin(TestData.getUpdatedCollabJoining())
+        ));
+        Assertions.assertEquals(List.of(collabJoin), insertedCollabJoins);
+        Assertions.assertEquals(collabJoin, collabJoiningRepository.findById(collabJoin.getJoinId()).get());
+    }
+
     @Test
     void findById() {
         CollaborationsJoining expectedCollaborationsJoining = addDependenciesToCollabJoin(TestData.getCollabJoining());
@@ -0,0 +1,157 @@
+package org.senla_project.application.repository.impl;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Index;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.senla_project.application.config.DataSourceConfigTest;
+import org.senla_project.application.config.HibernateConfigTest;
+import org.senla_project.application.entity.*;
+import org.senla_project.application.repository.*;
+import org.senla_project.application.util.SpringParameterResolver;
+import org.senla_project.application.util.SqlCaptureInspector;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Runs EXPLAIN for the SQL behind each lookup finder and fails if the planner falls back to a full table scan.
+// The plans come from H2 with the schema Hibernate generates from the entity @Index and @UniqueConstraint mappings,
+// not from the Liquibase-migrated Postgres schema; entityIndexes_thenCreatedByChangelogs keeps the two in step
+@SpringJUnitWebConfig({
+        DataSourceConfigTest.class,
+        HibernateConfigTest.class,
+        AnswerRepositoryImpl.class,
+        CollaborationRepositoryImpl.class,
+        CollaborationsJoiningRepositoryImpl.class,
+        ProfileRepositoryImpl.class,
+        QuestionRepositoryImpl.class,
+        RoleRepositoryImpl.class,
+        UserRepositoryImpl.class
+})
+@Transactional
+@ExtendWith(SpringParameterResolver.class)
+@RequiredArgsConstructor
+class QueryPlanTest {
+
+    private static final String TABLE_SCAN = ".tableScan";
+    // The changelogs are packaged into the war only, so they are read from the source tree
+    private static final Path CHANGELOG_DIRECTORY = Path.of("src/main/liquibase/changelogs");
+
+    final AnswerRepository answerRepository;
+    final CollaborationRepository collaborationRepository;
+    final CollaborationsJoiningRepository collaborationsJoiningRepository;
+    final ProfileRepository profileRepository;
+    final QuestionRepository questionRepository;
+    final RoleRepository roleRepository;
+    final UserRepository userRepository;
+    @PersistenceContext
+    EntityManager entityManager;
+
+    @Test
+    void findUserByUsername_thenUseIndex() {
+        assertNoTableScan(() -> userRepository.findUserByUsername("plan-user"));
+    }
+
+    @Test
+    void findCollabByName_thenUseIndex() {
+        assertNoTableScan(() -> collaborationRepository.findCollabByName("plan-collab"));
+    }
+
+    @Test
+    void findCollabJoin_thenUseIndex() {
+        assertNoTableScan(() -> collaborationsJoiningRepository.findCollabJoin("plan-user", "plan-collab"));
+    }
+
+    @Test
+    void findAnswer_thenUseIndex() {
+        assertNoTableScan(() -> answerRepository.findAnswer("plan-user", UUID.randomUUID(), "plan-body"));
+    }
+
+    @Test
+    void findQuestion_thenUseIndex() {
+        assertNoTableScan(() -> questionRepository.findQuestion("plan-header", "plan-body", "plan-user"));
+    }
+
+    @Test
+    void findProfileByUsername_thenUseIndex() {
+        assertNoTableScan(() -> profileRepository.findProfileByUsername("plan-user"));
+    }
+
+    @Test
+    void findRoleByName_thenUseIndex() {
+        assertNoTableScan(() -> roleRepository.findRoleByName("plan-role"));
+    }
+
+    @Test
+    void entityIndexes_thenCreatedByChangelogs() throws IOException {
+        String changelogs;
+        try (Stream<Path> files = Files.walk(CHANGELOG_DIRECTORY)) {
+            changelogs = files.filter(Files::isRegularFile)
+                    .map(file -> {
+                        try {
+                            return Files.readString(file);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    })
+                    .collect(Collectors.joining("\n"));
+        }
+        List<String> indexNames = new ArrayList<>(List.of("uq_users_username", "uq_collaborations_collab_name"));
+        for (Class<?> entityClass : List.of(Answer.class, ArchivedAnswer.class, ArchivedQuestion.class,
+                CollaborationsJoining.class, ImportCheckpoint.class, Question.class)) {
+            Table table = entityClass.getAnnotation(Table.class);
+            Arrays.stream(table.indexes()).map(Index::name).forEach(indexNames::add);
+            Arrays.stream(table.uniqueConstraints()).map(UniqueConstraint::name).forEach(indexNames::add);
+        }
+
+        for (String indexName : indexNames) {
+            Assertions.assertTrue(changelogs.contains(indexName), () -> indexName + " is not created by any changelog");
+        }
+    }
+
+    private void assertNoTableScan(Runnable finder) {
+        List<String> statements = SqlCaptureInspector.capture(finder);
+        Assertions.assertFalse(statements.isEmpty(), "Finder did not reach the database");
+
+        for (String statement : statements) {
+            String plan = explain(statement);
+            Assertions.assertFalse(plan.contains(TABLE_SCAN), () -> "Sequential scan in plan:\n" + plan);
+        }
+    }
+
+    private String explain(String sql) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                // Bound values do not change the chosen access path, only whether a plan exists at all
+                for (int i = 1; i <= statement.getParameterMetaData().getParameterCount(); i++) {
+                    statement.setNull(i, Types.OTHER);
+                }
+                List<String> plan = new ArrayList<>();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) plan.add(resultSet.getString(1));
+                }
+                return String.join("\n", plan);
+            }
+        });
+    }
+
+}
@@ -8,24 +8,34 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.senla_project.application.config.DataSourceConfigTest;
 import org.senla_project.application.config.HibernateConfigTest;
+import org.senla_project.application.dto.QuestionResponseDto;
+import org.senla_project.application.dto.SearchHitDto;
+import org.senla_project.application.entity.Answer;
 import org.senla_project.application.entity.Question;
+import org.senla_project.application.entity.User;
+import org.senla_project.application.repository.AnswerRepository;
 import org.senla_project.application.repository.QuestionRepository;
 import org.senla_project.application.repository.UserRepository;
 import org.senla_project.application.util.SpringParameterResolver;
 import org.senla_project.application.util.TestData;
+import org.senla_project.application.util.pagination.KeysetPage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 
 @Slf4j
 @SpringJUnitWebConfig({
         DataSourceConfigTest.class,
         HibernateConfigTest.class,
         QuestionRepositoryImpl.class,
+        AnswerRepositoryImpl.class,
         UserRepositoryImpl.class
 })
 @Transactional
@@ -34,6 +44,7 @@ import java.util.Optional;
 class QuestionRepositoryImplTest {
 
     final QuestionRepository questionRepository;
+    final AnswerRepository answerRepository;
     final UserRepository userRepository;
 
     @BeforeEach
@@ -54,6 +65,19 @@ class QuestionRepositoryImplTest {
         Assertions.assertEquals(expectedQuestion, actual);
     }
 
+    @Test
+    void createAll() {
+        List<Question> expectedQuestionList = List.of(
+                addDependenciesToQuestion(TestData.getQuestion()),
+                addDependenciesToQuestion(TestData.getUpdatedQuestion())
+        );
+        questionRepository.createAll(expectedQuestionList);
+        for (var expectedQuestion : expectedQuestionList) {
+            Question actual = questionRepository.findById(expectedQuestion.getQuestionId()).get();
+            Assertions.assertEquals(expectedQuestion, actual);
+        }
+    }
+
     @Test
     void findById() {
         Question expectedQuestion = addDependenciesToQuestion(TestData.getQuestion());
@@ -62,6 +86,16 @@ class QuestionRepositoryImplTest {
         Assertions.assertEquals(expectedQuestion, actual);
     }
 
+    @Test
+    void findAllByIds_thenReturnFoundQuestionsInRequestOrder() {
+        Question question = questionRepository.create(addDependenciesToQuestion(TestData.getQuestion()));
+        Question updatedQuestion = questionRepository.create(addDependenciesToQuestion(TestData.getUpdatedQuestion()));
+        List<Question> actualQuestionList = questionRepository.findAllByIds(List.of(
+                updatedQuestion.getQuestionId(), UUID.randomUUID(), question.getQuestionId(), updatedQuestion.getQuestionId()
+        ));
+        Assertions.assertEquals(List.of(updatedQuestion, question), actualQuestionList);
+    }
+
     @Test
     void findAll() {
         Question question = addDependenciesToQuestion(TestData.getQuestion());
@@ -94,6 +128,111 @@ class QuestionRepositoryImplTest {
         Assertions.assertFalse(actual.isPresent());
     }
 
+    @Test
+    void deleteWithDependentsById_thenReturnDeletedRows() {
+        Question question = addDependenciesToQuestion(TestData.getQuestion());
+        questionRepository.create(question);
+        for (int i = 0; i < 3; i++) {
+            Answer answer = TestData.getAnswer();
+            answer.setAuthor(question.getAuthor());
+            answer.setQuestion(question);
+            answerRepository.create(answer);
+        }
+        UUID authorId = question.getAuthor().getUserId();
+        userRepository.addToQuestionCounts(Map.of(authorId, 1));
+        userRepository.addToAnswerCounts(Map.of(authorId, 3));
+
+        Map<String, Integer> deletedRows = questionRepository.deleteWithDependentsById(question.getQuestionId());
+
+        Assertions.assertEquals(Map.of("answers_archive", 0, "questions_archive", 0, "answers", 3, "questions", 1), deletedRows);
+        Assertions.assertFalse(questionRepository.findById(question.getQuestionId()).isPresent());
+        Assertions.assertTrue(answerRepository.findAll(1).isEmpty());
+        User author = userRepository.findById(authorId).get();
+        Assertions.assertEquals(0, author.getQuestionCount());
+        Assertions.assertEquals(0, author.getAnswerCount());
+    }
+
+    @Test
+    void archiveByIds_thenMoveQuestionWithAnswersToArchive() {
+        Question question = questionRepository.create(addDependenciesToQuestion(TestData.getQuestion()));
+        for (int i = 0; i < 2; i++) {
+            Answer answer = TestData.getAnswer();
+            answer.setAuthor(question.getAuthor());
+            answer.setQuestion(question);
+            answerRepository.create(answer);
+        }
+        questionRepository.addToAnswerCounts(Map.of(question.getQuestionId(), 2));
+
+        List<UUID> ids = questionRepository.lockIdsToArchive(LocalDate.of(2025, 1, 1), 10);
+        Map<String, Integer> archivedRows = questionRepository.archiveByIds(ids);
+
+        Assertions.assertEquals(List.of(question.getQuestionId()), ids);
+        Assertions.assertEquals(Map.of("answers", 2, "questions", 1), archivedRows);
+        Assertions.assertFalse(questionRepository.findById(question.getQuestionId()).isPresent());
+        Assertions.assertTrue(answerRepository.findAll(1).isEmpty());
+        QuestionResponseDto archived = questionRepository.findArchivedDtoById(question.getQuestionId()).get();
+        Assertions.assertEquals(question.getHeader(), archived.getHeader());
+        Assertions.assertEquals(question.getAuthor().getUsername(), archived.getAuthorName());
+        Assertions.assertEquals(2, archived.getAnswerCount());
+        Assertions.assertEquals(List.of(archived), questionRepository.findArchivedDtosByIds(List.of(question.getQuestionId(), UUID.randomUUID())));
+    }
+
+    @Test
+    void lockIdsToArchive_whenAnsweredAfterCutoff_thenSkipQuestion() {
+        Question question = questionRepository.create(addDependenciesToQuestion(TestData.getQuestion()));
+        Answer answer = TestData.getAnswer();
+        answer.setAuthor(question.getAuthor());
+        answer.setQuestion(question);
+        answerRepository.create(answer);
+
+        Assertions.assertTrue(questionRepository.lockIdsToArchive(answer.getCreateTime(), 10).isEmpty());
+        Assertions.assertTrue(questionRepository.lockIdsToArchive(question.getCreateTime(), 10).isEmpty());
+    }
+
+    @Test
+    void deleteWithDependentsById_whenArchived_thenDeleteArchivedRows() {
+        Question question = questionRepository.create(addDependenciesToQuestion(TestData.getQuestion()));
+        Answer answer = TestData.getAnswer();
+        answer.setAuthor(question.getAuthor());
+        answer.setQuestion(question);
+        answerRepository.create(answer);
+        UUID authorId = question.getAuthor().getUserId();
+        userRepository.addToQuestionCounts(Map.of(authorId, 1));
+        userRepository.addToAnswerCounts(Map.of(authorId, 1));
+        questionRepository.archiveByIds(List.of(question.getQuestionId()));
+
+        Map<String, Integer> deletedRows = questionRepository.deleteWithDependentsById(question.getQuestionId());
+
+        Assertions.assertEquals(1, deletedRows.get("answers_archive"));
+        Assertions.assertEquals(1, deletedRows.get("questions_archive"));
+        Assertions.assertFalse(questionRepository.findArchivedDtoById(question.getQuestionId()).isPresent());
+        User author = userRepository.findById(authorId).get();
+        Assertions.assertEquals(0, author.getQuestionCount());
+        Assertions.assertEquals(0, author.getAnswerCount());
+    }
+
+    @Test
+    void addToAnswerCounts_thenReturnCountInDto() {
+        Question question = addDependenciesToQuestion(TestData.getQuestion());
+        questionRepository.create(question);
+
+        questionRepository.addToAnswerCounts(Map.of(question.getQuestionId(), 3));
+        questionRepository.addToAnswerCounts(Map.of(question.getQuestionId(), -1));
+
+        Assertions.assertEquals(2, questionRepository.findDtoById(question.getQuestionId()).get().getAnswerCount());
+    }
+
+    @Test
+    void addToInteresting_thenAddDeltaWithoutVersionBump() {
+        Question question = questionRepository.create(addDependenciesToQuestion(TestData.getQuestion()));
+
+        questionRepository.addToInteresting(Map.of(question.getQuestionId(), 5L, UUID.randomUUID(), 1L));
+
+        var actual = questionRepository.findDtoById(question.getQuestionId()).get();
+        Assertions.assertEquals(question.getInteresting() + 5, actual.getInteresting());
+        Assertions.assertEquals(question.getVersion(), actual.getVersion());
+    }
+
     @Test
     void findQuestion() {
         Question expectedQuestion = addDependenciesToQuestion(TestData.getQuestion());
@@ -103,4 +242,69 @@ class QuestionRepositoryImplTest {
                 expectedQuestion.getAuthor().getUsername()).get();
         Assertions.assertEquals(expectedQuestion, actual);
     }
-}
\ No newline at end of file
+
+    @Test
+    void search_thenReturnHighlightedHits() {
+        Question expectedQuestion = addDependenciesToQuestion(TestData.getQuestion());
+        expectedQuestion.setBody("How do I tune a GIN index?");
+        questionRepository.create(expectedQuestion);
+        questionRepository.create(addDependenciesToQuestion(TestData.getUpdatedQuestion()));
+
+        KeysetPage<SearchHitDto> page = questionRepository.search("gin INDEX", null, 15);
+
+        Assertions.assertEquals(1, page.getContent().size());
+        SearchHitDto hit = page.getContent().getFirst();
+        Assertions.assertEquals(expectedQuestion.getQuestionId().toString(), hit.getId());
+        Assertions.assertEquals("How do I tune a <b>GIN</b> <b>index</b>?", hit.getHeadline());
+        Assertions.assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void search_whenBodyHasMarkup_thenEscapeItAroundHighlights() {
+        Question question = addDependenciesToQuestion(TestData.getQuestion());
+        question.setBody("<script>alert('xss')</script> & GIN <b>index</b>");
+        questionRepository.create(question);
+
+        KeysetPage<SearchHitDto> page = questionRepository.search("gin", null, 15);
+
+        Assertions.assertEquals(1, page.getContent().size());
+        Assertions.assertEquals("&lt;script&gt;alert(&#39;xss&#39;)&lt;/script&gt; &amp; <b>GIN</b> &lt;b&gt;index&lt;/b&gt;",
+                page.getContent().getFirst().getHeadline());
+    }
+
+    @Test
+    void search_whenImportedPostHasNoOwner_thenReturnHitWithoutAuthor() {
+        Question importedQuestion = TestData.getQuestion();
+        importedQuestion.setAuthor(null);
+        importedQuestion.setBody("Imported question about vacuum");
+        questionRepository.create(importedQuestion);
+
+        KeysetPage<SearchHitDto> page = questionRepository.search("vacuum", null, 15);
+
+        Assertions.assertEquals(1, page.getContent().size());
+        Assertions.assertEquals(importedQuestion.getQuestionId().toString(), page.getContent().getFirst().getId());
+        Assertions.assertNull(page.getContent().getFirst().getAuthorName());
+        Assertions.assertNull(questionRepository.findDtoById(importedQuestion.getQuestionId()).get().getAuthorName());
+    }
+
+    @Test
+    void search_thenPageThroughHits() {
+        List<String> expectedIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Question question = addDependenciesToQuestion(TestData.getQuestion());
+            question.setBody("Searchable body " + i);
+            questionRepository.create(question);
+            expectedIds.add(question.getQuestionId().toString());
+        }
+
+        List<String> actualIds = new ArrayList<>();
+        String cursor = null;
+        do {
+            KeysetPage<SearchHitDto> page = questionRepository.search("searchable", cursor, 2);
+            page.getContent().forEach(hit -> actualIds.add(hit.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        Assertions.assertEquals(expectedIds, actualIds);
+    }
+}
@@ -11,6 +11,8 @@ import org.senla_project.application.entity.Role;
 import org.senla_project.application.repository.RoleRepository;
 import org.senla_project.application.util.SpringParameterResolver;
 import org.senla_project.application.util.TestData;
+import org.senla_project.application.util.exception.InvalidRequestParametersException;
+import org.senla_project.application.util.pagination.KeysetPage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
 import org.springframework.transaction.annotation.Transactional;
@@ -58,6 +60,27 @@ class RoleRepositoryImplTest {
         Assertions.assertEquals(expectedRoleList, actualRoleList);
     }
 
+    @Test
+    void findAllByCursor() {
+        Role role = TestData.getRole();
+        roleRepository.create(role);
+        Role updatedRole = TestData.getUpdatedRole();
+        roleRepository.create(updatedRole);
+
+        KeysetPage<Role> firstPage = roleRepository.findAll(null, 1);
+        KeysetPage<Role> secondPage = roleRepository.findAll(firstPage.getNextCursor(), 1);
+        Assertions.assertEquals(1, firstPage.getContent().size());
+        Assertions.assertEquals(1, secondPage.getContent().size());
+        Assertions.assertNotEquals(firstPage.getContent(), secondPage.getContent());
+        Assertions.assertNull(secondPage.getNextCursor());
+    }
+
+    @Test
+    void findAllByCursor_thenThrowInvalidRequestParametersException() {
+        Assertions.assertThrows(InvalidRequestParametersException.class, () -> roleRepository.findAll("not a cursor", 15));
+        Assertions.assertThrows(InvalidRequestParametersException.class, () -> roleRepository.findAll(null, 0));
+    }
+
     @Test
     void update() {
         Role role = TestData.getRole();
@@ -0,0 +1,243 @@
+package org.senla_project.application.repository.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.senla_project.application.config.DataSourceConfigTest;
+import org.senla_project.application.config.HibernateConfigTest;
+import org.senla_project.application.config.ShardDataSourceConfigTest;
+import org.senla_project.application.entity.Collaboration;
+import org.senla_project.application.entity.Collaboration_;
+import org.senla_project.application.repository.CollaborationRepository;
+import org.senla_project.application.util.SpringParameterResolver;
+import org.senla_project.application.util.TestData;
+import org.senla_project.application.util.datasource.ShardTransactionLog;
+import org.senla_project.application.util.datasource.ShardedDataSources;
+import org.senla_project.application.util.datasource.ShardingCondition;
+import org.senla_project.application.util.pagination.KeysetPage;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+@SpringJUnitWebConfig({
+        DataSourceConfigTest.class,
+        HibernateConfigTest.class,
+        ShardDataSourceConfigTest.class,
+        ShardedCollaborationRepository.class
+})
+@TestPropertySource(properties = ShardingCondition.SHARD_URLS_PROPERTY + "=" + ShardDataSourceConfigTest.SHARD_URLS)
+@Transactional
+@ExtendWith(SpringParameterResolver.class)
+@RequiredArgsConstructor
+class ShardedCollaborationRepositoryTest {
+
+    final CollaborationRepository collaborationRepository;
+    final ShardedDataSources shardedDataSources;
+    final PlatformTransactionManager transactionManager;
+    final DataSource dataSource;
+
+    @Test
+    void create_thenStoreRowOnItsShardOnly() {
+        Collaboration collaboration = collaborationRepository.create(TestData.getCollaboration());
+
+        String shardKey = shardedDataSources.shardFor(collaboration.getCollabId());
+        for (String otherShardKey : shardedDataSources.getShardKeys()) {
+            Assertions.assertEquals(otherShardKey.equals(shardKey) ? 1 : 0, countRows(otherShardKey, collaboration.getCollabId()));
+        }
+        Assertions.assertEquals(collaboration, collaborationRepository.findById(collaboration.getCollabId()).get());
+    }
+
+    @Test
+    void findCollabByName_thenResolveShardThroughDirectory() {
+        Collaboration collaboration = collaborationRepository.create(TestData.getCollaboration());
+
+        Assertions.assertEquals(collaboration, collaborationRepository.findCollabByName(collaboration.getCollabName()).get());
+        Assertions.assertTrue(collaborationRepository.findCollabByName("missing").isEmpty());
+    }
+
+    @Test
+    void findAll_thenMergeShardsInKeysetOrder() {
+        List<Collaboration> collaborations = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            collaborations.add(collaborationRepository.create(Collaboration.builder()
+                    .collabName("collab-" + i)
+                    .createTime(LocalDate.of(2015, 1, 1 + i % 4))
+                    .build()));
+        }
+        Assertions.assertTrue(collaborations.stream()
+                .map(collaboration -> shardedDataSources.shardFor(collaboration.getCollabId()))
+                .distinct()
+                .count() > 1);
+        List<Collaboration> expectedOrder = collaborations.stream()
+                .sorted(Comparator.comparing(Collaboration::getCreateTime)
+                        .thenComparing(collaboration -> collaboration.getCollabId().toString()))
+                .toList();
+
+        List<Collaboration> pagedCollaborations = new ArrayList<>();
+        KeysetPage<Collaboration> page = collaborationRepository.findAll(null, 3);
+        pagedCollaborations.addAll(page.getContent());
+        while (page.getNextCursor() != null) {
+            page = collaborationRepository.findAll(page.getNextCursor(), 3);
+            pagedCollaborations.addAll(page.getContent());
+        }
+
+        Assertions.assertEquals(expectedOrder, pagedCollaborations);
+        Assertions.assertEquals(expectedOrder.subList(15, 20), collaborationRepository.findAll(2));
+    }
+
+    @Test
+    void patchIfVersion_whenRenamed_thenMoveDirectoryEntry() {
+        Collaboration collaboration = collaborationRepository.create(TestData.getCollaboration());
+        Collaboration renamedCollaboration = TestData.getUpdatedCollaboration();
+
+        Assertions.assertFalse(collaborationRepository.patchIfVersion(collaboration.getCollabId(), 1L,
+                renamedCollaboration, Set.of(Collaboration_.COLLAB_NAME)));
+        Assertions.assertTrue(collaborationRepository.patchIfVersion(collaboration.getCollabId(), 0L,
+                renamedCollaboration, Set.of(Collaboration_.COLLAB_NAME)));
+
+        Collaboration actual = collaborationRepository.findCollabByName(renamedCollaboration.getCollabName()).get();
+        Assertions.assertEquals(collaboration.getCollabId(), actual.getCollabId());
+        Assertions.assertEquals(1L, actual.getVersion());
+        Assertions.assertTrue(collaborationRepository.findCollabByName(collaboration.getCollabName()).isEmpty());
+    }
+
+    @Test
+    void deleteWithDependentsById_thenDeleteRowAndDirectoryEntry() {
+        Collaboration collaboration = collaborationRepository.create(TestData.getCollaboration());
+
+        Map<String, Integer> deletedRows = collaborationRepository.deleteWithDependentsById(collaboration.getCollabId());
+
+        Assertions.assertEquals(Map.of("collaborations_users", 0, "collaborations", 1), deletedRows);
+        Assertions.assertTrue(collaborationRepository.findById(collaboration.getCollabId()).isEmpty());
+        Assertions.assertTrue(collaborationRepository.findCollabByName(collaboration.getCollabName()).isEmpty());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void create_whenTransactionRollsBack_thenRollBackShard() {
+        UUID collabId = new TransactionTemplate(transactionManager).execute(status -> {
+            Collaboration collaboration = collaborationRepository.create(TestData.getCollaboration());
+            status.setRollbackOnly();
+            return collaboration.getCollabId();
+        });
+
+        Assertions.assertEquals(0, countRows(shardedDataSources.shardFor(collabId), collabId));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void create_whenCommitted_thenCommitShardAndForgetDecision() {
+        UUID collabId = new TransactionTemplate(transactionManager).execute(status ->
+                collaborationRepository.create(TestData.getCollaboration()).getCollabId());
+        try {
+            Assertions.assertEquals(1, countRows(shardedDataSources.shardFor(collabId), collabId));
+            Assertions.assertEquals(0, countShardCommits());
+        } finally {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                    collaborationRepository.deleteWithDependentsById(collabId));
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void create_whenMainCommitFailsAfterShardsPrepared_thenRollBackShard() {
+        AtomicReference<UUID> collabId = new AtomicReference<>();
+        Assertions.assertThrows(IllegalStateException.class, () -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            collabId.set(collaborationRepository.create(TestData.getCollaboration()).getCollabId());
+            // Runs after the shards prepared, like a failing main commit
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    throw new IllegalStateException("Main database is gone");
+                }
+            });
+        }));
+
+        Assertions.assertEquals(0, countRows(shardedDataSources.shardFor(collabId.get()), collabId.get()));
+        Assertions.assertEquals(0, shardedDataSources.reconcile(Duration.ZERO));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void reconcile_thenCommitRecordedAndRollBackUnrecordedPreparedTransactions() throws Exception {
+        String shardKey = shardedDataSources.getShardKeys().iterator().next();
+        UUID committedId = UUID.randomUUID();
+        UUID rolledBackId = UUID.randomUUID();
+        String committedTransactionId = "SHARD_TX_1000_COMMITTED";
+        try (Connection committed = prepareInsert(shardKey, committedId, committedTransactionId);
+             Connection rolledBack = prepareInsert(shardKey, rolledBackId, "SHARD_TX_1000_ROLLEDBACK")) {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                try {
+                    new ShardTransactionLog(dataSource).record(committedTransactionId);
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+
+            Assertions.assertEquals(2, shardedDataSources.reconcile(Duration.ofMinutes(1)));
+        }
+
+        try {
+            Assertions.assertEquals(1, countRows(shardKey, committedId));
+            Assertions.assertEquals(0, countRows(shardKey, rolledBackId));
+            Assertions.assertEquals(0, countShardCommits());
+        } finally {
+            shardedDataSources.execute(shardKey, connection -> connection.createStatement()
+                    .executeUpdate("DELETE FROM collaborations WHERE collab_id = '" + committedId + "'"));
+        }
+    }
+
+    // A shard transaction left prepared by a node that stopped between the phases
+    private Connection prepareInsert(String shardKey, UUID collabId, String transactionId) throws SQLException {
+        Connection connection = shardedDataSources.getDataSource(shardKey).getConnection();
+        connection.setAutoCommit(false);
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO collaborations (collab_id, collab_name, create_time, member_count, version) VALUES (?, ?, ?, 0, 0)")) {
+            statement.setObject(1, collabId);
+            statement.setString(2, "prepared-" + collabId);
+            statement.setObject(3, LocalDate.of(2020, 1, 1));
+            statement.executeUpdate();
+        }
+        connection.createStatement().execute("PREPARE COMMIT " + transactionId);
+        return connection;
+    }
+
+    private int countShardCommits() {
+        return new JdbcTemplate(dataSource).queryForObject("SELECT count(*) FROM shard_commits", Integer.class);
+    }
+
+    private int countRows(String shardKey, UUID collabId) {
+        return shardedDataSources.execute(shardKey, connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("SELECT count(*) FROM collaborations WHERE collab_id = ?")) {
+                statement.setObject(1, collabId);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getInt(1);
+                }
+            }
+        });
+    }
+
+}
@@ -0,0 +1,121 @@
+package org.senla_project.application.repository.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.senla_project.application.config.DataSourceConfigTest;
+import org.senla_project.application.config.HibernateConfigTest;
+import org.senla_project.application.config.ShardDataSourceConfigTest;
+import org.senla_project.application.dto.CollaborationsJoiningResponseDto;
+import org.senla_project.application.entity.Collaboration;
+import org.senla_project.application.entity.CollaborationsJoining;
+import org.senla_project.application.entity.User;
+import org.senla_project.application.repository.CollaborationRepository;
+import org.senla_project.application.repository.CollaborationsJoiningRepository;
+import org.senla_project.application.repository.UserRepository;
+import org.senla_project.application.util.SpringParameterResolver;
+import org.senla_project.application.util.TestData;
+import org.senla_project.application.util.datasource.ShardingCondition;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@SpringJUnitWebConfig({
+        DataSourceConfigTest.class,
+        HibernateConfigTest.class,
+        ShardDataSourceConfigTest.class,
+        ShardedCollaborationRepository.class,
+        ShardedCollaborationsJoiningRepository.class,
+        UserRepositoryImpl.class
+})
+@TestPropertySource(properties = ShardingCondition.SHARD_URLS_PROPERTY + "=" + ShardDataSourceConfigTest.SHARD_URLS)
+@Transactional
+@ExtendWith(SpringParameterResolver.class)
+@RequiredArgsConstructor
+class ShardedCollaborationsJoiningRepositoryTest {
+
+    final CollaborationsJoiningRepository collabJoiningRepository;
+    final CollaborationRepository collabRepository;
+    final UserRepository userRepository;
+
+    private User user;
+    private final List<Collaboration> collabs = new ArrayList<>();
+
+    @BeforeEach
+    void initDataBaseWithData() {
+        user = userRepository.create(TestData.getUser());
+        for (int i = 0; i < 6; i++) {
+            collabs.add(collabRepository.create(Collaboration.builder()
+                    .collabName("collab-" + i)
+                    .createTime(LocalDate.of(2015, 1, 1))
+                    .build()));
+        }
+    }
+
+    CollaborationsJoining makeCollabJoin(Collaboration collab) {
+        return CollaborationsJoining.builder()
+                .collab(collab)
+                .user(user)
+                .joinDate(LocalDate.of(2016, 1, 1))
+                .build();
+    }
+
+    @Test
+    void upsertAll_thenInsertEveryPairOnceOnItsCollaborationShard() {
+        List<CollaborationsJoining> collabJoins = collabs.stream().map(this::makeCollabJoin).toList();
+
+        Assertions.assertEquals(collabJoins, collabJoiningRepository.upsertAll(collabJoins));
+        Assertions.assertEquals(List.of(), collabJoiningRepository.upsertAll(collabs.stream().map(this::makeCollabJoin).toList()));
+
+        List<CollaborationsJoining> storedCollabJoins = collabJoiningRepository.findAllByIds(
+                collabJoins.stream().map(CollaborationsJoining::getJoinId).toList());
+        Assertions.assertEquals(collabJoins, storedCollabJoins);
+        storedCollabJoins.forEach(collabJoin -> Assertions.assertSame(user, collabJoin.getUser()));
+    }
+
+    @Test
+    void findCollabJoin_thenResolveUserAndCollaborationByName() {
+        CollaborationsJoining collabJoin = collabJoiningRepository.create(makeCollabJoin(collabs.getFirst()));
+
+        CollaborationsJoining actual = collabJoiningRepository.findCollabJoin(user.getUsername(), collabs.getFirst().getCollabName()).get();
+
+        Assertions.assertEquals(collabJoin, actual);
+        Assertions.assertEquals(collabs.getFirst().getCollabName(), actual.getCollab().getCollabName());
+        Assertions.assertTrue(collabJoiningRepository.findCollabJoin(user.getUsername(), collabs.getLast().getCollabName()).isEmpty());
+    }
+
+    @Test
+    void findAllDtos_thenGatherJoinsOfEveryShardWithUserNames() {
+        collabJoiningRepository.upsertAll(collabs.stream().map(this::makeCollabJoin).toList());
+
+        List<CollaborationsJoiningResponseDto> collabJoins = collabJoiningRepository.findAllDtos(null, 10).getContent();
+
+        Assertions.assertEquals(collabs.size(), collabJoins.size());
+        Assertions.assertEquals(Set.of(user.getUsername()), Set.copyOf(collabJoins.stream().map(CollaborationsJoiningResponseDto::getUserName).toList()));
+        Assertions.assertEquals(
+                Set.copyOf(collabs.stream().map(Collaboration::getCollabName).toList()),
+                Set.copyOf(collabJoins.stream().map(CollaborationsJoiningResponseDto::getCollabName).toList())
+        );
+    }
+
+    @Test
+    void deleteAllByUserId_thenLeaveEveryShardAndDecrementMemberCounts() {
+        collabJoiningRepository.upsertAll(collabs.stream().map(this::makeCollabJoin).toList());
+        collabRepository.addToMemberCounts(Map.of(collabs.getFirst().getCollabId(), 1, collabs.getLast().getCollabId(), 1));
+
+        Assertions.assertEquals(collabs.size(), collabJoiningRepository.deleteAllByUserId(user.getUserId()));
+
+        Assertions.assertTrue(collabJoiningRepository.findAll(null, 10).getContent().isEmpty());
+        Assertions.assertEquals(0, collabRepository.findById(collabs.getFirst().getCollabId()).get().getMemberCount());
+        Assertions.assertEquals(0, collabRepository.findById(collabs.getLast().getCollabId()).get().getMemberCount());
+    }
+
+}
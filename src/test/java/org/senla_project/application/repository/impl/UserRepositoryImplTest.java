@@ -7,7 +7,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.senla_project.application.config.DataSourceConfigTest;
 import org.senla_project.application.config.HibernateConfigTest;
+import org.senla_project.application.entity.Answer;
+import org.senla_project.application.entity.Question;
 import org.senla_project.application.entity.User;
+import org.senla_project.application.repository.AnswerRepository;
+import org.senla_project.application.repository.QuestionRepository;
 import org.senla_project.application.repository.UserRepository;
 import org.senla_project.application.util.SpringParameterResolver;
 import org.senla_project.application.util.TestData;
@@ -17,13 +21,16 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Slf4j
 @SpringJUnitWebConfig({
         DataSourceConfigTest.class,
         HibernateConfigTest.class,
-        UserRepositoryImpl.class
+        UserRepositoryImpl.class,
+        QuestionRepositoryImpl.class,
+        AnswerRepositoryImpl.class
 })
 @Transactional
 @ExtendWith(SpringParameterResolver.class)
@@ -31,6 +38,8 @@ import java.util.Optional;
 class UserRepositoryImplTest {
 
     final UserRepository userRepository;
+    final QuestionRepository questionRepository;
+    final AnswerRepository answerRepository;
 
     @Test
     void create() {
@@ -87,4 +96,24 @@ class UserRepositoryImplTest {
         User actual = userRepository.findUserByUsername(expectedUser.getUsername()).get();
         Assertions.assertEquals(expectedUser, actual);
     }
-}
\ No newline at end of file
+
+    @Test
+    void deleteWithDependentsById_thenReturnDeletedRows() {
+        User user = userRepository.create(TestData.getUser());
+        Question question = TestData.getQuestion();
+        question.setAuthor(user);
+        questionRepository.create(question);
+        Answer answer = TestData.getAnswer();
+        answer.setAuthor(user);
+        answer.setQuestion(question);
+        answerRepository.create(answer);
+
+        Map<String, Integer> deletedRows = userRepository.deleteWithDependentsById(user.getUserId());
+
+        Assertions.assertEquals(1, deletedRows.get("users"));
+        Assertions.assertEquals(1, deletedRows.get("questions"));
+        Assertions.assertEquals(1, deletedRows.get("answers"));
+        Assertions.assertFalse(userRepository.findById(user.getUserId()).isPresent());
+        Assertions.assertFalse(userRepository.findUserByUsername(user.getUsername()).isPresent());
+    }
+}
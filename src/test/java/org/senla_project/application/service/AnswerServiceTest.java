@@ -1,23 +1,23 @@
 package org.senla_project.application.service;
 
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
-import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.senla_project.application.dto.AnswerCreateDto;
-import org.senla_project.application.dto.QuestionResponseDto;
-import org.senla_project.application.dto.UserResponseDto;
+import org.senla_project.application.dto.AnswerResponseDto;
 import org.senla_project.application.entity.Answer;
 import org.senla_project.application.mapper.AnswerMapper;
-import org.senla_project.application.mapper.QuestionMapper;
-import org.senla_project.application.mapper.UserMapper;
 import org.senla_project.application.repository.AnswerRepository;
 import org.senla_project.application.util.TestData;
 import org.senla_project.application.util.exception.EntityNotFoundException;
+import org.senla_project.application.util.pagination.KeysetPage;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,14 +27,10 @@ class AnswerServiceTest {
     AnswerRepository answerRepositoryMock;
     @Mock
     AnswerMapper answerMapperMock;
-    @Spy
-    UserMapper userMapperSpy;
     @Mock
-    UserService userServiceMock;
-    @Spy
-    QuestionMapper questionMapperSpy;
+    ReferenceService referenceServiceMock;
     @Mock
-    QuestionService questionServiceMock;
+    CounterService counterServiceMock;
     @InjectMocks
     AnswerService answerServiceMock;
 
@@ -43,10 +39,24 @@ class AnswerServiceTest {
     void addElement() {
         AnswerCreateDto answerCreateDto = TestData.getAnswerCreateDto();
         Mockito.when(answerMapperMock.toAnswer(answerCreateDto)).thenReturn(TestData.getAnswer());
-        Mockito.when(userMapperSpy.toUser((UserResponseDto) Mockito.any())).thenReturn(TestData.getAuthenticatedUser());
-        Mockito.when(questionMapperSpy.toQuestion((QuestionResponseDto) Mockito.any())).thenReturn(TestData.getQuestion());
+        Mockito.when(referenceServiceMock.findUserReference(Mockito.any())).thenReturn(TestData.getAuthenticatedUser());
+        Mockito.when(referenceServiceMock.findQuestionReference(Mockito.any())).thenReturn(TestData.getQuestion());
         answerServiceMock.addElement(answerCreateDto);
         Mockito.verify(answerRepositoryMock).create(Mockito.any());
+        Mockito.verify(counterServiceMock).countAnswers(Mockito.eq(List.of()), Mockito.argThat(added -> added.size() == 1));
+    }
+
+    @Test
+    void addElements() {
+        AnswerCreateDto answerCreateDto = TestData.getAnswerCreateDto();
+        AnswerCreateDto updatedAnswerCreateDto = TestData.getUpdatedAnswerCreateDto();
+        Mockito.when(answerMapperMock.toAnswer(answerCreateDto)).thenReturn(TestData.getAnswer());
+        Mockito.when(answerMapperMock.toAnswer(updatedAnswerCreateDto)).thenReturn(TestData.getUpdatedAnswer());
+        Mockito.when(referenceServiceMock.findUserReference(Mockito.any())).thenReturn(TestData.getAuthenticatedUser());
+        Mockito.when(referenceServiceMock.findQuestionReference(Mockito.any())).thenReturn(TestData.getQuestion());
+        answerServiceMock.addElements(List.of(answerCreateDto, updatedAnswerCreateDto));
+        Mockito.verify(referenceServiceMock, Mockito.times(1)).findUserReference(Mockito.any());
+        Mockito.verify(answerRepositoryMock).createAll(Mockito.any());
     }
 
     @Test
@@ -54,10 +64,12 @@ class AnswerServiceTest {
         AnswerCreateDto answerCreateDto = TestData.getAnswerCreateDto();
         UUID id = UUID.randomUUID();
         Mockito.when(answerMapperMock.toAnswer(id, answerCreateDto)).thenReturn(TestData.getAnswer());
-        Mockito.when(userMapperSpy.toUser((UserResponseDto) Mockito.any())).thenReturn(TestData.getAuthenticatedUser());
-        Mockito.when(questionMapperSpy.toQuestion((QuestionResponseDto) Mockito.any())).thenReturn(TestData.getQuestion());
+        Mockito.when(referenceServiceMock.findUserReference(Mockito.any())).thenReturn(TestData.getAuthenticatedUser());
+        Mockito.when(referenceServiceMock.findQuestionReference(Mockito.any())).thenReturn(TestData.getQuestion());
+        Mockito.when(answerRepositoryMock.updateIfVersion(Mockito.eq(id), Mockito.isNull(), Mockito.any())).thenReturn(true);
+        Mockito.when(answerRepositoryMock.findDtoById(id)).thenReturn(Optional.of(AnswerResponseDto.builder().build()));
         answerServiceMock.updateElement(id, answerCreateDto);
-        Mockito.verify(answerRepositoryMock).update(Mockito.any());
+        Mockito.verify(answerRepositoryMock).updateIfVersion(Mockito.eq(id), Mockito.isNull(), Mockito.any());
     }
 
     @Test
@@ -65,21 +77,29 @@ class AnswerServiceTest {
         Mockito.doNothing().when(answerRepositoryMock).deleteById(Mockito.any());
         answerServiceMock.deleteElement(UUID.randomUUID());
         Mockito.verify(answerRepositoryMock).deleteById(Mockito.any());
+        Mockito.verify(counterServiceMock).countAnswers(List.of(), List.of());
     }
 
     @Test
     void findAllElements() {
         try {
             answerServiceMock.findAllElements(1);
-            Mockito.verify(answerRepositoryMock).findAll(1);
+            Mockito.verify(answerRepositoryMock).findAllDtos(1);
         } catch (EntityNotFoundException ignored) {}
     }
 
+    @Test
+    void findAllElementsByCursor() {
+        Mockito.when(answerRepositoryMock.findAllDtos(null, 15)).thenReturn(new KeysetPage<>());
+        Assertions.assertThrows(EntityNotFoundException.class, () -> answerServiceMock.findAllElements(null, 15));
+        Mockito.verify(answerRepositoryMock).findAllDtos(null, 15);
+    }
+
     @Test
     void findElementById() {
         try {
             answerServiceMock.findElementById(UUID.randomUUID());
-            Mockito.verify(answerRepositoryMock).findById(Mockito.any());
+            Mockito.verify(answerRepositoryMock).findDtoById(Mockito.any());
         } catch (EntityNotFoundException ignored) {}
     }
 
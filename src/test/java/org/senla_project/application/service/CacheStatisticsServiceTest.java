@@ -0,0 +1,59 @@
+package org.senla_project.application.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.senla_project.application.dto.CacheRegionStatisticsDto;
+import org.senla_project.application.util.exception.EntityNotFoundException;
+
+@ExtendWith(MockitoExtension.class)
+class CacheStatisticsServiceTest {
+
+    @Mock
+    SessionFactory sessionFactory;
+    @Mock
+    Statistics statistics;
+    CacheStatisticsService cacheStatisticsService;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.when(sessionFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        Mockito.when(sessionFactory.getStatistics()).thenReturn(statistics);
+        cacheStatisticsService = new CacheStatisticsService(sessionFactory);
+    }
+
+    @Test
+    void findCacheRegionStatistics_thenThrowNotFoundException() {
+        Mockito.when(statistics.getSecondLevelCacheRegionNames()).thenReturn(new String[0]);
+        Assertions.assertThrows(EntityNotFoundException.class, () -> cacheStatisticsService.findCacheRegionStatistics());
+    }
+
+    @Test
+    void findCacheRegionStatistics_thenReturnRegionStatistics() {
+        CacheRegionStatistics roleRegion = Mockito.mock(CacheRegionStatistics.class);
+        Mockito.when(roleRegion.getHitCount()).thenReturn(7L);
+        Mockito.when(roleRegion.getMissCount()).thenReturn(1L);
+        Mockito.when(roleRegion.getPutCount()).thenReturn(2L);
+        Mockito.when(roleRegion.getElementCountInMemory()).thenReturn(2L);
+        Mockito.when(statistics.getSecondLevelCacheRegionNames()).thenReturn(new String[]{"user", "role"});
+        Mockito.when(statistics.getCacheRegionStatistics("role")).thenReturn(roleRegion);
+        Mockito.when(statistics.getCacheRegionStatistics("user")).thenReturn(null);
+
+        var regions = cacheStatisticsService.findCacheRegionStatistics();
+        Assertions.assertEquals(1, regions.size());
+        CacheRegionStatisticsDto role = regions.getFirst();
+        Assertions.assertEquals("role", role.getRegionName());
+        Assertions.assertEquals(7L, role.getHitCount());
+        Assertions.assertEquals(1L, role.getMissCount());
+        Assertions.assertEquals(2L, role.getPutCount());
+        Assertions.assertEquals(2L, role.getElementCountInMemory());
+    }
+
+}
@@ -8,12 +8,14 @@ import org.mockito.Mockito;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.senla_project.application.dto.CollaborationCreateDto;
+import org.senla_project.application.dto.CollaborationResponseDto;
 import org.senla_project.application.entity.Collaboration;
 import org.senla_project.application.mapper.CollaborationMapper;
 import org.senla_project.application.repository.CollaborationRepository;
 import org.senla_project.application.util.TestData;
 import org.senla_project.application.util.exception.EntityNotFoundException;
 
+import java.util.Optional;
 import java.util.UUID;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,8 +38,11 @@ class CollaborationServiceTest {
     @Test
     void updateElement() {
         CollaborationCreateDto collabCreateDto = TestData.getCollaborationCreateDto();
-        collabServiceMock.updateElement(UUID.randomUUID(), collabCreateDto);
-        Mockito.verify(collabRepositoryMock).update(Mockito.any());
+        UUID id = UUID.randomUUID();
+        Mockito.when(collabRepositoryMock.updateIfVersion(Mockito.eq(id), Mockito.isNull(), Mockito.any())).thenReturn(true);
+        Mockito.when(collabRepositoryMock.findDtoById(id)).thenReturn(Optional.of(CollaborationResponseDto.builder().build()));
+        collabServiceMock.updateElement(id, collabCreateDto);
+        Mockito.verify(collabRepositoryMock).updateIfVersion(Mockito.eq(id), Mockito.isNull(), Mockito.any());
     }
 
     @Test
@@ -51,7 +56,7 @@ class CollaborationServiceTest {
     void findAllElements() {
         try {
             collabServiceMock.findAllElements(1);
-            Mockito.verify(collabRepositoryMock).findAll(1);
+            Mockito.verify(collabRepositoryMock).findAllDtos(1);
         } catch (EntityNotFoundException ignored) {}
     }
 
@@ -59,7 +64,7 @@ class CollaborationServiceTest {
     void findElementById() {
         try {
             collabServiceMock.findElementById(UUID.randomUUID());
-            Mockito.verify(collabRepositoryMock).findById(Mockito.any());
+            Mockito.verify(collabRepositoryMock).findDtoById(Mockito.any());
         } catch (EntityNotFoundException ignored) {}
     }
 
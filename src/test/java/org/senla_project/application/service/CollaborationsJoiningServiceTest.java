@@ -5,19 +5,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
-import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.senla_project.application.dto.CollaborationResponseDto;
 import org.senla_project.application.dto.CollaborationsJoiningCreateDto;
-import org.senla_project.application.dto.UserResponseDto;
+import org.senla_project.application.dto.CollaborationsJoiningResponseDto;
 import org.senla_project.application.entity.CollaborationsJoining;
-import org.senla_project.application.mapper.CollaborationMapper;
 import org.senla_project.application.mapper.CollaborationsJoiningMapper;
-import org.senla_project.application.mapper.UserMapper;
 import org.senla_project.application.repository.CollaborationsJoiningRepository;
 import org.senla_project.application.util.TestData;
 import org.senla_project.application.util.exception.EntityNotFoundException;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,14 +25,10 @@ class CollaborationsJoiningServiceTest {
     CollaborationsJoiningRepository collabJoinRepositoryMock;
     @Mock
     CollaborationsJoiningMapper collabJoinMapperMock;
-    @Spy
-    UserMapper userMapperSpy;
     @Mock
-    UserService userServiceMock;
-    @Spy
-    CollaborationMapper collabMapperSpy;
+    ReferenceService referenceServiceMock;
     @Mock
-    CollaborationService collabServiceMock;
+    CounterService counterServiceMock;
     @InjectMocks
     CollaborationsJoiningService collabJoinServiceMock;
 
@@ -42,10 +36,29 @@ class CollaborationsJoiningServiceTest {
     void addElement() {
         CollaborationsJoiningCreateDto collabJoinCreateDto = TestData.getCollabJoiningCreateDto();
         Mockito.when(collabJoinMapperMock.toCollabJoin(collabJoinCreateDto)).thenReturn(TestData.getCollabJoining());
-        Mockito.when(userMapperSpy.toUser((UserResponseDto) Mockito.any())).thenReturn(TestData.getAuthenticatedUser());
-        Mockito.when(collabMapperSpy.toCollab((CollaborationResponseDto) Mockito.any())).thenReturn(TestData.getCollaboration());
+        Mockito.when(referenceServiceMock.findUserReference(Mockito.any())).thenReturn(TestData.getAuthenticatedUser());
+        Mockito.when(referenceServiceMock.findCollabReference(Mockito.any())).thenReturn(TestData.getCollaboration());
+        Mockito.when(collabJoinRepositoryMock.upsertAll(Mockito.any())).thenAnswer(invocation -> List.copyOf(invocation.getArgument(0)));
         collabJoinServiceMock.addElement(collabJoinCreateDto);
-        Mockito.verify(collabJoinRepositoryMock).create(Mockito.any());
+        Mockito.verify(collabJoinRepositoryMock).upsertAll(Mockito.any());
+        Mockito.verify(collabJoinRepositoryMock, Mockito.never()).findCollabJoin(Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void addElement_whenJoinExists_thenReturnExistingJoin() {
+        CollaborationsJoiningCreateDto collabJoinCreateDto = TestData.getCollabJoiningCreateDto();
+        CollaborationsJoining existingCollabJoin = TestData.getCollabJoining();
+        Mockito.when(collabJoinMapperMock.toCollabJoin(collabJoinCreateDto)).thenReturn(TestData.getCollabJoining());
+        Mockito.when(referenceServiceMock.findUserReference(Mockito.any())).thenReturn(TestData.getAuthenticatedUser());
+        Mockito.when(referenceServiceMock.findCollabReference(Mockito.any())).thenReturn(TestData.getCollaboration());
+        Mockito.when(collabJoinRepositoryMock.upsertAll(Mockito.any())).thenReturn(List.of());
+        Mockito.when(collabJoinRepositoryMock.findCollabJoin(collabJoinCreateDto.getUserName(), collabJoinCreateDto.getCollabName()))
+                .thenReturn(Optional.of(existingCollabJoin));
+        Mockito.when(collabJoinMapperMock.toCollabJoinResponseDto(existingCollabJoin))
+                .thenReturn(CollaborationsJoiningResponseDto.builder().build());
+        collabJoinServiceMock.addElement(collabJoinCreateDto);
+        Mockito.verify(collabJoinMapperMock).toCollabJoinResponseDto(existingCollabJoin);
+        Mockito.verify(counterServiceMock).countMembers(List.of(), List.of());
     }
 
     @Test
@@ -53,8 +66,8 @@ class CollaborationsJoiningServiceTest {
         CollaborationsJoiningCreateDto collabJoinCreateDto = TestData.getCollabJoiningCreateDto();
         UUID id = UUID.randomUUID();
         Mockito.when(collabJoinMapperMock.toCollabJoin(id, collabJoinCreateDto)).thenReturn(TestData.getCollabJoining());
-        Mockito.when(userMapperSpy.toUser((UserResponseDto) Mockito.any())).thenReturn(TestData.getAuthenticatedUser());
-        Mockito.when(collabMapperSpy.toCollab((CollaborationResponseDto) Mockito.any())).thenReturn(TestData.getCollaboration());
+        Mockito.when(referenceServiceMock.findUserReference(Mockito.any())).thenReturn(TestData.getAuthenticatedUser());
+        Mockito.when(referenceServiceMock.findCollabReference(Mockito.any())).thenReturn(TestData.getCollaboration());
         collabJoinServiceMock.updateElement(id, collabJoinCreateDto);
         Mockito.verify(collabJoinRepositoryMock).update(Mockito.any());
     }
@@ -70,7 +83,7 @@ class CollaborationsJoiningServiceTest {
     void findAllElements() {
         try {
             collabJoinServiceMock.findAllElements(1);
-            Mockito.verify(collabJoinRepositoryMock).findAll(1);
+            Mockito.verify(collabJoinRepositoryMock).findAllDtos(1);
         } catch (EntityNotFoundException ignored) {}
     }
 
@@ -78,7 +91,7 @@ class CollaborationsJoiningServiceTest {
     void findElementById() {
         try {
             collabJoinServiceMock.findElementById(UUID.randomUUID());
-            Mockito.verify(collabJoinRepositoryMock).findById(Mockito.any());
+            Mockito.verify(collabJoinRepositoryMock).findDtoById(Mockito.any());
         } catch (EntityNotFoundException ignored) {}
     }
 
@@ -0,0 +1,55 @@
+package org.senla_project.application.service;
+
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.senla_project.application.dto.ConnectionPoolMetricsDto;
+import org.senla_project.application.util.datasource.PoolMetricsTrackerFactory;
+import org.senla_project.application.util.exception.EntityNotFoundException;
+
+import java.util.concurrent.TimeUnit;
+
+@ExtendWith(MockitoExtension.class)
+class ConnectionPoolServiceTest {
+
+    @Spy
+    PoolMetricsTrackerFactory poolMetricsTrackerFactory;
+    @InjectMocks
+    ConnectionPoolService connectionPoolService;
+
+    @Test
+    void findPoolMetrics_thenThrowNotFoundException() {
+        Assertions.assertThrows(EntityNotFoundException.class, () -> connectionPoolService.findPoolMetrics());
+    }
+
+    @Test
+    void findPoolMetrics_thenReturnPoolMetrics() {
+        var tracker = poolMetricsTrackerFactory.create("test-pool", new PoolStats(0) {
+            @Override
+            protected void update() {
+                activeConnections = 2;
+                idleConnections = 3;
+                totalConnections = 5;
+                maxConnections = 10;
+            }
+        });
+        tracker.recordConnectionAcquiredNanos(TimeUnit.MICROSECONDS.toNanos(200));
+        tracker.recordConnectionAcquiredNanos(TimeUnit.MILLISECONDS.toNanos(2));
+        tracker.recordConnectionTimeout();
+
+        ConnectionPoolMetricsDto metrics = connectionPoolService.findPoolMetrics().getFirst();
+        Assertions.assertEquals("test-pool", metrics.getPoolName());
+        Assertions.assertEquals(2, metrics.getActiveConnections());
+        Assertions.assertEquals(3, metrics.getIdleConnections());
+        Assertions.assertEquals(1, metrics.getTimeouts());
+        Assertions.assertEquals(2, metrics.getAcquireCount());
+        Assertions.assertEquals(2000, metrics.getAcquireMaxMicros());
+        Assertions.assertEquals(1, metrics.getAcquireTimeHistogram().get("le_250us"));
+        Assertions.assertEquals(2, metrics.getAcquireTimeHistogram().get("le_inf"));
+    }
+
+}
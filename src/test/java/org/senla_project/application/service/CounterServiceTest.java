@@ -0,0 +1,71 @@
+package org.senla_project.application.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.senla_project.application.entity.Answer;
+import org.senla_project.application.entity.Question;
+import org.senla_project.application.entity.User;
+import org.senla_project.application.repository.CollaborationRepository;
+import org.senla_project.application.repository.QuestionRepository;
+import org.senla_project.application.repository.UserRepository;
+import org.senla_project.application.util.TestData;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@ExtendWith(MockitoExtension.class)
+class CounterServiceTest {
+
+    @Mock
+    QuestionRepository questionRepositoryMock;
+    @Mock
+    UserRepository userRepositoryMock;
+    @Mock
+    CollaborationRepository collaborationRepositoryMock;
+    @InjectMocks
+    CounterService counterServiceMock;
+
+    @Test
+    void countAnswers_thenAddOnePerAnswer() {
+        Question question = TestData.getQuestion();
+        question.setQuestionId(UUID.randomUUID());
+        User author = TestData.getAuthenticatedUser();
+        author.setUserId(UUID.randomUUID());
+
+        counterServiceMock.countAnswers(List.of(), List.of(makeAnswer(question, author), makeAnswer(question, author)));
+
+        Mockito.verify(questionRepositoryMock).addToAnswerCounts(Map.of(question.getQuestionId(), 2));
+        Mockito.verify(userRepositoryMock).addToAnswerCounts(Map.of(author.getUserId(), 2));
+    }
+
+    @Test
+    void countAnswers_whenAnswerMoved_thenMoveCount() {
+        Question oldQuestion = TestData.getQuestion();
+        oldQuestion.setQuestionId(UUID.randomUUID());
+        Question newQuestion = TestData.getQuestion();
+        newQuestion.setQuestionId(UUID.randomUUID());
+        User author = TestData.getAuthenticatedUser();
+        author.setUserId(UUID.randomUUID());
+
+        counterServiceMock.countAnswers(List.of(makeAnswer(oldQuestion, author)), List.of(makeAnswer(newQuestion, author)));
+
+        Mockito.verify(questionRepositoryMock).addToAnswerCounts(Map.of(
+                oldQuestion.getQuestionId(), -1,
+                newQuestion.getQuestionId(), 1
+        ));
+        Mockito.verify(userRepositoryMock).addToAnswerCounts(Map.of());
+    }
+
+    private Answer makeAnswer(Question question, User author) {
+        Answer answer = TestData.getAnswer();
+        answer.setQuestion(question);
+        answer.setAuthor(author);
+        return answer;
+    }
+
+}
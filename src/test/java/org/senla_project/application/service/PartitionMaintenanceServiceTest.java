@@ -0,0 +1,64 @@
+package org.senla_project.application.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.senla_project.application.repository.AnswerRepository;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+
+@ExtendWith(MockitoExtension.class)
+class PartitionMaintenanceServiceTest {
+
+    @Mock
+    AnswerRepository answerRepositoryMock;
+    @InjectMocks
+    PartitionMaintenanceService partitionMaintenanceService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(partitionMaintenanceService, "monthsAhead", 3);
+    }
+
+    @Test
+    void maintainPartitions_thenCreateCurrentAndFutureMonths() {
+        partitionMaintenanceService.maintainPartitions();
+        Mockito.verify(answerRepositoryMock).createPartitions(LocalDate.now().withDayOfMonth(1), 4);
+        Mockito.verify(answerRepositoryMock, Mockito.never()).dropPartitionsBefore(Mockito.any());
+    }
+
+    @Test
+    void maintainPartitions_whenRetentionIsSet_thenDropOlderMonths() {
+        ReflectionTestUtils.setField(partitionMaintenanceService, "retentionMonths", 24);
+        partitionMaintenanceService.maintainPartitions();
+        Mockito.verify(answerRepositoryMock).dropPartitionsBefore(LocalDate.now().withDayOfMonth(1).minusMonths(24));
+    }
+
+    @Test
+    void afterPropertiesSet_whenRetentionIsBelowArchivalAge_thenThrowIllegalStateException() {
+        ReflectionTestUtils.setField(partitionMaintenanceService, "retentionMonths", 12);
+        ReflectionTestUtils.setField(partitionMaintenanceService, "archivalAgeMonths", 24);
+        Assertions.assertThrows(IllegalStateException.class, () -> partitionMaintenanceService.afterPropertiesSet());
+    }
+
+    @Test
+    void afterPropertiesSet_whenRetentionIsOffOrCoversArchivalAge_thenAccept() {
+        ReflectionTestUtils.setField(partitionMaintenanceService, "archivalAgeMonths", 24);
+        Assertions.assertDoesNotThrow(() -> partitionMaintenanceService.afterPropertiesSet());
+        ReflectionTestUtils.setField(partitionMaintenanceService, "retentionMonths", 24);
+        Assertions.assertDoesNotThrow(() -> partitionMaintenanceService.afterPropertiesSet());
+    }
+
+    @Test
+    void createPartitions_thenCoverEveryMonthFromFirstToLastDate() {
+        partitionMaintenanceService.createPartitions(LocalDate.of(2008, 7, 31), LocalDate.of(2010, 1, 2));
+        Mockito.verify(answerRepositoryMock).createPartitions(LocalDate.of(2008, 7, 1), 19);
+    }
+
+}
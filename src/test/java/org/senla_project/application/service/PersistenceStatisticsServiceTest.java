@@ -0,0 +1,90 @@
+package org.senla_project.application.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.senla_project.application.dto.EntityStatisticsDto;
+import org.senla_project.application.dto.QueryStatisticsDto;
+import org.senla_project.application.util.datasource.SlowQueryLog;
+
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+class PersistenceStatisticsServiceTest {
+
+    @Mock
+    SessionFactory sessionFactory;
+    @Mock
+    Statistics statistics;
+    SlowQueryLog slowQueryLog = new SlowQueryLog(0, 10);
+    PersistenceStatisticsService persistenceStatisticsService;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.lenient().when(sessionFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        Mockito.lenient().when(sessionFactory.getStatistics()).thenReturn(statistics);
+        persistenceStatisticsService = new PersistenceStatisticsService(sessionFactory, slowQueryLog);
+    }
+
+    @Test
+    void findEntityStatistics_thenReturnEntityCounters() {
+        EntityStatistics answerStatistics = Mockito.mock(EntityStatistics.class);
+        Mockito.when(answerStatistics.getLoadCount()).thenReturn(5L);
+        Mockito.when(answerStatistics.getCacheHitCount()).thenReturn(2L);
+        Mockito.when(statistics.getEntityNames()).thenReturn(new String[]{"Answer"});
+        Mockito.when(statistics.getEntityStatistics("Answer")).thenReturn(answerStatistics);
+
+        EntityStatisticsDto answer = persistenceStatisticsService.findEntityStatistics().getFirst();
+        Assertions.assertEquals("Answer", answer.getEntityName());
+        Assertions.assertEquals(5L, answer.getLoadCount());
+        Assertions.assertEquals(2L, answer.getCacheHitCount());
+    }
+
+    @Test
+    void findQueryStatistics_thenReturnSlowestFirst() {
+        QueryStatistics fastQuery = Mockito.mock(QueryStatistics.class);
+        QueryStatistics slowQuery = Mockito.mock(QueryStatistics.class);
+        Mockito.when(fastQuery.getExecutionMaxTime()).thenReturn(3L);
+        Mockito.when(slowQuery.getExecutionMaxTime()).thenReturn(40L);
+        Mockito.when(slowQuery.getExecutionCount()).thenReturn(7L);
+        Mockito.when(statistics.getQueries()).thenReturn(new String[]{"fast", "slow"});
+        Mockito.when(statistics.getQueryStatistics("fast")).thenReturn(fastQuery);
+        Mockito.when(statistics.getQueryStatistics("slow")).thenReturn(slowQuery);
+
+        var queries = persistenceStatisticsService.findQueryStatistics();
+        Assertions.assertEquals(
+                List.of("slow", "fast"),
+                queries.stream().map(QueryStatisticsDto::getQuery).toList()
+        );
+        Assertions.assertEquals(7L, queries.getFirst().getExecutionCount());
+    }
+
+    @Test
+    void findSlowQueries_thenReturnRecordedQueries() {
+        slowQueryLog.record("SELECT 1", 0, 1, 12);
+
+        var slowQueries = persistenceStatisticsService.findSlowQueries();
+        Assertions.assertEquals(1, slowQueries.size());
+        Assertions.assertEquals("SELECT 1", slowQueries.getFirst().getSql());
+        Assertions.assertEquals(12, slowQueries.getFirst().getElapsedMs());
+    }
+
+    @Test
+    void clearStatistics_thenClearHibernateStatisticsAndSlowQueries() {
+        slowQueryLog.record("SELECT 1", 0, 1, 12);
+
+        persistenceStatisticsService.clearStatistics();
+
+        Mockito.verify(statistics).clear();
+        Assertions.assertTrue(persistenceStatisticsService.findSlowQueries().isEmpty());
+    }
+
+}
@@ -5,17 +5,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
-import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.senla_project.application.dto.ProfileCreateDto;
-import org.senla_project.application.dto.UserResponseDto;
+import org.senla_project.application.dto.ProfileResponseDto;
 import org.senla_project.application.entity.Profile;
 import org.senla_project.application.mapper.ProfileMapper;
-import org.senla_project.application.mapper.UserMapper;
 import org.senla_project.application.repository.ProfileRepository;
 import org.senla_project.application.util.TestData;
 import org.senla_project.application.util.exception.EntityNotFoundException;
 
+import java.util.Optional;
 import java.util.UUID;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,10 +24,8 @@ class ProfileServiceTest {
     ProfileRepository profileRepositoryMock;
     @Mock
     ProfileMapper profileMapper;
-    @Spy
-    UserMapper userMapper;
     @Mock
-    UserService userService;
+    ReferenceService referenceServiceMock;
     @InjectMocks
     ProfileService profileServiceMock;
 
@@ -36,7 +33,7 @@ class ProfileServiceTest {
     void addElement() {
         ProfileCreateDto profileCreateDto = TestData.getProfileCreateDto();
         Mockito.when(profileMapper.toProfile(profileCreateDto)).thenReturn(TestData.getProfile());
-        Mockito.when(userMapper.toUser((UserResponseDto) Mockito.any())).thenReturn(TestData.getAuthenticatedUser());
+        Mockito.when(referenceServiceMock.findUserReference(Mockito.any())).thenReturn(TestData.getAuthenticatedUser());
         profileServiceMock.addElement(profileCreateDto);
         Mockito.verify(profileRepositoryMock).create(Mockito.any());
     }
@@ -46,9 +43,11 @@ class ProfileServiceTest {
         ProfileCreateDto profileCreateDto = TestData.getProfileCreateDto();
         UUID id = UUID.randomUUID();
         Mockito.when(profileMapper.toProfile(id, profileCreateDto)).thenReturn(TestData.getProfile());
-        Mockito.when(userMapper.toUser((UserResponseDto) Mockito.any())).thenReturn(TestData.getAuthenticatedUser());
+        Mockito.when(referenceServiceMock.findUserReference(Mockito.any())).thenReturn(TestData.getAuthenticatedUser());
+        Mockito.when(profileRepositoryMock.updateIfVersion(Mockito.eq(id), Mockito.isNull(), Mockito.any())).thenReturn(true);
+        Mockito.when(profileRepositoryMock.findDtoById(id)).thenReturn(Optional.of(ProfileResponseDto.builder().build()));
         profileServiceMock.updateElement(id, profileCreateDto);
-        Mockito.verify(profileRepositoryMock).update(Mockito.any());
+        Mockito.verify(profileRepositoryMock).updateIfVersion(Mockito.eq(id), Mockito.isNull(), Mockito.any());
     }
 
     @Test
@@ -62,7 +61,7 @@ class ProfileServiceTest {
     void findAllElements() {
         try {
             profileServiceMock.findAllElements(1);
-            Mockito.verify(profileRepositoryMock).findAll(1);
+            Mockito.verify(profileRepositoryMock).findAllDtos(1);
         } catch (EntityNotFoundException ignored) {}
     }
 
@@ -70,7 +69,7 @@ class ProfileServiceTest {
     void findElementById() {
         try {
             profileServiceMock.findElementById(UUID.randomUUID());
-            Mockito.verify(profileRepositoryMock).findById(Mockito.any());
+            Mockito.verify(profileRepositoryMock).findDtoById(Mockito.any());
         } catch (EntityNotFoundException ignored) {}
     }
 
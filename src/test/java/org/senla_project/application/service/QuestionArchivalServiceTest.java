@@ -0,0 +1,50 @@
+package org.senla_project.application.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@ExtendWith(MockitoExtension.class)
+class QuestionArchivalServiceTest {
+
+    @Mock
+    QuestionService questionServiceMock;
+    @InjectMocks
+    QuestionArchivalService questionArchivalService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(questionArchivalService, "ageMonths", 24);
+        ReflectionTestUtils.setField(questionArchivalService, "batchSize", 2);
+    }
+
+    @Test
+    void archiveQuestions_thenArchiveBatchesUntilOneIsNotFull() {
+        LocalDate createdBefore = LocalDate.now().minusMonths(24);
+        Mockito.when(questionServiceMock.archiveElements(createdBefore, 2))
+                .thenReturn(Map.of("answers", 5, "questions", 2))
+                .thenReturn(Map.of("answers", 0, "questions", 1));
+
+        questionArchivalService.archiveQuestions();
+
+        Mockito.verify(questionServiceMock, Mockito.times(2)).archiveElements(createdBefore, 2);
+    }
+
+    @Test
+    void archiveQuestions_whenDisabled_thenArchiveNothing() {
+        ReflectionTestUtils.setField(questionArchivalService, "ageMonths", 0);
+
+        questionArchivalService.archiveQuestions();
+
+        Mockito.verifyNoInteractions(questionServiceMock);
+    }
+
+}
@@ -1,5 +1,8 @@
 package org.senla_project.application.service;
 
+import jakarta.persistence.OptimisticLockException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -7,15 +10,23 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.senla_project.application.dto.BatchLookupDto;
 import org.senla_project.application.dto.QuestionCreateDto;
-import org.senla_project.application.dto.UserResponseDto;
+import org.senla_project.application.dto.QuestionResponseDto;
 import org.senla_project.application.entity.Question;
+import org.senla_project.application.entity.Question_;
 import org.senla_project.application.mapper.QuestionMapper;
-import org.senla_project.application.mapper.UserMapper;
 import org.senla_project.application.repository.QuestionRepository;
+import org.senla_project.application.util.JsonParser;
 import org.senla_project.application.util.TestData;
 import org.senla_project.application.util.exception.EntityNotFoundException;
+import org.senla_project.application.util.exception.InvalidRequestParametersException;
+import org.senla_project.application.util.http.MergePatch;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,10 +36,12 @@ class QuestionServiceTest {
     QuestionRepository questionRepositoryMock;
     @Mock
     QuestionMapper questionMapperMock;
-    @Spy
-    UserMapper userMapper;
     @Mock
-    UserService userService;
+    ReferenceService referenceServiceMock;
+    @Mock
+    CounterService counterServiceMock;
+    @Spy
+    JsonParser jsonParser = new JsonParser(new ObjectMapper());
     @InjectMocks
     QuestionService questionServiceMock;
 
@@ -36,7 +49,7 @@ class QuestionServiceTest {
     void addElement() {
         QuestionCreateDto questionCreateDto = TestData.getQuestionCreateDto();
         Mockito.when(questionMapperMock.toQuestion(questionCreateDto)).thenReturn(TestData.getQuestion());
-        Mockito.when(userMapper.toUser((UserResponseDto) Mockito.any())).thenReturn(TestData.getAuthenticatedUser());
+        Mockito.when(referenceServiceMock.findUserReference(Mockito.any())).thenReturn(TestData.getAuthenticatedUser());
         questionServiceMock.addElement(questionCreateDto);
         Mockito.verify(questionRepositoryMock).create(Mockito.any());
     }
@@ -46,9 +59,66 @@ class QuestionServiceTest {
         QuestionCreateDto questionCreateDto = TestData.getQuestionCreateDto();
         UUID id = UUID.randomUUID();
         Mockito.when(questionMapperMock.toQuestion(id, questionCreateDto)).thenReturn(TestData.getQuestion());
-        Mockito.when(userMapper.toUser((UserResponseDto) Mockito.any())).thenReturn(TestData.getAuthenticatedUser());
+        Mockito.when(referenceServiceMock.findUserReference(Mockito.any())).thenReturn(TestData.getAuthenticatedUser());
+        Mockito.when(questionRepositoryMock.updateIfVersion(Mockito.eq(id), Mockito.isNull(), Mockito.any())).thenReturn(true);
+        Mockito.when(questionRepositoryMock.findDtoById(id)).thenReturn(Optional.of(QuestionResponseDto.builder().build()));
         questionServiceMock.updateElement(id, questionCreateDto);
-        Mockito.verify(questionRepositoryMock).update(Mockito.any());
+        Mockito.verify(questionRepositoryMock).updateIfVersion(Mockito.eq(id), Mockito.isNull(), Mockito.any());
+        Mockito.verify(questionRepositoryMock, Mockito.never()).findById(Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void updateElement_whenVersionChanged_thenThrowOptimisticLockException() {
+        QuestionCreateDto questionCreateDto = TestData.getQuestionCreateDto();
+        UUID id = UUID.randomUUID();
+        Mockito.when(questionMapperMock.toQuestion(id, questionCreateDto)).thenReturn(TestData.getQuestion());
+        Mockito.when(referenceServiceMock.findUserReference(Mockito.any())).thenReturn(TestData.getAuthenticatedUser());
+        Mockito.when(questionRepositoryMock.updateIfVersion(Mockito.eq(id), Mockito.eq(3L), Mockito.any())).thenReturn(false);
+        Question storedQuestion = TestData.getQuestion();
+        storedQuestion.setVersion(4L);
+        Mockito.when(questionRepositoryMock.findById(id)).thenReturn(Optional.of(storedQuestion));
+        Assertions.assertThrows(OptimisticLockException.class, () -> questionServiceMock.updateElement(id, 3L, questionCreateDto));
+    }
+
+    @Test
+    void updateElement_whenQuestionDoesNotExist_thenThrowEntityNotFoundException() {
+        QuestionCreateDto questionCreateDto = TestData.getQuestionCreateDto();
+        UUID id = UUID.randomUUID();
+        Mockito.when(questionMapperMock.toQuestion(id, questionCreateDto)).thenReturn(TestData.getQuestion());
+        Mockito.when(referenceServiceMock.findUserReference(Mockito.any())).thenReturn(TestData.getAuthenticatedUser());
+        Mockito.when(questionRepositoryMock.updateIfVersion(Mockito.eq(id), Mockito.isNull(), Mockito.any())).thenReturn(false);
+        Mockito.when(questionRepositoryMock.findById(id)).thenReturn(Optional.empty());
+        Assertions.assertThrows(EntityNotFoundException.class, () -> questionServiceMock.updateElement(id, questionCreateDto));
+    }
+
+    @Test
+    void patchElement_thenUpdateOnlySuppliedAttributes() {
+        UUID id = UUID.randomUUID();
+        Mockito.when(questionMapperMock.toQuestion(Mockito.eq(id), Mockito.any())).thenReturn(TestData.getQuestion());
+        Mockito.when(questionRepositoryMock.patchIfVersion(Mockito.eq(id), Mockito.eq(2L), Mockito.any(), Mockito.eq(Set.of(Question_.HEADER))))
+                .thenReturn(true);
+        Mockito.when(questionRepositoryMock.findDtoById(id)).thenReturn(Optional.of(QuestionResponseDto.builder().build()));
+        questionServiceMock.patchElement(id, 2L, new MergePatch(Map.of("header", "Patched header")));
+        Mockito.verify(questionRepositoryMock).patchIfVersion(Mockito.eq(id), Mockito.eq(2L), Mockito.any(), Mockito.eq(Set.of(Question_.HEADER)));
+        Mockito.verifyNoInteractions(referenceServiceMock, counterServiceMock);
+    }
+
+    @Test
+    void patchElement_whenPatchIsEmptyAndVersionIsStale_thenThrowOptimisticLockException() {
+        UUID id = UUID.randomUUID();
+        Question question = TestData.getQuestion();
+        question.setVersion(4L);
+        Mockito.when(questionRepositoryMock.findById(id)).thenReturn(Optional.of(question));
+        Assertions.assertThrows(OptimisticLockException.class, () -> questionServiceMock.patchElement(id, 2L, new MergePatch(Map.of())));
+        Mockito.verify(questionRepositoryMock, Mockito.never()).patchIfVersion(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void patchElement_whenFieldIsNotPatchable_thenThrowInvalidRequestParametersException() {
+        UUID id = UUID.randomUUID();
+        Assertions.assertThrows(InvalidRequestParametersException.class,
+                () -> questionServiceMock.patchElement(id, null, new MergePatch(Map.of("questionId", id.toString()))));
+        Mockito.verifyNoInteractions(questionRepositoryMock);
     }
 
     @Test
@@ -62,7 +132,7 @@ class QuestionServiceTest {
     void findAllElements() {
         try {
             questionServiceMock.findAllElements(1);
-            Mockito.verify(questionRepositoryMock).findAll(1);
+            Mockito.verify(questionRepositoryMock).findAllDtos(1);
         } catch (EntityNotFoundException ignored) {}
     }
 
@@ -70,10 +140,34 @@ class QuestionServiceTest {
     void findElementById() {
         try {
             questionServiceMock.findElementById(UUID.randomUUID());
-            Mockito.verify(questionRepositoryMock).findById(Mockito.any());
+            Mockito.verify(questionRepositoryMock).findDtoById(Mockito.any());
         } catch (EntityNotFoundException ignored) {}
     }
 
+    @Test
+    void findElementById_whenArchived_thenReturnArchivedQuestion() {
+        UUID id = UUID.randomUUID();
+        QuestionResponseDto archived = QuestionResponseDto.builder().questionId(id.toString()).build();
+        Mockito.when(questionRepositoryMock.findDtoById(id)).thenReturn(Optional.empty());
+        Mockito.when(questionRepositoryMock.findArchivedDtoById(id)).thenReturn(Optional.of(archived));
+
+        Assertions.assertEquals(archived, questionServiceMock.findElementById(id));
+    }
+
+    @Test
+    void findElementsByIds_whenArchived_thenReturnArchivedQuestion() {
+        UUID archivedId = UUID.randomUUID();
+        UUID missingId = UUID.randomUUID();
+        QuestionResponseDto archived = QuestionResponseDto.builder().questionId(archivedId.toString()).build();
+        Mockito.when(questionRepositoryMock.findAllByIds(List.of(archivedId, missingId))).thenReturn(List.of());
+        Mockito.when(questionRepositoryMock.findArchivedDtosByIds(List.of(archivedId, missingId))).thenReturn(List.of(archived));
+
+        BatchLookupDto<QuestionResponseDto> lookup = questionServiceMock.findElementsByIds(List.of(archivedId, missingId));
+
+        Assertions.assertEquals(List.of(archived), lookup.getContent());
+        Assertions.assertEquals(List.of(missingId), lookup.getMissingIds());
+    }
+
     @Test
     void findQuestionByParams() {
         try {
@@ -0,0 +1,57 @@
+package org.senla_project.application.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.senla_project.application.entity.Question;
+import org.senla_project.application.entity.User;
+import org.senla_project.application.repository.CollaborationRepository;
+import org.senla_project.application.repository.QuestionRepository;
+import org.senla_project.application.repository.RoleRepository;
+import org.senla_project.application.repository.UserRepository;
+import org.senla_project.application.util.TestData;
+import org.senla_project.application.util.exception.EntityNotFoundException;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@ExtendWith(MockitoExtension.class)
+class ReferenceServiceTest {
+
+    @Mock
+    UserRepository userRepositoryMock;
+    @Mock
+    QuestionRepository questionRepositoryMock;
+    @Mock
+    CollaborationRepository collabRepositoryMock;
+    @Mock
+    RoleRepository roleRepositoryMock;
+    @InjectMocks
+    ReferenceService referenceServiceMock;
+
+    @Test
+    void findUserReference() {
+        User user = TestData.getAuthenticatedUser();
+        Mockito.when(userRepositoryMock.findUserByUsername(user.getUsername())).thenReturn(Optional.of(user));
+        Assertions.assertSame(user, referenceServiceMock.findUserReference(user.getUsername()));
+    }
+
+    @Test
+    void findUserReference_thenThrowNotFoundException() {
+        Mockito.when(userRepositoryMock.findUserByUsername(Mockito.any())).thenReturn(Optional.empty());
+        Assertions.assertThrows(EntityNotFoundException.class, () -> referenceServiceMock.findUserReference("unknown"));
+    }
+
+    @Test
+    void findQuestionReference() {
+        Question question = TestData.getQuestion();
+        UUID id = UUID.randomUUID();
+        Mockito.when(questionRepositoryMock.findById(id, null)).thenReturn(Optional.of(question));
+        Assertions.assertSame(question, referenceServiceMock.findQuestionReference(id));
+    }
+
+}
@@ -0,0 +1,212 @@
+package org.senla_project.application.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.senla_project.application.config.DataSourceConfigTest;
+import org.senla_project.application.config.HibernateConfigTest;
+import org.senla_project.application.dto.ImportPhaseReportDto;
+import org.senla_project.application.dto.ImportReportDto;
+import org.senla_project.application.entity.User;
+import org.senla_project.application.repository.QuestionRepository;
+import org.senla_project.application.repository.UserRepository;
+import org.senla_project.application.repository.impl.AnswerRepositoryImpl;
+import org.senla_project.application.repository.impl.CollaborationRepositoryImpl;
+import org.senla_project.application.repository.impl.QuestionRepositoryImpl;
+import org.senla_project.application.repository.impl.UserRepositoryImpl;
+import org.senla_project.application.util.SpringParameterResolver;
+import org.senla_project.application.util.enums.ImportStatusEnum;
+import org.senla_project.application.util.exception.EntityNotFoundException;
+import org.senla_project.application.util.exception.InvalidRequestParametersException;
+import org.senla_project.application.util.importer.BulkLoader;
+import org.senla_project.application.util.importer.StackExchangeIds;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+@SpringJUnitWebConfig({
+        DataSourceConfigTest.class,
+        HibernateConfigTest.class,
+        AnswerRepositoryImpl.class,
+        QuestionRepositoryImpl.class,
+        UserRepositoryImpl.class,
+        CollaborationRepositoryImpl.class,
+        CounterService.class,
+        PartitionMaintenanceService.class,
+        BulkLoader.class,
+        StackExchangeImportService.class
+})
+@ExtendWith(SpringParameterResolver.class)
+@RequiredArgsConstructor
+class StackExchangeImportServiceTest {
+
+    final StackExchangeImportService importService;
+    final QuestionRepository questionRepository;
+    final UserRepository userRepository;
+    final DataSource dataSource;
+    final PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path dumpDirectory;
+
+    @BeforeEach
+    void writeDump() throws Exception {
+        ReflectionTestUtils.setField(importService, "dumpDirectory", dumpDirectory.toString());
+        Path dump = Files.createDirectory(dumpDirectory.resolve("forum"));
+        Files.writeString(dump.resolve("Users.xml"), """
+                <?xml version="1.0" encoding="utf-8"?>
+                <users>
+                  <row Id="-1" Reputation="1" CreationDate="2008-07-31T00:00:00.000" DisplayName="Community" />
+                  <row Id="1" Reputation="100" CreationDate="2008-07-31T14:22:31.287" DisplayName="Jeff" AboutMe="&lt;p&gt;Hi&lt;/p&gt;" />
+                  <row Id="2" Reputation="50" CreationDate="2008-08-01T10:00:00.000" DisplayName="Jeff" />
+                </users>
+                """);
+        Files.writeString(dump.resolve("Posts.xml"), """
+                <?xml version="1.0" encoding="utf-8"?>
+                <posts>
+                  <row Id="4" PostTypeId="1" CreationDate="2008-07-31T21:42:52.667" Score="7" Body="&lt;p&gt;How do I &quot;quote&quot;?&lt;/p&gt;" OwnerUserId="1" Title="Quoting" />
+                  <row Id="5" PostTypeId="2" ParentId="4" CreationDate="2008-08-01T12:00:00.000" Score="3" Body="Like this" OwnerUserId="2" />
+                  <row Id="6" PostTypeId="2" ParentId="4" CreationDate="2008-08-01T13:00:00.000" Score="1" Body="Or this" OwnerUserId="-1" />
+                  <row Id="7" PostTypeId="1" CreationDate="2008-08-02T09:00:00.000" Score="0" Body="Second" OwnerUserId="2" Title="Second" />
+                  <row Id="8" PostTypeId="2" ParentId="99" CreationDate="2008-08-03T09:00:00.000" Score="0" Body="Orphan" OwnerUserId="1" />
+                  <row Id="9" PostTypeId="5" CreationDate="2008-08-03T10:00:00.000" Body="Tag wiki" />
+                </posts>
+                """);
+    }
+
+    @AfterEach
+    void deleteImportedRows() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            delete(connection, "answers", "answer_id", StackExchangeIds.Kind.ANSWER);
+            delete(connection, "questions", "question_id", StackExchangeIds.Kind.QUESTION);
+            delete(connection, "profiles", "profile_id", StackExchangeIds.Kind.PROFILE);
+            delete(connection, "users", "user_id", StackExchangeIds.Kind.USER);
+            connection.createStatement().executeUpdate("DELETE FROM import_checkpoints");
+        }
+    }
+
+    @Test
+    void startImport_thenLoadRowsAndRecountCounters() throws Exception {
+        ImportReportDto report = runImport("forum-import", "forum");
+
+        Assertions.assertEquals(ImportStatusEnum.FINISHED, report.getStatus());
+        Assertions.assertEquals(List.of(2L, 2L, 2L), report.getPhases().stream().map(ImportPhaseReportDto::getLoadedRows).toList());
+        Assertions.assertEquals(6, report.getLoadedRows());
+        Assertions.assertEquals(4, report.getPhases().getLast().getSkippedRows());
+
+        UUID questionId = StackExchangeIds.of(StackExchangeIds.Kind.QUESTION, 4);
+        var question = inTransaction(() -> questionRepository.findDtoById(questionId).get());
+        Assertions.assertEquals("Quoting", question.getHeader());
+        Assertions.assertEquals("<p>How do I \"quote\"?</p>", question.getBody());
+        Assertions.assertEquals("Jeff_1", question.getAuthorName());
+        Assertions.assertEquals(2, question.getAnswerCount());
+
+        User secondUser = inTransaction(() -> userRepository.findById(StackExchangeIds.of(StackExchangeIds.Kind.USER, 2)).get());
+        Assertions.assertEquals("Jeff_2", secondUser.getUsername());
+        Assertions.assertEquals(1, secondUser.getQuestionCount());
+        Assertions.assertEquals(1, secondUser.getAnswerCount());
+    }
+
+    @Test
+    void startImport_whenRunAgain_thenResumeFromCheckpoints() throws Exception {
+        ImportReportDto firstReport = runImport("forum-import", "forum");
+        ImportReportDto secondReport = runImport("forum-import", "forum");
+
+        Assertions.assertEquals(0, secondReport.getLoadedRows());
+        for (int i = 0; i < firstReport.getPhases().size(); i++) {
+            Assertions.assertEquals(firstReport.getPhases().get(i).getLoadedChunks(), secondReport.getPhases().get(i).getResumedChunks());
+        }
+        Assertions.assertEquals(2, inTransaction(() ->
+                questionRepository.findDtoById(StackExchangeIds.of(StackExchangeIds.Kind.QUESTION, 4)).get().getAnswerCount()));
+    }
+
+    @Test
+    void startImport_whenResumedWithOtherChunkSize_thenThrowInvalidRequestParametersException() throws Exception {
+        runImport("forum-import", "forum");
+        ReflectionTestUtils.setField(importService, "chunkSize", 3);
+        try {
+            Assertions.assertThrows(InvalidRequestParametersException.class, () -> importService.startImport("forum-import", "forum"));
+        } finally {
+            ReflectionTestUtils.setField(importService, "chunkSize", 2);
+        }
+    }
+
+    @Test
+    void startImport_whenDumpIsBroken_thenKeepFailedReport() throws Exception {
+        Files.writeString(dumpDirectory.resolve("forum").resolve("Posts.xml"), "<posts><row Id=\"4\"");
+
+        ImportReportDto report = runImport("forum-import", "forum");
+
+        Assertions.assertEquals(ImportStatusEnum.FAILED, report.getStatus());
+        Assertions.assertTrue(report.getError().contains("phase questions"), report.getError());
+    }
+
+    @Test
+    void findReport_whenNotStarted_thenThrowEntityNotFoundException() {
+        Assertions.assertThrows(EntityNotFoundException.class, () -> importService.findReport("unknown-import"));
+    }
+
+    @Test
+    void startImport_thenCreatePartitionsForAnswerMonthsBeforeLoadingAnswers() throws Exception {
+        PartitionMaintenanceService partitionMaintenanceServiceMock = Mockito.mock(PartitionMaintenanceService.class);
+        Object partitionMaintenanceService = ReflectionTestUtils.getField(importService, "partitionMaintenanceService");
+        ReflectionTestUtils.setField(importService, "partitionMaintenanceService", partitionMaintenanceServiceMock);
+        try {
+            runImport("forum-import", "forum");
+        } finally {
+            ReflectionTestUtils.setField(importService, "partitionMaintenanceService", partitionMaintenanceService);
+        }
+
+        Mockito.verify(partitionMaintenanceServiceMock).createPartitions(LocalDate.of(2008, 8, 1), LocalDate.of(2008, 8, 3));
+    }
+
+    @Test
+    void startImport_whenDumpOutsideDirectory_thenThrowInvalidRequestParametersException() {
+        Assertions.assertThrows(InvalidRequestParametersException.class, () -> importService.startImport("forum-import", "../forum"));
+    }
+
+    // Starts the import and waits until the runner has stored its report and let go of the import
+    private ImportReportDto runImport(String importName, String dumpName) throws InterruptedException {
+        importService.startImport(importName, dumpName);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        AtomicBoolean running = (AtomicBoolean) ReflectionTestUtils.getField(importService, "running");
+        while (running.get() && System.nanoTime() < deadline) Thread.sleep(10);
+        ImportReportDto report = importService.findReport(importName);
+        Assertions.assertNotEquals(ImportStatusEnum.RUNNING, report.getStatus(), "Import did not finish");
+        return report;
+    }
+
+    // The importer commits on its own connections, so the test cannot run in a rolled back transaction
+    private <T> T inTransaction(Supplier<T> action) {
+        return new TransactionTemplate(transactionManager).execute(status -> action.get());
+    }
+
+    private void delete(Connection connection, String table, String idColumn, StackExchangeIds.Kind kind) throws Exception {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "DELETE FROM " + table + " WHERE " + idColumn + " BETWEEN ? AND ?")) {
+            statement.setObject(1, StackExchangeIds.first(kind));
+            statement.setObject(2, StackExchangeIds.last(kind));
+            statement.executeUpdate();
+        }
+    }
+
+}
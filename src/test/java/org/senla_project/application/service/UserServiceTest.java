@@ -11,6 +11,7 @@ import org.senla_project.application.dto.UserCreateDto;
 import org.senla_project.application.entity.User;
 import org.senla_project.application.mapper.RoleMapperImpl;
 import org.senla_project.application.mapper.UserMapper;
+import org.senla_project.application.repository.CollaborationsJoiningRepository;
 import org.senla_project.application.repository.UserRepository;
 import org.senla_project.application.util.TestData;
 import org.senla_project.application.util.exception.EntityNotFoundException;
@@ -24,20 +25,22 @@ class UserServiceTest {
     @Mock
     UserRepository userRepositoryMock;
     @Mock
+    CollaborationsJoiningRepository collaborationsJoiningRepositoryMock;
+    @Mock
     UserMapper userMapperSpy;
     @Spy
     RoleMapperImpl roleMapper;
     @Spy
     PasswordEncoder passwordEncoder;
     @Mock
-    RoleService roleService;
+    ReferenceService referenceServiceMock;
     @InjectMocks
     UserService userServiceMock;
 
     @Test
     void addElement() {
         UserCreateDto userCreateDto = TestData.getUserCreateDto();
-        Mockito.when(roleService.findRoleByName(Mockito.any())).thenReturn(Mockito.any());
+        Mockito.when(referenceServiceMock.findRoleReference(Mockito.any())).thenReturn(Mockito.any());
         Mockito.when(userMapperSpy.toUser(userCreateDto)).thenReturn(TestData.getAuthenticatedUser());
         userServiceMock.addElement(userCreateDto);
         Mockito.verify(userRepositoryMock).create(Mockito.any());
@@ -56,6 +59,7 @@ class UserServiceTest {
     void deleteElement() {
         Mockito.doNothing().when(userRepositoryMock).deleteById(Mockito.any());
         userServiceMock.deleteElement(UUID.randomUUID());
+        Mockito.verify(collaborationsJoiningRepositoryMock).deleteAllByUserId(Mockito.any());
         Mockito.verify(userRepositoryMock).deleteById(Mockito.any());
     }
 
@@ -0,0 +1,78 @@
+package org.senla_project.application.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.UUID;
+
+@ExtendWith(MockitoExtension.class)
+class VoteServiceTest {
+
+    @Mock
+    CounterService counterServiceMock;
+    @InjectMocks
+    VoteService voteService;
+
+    @BeforeEach
+    void setMaxFailedFlushes() {
+        ReflectionTestUtils.setField(voteService, "maxFailedFlushes", 2);
+    }
+
+    @Test
+    void flushVotes_thenWriteNetDeltasOnce() {
+        UUID answerId = UUID.randomUUID();
+        UUID questionId = UUID.randomUUID();
+        voteService.voteForAnswer(answerId, true);
+        voteService.voteForAnswer(answerId, true);
+        voteService.voteForQuestion(questionId, false);
+
+        voteService.flushVotes();
+        voteService.flushVotes();
+
+        Mockito.verify(counterServiceMock).addVotes(Map.of(answerId, 2L), Map.of(questionId, -1L));
+        Mockito.verifyNoMoreInteractions(counterServiceMock);
+    }
+
+    @Test
+    void flushVotes_whenWriteFails_thenKeepVotesForNextFlush() {
+        UUID answerId = UUID.randomUUID();
+        voteService.voteForAnswer(answerId, true);
+        Mockito.doThrow(new IllegalStateException("Database is down"))
+                .doNothing()
+                .when(counterServiceMock).addVotes(Mockito.any(), Mockito.any());
+
+        voteService.flushVotes();
+        voteService.voteForAnswer(answerId, true);
+        voteService.flushVotes();
+
+        Mockito.verify(counterServiceMock).addVotes(Map.of(answerId, 2L), Map.of());
+    }
+
+    @Test
+    void flushVotes_whenWriteFailsMaxFailedFlushesTimes_thenDropVotes() {
+        UUID answerId = UUID.randomUUID();
+        UUID questionId = UUID.randomUUID();
+        voteService.voteForAnswer(answerId, true);
+        voteService.voteForQuestion(questionId, false);
+        Mockito.doThrow(new IllegalStateException("Database is down"))
+                .when(counterServiceMock).addVotes(Mockito.any(), Mockito.any());
+
+        voteService.flushVotes();
+        Assertions.assertEquals(0, voteService.getDroppedVotes());
+        voteService.voteForAnswer(answerId, true);
+        voteService.flushVotes();
+        voteService.flushVotes();
+
+        Assertions.assertEquals(3, voteService.getDroppedVotes());
+        Mockito.verify(counterServiceMock, Mockito.times(2)).addVotes(Mockito.any(), Mockito.any());
+    }
+
+}
@@ -0,0 +1,27 @@
+package org.senla_project.application.util;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Records the SQL Hibernate sends on the current thread, so tests can inspect the statements behind a finder
+public class SqlCaptureInspector implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> CAPTURED = ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public String inspect(String sql) {
+        CAPTURED.get().add(sql);
+        return sql;
+    }
+
+    public static List<String> capture(Runnable action) {
+        CAPTURED.get().clear();
+        action.run();
+        List<String> statements = List.copyOf(CAPTURED.get());
+        CAPTURED.get().clear();
+        return statements;
+    }
+
+}
@@ -0,0 +1,58 @@
+package org.senla_project.application.util.counter;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+class StripedCountersTest {
+
+    @Test
+    void drain_thenReturnDeltasAndStartOver() {
+        StripedCounters counters = new StripedCounters();
+        UUID id = UUID.randomUUID();
+        counters.add(id, 1);
+        counters.add(id, 1);
+        counters.add(id, -1);
+
+        Assertions.assertEquals(Map.of(id, 1L), counters.drain());
+        Assertions.assertTrue(counters.drain().isEmpty());
+    }
+
+    @Test
+    void drain_whenWritersRunConcurrently_thenCountEveryIncrementOnce() throws Exception {
+        StripedCounters counters = new StripedCounters();
+        List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID());
+        int writers = 4;
+        int incrementsPerWriter = 100_000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < writers; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < incrementsPerWriter; j++) counters.add(ids.get(j % ids.size()), 1);
+                }));
+            }
+            Map<UUID, Long> totals = new HashMap<>();
+            while (futures.stream().anyMatch(future -> !future.isDone())) {
+                counters.drain().forEach((id, delta) -> totals.merge(id, delta, Long::sum));
+            }
+            for (Future<?> future : futures) future.get();
+            counters.drain().forEach((id, delta) -> totals.merge(id, delta, Long::sum));
+
+            long expectedPerId = (long) writers * incrementsPerWriter / ids.size();
+            Assertions.assertEquals(Map.of(ids.get(0), expectedPerId, ids.get(1), expectedPerId), totals);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
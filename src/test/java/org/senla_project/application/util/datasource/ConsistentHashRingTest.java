@@ -0,0 +1,52 @@
+package org.senla_project.application.util.datasource;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.senla_project.application.util.id.UuidV7Generator;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+class ConsistentHashRingTest {
+
+    private static final int VIRTUAL_NODES = 128;
+    private static final List<UUID> IDS = IntStream.range(0, 10_000)
+            .mapToObj(i -> UuidV7Generator.generate())
+            .toList();
+
+    @Test
+    void shardFor_thenPlaceEveryIdOnTheSameShardEveryTime() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("shard-1", "shard-2", "shard-3"), VIRTUAL_NODES);
+        ConsistentHashRing sameRing = new ConsistentHashRing(List.of("shard-3", "shard-1", "shard-2"), VIRTUAL_NODES);
+
+        IDS.forEach(id -> Assertions.assertEquals(ring.shardFor(id), sameRing.shardFor(id)));
+    }
+
+    @Test
+    void shardFor_whenIdsAreTimeOrdered_thenSpreadThemOverAllShards() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("shard-1", "shard-2", "shard-3"), VIRTUAL_NODES);
+
+        Map<String, Integer> idsByShard = new HashMap<>();
+        IDS.forEach(id -> idsByShard.merge(ring.shardFor(id), 1, Integer::sum));
+
+        Assertions.assertEquals(3, idsByShard.size());
+        idsByShard.values().forEach(count -> Assertions.assertTrue(count > IDS.size() / 4, "Uneven shards " + idsByShard));
+    }
+
+    @Test
+    void shardFor_whenShardAdded_thenMoveOnlyIdsToTheNewShard() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("shard-1", "shard-2", "shard-3"), VIRTUAL_NODES);
+        ConsistentHashRing grownRing = new ConsistentHashRing(List.of("shard-1", "shard-2", "shard-3", "shard-4"), VIRTUAL_NODES);
+
+        long movedIds = IDS.stream()
+                .filter(id -> !ring.shardFor(id).equals(grownRing.shardFor(id)))
+                .peek(id -> Assertions.assertEquals("shard-4", grownRing.shardFor(id)))
+                .count();
+
+        Assertions.assertTrue(movedIds < IDS.size() / 3, movedIds + " of " + IDS.size() + " ids moved");
+    }
+
+}
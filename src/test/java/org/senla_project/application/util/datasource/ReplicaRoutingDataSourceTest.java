@@ -0,0 +1,80 @@
+package org.senla_project.application.util.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+class ReplicaRoutingDataSourceTest {
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() {
+        routingDataSource = new ReplicaRoutingDataSource(
+                makeDataSource("jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1"),
+                List.of(
+                        makeDataSource("jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1"),
+                        makeDataSource("jdbc:h2:mem:missing;IFEXISTS=TRUE")
+                ),
+                new ReadYourWritesTracker(60_000),
+                60_000,
+                1
+        );
+        routingDataSource.checkReplicas();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("user", null, List.of())
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void checkReplicas_thenKeepOnlyHealthyReplicas() {
+        Assertions.assertEquals(List.of("replica-1"), routingDataSource.getHealthyReplicaKeys());
+    }
+
+    @Test
+    void determineCurrentLookupKey_whenReadOnly_thenRouteToReplica() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        Assertions.assertEquals("replica-1", routingDataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    void determineCurrentLookupKey_whenReadWrite_thenRouteToPrimary() {
+        Assertions.assertEquals(ReplicaRoutingDataSource.PRIMARY_KEY, routingDataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    void determineCurrentLookupKey_whenUserRecentlyWrote_thenRouteReadsToPrimary() {
+        TransactionSynchronizationManager.initSynchronization();
+        routingDataSource.determineCurrentLookupKey();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        Assertions.assertEquals(ReplicaRoutingDataSource.PRIMARY_KEY, routingDataSource.determineCurrentLookupKey());
+    }
+
+    private DataSource makeDataSource(String url) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL(url);
+        return dataSource;
+    }
+
+}
@@ -0,0 +1,91 @@
+package org.senla_project.application.util.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+class SlowQueryLoggingDataSourceTest {
+
+    private SlowQueryLog slowQueryLog;
+    private SlowQueryLoggingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:slow-query;DB_CLOSE_DELAY=-1");
+        slowQueryLog = new SlowQueryLog(0, 2);
+        dataSource = new SlowQueryLoggingDataSource(h2, slowQueryLog);
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS items");
+            statement.execute("CREATE TABLE items (id INT PRIMARY KEY, name VARCHAR(32))");
+            statement.executeUpdate("INSERT INTO items VALUES (1, 'a'), (2, 'b'), (3, 'c')");
+        }
+        slowQueryLog.clear();
+    }
+
+    @Test
+    void executeQuery_thenRecordBindAndRowCounts() throws SQLException {
+        String sql = "SELECT id FROM items WHERE id > ? AND name <> ?";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, 1);
+            statement.setString(2, "z");
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    resultSet.getInt(1);
+                }
+            }
+        }
+
+        SlowQuery slowQuery = slowQueryLog.getEntries().getFirst();
+        Assertions.assertEquals(sql, slowQuery.getSql());
+        Assertions.assertEquals(2, slowQuery.getBindCount());
+        Assertions.assertEquals(2, slowQuery.getRowCount());
+    }
+
+    @Test
+    void executeUpdate_thenRecordUpdatedRows() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("UPDATE items SET name = ?")) {
+            statement.setString(1, "x");
+            statement.executeUpdate();
+        }
+
+        Assertions.assertEquals(3, slowQueryLog.getEntries().getFirst().getRowCount());
+    }
+
+    @Test
+    void record_whenCapacityExceeded_thenKeepNewestEntries() throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE items SET name = 'x' WHERE id = 1");
+            statement.executeUpdate("UPDATE items SET name = 'x' WHERE id = 2");
+            statement.executeUpdate("UPDATE items SET name = 'x' WHERE id = 3");
+        }
+
+        var entries = slowQueryLog.getEntries();
+        Assertions.assertEquals(2, entries.size());
+        Assertions.assertEquals("UPDATE items SET name = 'x' WHERE id = 3", entries.getFirst().getSql());
+    }
+
+    @Test
+    void record_whenBelowThreshold_thenSkip() throws SQLException {
+        SlowQueryLog strictLog = new SlowQueryLog(60_000, 10);
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:slow-query;DB_CLOSE_DELAY=-1");
+        try (Connection connection = new SlowQueryLoggingDataSource(h2, strictLog).getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeQuery("SELECT * FROM items").close();
+        }
+
+        Assertions.assertTrue(strictLog.getEntries().isEmpty());
+    }
+
+}
@@ -0,0 +1,30 @@
+package org.senla_project.application.util.id;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+class UuidV7GeneratorTest {
+
+    @Test
+    void generate_thenReturnVersion7Uuid() {
+        long before = System.currentTimeMillis();
+        UUID uuid = UuidV7Generator.generate();
+
+        Assertions.assertEquals(7, uuid.version());
+        Assertions.assertEquals(2, uuid.variant());
+        Assertions.assertTrue((uuid.getMostSignificantBits() >>> 16) >= before);
+    }
+
+    @Test
+    void generate_thenReturnIncreasingUuids() {
+        UUID previous = UuidV7Generator.generate();
+        for (int i = 0; i < 10_000; i++) {
+            UUID next = UuidV7Generator.generate();
+            Assertions.assertTrue(next.compareTo(previous) > 0);
+            previous = next;
+        }
+    }
+
+}
@@ -0,0 +1,72 @@
+package org.senla_project.application.util.migration;
+
+import liquibase.resource.DirectoryResourceAccessor;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+
+class SchemaVersionCheckTest {
+
+    // The changelogs are packaged into the war only, so they are read from the source tree
+    private static final Path LIQUIBASE_DIRECTORY = Path.of("src/main/liquibase");
+    private static final String SHARD_CHANGELOG = "shard-changelog-master.xml";
+
+    private JdbcDataSource dataSource;
+    private SchemaVersionCheck check;
+
+    @BeforeEach
+    void createDatabase() throws Exception {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        check = new SchemaVersionCheck(SHARD_CHANGELOG, new DirectoryResourceAccessor(LIQUIBASE_DIRECTORY));
+    }
+
+    @Test
+    void findMismatches_whenMigrated_thenFindNone() {
+        check.migrate(dataSource);
+
+        Assertions.assertEquals(List.of(), check.findMismatches(dataSource));
+    }
+
+    @Test
+    void findMismatches_whenNeverMigrated_thenReportEveryChangeSetAsNotApplied() {
+        List<String> mismatches = check.findMismatches(dataSource);
+
+        Assertions.assertFalse(mismatches.isEmpty());
+        mismatches.forEach(mismatch -> Assertions.assertTrue(mismatch.endsWith(" is not applied"), mismatch));
+    }
+
+    @Test
+    void findMismatches_whenChangeSetMissingOrEdited_thenReportIt() throws Exception {
+        check.migrate(dataSource);
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE databasechangelog SET md5sum = '9:00000000000000000000000000000000' WHERE orderexecuted = 1");
+            statement.executeUpdate("DELETE FROM databasechangelog WHERE orderexecuted = 2");
+        }
+
+        List<String> mismatches = check.findMismatches(dataSource);
+
+        Assertions.assertEquals(2, mismatches.size(), mismatches.toString());
+        Assertions.assertTrue(mismatches.get(0).contains(" was applied with checksum 9:00000000000000000000000000000000"));
+        Assertions.assertTrue(mismatches.get(1).endsWith(" is not applied"));
+    }
+
+    @Test
+    void findMismatches_whenDatabaseIsAhead_thenFindNone() throws Exception {
+        check.migrate(dataSource);
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.executeUpdate("INSERT INTO databasechangelog (id, author, filename, dateexecuted, orderexecuted, exectype) " +
+                    "VALUES ('newer-change', 'Rodion Vorobev', 'shard-v0.0.2', CURRENT_TIMESTAMP, 100, 'EXECUTED')");
+        }
+
+        Assertions.assertEquals(List.of(), check.findMismatches(dataSource));
+    }
+
+}
@@ -0,0 +1,53 @@
+package org.senla_project.application.util.partition;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+class MonthlyPartitionTest {
+
+    @Test
+    void of_thenNameAndRangeCoverTheWholeMonth() {
+        MonthlyPartition partition = MonthlyPartition.of("answers", LocalDate.of(2008, 7, 31));
+
+        Assertions.assertEquals("answers_p2008_07", partition.getName());
+        Assertions.assertEquals(LocalDate.of(2008, 7, 1), partition.getFrom());
+        Assertions.assertEquals(LocalDate.of(2008, 8, 1), partition.getTo());
+        Assertions.assertEquals("CREATE TABLE IF NOT EXISTS answers_p2008_07 PARTITION OF answers "
+                + "FOR VALUES FROM ('2008-07-01') TO ('2008-08-01')", partition.makeCreateStatement());
+    }
+
+    @Test
+    void range_thenCoverConsecutiveMonthsAcrossTheYearEnd() {
+        List<String> names = MonthlyPartition.range("answers", LocalDate.of(2024, 11, 15), 3).stream()
+                .map(MonthlyPartition::getName)
+                .toList();
+
+        Assertions.assertEquals(List.of("answers_p2024_11", "answers_p2024_12", "answers_p2025_01"), names);
+    }
+
+    @Test
+    void parse_whenMonthlyPartition_thenReturnIt() {
+        Assertions.assertEquals(Optional.of(MonthlyPartition.of("answers", LocalDate.of(2025, 1, 1))),
+                MonthlyPartition.parse("answers", "answers_p2025_01"));
+    }
+
+    @Test
+    void parse_whenNotMonthlyPartition_thenReturnEmpty() {
+        Assertions.assertEquals(Optional.empty(), MonthlyPartition.parse("answers", "answers_default"));
+        Assertions.assertEquals(Optional.empty(), MonthlyPartition.parse("answers", "answers_p2025_13"));
+        Assertions.assertEquals(Optional.empty(), MonthlyPartition.parse("answers", "questions_p2025_01"));
+    }
+
+    @Test
+    void isBefore_thenCompareWholeMonths() {
+        MonthlyPartition partition = MonthlyPartition.of("answers", LocalDate.of(2024, 12, 1));
+
+        Assertions.assertTrue(partition.isBefore(LocalDate.of(2025, 1, 20)));
+        Assertions.assertFalse(partition.isBefore(LocalDate.of(2024, 12, 31)));
+    }
+
+}